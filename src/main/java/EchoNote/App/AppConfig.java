@@ -3,31 +3,63 @@ package EchoNote.App;
 import EchoNote.Arpit.EmailNotifier;
 import EchoNote.Arpit.ExportService;
 import EchoNote.Arpit.SearchService;
+import EchoNote.Arpit.SemanticSearchService;
+import EchoNote.Jack.ActionItemIndex;
 import EchoNote.Jack.Workspace;
+import EchoNote.Jack.WorkspaceStore;
+import EchoNote.Mihail.ChunkedTranscriber;
 import EchoNote.Mihail.Summarizer;
 import EchoNote.Mihail.Transcriber;
+import EchoNote.Mihail.TranscriberProxy;
+import EchoNote.Mihail.TranscriptCacheStore;
+import EchoNote.Mihail.TranscriptionService;
+import EchoNote.Mihail.VoiceActivityDetector;
+
+import java.nio.file.Path;
 
 
 public class AppConfig {
 
+    private static final long TRANSCRIPT_CACHE_MAX_BYTES = 256L * 1024 * 1024;
+
+    private final WorkspaceStore workspaceStore;
     private final Workspace workspace;
     private final Transcriber transcriber;
+    private final TranscriptionService transcriptionService;
     private final Summarizer summarizer;
     private final ExportService exportService;
     private final SearchService searchService;
+    private final SemanticSearchService semanticSearchService;
+    private final ActionItemIndex actionItemIndex;
     private final EmailNotifier emailNotifier;
 
     public AppConfig() {
-        this.workspace = new Workspace();
+        this.workspaceStore = new WorkspaceStore(
+                Path.of(System.getProperty("echonote.dataDir", "data/workspace")));
+        this.workspace = new Workspace(workspaceStore);
 
         this.transcriber = new Transcriber();
+        this.transcriber.setVoiceActivityDetector(new VoiceActivityDetector());
+        this.transcriptionService = new TranscriberProxy(
+                new ChunkedTranscriber(transcriber),
+                true,
+                new TranscriptCacheStore(
+                        Path.of(System.getProperty("echonote.cacheDir", "cache/transcripts")),
+                        TRANSCRIPT_CACHE_MAX_BYTES));
         this.summarizer = new Summarizer();
 
         this.exportService = new ExportService();
-        this.searchService = new SearchService(workspace);
+        Path indexDirectory = Path.of(System.getProperty("echonote.indexDir", "data/index"));
+        this.searchService = new SearchService(workspace, indexDirectory);
+        this.semanticSearchService = new SemanticSearchService(workspace, indexDirectory);
+        this.actionItemIndex = new ActionItemIndex(workspace);
         this.emailNotifier = new EmailNotifier();
     }
 
+    public WorkspaceStore getWorkspaceStore() {
+        return workspaceStore;
+    }
+
     public Workspace getWorkspace() {
         return workspace;
     }
@@ -36,6 +68,10 @@ public class AppConfig {
         return transcriber;
     }
 
+    public TranscriptionService getTranscriptionService() {
+        return transcriptionService;
+    }
+
     public Summarizer getSummarizer() {
         return summarizer;
     }
@@ -48,6 +84,14 @@ public class AppConfig {
         return searchService;
     }
 
+    public SemanticSearchService getSemanticSearchService() {
+        return semanticSearchService;
+    }
+
+    public ActionItemIndex getActionItemIndex() {
+        return actionItemIndex;
+    }
+
     public EmailNotifier getEmailNotifier() {
         return emailNotifier;
     }
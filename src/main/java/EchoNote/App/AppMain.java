@@ -1,9 +1,34 @@
 package EchoNote.App;
 
+import EchoNote.Mihail.Recorder;
+import EchoNote.Mihail.RecordingRecoveryException;
+
+import java.nio.file.Path;
+
 public class AppMain {
 
     public static void main(String[] args) {
         AppConfig config = new AppConfig();
+        Runtime.getRuntime().addShutdownHook(new Thread(config.getSearchService()::close));
+        Runtime.getRuntime().addShutdownHook(new Thread(config.getSemanticSearchService()::close));
+        System.out.println("Loaded " + config.getWorkspace().size() + " meeting(s) in "
+                + config.getWorkspaceStore().getLastLoadDuration().toMillis() + " ms");
+
+        try {
+            for (Path recovered : new Recorder().recoverOrphanedRecordings()) {
+                System.out.println("Recovered interrupted recording: " + recovered);
+            }
+        } catch (RecordingRecoveryException e) {
+            for (Path recovered : e.getRecovered()) {
+                System.out.println("Recovered interrupted recording: " + recovered);
+            }
+            System.out.println(e.getMessage());
+            for (Throwable failure : e.getSuppressed()) {
+                System.out.println("  " + failure.getMessage() + ": " + failure.getCause());
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Recording recovery failed: " + e.getMessage());
+        }
 
         javax.swing.SwingUtilities.invokeLater(() -> {
             SwingUI ui = new SwingUI(config);
@@ -10,9 +10,10 @@ import EchoNote.Jack.RecordNotFoundException;
 import EchoNote.Jack.Summary;
 import EchoNote.Jack.Transcript;
 import EchoNote.Jack.Workspace;
+import EchoNote.Mihail.MeetingAnalysis;
 import EchoNote.Mihail.Recorder;
 import EchoNote.Mihail.Summarizer;
-import EchoNote.Mihail.Transcriber;
+import EchoNote.Mihail.TranscriptionService;
 
 import java.io.File;
 import java.nio.file.Path;
@@ -25,7 +26,7 @@ import java.util.UUID;
 public class ConsoleUI {
 
     private final Workspace workspace;
-    private final Transcriber transcriber;
+    private final TranscriptionService transcriptionService;
     private final Summarizer summarizer;
     private final ExportService exportService;
     private final SearchService searchService;
@@ -36,7 +37,7 @@ public class ConsoleUI {
 
     public ConsoleUI(AppConfig config) {
         this.workspace = config.getWorkspace();
-        this.transcriber = config.getTranscriber();
+        this.transcriptionService = config.getTranscriptionService();
         this.summarizer = config.getSummarizer();
         this.exportService = config.getExportService();
         this.searchService = config.getSearchService();
@@ -82,15 +83,12 @@ public class ConsoleUI {
             }
 
             System.out.println("Transcribing audio...");
-            Transcript transcript = transcriber.transcribeFile(wavFile.toPath());
+            Transcript transcript = transcriptionService.transcribe(wavFile.toPath());
 
-            System.out.println("Generating summary...");
-            Summary summary = summarizer.summarize(transcript);
+            System.out.println("Generating summary and action items...");
+            MeetingAnalysis analysis = summarizer.summarizeWithActions(transcript);
 
-            System.out.println("Extracting action items...");
-            List<ActionItem> actions = summarizer.extractActions(transcript);
-
-            MeetingRecord record = buildMeetingRecord(transcript, summary, actions);
+            MeetingRecord record = buildMeetingRecord(transcript, analysis.summary(), analysis.actions());
             workspace.save(record);
 
             System.out.println("Meeting saved with ID: " + record.getId());
@@ -2,51 +2,103 @@ package EchoNote.App;
 
 import EchoNote.Arpit.EmailNotifier;
 import EchoNote.Arpit.ExportService;
+import EchoNote.Arpit.Facet;
+import EchoNote.Arpit.FacetValue;
+import EchoNote.Arpit.FacetedSearchResult;
+import EchoNote.Arpit.SearchHit;
 import EchoNote.Arpit.SearchService;
+import EchoNote.Arpit.SearchSort;
+import EchoNote.Arpit.SemanticHit;
+import EchoNote.Arpit.SemanticSearchService;
+import EchoNote.Arpit.Snippet;
+import EchoNote.Arpit.Suggestion;
 import EchoNote.Jack.ActionItem;
+import EchoNote.Jack.ActionItemHit;
+import EchoNote.Jack.ActionItemIndex;
+import EchoNote.Jack.ActionStatus;
 import EchoNote.Jack.ExportResult;
 import EchoNote.Jack.MeetingRecord;
 import EchoNote.Jack.Summary;
 import EchoNote.Jack.Transcript;
 import EchoNote.Jack.Workspace;
+import EchoNote.Mihail.MeetingAnalysis;
 import EchoNote.Mihail.Recorder;
 import EchoNote.Mihail.Summarizer;
-import EchoNote.Mihail.Transcriber;
+import EchoNote.Mihail.TranscriptionService;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultHighlighter;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
 import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 public class SwingUI extends JFrame {
 
+    private static final int SEARCH_DEBOUNCE_MS = 250;
+    private static final int LIVE_SEARCH_LIMIT = 200;
+    private static final int PAGE_SIZE = 50;
+    private static final int SUGGESTION_LIMIT = 8;
+    private static final int FACET_VALUES_SHOWN = 5;
+
     private final Workspace workspace;
-    private final Transcriber transcriber;
+    private final TranscriptionService transcriptionService;
     private final Summarizer summarizer;
     private final ExportService exportService;
     private final SearchService searchService;
+    private final SemanticSearchService semanticSearchService;
+    private final ActionItemIndex actionItemIndex;
     private final EmailNotifier emailNotifier;
     private final Recorder recorder;
 
     private final DefaultListModel<MeetingRecord> meetingListModel = new DefaultListModel<>();
     private final JList<MeetingRecord> meetingList = new JList<>(meetingListModel);
+    private final DefaultListModel<FacetValue> facetListModel = new DefaultListModel<>();
+    private final JList<FacetValue> facetList = new JList<>(facetListModel);
+    // Drill-down filters picked from the facet list; a meeting must match one value of each facet.
+    private final Map<Facet, Set<String>> facetFilters = new EnumMap<>(Facet.class);
     private final JTextArea detailsArea = new JTextArea();
     private final JTextField searchField = new JTextField();
+    private final JCheckBox semanticToggle = new JCheckBox("By meaning");
+    private final JComboBox<SearchSort> sortBox = new JComboBox<>(SearchSort.values());
+    private final JButton moreButton = new JButton("More results");
+    // The query behind the listed page and the cursor to the page after it (null on the last one).
+    private String shownQuery = "";
+    private String nextCursor;
+    // Snippets around the matched words for each listed meeting, shown above its details.
+    private final Map<UUID, List<Snippet>> snippetsById = new HashMap<>();
+    private final JPopupMenu suggestionPopup = new JPopupMenu();
+    private final Timer searchDebounce = new Timer(SEARCH_DEBOUNCE_MS, e -> runLiveSearch());
+    // Only the newest live search may update the list; older ones finishing late are dropped.
+    private int liveSearchGeneration;
     private final JLabel statusLabel = new JLabel("Ready");
 
     public SwingUI(AppConfig config) {
         super("EchoNote Demo");
 
         this.workspace = config.getWorkspace();
-        this.transcriber = config.getTranscriber();
+        this.transcriptionService = config.getTranscriptionService();
         this.summarizer = config.getSummarizer();
         this.exportService = config.getExportService();
         this.searchService = config.getSearchService();
+        this.semanticSearchService = config.getSemanticSearchService();
+        this.actionItemIndex = config.getActionItemIndex();
         this.emailNotifier = config.getEmailNotifier();
         this.recorder = new Recorder();
 
@@ -67,8 +119,33 @@ public class SwingUI extends JFrame {
         searchPanel.add(new JLabel("Search:"), BorderLayout.WEST);
         searchPanel.add(searchField, BorderLayout.CENTER);
         JButton searchButton = new JButton("Go");
-        searchPanel.add(searchButton, BorderLayout.EAST);
+        JPanel searchOptions = new JPanel(new BorderLayout(4, 4));
+        searchOptions.add(semanticToggle, BorderLayout.WEST);
+        searchOptions.add(sortBox, BorderLayout.CENTER);
+        searchOptions.add(searchButton, BorderLayout.EAST);
+        searchPanel.add(searchOptions, BorderLayout.EAST);
         searchButton.addActionListener(e -> handleSearch());
+        semanticToggle.addActionListener(e -> handleSearch());
+        sortBox.addActionListener(e -> handleSearch());
+        moreButton.addActionListener(e -> loadMoreResults());
+        moreButton.setEnabled(false);
+        sortBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(
+                    JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                if (value instanceof SearchSort sort) {
+                    setText(switch (sort) {
+                        case SCORE -> "Best match";
+                        case DATE -> "Newest";
+                        case TITLE -> "Title";
+                    });
+                }
+                return this;
+            }
+        });
+        searchField.addActionListener(e -> handleSearch());
+        suggestionPopup.setFocusable(false);
 
         meetingList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         meetingList.setCellRenderer(new DefaultListCellRenderer() {
@@ -87,7 +164,28 @@ public class SwingUI extends JFrame {
 
         JScrollPane listScroll = new JScrollPane(meetingList);
         leftPanel.add(searchPanel, BorderLayout.NORTH);
-        leftPanel.add(listScroll, BorderLayout.CENTER);
+        JPanel listPanel = new JPanel(new BorderLayout(4, 4));
+        listPanel.add(listScroll, BorderLayout.CENTER);
+        listPanel.add(moreButton, BorderLayout.SOUTH);
+        leftPanel.add(listPanel, BorderLayout.CENTER);
+
+        facetList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        facetList.setVisibleRowCount(8);
+        facetList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(
+                    JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                if (value instanceof FacetValue facet) {
+                    String marker = isFilteredBy(facet) ? "[x] " : "";
+                    setText(marker + facet.facet().name().toLowerCase() + ": " + facet.value() + " (" + facet.count() + ")");
+                }
+                return this;
+            }
+        });
+        JScrollPane facetScroll = new JScrollPane(facetList);
+        facetScroll.setBorder(BorderFactory.createTitledBorder("Filter by (click to toggle)"));
+        leftPanel.add(facetScroll, BorderLayout.SOUTH);
 
         JPanel rightPanel = new JPanel(new BorderLayout(4, 4));
         detailsArea.setEditable(false);
@@ -102,6 +200,7 @@ public class SwingUI extends JFrame {
         JButton newFromWavBtn = new JButton("New Meeting from WAV");
         JButton exportBtn = new JButton("Export as Markdown");
         JButton emailBtn = new JButton("Email Summary");
+        JButton dueBtn = new JButton("Open Actions Due This Week");
         JButton refreshBtn = new JButton("Refresh List");
         JButton exitBtn = new JButton("Exit");
 
@@ -109,6 +208,7 @@ public class SwingUI extends JFrame {
         buttonPanel.add(newFromWavBtn);
         buttonPanel.add(exportBtn);
         buttonPanel.add(emailBtn);
+        buttonPanel.add(dueBtn);
         buttonPanel.add(refreshBtn);
         buttonPanel.add(exitBtn);
 
@@ -124,6 +224,7 @@ public class SwingUI extends JFrame {
         newFromWavBtn.addActionListener(e -> handleNewMeetingFromWav());
         exportBtn.addActionListener(e -> handleExportSelected());
         emailBtn.addActionListener(e -> handleEmailSelected());
+        dueBtn.addActionListener(e -> handleActionsDueThisWeek());
         refreshBtn.addActionListener(e -> refreshMeetingList());
         exitBtn.addActionListener(e -> System.exit(0));
     }
@@ -154,6 +255,29 @@ public class SwingUI extends JFrame {
             public void mouseReleased(MouseEvent e) { maybeShowPopup(e); }
         });
 
+        facetList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = facetList.locationToIndex(e.getPoint());
+                if (index >= 0) {
+                    toggleFacetFilter(facetListModel.get(index));
+                }
+            }
+        });
+
+        // Search as you type, once typing pauses.
+        searchDebounce.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { searchDebounce.restart(); }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) { searchDebounce.restart(); }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) { searchDebounce.restart(); }
+        });
+
         refreshMeetingList();
     }
 
@@ -270,13 +394,10 @@ public class SwingUI extends JFrame {
     private void createMeetingFromWavFile(File wavFile, boolean renameBasedOnTitle) {
         try {
             setStatus("Transcribing audio...");
-            Transcript transcript = transcriber.transcribeFile(wavFile.toPath());
+            Transcript transcript = transcriptionService.transcribe(wavFile.toPath());
 
-            setStatus("Generating summary...");
-            Summary summary = summarizer.summarize(transcript);
-
-            setStatus("Extracting action items...");
-            List<ActionItem> actions = summarizer.extractActions(transcript);
+            setStatus("Generating summary and action items...");
+            MeetingAnalysis analysis = summarizer.summarizeWithActions(transcript);
 
             String title = JOptionPane.showInputDialog(
                     this,
@@ -293,9 +414,8 @@ public class SwingUI extends JFrame {
                 finalWavFile = renameWavToTitle(wavFile, title);
             }
 
-            MeetingRecord record = buildMeetingRecord(transcript, summary, actions, title, finalWavFile);
+            MeetingRecord record = buildMeetingRecord(transcript, analysis.summary(), analysis.actions(), title, finalWavFile);
             workspace.save(record);
-            searchService.index(record);
 
             refreshMeetingList();
             selectMeeting(record);
@@ -373,14 +493,201 @@ public class SwingUI extends JFrame {
         }
     }
 
+    /** Lists the open action items due this week, for one owner or (left blank) everyone. */
+    private void handleActionsDueThisWeek() {
+        String owner = JOptionPane.showInputDialog(
+                this,
+                "Owner (leave blank for everyone):",
+                "Open Actions Due This Week",
+                JOptionPane.PLAIN_MESSAGE
+        );
+        if (owner == null) {
+            return;
+        }
+
+        LocalDate monday = LocalDate.now().with(DayOfWeek.MONDAY);
+        List<ActionItemHit> hits = actionItemIndex.find(owner.isBlank() ? null : owner, ActionStatus.OPEN,
+                monday, monday.plusWeeks(1));
+
+        StringBuilder sb = new StringBuilder("OPEN ACTIONS DUE THIS WEEK\n");
+        for (ActionItemHit hit : hits) {
+            ActionItem item = hit.item();
+            sb.append(" - ").append(item.getDueDate()).append("  ").append(item.getTitle());
+            if (item.getOwner() != null) {
+                sb.append(" (Owner: ").append(item.getOwner().getName()).append(")");
+            }
+            sb.append("  [Meeting: ").append(meetingTitle(hit.meetingId())).append("]\n");
+        }
+        meetingList.clearSelection();
+        detailsArea.getHighlighter().removeAllHighlights();
+        detailsArea.setText(sb.toString());
+        detailsArea.setCaretPosition(0);
+        setStatus("Found " + hits.size() + " open action item(s) due this week.");
+    }
+
+    private String meetingTitle(UUID meetingId) {
+        MeetingRecord record = workspace.getById(meetingId);
+        return record.getTitle() != null ? record.getTitle() : meetingId.toString();
+    }
+
+    private void runLiveSearch() {
+        String text = searchField.getText();
+        String query = text.trim();
+        int generation = ++liveSearchGeneration;
+        if (query.isEmpty()) {
+            suggestionPopup.setVisible(false);
+            refreshMeetingList();
+            return;
+        }
+
+        boolean semantic = semanticToggle.isSelected();
+        String lastWord = text.endsWith(" ") || semantic ? "" : query.substring(query.lastIndexOf(' ') + 1);
+        Map<Facet, Set<String>> filters = copyFacetFilters();
+        SearchSort sort = selectedSort();
+        SwingWorker<FacetedSearchResult, Void> worker = new SwingWorker<>() {
+            private List<Suggestion> suggestions = List.of();
+
+            @Override
+            protected FacetedSearchResult doInBackground() {
+                if (!lastWord.isEmpty()) {
+                    suggestions = searchService.suggest(lastWord, SUGGESTION_LIMIT);
+                }
+                return searchMeetings(query, semantic, filters, sort);
+            }
+
+            @Override
+            protected void done() {
+                if (generation != liveSearchGeneration) {
+                    return;
+                }
+                try {
+                    FacetedSearchResult result = get();
+                    showResults(query, result);
+                    setStatus("Found " + result.totalHits() + " meeting(s).");
+                    showSuggestions(text, lastWord, suggestions);
+                } catch (Exception ex) {
+                    setStatus("Search failed: " + ex.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    /** Offers completions for the word being typed; picking one replaces that word. */
+    private void showSuggestions(String text, String lastWord, List<Suggestion> suggestions) {
+        suggestionPopup.setVisible(false);
+        suggestionPopup.removeAll();
+        List<Suggestion> completions = new ArrayList<>();
+        for (Suggestion suggestion : suggestions) {
+            if (!suggestion.text().equalsIgnoreCase(lastWord)) {
+                completions.add(suggestion);
+            }
+        }
+        if (completions.isEmpty()) {
+            return;
+        }
+
+        String kept = text.substring(0, text.length() - lastWord.length());
+        for (Suggestion suggestion : completions) {
+            String kind = suggestion.kind().name().toLowerCase();
+            JMenuItem item = new JMenuItem(suggestion.text() + "  (" + kind + ")");
+            item.addActionListener(e -> {
+                searchField.setText(kept + suggestion.text());
+                searchField.requestFocusInWindow();
+            });
+            suggestionPopup.add(item);
+        }
+        suggestionPopup.show(searchField, 0, searchField.getHeight());
+        searchField.requestFocusInWindow();
+    }
+
     private void handleSearch() {
+        searchDebounce.stop();
+        liveSearchGeneration++;
+        suggestionPopup.setVisible(false);
         String query = searchField.getText().trim();
-        List<MeetingRecord> results = searchService.search(query);
+        if (query.isEmpty()) {
+            refreshMeetingList();
+            return;
+        }
+        boolean semantic = semanticToggle.isSelected();
+        FacetedSearchResult result = searchMeetings(query, semantic, copyFacetFilters(), selectedSort());
+        showResults(query, result);
+        setStatus("Found " + result.totalHits() + " meeting(s).");
+    }
+
+    /**
+     * The first page of a keyword search narrowed by the facet filters, or search by meaning ranked
+     * by each meeting's closest transcript or summary passage (which has no facets or further pages).
+     */
+    private FacetedSearchResult searchMeetings(String query, boolean semantic, Map<Facet, Set<String>> filters, SearchSort sort) {
+        if (!semantic) {
+            return searchService.searchFaceted(query, PAGE_SIZE, filters, sort, null);
+        }
+        List<SearchHit> hits = new ArrayList<>();
+        for (SemanticHit hit : semanticSearchService.search(query, LIVE_SEARCH_LIMIT)) {
+            hits.add(new SearchHit(hit.record(), hit.score()));
+        }
+        return new FacetedSearchResult(hits, hits.size(), Map.of(), null);
+    }
+
+    private void showResults(String query, FacetedSearchResult result) {
         meetingListModel.clear();
-        for (MeetingRecord rec : results) {
-            meetingListModel.addElement(rec);
+        snippetsById.clear();
+        for (SearchHit hit : result.hits()) {
+            meetingListModel.addElement(hit.record());
+            snippetsById.put(hit.record().getId(), hit.snippets());
+        }
+        shownQuery = query;
+        nextCursor = result.nextCursor();
+        moreButton.setEnabled(nextCursor != null);
+        facetListModel.clear();
+        for (List<FacetValue> values : result.facets().values()) {
+            for (int i = 0; i < Math.min(FACET_VALUES_SHOWN, values.size()); i++) {
+                facetListModel.addElement(values.get(i));
+            }
         }
-        setStatus("Found " + results.size() + " meeting(s).");
+    }
+
+    /** Appends the page after the listed ones, for the same query, filters and sort. */
+    private void loadMoreResults() {
+        if (nextCursor == null) {
+            return;
+        }
+        FacetedSearchResult result = searchService.searchFaceted(shownQuery, PAGE_SIZE, copyFacetFilters(), selectedSort(), nextCursor);
+        for (SearchHit hit : result.hits()) {
+            meetingListModel.addElement(hit.record());
+            snippetsById.put(hit.record().getId(), hit.snippets());
+        }
+        nextCursor = result.nextCursor();
+        moreButton.setEnabled(nextCursor != null);
+        setStatus("Showing " + meetingListModel.size() + " of " + result.totalHits() + " meeting(s).");
+    }
+
+    private SearchSort selectedSort() {
+        return (SearchSort) sortBox.getSelectedItem();
+    }
+
+    private void toggleFacetFilter(FacetValue value) {
+        Set<String> selected = facetFilters.computeIfAbsent(value.facet(), f -> new LinkedHashSet<>());
+        if (!selected.remove(value.value())) {
+            selected.add(value.value());
+        }
+        if (selected.isEmpty()) {
+            facetFilters.remove(value.facet());
+        }
+        handleSearch();
+    }
+
+    private boolean isFilteredBy(FacetValue value) {
+        return facetFilters.getOrDefault(value.facet(), Set.of()).contains(value.value());
+    }
+
+    /** Background searches get their own copy, since the filters are changed on the event thread. */
+    private Map<Facet, Set<String>> copyFacetFilters() {
+        Map<Facet, Set<String>> copy = new EnumMap<>(Facet.class);
+        facetFilters.forEach((facet, values) -> copy.put(facet, new LinkedHashSet<>(values)));
+        return copy;
     }
 
     private void showMeetingContextMenu(MeetingRecord record, int x, int y) {
@@ -474,11 +781,7 @@ public class SwingUI extends JFrame {
     }
 
     private void refreshMeetingList() {
-        meetingListModel.clear();
-        List<MeetingRecord> all = searchService.search("");
-        for (MeetingRecord rec : all) {
-            meetingListModel.addElement(rec);
-        }
+        showResults("", searchService.searchFaceted("", PAGE_SIZE, copyFacetFilters(), selectedSort(), null));
     }
 
     private void selectMeeting(MeetingRecord record) {
@@ -493,6 +796,21 @@ public class SwingUI extends JFrame {
         }
 
         StringBuilder sb = new StringBuilder();
+        List<int[]> highlights = new ArrayList<>();
+        List<Snippet> snippets = snippetsById.getOrDefault(record.getId(), List.of());
+        if (!snippets.isEmpty()) {
+            sb.append("MATCHES\n");
+            for (Snippet snippet : snippets) {
+                sb.append(" - ").append(snippet.field().name().toLowerCase()).append(": ...");
+                int at = sb.length();
+                for (Snippet.Highlight highlight : snippet.highlights()) {
+                    highlights.add(new int[] {at + highlight.start(), at + highlight.end()});
+                }
+                sb.append(snippet.text()).append("...\n");
+            }
+            sb.append("\n");
+        }
+
         sb.append("ID: ").append(record.getId()).append("\n");
         sb.append("Title: ").append(record.getTitle()).append("\n");
         sb.append("Date: ").append(record.getDate()).append("\n\n");
@@ -538,6 +856,14 @@ public class SwingUI extends JFrame {
         }
 
         detailsArea.setText(sb.toString());
+        detailsArea.getHighlighter().removeAllHighlights();
+        for (int[] range : highlights) {
+            try {
+                detailsArea.getHighlighter().addHighlight(range[0], range[1], DefaultHighlighter.DefaultPainter);
+            } catch (BadLocationException ignored) {
+                // ranges are computed from the text just set
+            }
+        }
         detailsArea.setCaretPosition(0);
     }
 
@@ -0,0 +1,438 @@
+package EchoNote.Arpit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * An immutable index segment written by {@link SegmentWriter} and read through a memory-mapped
+ * buffer, so opening one costs only the header and meeting id table. The id table is followed by
+ * one long per document holding the meeting's date, read when results are sorted.
+ *
+ * The only mutable part is the set of deleted documents, marked in memory and saved to a
+ * {@code .del} file beside the segment by {@link #writeDeletions()}. Deleted documents stay in the
+ * postings until a merge drops them.
+ */
+final class DiskSegment implements SegmentView {
+
+    static final int MAGIC = 0x454E5358; // "ENSX"
+    static final int VERSION = 4;
+    static final int SKIP_INTERVAL = 64;
+    static final int HEADER_BYTES = 16;
+    static final int FIELD_HEADER_BYTES = 28;
+
+    private final Path file;
+    private final Path deletionsFile;
+    private final ByteBuffer data;
+    private final int docCount;
+    private final UUID[] uuids;
+    private final int datesOffset;
+    private final Field[] fields;
+
+    private final long[] deleted;
+    private final long[] liveTotalLengths;
+    private int deletedCount;
+    private boolean deletionsChanged;
+
+    /**
+     * Offsets of one field's sections. Norms are one int per document; the term index holds one int
+     * per term pointing at a {@code [len][utf-8][df][postings offset]} entry in the term data.
+     *
+     * A term's postings are {@code [skip count][docs length]}, the skip table, the docs stream of
+     * varint (doc delta, frequency, positions length) triples, then the positions stream. Each
+     * posting's part of it holds varint position deltas followed by a varint (start offset delta,
+     * length) pair per occurrence, so reading positions never decodes the offsets. Skip entry k holds the last doc id before posting {@code (k + 1) * SKIP_INTERVAL}
+     * and that posting's offsets in both streams, so a cursor can jump over whole blocks.
+     */
+    private record Field(long totalLength, int termCount, int normsOffset,
+                         int termIndexOffset, int termDataOffset, int postingsOffset) {
+    }
+
+    private DiskSegment(Path file, ByteBuffer data) throws IOException {
+        this.file = file;
+        this.deletionsFile = deletionsFile(file);
+        this.data = data;
+
+        if (data.getInt(0) != MAGIC) {
+            throw new SearchIndexException("Not a search index segment: " + file);
+        }
+        if (data.getInt(4) != VERSION) {
+            throw new SearchIndexException("Segment " + file + " has format version " + data.getInt(4)
+                    + ", expected " + VERSION);
+        }
+        this.docCount = data.getInt(8);
+        int fieldCount = data.getInt(12);
+        if (fieldCount != SearchField.values().length) {
+            throw new SearchIndexException("Segment " + file + " has " + fieldCount + " fields, expected "
+                    + SearchField.values().length);
+        }
+
+        this.fields = new Field[fieldCount];
+        int pos = HEADER_BYTES;
+        for (int f = 0; f < fieldCount; f++) {
+            fields[f] = new Field(data.getLong(pos), data.getInt(pos + 8), data.getInt(pos + 12),
+                    data.getInt(pos + 16), data.getInt(pos + 20), data.getInt(pos + 24));
+            pos += FIELD_HEADER_BYTES;
+        }
+
+        this.uuids = new UUID[docCount];
+        for (int doc = 0; doc < docCount; doc++) {
+            uuids[doc] = new UUID(data.getLong(pos), data.getLong(pos + 8));
+            pos += 16;
+        }
+        this.datesOffset = pos;
+
+        this.deleted = new long[(docCount + 63) >>> 6];
+        this.liveTotalLengths = new long[fieldCount];
+        for (int f = 0; f < fieldCount; f++) {
+            liveTotalLengths[f] = fields[f].totalLength();
+        }
+        if (Files.exists(deletionsFile)) {
+            LongBuffer words = ByteBuffer.wrap(Files.readAllBytes(deletionsFile)).asLongBuffer();
+            words.get(deleted, 0, Math.min(words.remaining(), deleted.length));
+            for (int doc = 0; doc < docCount; doc++) {
+                if (!isLive(doc)) {
+                    deletedCount++;
+                    subtractLengths(doc);
+                }
+            }
+        }
+    }
+
+    static DiskSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new DiskSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    static Path deletionsFile(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return segmentFile.resolveSibling(name.substring(0, name.lastIndexOf('.')) + ".del");
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    /** Marks a document deleted in memory; call {@link #writeDeletions()} to persist. */
+    boolean delete(int doc) {
+        if (!isLive(doc)) {
+            return false;
+        }
+        deleted[doc >>> 6] |= 1L << doc;
+        deletedCount++;
+        deletionsChanged = true;
+        subtractLengths(doc);
+        return true;
+    }
+
+    /** Saves the deleted documents to the {@code .del} file, if any were marked since the last save. */
+    void writeDeletions() throws IOException {
+        if (!deletionsChanged) {
+            return;
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(deleted.length * Long.BYTES);
+        bytes.asLongBuffer().put(deleted);
+        Path temp = deletionsFile.resolveSibling(deletionsFile.getFileName() + ".tmp");
+        Files.write(temp, bytes.array());
+        Files.move(temp, deletionsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        deletionsChanged = false;
+    }
+
+    /** Removes the segment and its deletions file. Buffers already mapped stay readable. */
+    void deleteFiles() throws IOException {
+        Files.deleteIfExists(deletionsFile);
+        Files.deleteIfExists(file);
+    }
+
+    private void subtractLengths(int doc) {
+        for (SearchField field : SearchField.values()) {
+            liveTotalLengths[field.ordinal()] -= length(field, doc);
+        }
+    }
+
+    @Override
+    public int maxDoc() {
+        return docCount;
+    }
+
+    @Override
+    public boolean isLive(int doc) {
+        return (deleted[doc >>> 6] & (1L << doc)) == 0;
+    }
+
+    @Override
+    public int liveDocCount() {
+        return docCount - deletedCount;
+    }
+
+    @Override
+    public UUID uuid(int doc) {
+        return uuids[doc];
+    }
+
+    @Override
+    public long date(int doc) {
+        return data.getLong(datesOffset + doc * Long.BYTES);
+    }
+
+    @Override
+    public int length(SearchField field, int doc) {
+        return data.getInt(fields[field.ordinal()].normsOffset() + doc * Integer.BYTES);
+    }
+
+    @Override
+    public long liveTotalLength(SearchField field) {
+        return liveTotalLengths[field.ordinal()];
+    }
+
+    @Override
+    public int documentFrequency(SearchField field, String term) {
+        int index = find(fields[field.ordinal()], term);
+        return index >= 0 ? data.getInt(dfPosition(fields[field.ordinal()], index)) : 0;
+    }
+
+    @Override
+    public PostingsCursor postings(SearchField field, String term) {
+        Field f = fields[field.ordinal()];
+        int index = find(f, term);
+        if (index < 0) {
+            return null;
+        }
+        int dfAt = dfPosition(f, index);
+        return new Cursor(data.getInt(dfAt), f.postingsOffset() + data.getInt(dfAt + 4));
+    }
+
+    /** Decodes postings on the fly; positions are only decoded when asked for. */
+    private final class Cursor implements PostingsCursor {
+        private final int count;
+        private final int skipCount;
+        private final int skipTable;
+        private final int docsStart;
+        private final int positionsStart;
+
+        private int index = -1;
+        private int doc = -1;
+        private int frequency;
+        private int docsPos;
+        private int positionsPos;
+        private int positionsLength;
+
+        Cursor(int count, int offset) {
+            this.count = count;
+            this.skipCount = data.getInt(offset);
+            int docsLength = data.getInt(offset + 4);
+            this.skipTable = offset + 8;
+            this.docsStart = skipTable + skipCount * 12;
+            this.positionsStart = docsStart + docsLength;
+            this.docsPos = docsStart;
+            this.positionsPos = positionsStart;
+        }
+
+        @Override
+        public int doc() {
+            return doc;
+        }
+
+        @Override
+        public int nextDoc() {
+            do {
+                readNext();
+            } while (doc != NO_MORE_DOCS && !isLive(doc));
+            return doc;
+        }
+
+        private void readNext() {
+            if (++index >= count) {
+                doc = NO_MORE_DOCS;
+                return;
+            }
+            positionsPos += positionsLength;
+            doc = (index == 0 ? 0 : doc) + readVarint();
+            frequency = readVarint();
+            positionsLength = readVarint();
+        }
+
+        @Override
+        public int advance(int target) {
+            if (doc >= target) {
+                return doc;
+            }
+
+            // Gallop over the skip table for the last block starting at or before target.
+            int block = (index + 1) / SKIP_INTERVAL;
+            if (block < skipCount && skipDoc(block) < target) {
+                int low = block;
+                int step = 1;
+                int high = block + 1;
+                while (high < skipCount && skipDoc(high) < target) {
+                    low = high;
+                    high += step;
+                    step <<= 1;
+                }
+                high = Math.min(high, skipCount);
+                while (high - low > 1) {
+                    int mid = (low + high) >>> 1;
+                    if (skipDoc(mid) < target) {
+                        low = mid;
+                    } else {
+                        high = mid;
+                    }
+                }
+                int entry = skipTable + low * 12;
+                index = (low + 1) * SKIP_INTERVAL - 1;
+                doc = data.getInt(entry);
+                docsPos = docsStart + data.getInt(entry + 4);
+                positionsPos = positionsStart + data.getInt(entry + 8);
+                positionsLength = 0;
+            }
+
+            while (nextDoc() < target) {
+                // linear within the block
+            }
+            return doc;
+        }
+
+        private int skipDoc(int block) {
+            return data.getInt(skipTable + block * 12);
+        }
+
+        @Override
+        public int frequency() {
+            return frequency;
+        }
+
+        @Override
+        public int[] positions() {
+            int[] positions = new int[frequency];
+            int pos = positionsPos;
+            int position = 0;
+            for (int i = 0; i < frequency; i++) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data.get(pos++);
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                position += delta;
+                positions[i] = position;
+            }
+            return positions;
+        }
+
+        @Override
+        public int[] offsets() {
+            int[] offsets = new int[frequency * 2];
+            int pos = positionsPos;
+            for (int i = 0; i < frequency; i++) {
+                while (data.get(pos++) < 0) {
+                    // skip the position
+                }
+            }
+            int start = 0;
+            for (int i = 0; i < offsets.length; i += 2) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data.get(pos++);
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                int length = 0;
+                shift = 0;
+                do {
+                    b = data.get(pos++);
+                    length |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                start += delta;
+                offsets[i] = start;
+                offsets[i + 1] = start + length;
+            }
+            return offsets;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data.get(docsPos++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+
+    @Override
+    public void forEachTerm(SearchField field, TermConsumer consumer) {
+        Field f = fields[field.ordinal()];
+        for (int i = 0; i < f.termCount(); i++) {
+            consumer.accept(termAt(f, i), data.getInt(dfPosition(f, i)));
+        }
+    }
+
+    @Override
+    public Iterator<String> terms(SearchField field) {
+        Field f = fields[field.ordinal()];
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < f.termCount();
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return termAt(f, next++);
+            }
+        };
+    }
+
+    /** Binary search over the sorted term dictionary, returning the index or {@code -(insertion point) - 1}. */
+    private int find(Field f, String term) {
+        int low = 0;
+        int high = f.termCount() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = termAt(f, mid).compareTo(term);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private String termAt(Field f, int index) {
+        int entry = f.termDataOffset() + data.getInt(f.termIndexOffset() + index * Integer.BYTES);
+        byte[] bytes = new byte[data.getInt(entry)];
+        data.get(entry + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int dfPosition(Field f, int index) {
+        int entry = f.termDataOffset() + data.getInt(f.termIndexOffset() + index * Integer.BYTES);
+        return entry + 4 + data.getInt(entry);
+    }
+}
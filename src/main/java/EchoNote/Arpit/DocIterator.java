@@ -0,0 +1,17 @@
+package EchoNote.Arpit;
+
+/**
+ * Walks document ids in ascending order. Starts before the first document; call
+ * {@link #nextDoc()} or {@link #advance(int)} first.
+ */
+interface DocIterator {
+
+    int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+    int doc();
+
+    int nextDoc();
+
+    /** Moves to the first document at or after {@code target}. */
+    int advance(int target);
+}
@@ -0,0 +1,13 @@
+package EchoNote.Arpit;
+
+/**
+ * Strategy Pattern: turns text into a fixed-length vector for {@link SemanticSearchService}.
+ * Texts with similar meaning should get vectors with a high dot product.
+ */
+public interface EmbeddingProvider {
+
+    int dimensions();
+
+    /** A unit-length vector of {@link #dimensions()} values, or all zeros if the text has no words. */
+    float[] embed(String text);
+}
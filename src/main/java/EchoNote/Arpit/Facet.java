@@ -0,0 +1,10 @@
+package EchoNote.Arpit;
+
+/** Meeting attributes that search results can be counted and filtered by. */
+public enum Facet {
+    TAG,
+    PARTICIPANT,
+    OWNER,
+    STATUS,
+    MONTH
+}
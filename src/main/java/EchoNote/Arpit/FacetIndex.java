@@ -0,0 +1,216 @@
+package EchoNote.Arpit;
+
+import EchoNote.Jack.ActionItem;
+import EchoNote.Jack.MeetingRecord;
+import EchoNote.Jack.Participant;
+
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bitsets over meeting ordinals, one per facet value, for counting and filtering search results.
+ * Every indexed meeting has a small ordinal (reused after it is removed), so a result set is one
+ * bitset, a drill-down is an AND with the OR of the selected values' bitsets, and counting a value
+ * is a popcount of two bitsets ANDed together.
+ *
+ * Values are matched ignoring case; each is reported with the first spelling seen.
+ */
+final class FacetIndex {
+
+    /** Values reported per facet, most common first (months newest first). */
+    static final int MAX_VALUES = 20;
+
+    private static final class Value {
+        final String label;
+        long[] bits = new long[1];
+        int count;
+
+        Value(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    // The value keys each ordinal is set in, so re-indexing can clear them; null for free ordinals.
+    private final List<Map<Facet, Collection<String>>> keysByOrdinal = new ArrayList<>();
+    private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final Map<Facet, Map<String, Value>> values = new EnumMap<>(Facet.class);
+
+    FacetIndex() {
+        for (Facet facet : Facet.values()) {
+            values.put(facet, new HashMap<>());
+        }
+    }
+
+    void put(MeetingRecord record) {
+        Integer ordinal = ordinals.get(record.getId());
+        if (ordinal == null) {
+            ordinal = freeOrdinals.isEmpty() ? keysByOrdinal.size() : freeOrdinals.pop();
+            ordinals.put(record.getId(), ordinal);
+            if (ordinal == keysByOrdinal.size()) {
+                keysByOrdinal.add(null);
+            }
+        } else {
+            clear(ordinal);
+        }
+
+        Map<Facet, Collection<String>> keys = new EnumMap<>(Facet.class);
+        for (Map.Entry<Facet, Map<String, String>> facet : valuesOf(record).entrySet()) {
+            Map<String, Value> facetValues = values.get(facet.getKey());
+            for (Map.Entry<String, String> value : facet.getValue().entrySet()) {
+                Value bits = facetValues.computeIfAbsent(value.getKey(), k -> new Value(value.getValue()));
+                if (ordinal >= bits.bits.length * 64) {
+                    bits.bits = Arrays.copyOf(bits.bits, Math.max(words(ordinal + 1), bits.bits.length * 2));
+                }
+                bits.bits[ordinal >> 6] |= 1L << ordinal;
+                bits.count++;
+            }
+            keys.put(facet.getKey(), facet.getValue().keySet());
+        }
+        keysByOrdinal.set(ordinal, keys);
+    }
+
+    void remove(UUID meetingId) {
+        Integer ordinal = ordinals.remove(meetingId);
+        if (ordinal != null) {
+            clear(ordinal);
+            keysByOrdinal.set(ordinal, null);
+            freeOrdinals.push(ordinal);
+        }
+    }
+
+    /** The meeting's ordinal, or -1 if it is not indexed. */
+    int ordinal(UUID meetingId) {
+        Integer ordinal = ordinals.get(meetingId);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /** An empty bitset big enough for every ordinal. */
+    long[] newBitSet() {
+        return new long[words(keysByOrdinal.size())];
+    }
+
+    static void set(long[] bits, int ordinal) {
+        bits[ordinal >> 6] |= 1L << ordinal;
+    }
+
+    static boolean get(long[] bits, int ordinal) {
+        return (ordinal >> 6) < bits.length && (bits[ordinal >> 6] & 1L << ordinal) != 0;
+    }
+
+    static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /** Clears from {@code results} every meeting that has none of {@code selected} in {@code facet}. */
+    void drillDown(long[] results, Facet facet, Collection<String> selected) {
+        long[] any = newBitSet();
+        Map<String, Value> facetValues = values.get(facet);
+        for (String value : selected) {
+            Value bits = value != null ? facetValues.get(normalize(value)) : null;
+            if (bits != null) {
+                for (int i = 0; i < Math.min(any.length, bits.bits.length); i++) {
+                    any[i] |= bits.bits[i];
+                }
+            }
+        }
+        for (int i = 0; i < results.length; i++) {
+            results[i] &= i < any.length ? any[i] : 0;
+        }
+    }
+
+    /** The most common values of {@code facet} among {@code results}. */
+    List<FacetValue> count(Facet facet, long[] results) {
+        List<FacetValue> counts = new ArrayList<>();
+        for (Value value : values.get(facet).values()) {
+            long[] bits = value.bits;
+            int count = 0;
+            for (int i = 0; i < Math.min(bits.length, results.length); i++) {
+                count += Long.bitCount(bits[i] & results[i]);
+            }
+            if (count > 0) {
+                counts.add(new FacetValue(facet, value.label, count));
+            }
+        }
+        Comparator<FacetValue> order = facet == Facet.MONTH
+                ? Comparator.comparing(FacetValue::value).reversed()
+                : Comparator.comparingInt(FacetValue::count).reversed()
+                        .thenComparing(FacetValue::value, String.CASE_INSENSITIVE_ORDER);
+        counts.sort(order);
+        return counts.size() > MAX_VALUES ? new ArrayList<>(counts.subList(0, MAX_VALUES)) : counts;
+    }
+
+    private void clear(int ordinal) {
+        Map<Facet, Collection<String>> keys = keysByOrdinal.get(ordinal);
+        if (keys == null) {
+            return;
+        }
+        for (Map.Entry<Facet, Collection<String>> facet : keys.entrySet()) {
+            Map<String, Value> facetValues = values.get(facet.getKey());
+            for (String key : facet.getValue()) {
+                Value bits = facetValues.get(key);
+                bits.bits[ordinal >> 6] &= ~(1L << ordinal);
+                if (--bits.count == 0) {
+                    facetValues.remove(key);
+                }
+            }
+        }
+    }
+
+    /** Normalized key to display label, per facet. */
+    private static Map<Facet, Map<String, String>> valuesOf(MeetingRecord record) {
+        Map<Facet, Map<String, String>> values = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            values.put(facet, new LinkedHashMap<>());
+        }
+        for (String tag : record.getTags()) {
+            addValue(values, Facet.TAG, tag);
+        }
+        for (Participant participant : record.getParticipants()) {
+            if (participant != null) {
+                addValue(values, Facet.PARTICIPANT, participant.getName());
+            }
+        }
+        for (ActionItem action : record.getActions()) {
+            if (action != null && action.getOwner() != null) {
+                addValue(values, Facet.OWNER, action.getOwner().getName());
+            }
+        }
+        if (record.getStatus() != null) {
+            addValue(values, Facet.STATUS, record.getStatus().name());
+        }
+        if (record.getDate() != null) {
+            addValue(values, Facet.MONTH, YearMonth.from(record.getDate()).toString());
+        }
+        return values;
+    }
+
+    private static void addValue(Map<Facet, Map<String, String>> values, Facet facet, String value) {
+        if (value != null && !value.isBlank()) {
+            values.get(facet).putIfAbsent(normalize(value), value.trim());
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+}
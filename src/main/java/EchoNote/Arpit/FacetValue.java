@@ -0,0 +1,5 @@
+package EchoNote.Arpit;
+
+/** One value of a facet and how many meetings in a result set have it. */
+public record FacetValue(Facet facet, String value, int count) {
+}
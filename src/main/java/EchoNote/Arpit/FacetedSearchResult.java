@@ -0,0 +1,13 @@
+package EchoNote.Arpit;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of search hits plus, for every {@link Facet}, the most common values among all
+ * {@code totalHits} matching meetings (not just the returned page). {@code nextCursor} fetches the
+ * following page and is null on the last one.
+ */
+public record FacetedSearchResult(List<SearchHit> hits, int totalHits, Map<Facet, List<FacetValue>> facets,
+                                  String nextCursor) {
+}
@@ -0,0 +1,165 @@
+package EchoNote.Arpit;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Inverted index for one {@link SearchField}: a sorted term dictionary (so segments are written
+ * in term order) mapping to postings with positions and character offsets, plus each document's
+ * field length for BM25 normalization.
+ *
+ * The terms last indexed for each document are kept so that re-indexing it only touches
+ * the postings whose positions actually changed.
+ */
+final class FieldIndex {
+
+    /**
+     * A null token separates two values of a multi-valued field (tags, decisions, action items),
+     * and advances the position by this much so phrases and NEAR never match across values.
+     */
+    static final int VALUE_GAP = 100;
+
+    private final TreeMap<String, PostingsList> terms = new TreeMap<>();
+    private final Map<Integer, TermVector> vectors = new HashMap<>();
+    private int[] lengths = new int[16];
+    private long totalLength;
+
+    /** Indexes or re-indexes a document's tokens, returning how many postings were changed. */
+    int put(int docId, List<Tokenizer.Token> tokens) {
+        TermVector next = TermVector.of(tokens);
+        TermVector previous = vectors.put(docId, next);
+        if (previous == null) {
+            previous = TermVector.EMPTY;
+        }
+
+        if (docId >= lengths.length) {
+            lengths = Arrays.copyOf(lengths, Math.max(docId + 1, lengths.length * 2));
+        }
+        totalLength += next.length - previous.length;
+        lengths[docId] = next.length;
+
+        // Merge the two sorted term lists, touching only terms that were added, dropped or recounted.
+        int changed = 0;
+        int i = 0;
+        int j = 0;
+        while (i < previous.terms.length || j < next.terms.length) {
+            int cmp = i == previous.terms.length ? 1
+                    : j == next.terms.length ? -1
+                    : previous.terms[i].compareTo(next.terms[j]);
+            if (cmp < 0) {
+                removePosting(previous.terms[i++], docId);
+                changed++;
+            } else if (cmp > 0) {
+                terms.computeIfAbsent(next.terms[j], t -> new PostingsList()).put(docId, next.positions[j], next.offsets[j]);
+                j++;
+                changed++;
+            } else {
+                if (!Arrays.equals(previous.positions[i], next.positions[j])
+                        || !Arrays.equals(previous.offsets[i], next.offsets[j])) {
+                    terms.get(next.terms[j]).put(docId, next.positions[j], next.offsets[j]);
+                    changed++;
+                }
+                i++;
+                j++;
+            }
+        }
+        return changed;
+    }
+
+    void remove(int docId) {
+        TermVector previous = vectors.remove(docId);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length;
+        lengths[docId] = 0;
+        for (String term : previous.terms) {
+            removePosting(term, docId);
+        }
+    }
+
+    private void removePosting(String term, int docId) {
+        PostingsList postings = terms.get(term);
+        if (postings != null) {
+            postings.remove(docId);
+            if (postings.isEmpty()) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    PostingsList postings(String term) {
+        return terms.get(term);
+    }
+
+    /** Every dictionary term in sorted order. */
+    Iterator<String> terms() {
+        return terms.keySet().iterator();
+    }
+
+    int length(int docId) {
+        return docId < lengths.length ? lengths[docId] : 0;
+    }
+
+    long totalLength() {
+        return totalLength;
+    }
+
+    double averageLength() {
+        return vectors.isEmpty() ? 0.0 : (double) totalLength / vectors.size();
+    }
+
+    /** A document's distinct terms in sorted order with their positions and offsets. */
+    private record TermVector(String[] terms, int[][] positions, int[][] offsets, int length) {
+
+        static final TermVector EMPTY = new TermVector(new String[0], new int[0][], new int[0][], 0);
+
+        static TermVector of(List<Tokenizer.Token> tokens) {
+            TreeMap<String, Occurrences> occurrences = new TreeMap<>();
+            int position = 0;
+            int length = 0;
+            for (Tokenizer.Token token : tokens) {
+                if (token == null) {
+                    position += VALUE_GAP;
+                    continue;
+                }
+                occurrences.computeIfAbsent(token.text(), t -> new Occurrences()).add(position++, token.start(), token.end());
+                length++;
+            }
+
+            String[] terms = new String[occurrences.size()];
+            int[][] positions = new int[occurrences.size()][];
+            int[][] offsets = new int[occurrences.size()][];
+            int k = 0;
+            for (Map.Entry<String, Occurrences> entry : occurrences.entrySet()) {
+                Occurrences found = entry.getValue();
+                terms[k] = entry.getKey();
+                positions[k] = Arrays.copyOf(found.positions, found.count);
+                offsets[k] = Arrays.copyOf(found.offsets, found.count * 2);
+                k++;
+            }
+            return new TermVector(terms, positions, offsets, length);
+        }
+    }
+
+    private static final class Occurrences {
+        int[] positions = new int[1];
+        int[] offsets = new int[2];
+        int count;
+
+        void add(int position, int start, int end) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 4);
+            }
+            positions[count] = position;
+            offsets[count * 2] = start;
+            offsets[count * 2 + 1] = end;
+            count++;
+        }
+    }
+}
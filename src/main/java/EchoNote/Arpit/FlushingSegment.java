@@ -0,0 +1,156 @@
+package EchoNote.Arpit;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A memory segment handed to the background thread to be written to disk. The segment itself is
+ * frozen so the writer can read it without locking; meetings changed or removed in the meantime
+ * are only marked deleted here, and searches skip them like deleted documents on disk.
+ */
+final class FlushingSegment implements SegmentView {
+
+    private final MemorySegment source;
+    private final Map<UUID, Integer> docIds = new HashMap<>();
+    private final long[] deleted;
+    private final long[] liveTotalLengths;
+    private int deletedCount;
+
+    FlushingSegment(MemorySegment source) {
+        this.source = source;
+        for (int doc = 0; doc < source.maxDoc(); doc++) {
+            if (source.isLive(doc)) {
+                docIds.put(source.uuid(doc), doc);
+            }
+        }
+        this.deleted = new long[(source.maxDoc() + 63) >>> 6];
+        this.liveTotalLengths = new long[SearchField.values().length];
+        for (SearchField field : SearchField.values()) {
+            liveTotalLengths[field.ordinal()] = source.liveTotalLength(field);
+        }
+    }
+
+    /** The frozen segment, for the writer. It still holds documents deleted here. */
+    MemorySegment source() {
+        return source;
+    }
+
+    /** Marks the meeting deleted. Returns false if it is not in this segment. */
+    boolean delete(UUID meetingId) {
+        Integer doc = docIds.remove(meetingId);
+        if (doc == null) {
+            return false;
+        }
+        deleted[doc >>> 6] |= 1L << doc;
+        deletedCount++;
+        for (SearchField field : SearchField.values()) {
+            liveTotalLengths[field.ordinal()] -= source.length(field, doc);
+        }
+        return true;
+    }
+
+    @Override
+    public int maxDoc() {
+        return source.maxDoc();
+    }
+
+    @Override
+    public boolean isLive(int doc) {
+        return source.isLive(doc) && (deleted[doc >>> 6] & (1L << doc)) == 0;
+    }
+
+    @Override
+    public int liveDocCount() {
+        return source.liveDocCount() - deletedCount;
+    }
+
+    @Override
+    public UUID uuid(int doc) {
+        return source.uuid(doc);
+    }
+
+    @Override
+    public long date(int doc) {
+        return source.date(doc);
+    }
+
+    @Override
+    public int length(SearchField field, int doc) {
+        return source.length(field, doc);
+    }
+
+    @Override
+    public long liveTotalLength(SearchField field) {
+        return liveTotalLengths[field.ordinal()];
+    }
+
+    @Override
+    public int documentFrequency(SearchField field, String term) {
+        return source.documentFrequency(field, term);
+    }
+
+    @Override
+    public PostingsCursor postings(SearchField field, String term) {
+        PostingsCursor postings = source.postings(field, term);
+        return postings == null || deletedCount == 0 ? postings : new LiveCursor(postings);
+    }
+
+    @Override
+    public Iterator<String> terms(SearchField field) {
+        return source.terms(field);
+    }
+
+    @Override
+    public void forEachTerm(SearchField field, TermConsumer consumer) {
+        source.forEachTerm(field, consumer);
+    }
+
+    /** Skips the documents deleted since the segment was frozen. */
+    private final class LiveCursor implements PostingsCursor {
+
+        private final PostingsCursor postings;
+
+        LiveCursor(PostingsCursor postings) {
+            this.postings = postings;
+        }
+
+        @Override
+        public int doc() {
+            return postings.doc();
+        }
+
+        @Override
+        public int nextDoc() {
+            return skipDeleted(postings.nextDoc());
+        }
+
+        @Override
+        public int advance(int target) {
+            return skipDeleted(postings.advance(target));
+        }
+
+        private int skipDeleted(int doc) {
+            while (doc != NO_MORE_DOCS && !isLive(doc)) {
+                doc = postings.nextDoc();
+            }
+            return doc;
+        }
+
+        @Override
+        public int frequency() {
+            return postings.frequency();
+        }
+
+        @Override
+        public int[] positions() {
+            return postings.positions();
+        }
+
+        @Override
+        public int[] offsets() {
+            return postings.offsets();
+        }
+    }
+}
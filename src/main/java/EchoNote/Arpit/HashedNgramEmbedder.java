@@ -0,0 +1,91 @@
+package EchoNote.Arpit;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Offline default {@link EmbeddingProvider}: each word and each of its character trigrams is hashed
+ * to a signed dimension (the hashing trick). Word forms sharing a stem ("spend", "spending",
+ * "spent") share most trigrams, so they land close together without any model or network call.
+ * The same text always gets the same vector.
+ */
+public class HashedNgramEmbedder implements EmbeddingProvider {
+
+    public static final int DEFAULT_DIMENSIONS = 256;
+
+    private static final int WORD_SEED = 0x9747b28c;
+    private static final int TRIGRAM_SEED = 0x5bd1e995;
+    private static final float TRIGRAM_WEIGHT = 0.5f;
+
+    private final int dimensions;
+
+    public HashedNgramEmbedder() {
+        this(DEFAULT_DIMENSIONS);
+    }
+
+    public HashedNgramEmbedder(int dimensions) {
+        if (dimensions <= 0) {
+            throw new IllegalArgumentException("dimensions must be positive");
+        }
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String word : Tokenizer.tokenize(text)) {
+            counts.merge(word, 1, Integer::sum);
+        }
+
+        float[] vector = new float[dimensions];
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            // Sublinear, so a word repeated throughout a passage does not drown out the rest.
+            float weight = 1 + (float) Math.log(entry.getValue());
+            String word = entry.getKey();
+            add(vector, hash(WORD_SEED, word, 0, word.length()), weight);
+
+            // Trigrams of the word padded with boundary markers, so short words still get some.
+            String padded = "<" + word + ">";
+            int trigrams = padded.length() - 2;
+            float trigramWeight = weight * TRIGRAM_WEIGHT / (float) Math.sqrt(trigrams);
+            for (int i = 0; i < trigrams; i++) {
+                add(vector, hash(TRIGRAM_SEED, padded, i, i + 3), trigramWeight);
+            }
+        }
+
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+
+    private void add(float[] vector, int hash, float weight) {
+        vector[(hash >>> 1) % dimensions] += (hash & 1) == 0 ? weight : -weight;
+    }
+
+    /** FNV-1a over the chars, finished with the MurmurHash3 mixer so every bit depends on every char. */
+    private static int hash(int seed, String text, int start, int end) {
+        int h = 0x811c9dc5 ^ seed;
+        for (int i = start; i < end; i++) {
+            h = (h ^ text.charAt(i)) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
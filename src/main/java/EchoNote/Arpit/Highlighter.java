@@ -0,0 +1,147 @@
+package EchoNote.Arpit;
+
+import EchoNote.Jack.MeetingRecord;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds the snippets shown with a search hit from the character offsets stored in the postings.
+ * Only the hit's postings for the matched words are read, and the field text only inside the
+ * chosen windows, so a long transcript costs no more than a short one.
+ *
+ * Windows of up to {@link #SNIPPET_CHARS} characters are ranked by how many different matched
+ * words they contain, then by how many matches; the best non-overlapping ones are kept.
+ */
+final class Highlighter {
+
+    static final int SNIPPET_CHARS = 160;
+    static final int MAX_SNIPPETS = 3;
+    private static final SearchField[] FIELDS = {SearchField.SUMMARY, SearchField.DECISION, SearchField.TRANSCRIPT};
+
+    private final Map<SearchField, Set<String>> terms;
+
+    /** {@code terms} are the indexed words to highlight per field, as from {@link QueryEvaluator#matchedTerms}. */
+    Highlighter(Map<SearchField, Set<String>> terms) {
+        this.terms = terms;
+    }
+
+    private record Occurrence(int start, int end, int word) {
+    }
+
+    private record Window(SearchField field, int first, int last, int distinct, int matches) {
+    }
+
+    List<Snippet> snippets(SegmentView view, int doc, MeetingRecord record) {
+        Map<SearchField, List<Occurrence>> occurrences = new EnumMap<>(SearchField.class);
+        List<Window> windows = new ArrayList<>();
+        for (SearchField field : FIELDS) {
+            Set<String> words = terms.get(field);
+            if (words == null || words.isEmpty()) {
+                continue;
+            }
+            List<Occurrence> found = occurrences(view, doc, field, words);
+            if (!found.isEmpty()) {
+                occurrences.put(field, found);
+                addWindows(field, found, words.size(), windows);
+            }
+        }
+        windows.sort(Comparator.comparingInt(Window::distinct).thenComparingInt(Window::matches).reversed());
+
+        Map<SearchField, String> texts = new EnumMap<>(SearchField.class);
+        List<Snippet> snippets = new ArrayList<>();
+        for (Window window : windows) {
+            if (snippets.size() == MAX_SNIPPETS) {
+                break;
+            }
+            List<Occurrence> found = occurrences.get(window.field());
+            String text = texts.computeIfAbsent(window.field(), field -> SearchService.fieldText(record, field));
+            Snippet snippet = snippet(window.field(), text, found, found.get(window.first()).start(), found.get(window.last()).end());
+            if (snippet != null && snippets.stream().noneMatch(other -> overlaps(other, snippet))) {
+                snippets.add(snippet);
+            }
+        }
+        return snippets;
+    }
+
+    /** Every occurrence of the words in the document's field, by start offset. */
+    private static List<Occurrence> occurrences(SegmentView view, int doc, SearchField field, Set<String> words) {
+        List<Occurrence> found = new ArrayList<>();
+        int word = 0;
+        for (String term : words) {
+            PostingsCursor cursor = view.postings(field, term);
+            if (cursor != null && cursor.advance(doc) == doc) {
+                int[] offsets = cursor.offsets();
+                for (int i = 0; i < offsets.length; i += 2) {
+                    found.add(new Occurrence(offsets[i], offsets[i + 1], word));
+                }
+            }
+            word++;
+        }
+        found.sort(Comparator.comparingInt(Occurrence::start));
+        return found;
+    }
+
+    /** One window per occurrence, stretching over the following ones that still fit. */
+    private static void addWindows(SearchField field, List<Occurrence> found, int wordCount, List<Window> windows) {
+        int[] counts = new int[wordCount];
+        int distinct = 0;
+        int last = -1;
+        for (int first = 0; first < found.size(); first++) {
+            while (last + 1 < found.size() && found.get(last + 1).end() - found.get(first).start() <= SNIPPET_CHARS) {
+                last++;
+                if (counts[found.get(last).word()]++ == 0) {
+                    distinct++;
+                }
+            }
+            if (last < first) {
+                // A single match longer than a snippet.
+                last = first;
+                if (counts[found.get(first).word()]++ == 0) {
+                    distinct++;
+                }
+            }
+            windows.add(new Window(field, first, last, distinct, last - first + 1));
+            if (--counts[found.get(first).word()] == 0) {
+                distinct--;
+            }
+        }
+    }
+
+    /**
+     * The window padded with context to {@link #SNIPPET_CHARS} and trimmed to whole words, with
+     * every occurrence inside it highlighted. Null if the text changed since it was indexed.
+     */
+    private static Snippet snippet(SearchField field, String text, List<Occurrence> found, int from, int to) {
+        if (to > text.length()) {
+            return null;
+        }
+        int size = Math.max(to - from, SNIPPET_CHARS);
+        int start = Math.max(0, from - (size - (to - from)) / 2);
+        int end = Math.min(text.length(), start + size);
+        start = Math.max(0, end - size);
+        while (start > 0 && start < from && !Character.isWhitespace(text.charAt(start - 1))) {
+            start++;
+        }
+        while (end < text.length() && end > to && !Character.isWhitespace(text.charAt(end))) {
+            end--;
+        }
+
+        List<Snippet.Highlight> highlights = new ArrayList<>();
+        for (Occurrence occurrence : found) {
+            if (occurrence.start() >= start && occurrence.end() <= end) {
+                highlights.add(new Snippet.Highlight(occurrence.start() - start, occurrence.end() - start));
+            }
+        }
+        String window = text.substring(start, end).replace('\n', ' ').replace('\r', ' ');
+        return new Snippet(field, start, end, window, highlights);
+    }
+
+    private static boolean overlaps(Snippet a, Snippet b) {
+        return a.field() == b.field() && a.start() < b.end() && b.start() < a.end();
+    }
+}
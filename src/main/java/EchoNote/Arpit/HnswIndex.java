@@ -0,0 +1,691 @@
+package EchoNote.Arpit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Approximate nearest neighbour search by dot product over a Hierarchical Navigable Small World
+ * graph (Malkov and Yashunin). Each node links to up to {@code m} diverse near neighbours per layer
+ * ({@code 2m} on the bottom layer), and upper layers hold exponentially fewer nodes, so a search
+ * descends greedily from the top and only explores widely on the bottom layer.
+ *
+ * Vectors are stored int8-quantized with one scale per vector, a quarter of the memory of floats,
+ * and compared with integer dot products. Removed nodes stay in the graph as stepping stones but
+ * are never returned. Searches share scratch space, so callers must not run two at once. A short
+ * query's vector is mostly zeros, so searches compare only its non-zero dimensions.
+ *
+ * {@link #write(FileChannel)} saves the graph as flat arrays, and {@link #read(FileChannel)} maps
+ * them back in, so a saved index loads in about the time it takes to read the file.
+ */
+final class HnswIndex {
+
+    static final int DEFAULT_M = 32;
+    static final int DEFAULT_EF_CONSTRUCTION = 100;
+    static final int MAGIC = 0x454E484E; // "ENHN"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 36;
+
+    private static final int MAX_LEVEL = 16;
+    // Bytes per mapped region when reading arrays back; an int[] can need more than one 2 GB mapping.
+    private static final int READ_CHUNK_BYTES = 1 << 30;
+
+    /** A node and its similarity to whatever it was compared with. */
+    record Neighbor(int node, float score) {
+    }
+
+    private final int dimensions;
+    private final int m;
+    private final int m0;
+    private final int efConstruction;
+    private final double levelFactor;
+    private final Random random;
+
+    private byte[] vectors = new byte[0];
+    private float[] scales = new float[0];
+    // Layer 0 links, m0 + 1 ints per node: the link count, then the linked nodes best first.
+    private int[] links0 = new int[0];
+    // Layers 1..level for nodes above layer 0, m + 1 ints per layer laid out the same way.
+    private int[][] upperLinks = new int[0][];
+    // Similarity of each link, at the same index as the link.
+    private float[] scores0 = new float[0];
+    private float[][] upperScores = new float[0][];
+    private final BitSet removed = new BitSet();
+    private int removedCount;
+    private int size;
+    private int entryPoint = -1;
+    private int topLevel = -1;
+
+    // Marks nodes visited by the current search without clearing a set per search.
+    private int[] visited = new int[0];
+    private int visitMark;
+    private final NeighborHeap candidates = new NeighborHeap(true);
+    private final NeighborHeap results = new NeighborHeap(false);
+    // Scratch for add(): one layer's candidates best first, and how the heuristic split them.
+    private final int[] candidateNodes;
+    private final float[] candidateScores;
+    private final int[] selectedNodes;
+    private final float[] selectedScores;
+    private final int[] prunedNodes;
+    private final float[] prunedScores;
+
+    HnswIndex(int dimensions) {
+        this(dimensions, DEFAULT_M, DEFAULT_EF_CONSTRUCTION, 42);
+    }
+
+    HnswIndex(int dimensions, int m, int efConstruction, long seed) {
+        if (dimensions <= 0 || m < 2 || efConstruction < m) {
+            throw new IllegalArgumentException("need dimensions > 0, m >= 2 and efConstruction >= m");
+        }
+        this.dimensions = dimensions;
+        this.m = m;
+        this.m0 = 2 * m;
+        this.efConstruction = efConstruction;
+        this.levelFactor = 1 / Math.log(m);
+        this.random = new Random(seed);
+        this.candidateNodes = new int[efConstruction];
+        this.candidateScores = new float[efConstruction];
+        this.selectedNodes = new int[m0];
+        this.selectedScores = new float[m0];
+        this.prunedNodes = new int[efConstruction];
+        this.prunedScores = new float[efConstruction];
+    }
+
+    int dimensions() {
+        return dimensions;
+    }
+
+    /** Nodes added so far, including removed ones. */
+    int size() {
+        return size;
+    }
+
+    int removedCount() {
+        return removedCount;
+    }
+
+    boolean isRemoved(int node) {
+        return removed.get(node);
+    }
+
+    void remove(int node) {
+        if (!removed.get(node)) {
+            removed.set(node);
+            removedCount++;
+        }
+    }
+
+    /** The stored vector, as reconstructed from its quantized form. */
+    float[] vector(int node) {
+        float[] vector = new float[dimensions];
+        int offset = node * dimensions;
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = vectors[offset + i] * scales[node];
+        }
+        return vector;
+    }
+
+    /** Adds a vector and returns its node id; ids are assigned consecutively from 0. */
+    int add(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("vector has " + vector.length + " dimensions, expected " + dimensions);
+        }
+        int node = size;
+        ensureCapacity(node + 1);
+        scales[node] = quantize(vector, vectors, node * dimensions);
+        int level = Math.min(MAX_LEVEL, (int) (-Math.log(1 - random.nextDouble()) * levelFactor));
+        if (level > 0) {
+            upperLinks[node] = new int[level * (m + 1)];
+            upperScores[node] = new float[level * (m + 1)];
+        }
+        size++;
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            topLevel = level;
+            return node;
+        }
+
+        int offset = node * dimensions;
+        float scale = scales[node];
+        int entry = entryPoint;
+        for (int layer = topLevel; layer > level; layer--) {
+            entry = greedy(vectors, offset, scale, null, entry, layer);
+        }
+        for (int layer = Math.min(level, topLevel); layer >= 0; layer--) {
+            int count = drainBestFirst(searchLayer(vectors, offset, scale, null, entry, efConstruction, layer),
+                    candidateNodes, candidateScores);
+            entry = candidateNodes[0];
+            int[] links = links(node, layer);
+            float[] scores = linkScores(node, layer);
+            int base = linkBase(node, layer);
+            int selected = selectNeighbors(count, layer == 0 ? m0 : m, links, scores, base + 1);
+            links[base] = selected;
+            for (int i = 1; i <= selected; i++) {
+                link(links[base + i], node, scores[base + i], layer);
+            }
+        }
+        if (level > topLevel) {
+            topLevel = level;
+            entryPoint = node;
+        }
+        return node;
+    }
+
+    /** The {@code k} live nodes most similar to {@code query}, best first, exploring {@code ef} candidates. */
+    List<Neighbor> search(float[] query, int k, int ef) {
+        if (query.length != dimensions) {
+            throw new IllegalArgumentException("query has " + query.length + " dimensions, expected " + dimensions);
+        }
+        if (entryPoint < 0 || k <= 0) {
+            return new ArrayList<>();
+        }
+        byte[] quantized = new byte[dimensions];
+        float scale = quantize(query, quantized, 0);
+        int[] nonZero = nonZeroDimensions(quantized);
+
+        int entry = entryPoint;
+        for (int layer = topLevel; layer > 0; layer--) {
+            entry = greedy(quantized, 0, scale, nonZero, entry, layer);
+        }
+        NeighborHeap found = searchLayer(quantized, 0, scale, nonZero, entry, Math.max(ef, k), 0);
+        int[] nodes = new int[found.size()];
+        float[] scores = new float[found.size()];
+        int count = drainBestFirst(found, nodes, scores);
+
+        List<Neighbor> hits = new ArrayList<>(Math.min(k, count));
+        for (int i = 0; i < count && hits.size() < k; i++) {
+            if (!removed.get(nodes[i])) {
+                hits.add(new Neighbor(nodes[i], scores[i]));
+            }
+        }
+        return hits;
+    }
+
+    /** Walks to ever more similar neighbours on one layer until none is better; upper layers need no more. */
+    private int greedy(byte[] target, int offset, float scale, int[] nonZero, int entry, int layer) {
+        float best = similarity(target, offset, scale, nonZero, entry);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] links = links(entry, layer);
+            int base = linkBase(entry, layer);
+            for (int i = 1; i <= links[base]; i++) {
+                int next = links[base + i];
+                float score = similarity(target, offset, scale, nonZero, next);
+                if (score > best) {
+                    best = score;
+                    entry = next;
+                    improved = true;
+                }
+            }
+        }
+        return entry;
+    }
+
+    /** Best-first search of one layer, leaving up to {@code ef} of the closest nodes found in {@link #results}. */
+    private NeighborHeap searchLayer(byte[] target, int offset, float scale, int[] nonZero, int entry, int ef, int layer) {
+        if (++visitMark == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            visitMark = 1;
+        }
+        candidates.clear();
+        results.clear();
+        float start = similarity(target, offset, scale, nonZero, entry);
+        visited[entry] = visitMark;
+        candidates.push(entry, start);
+        results.push(entry, start);
+
+        while (candidates.size() > 0) {
+            int current = candidates.topNode();
+            float currentScore = candidates.topScore();
+            candidates.pop();
+            if (results.size() >= ef && currentScore < results.topScore()) {
+                break;
+            }
+            int[] links = links(current, layer);
+            int base = linkBase(current, layer);
+            for (int i = 1; i <= links[base]; i++) {
+                int next = links[base + i];
+                if (visited[next] == visitMark) {
+                    continue;
+                }
+                visited[next] = visitMark;
+                float score = similarity(target, offset, scale, nonZero, next);
+                if (results.size() < ef || score > results.topScore()) {
+                    candidates.push(next, score);
+                    results.push(next, score);
+                    if (results.size() > ef) {
+                        results.pop();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * The HNSW neighbour heuristic over the first {@code count} of {@link #candidateNodes}: walking
+     * them best first, keeps one only if it is closer to the base node than to every neighbour kept
+     * so far, so links spread out in different directions instead of clustering. Pruned candidates
+     * fill any remaining slots. Writes the result best first from {@code out[at]}; returns its length.
+     */
+    private int selectNeighbors(int count, int max, int[] outNodes, float[] outScores, int at) {
+        int selected = 0;
+        int pruned = 0;
+        for (int c = 0; c < count && selected < max; c++) {
+            int candidate = candidateNodes[c];
+            int candidateOffset = candidate * dimensions;
+            boolean diverse = true;
+            for (int s = 0; s < selected; s++) {
+                if (similarity(vectors, candidateOffset, scales[candidate], selectedNodes[s]) > candidateScores[c]) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selectedNodes[selected] = candidate;
+                selectedScores[selected++] = candidateScores[c];
+            } else {
+                prunedNodes[pruned] = candidate;
+                prunedScores[pruned++] = candidateScores[c];
+            }
+        }
+
+        // Both lists are best first, so merging them keeps the links sorted.
+        int fill = Math.min(max - selected, pruned);
+        int s = 0;
+        int p = 0;
+        while (s < selected || p < fill) {
+            boolean takeSelected = p == fill || (s < selected && selectedScores[s] >= prunedScores[p]);
+            outNodes[at] = takeSelected ? selectedNodes[s] : prunedNodes[p];
+            outScores[at++] = takeSelected ? selectedScores[s++] : prunedScores[p++];
+        }
+        return selected + fill;
+    }
+
+    /**
+     * Adds a back link, keeping the list sorted best first. When the list is full, the weakest link
+     * that is not diverse is dropped (the weakest link of all if every one is diverse), which keeps
+     * the heuristic's spread without re-running it over every pair of links.
+     */
+    private void link(int from, int to, float score, int layer) {
+        int[] links = links(from, layer);
+        float[] scores = linkScores(from, layer);
+        int base = linkBase(from, layer);
+        int count = links[base];
+        int max = layer == 0 ? m0 : m;
+
+        int at = count;
+        while (at > 0 && scores[base + at] < score) {
+            at--;
+        }
+        if (count == max) {
+            int drop = worstNonDiverse(links, scores, base, count, to, score, at);
+            if (drop == count) {
+                return;
+            }
+            System.arraycopy(links, base + drop + 2, links, base + drop + 1, count - drop - 1);
+            System.arraycopy(scores, base + drop + 2, scores, base + drop + 1, count - drop - 1);
+            count--;
+            if (drop < at) {
+                at--;
+            }
+        }
+        System.arraycopy(links, base + at + 1, links, base + at + 2, count - at);
+        System.arraycopy(scores, base + at + 1, scores, base + at + 2, count - at);
+        links[base + at + 1] = to;
+        scores[base + at + 1] = score;
+        links[base] = count + 1;
+    }
+
+    /**
+     * Which link to drop from a full list once the new one is inserted at {@code at}: the new link
+     * ({@code count}) if a stronger link is closer to it than {@code from} is, else the weakest link
+     * the new one makes redundant, else the weakest overall. The existing links were kept against
+     * each other already, so only pairs with the new link are checked.
+     */
+    private int worstNonDiverse(int[] links, float[] scores, int base, int count, int to, float score, int at) {
+        int toOffset = to * dimensions;
+        for (int i = 0; i < at; i++) {
+            if (similarity(vectors, toOffset, scales[to], links[base + 1 + i]) > score) {
+                return count;
+            }
+        }
+        for (int i = count - 1; i >= at; i--) {
+            if (similarity(vectors, toOffset, scales[to], links[base + 1 + i]) > scores[base + 1 + i]) {
+                return i;
+            }
+        }
+        return at == count ? count : count - 1;
+    }
+
+    private int[] links(int node, int layer) {
+        return layer == 0 ? links0 : upperLinks[node];
+    }
+
+    private float[] linkScores(int node, int layer) {
+        return layer == 0 ? scores0 : upperScores[node];
+    }
+
+    private int linkBase(int node, int layer) {
+        return layer == 0 ? node * (m0 + 1) : (layer - 1) * (m + 1);
+    }
+
+    /** Like {@link #similarity(byte[], int, float, int)}, over only the {@code nonZero} dimensions of the target if given. */
+    private float similarity(byte[] target, int offset, float scale, int[] nonZero, int node) {
+        if (nonZero == null) {
+            return similarity(target, offset, scale, node);
+        }
+        int nodeOffset = node * dimensions;
+        int dot = 0;
+        for (int i : nonZero) {
+            dot += target[offset + i] * vectors[nodeOffset + i];
+        }
+        return dot * scale * scales[node];
+    }
+
+    private float similarity(byte[] target, int offset, float scale, int node) {
+        int nodeOffset = node * dimensions;
+        int dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += target[offset + i] * vectors[nodeOffset + i];
+        }
+        return dot * scale * scales[node];
+    }
+
+    /** Writes the vector scaled so its largest component is 127 in magnitude, returning the scale that undoes it. */
+    private float quantize(float[] vector, byte[] into, int offset) {
+        float max = 0;
+        for (float value : vector) {
+            max = Math.max(max, Math.abs(value));
+        }
+        if (max == 0) {
+            return 0;
+        }
+        float scale = max / 127;
+        for (int i = 0; i < dimensions; i++) {
+            into[offset + i] = (byte) Math.round(vector[i] / scale);
+        }
+        return scale;
+    }
+
+    /** The dimensions where {@code quantized} is not zero, or null if that is over a quarter of them. */
+    private int[] nonZeroDimensions(byte[] quantized) {
+        int count = 0;
+        for (byte value : quantized) {
+            if (value != 0) {
+                count++;
+            }
+        }
+        if (count * 4 > dimensions) {
+            return null;
+        }
+        int[] nonZero = new int[count];
+        for (int i = 0, at = 0; i < dimensions; i++) {
+            if (quantized[i] != 0) {
+                nonZero[at++] = i;
+            }
+        }
+        return nonZero;
+    }
+
+    private void ensureCapacity(int nodes) {
+        if (nodes <= scales.length) {
+            return;
+        }
+        int capacity = Math.max(nodes, Math.max(16, scales.length + (scales.length >> 1)));
+        if ((long) capacity * Math.max(dimensions, m0 + 1) > Integer.MAX_VALUE - 8) {
+            capacity = nodes;
+            if ((long) capacity * Math.max(dimensions, m0 + 1) > Integer.MAX_VALUE - 8) {
+                throw new SearchIndexException("Vector index cannot hold more than " + (nodes - 1) + " vectors");
+            }
+        }
+        vectors = Arrays.copyOf(vectors, capacity * dimensions);
+        scales = Arrays.copyOf(scales, capacity);
+        links0 = Arrays.copyOf(links0, capacity * (m0 + 1));
+        upperLinks = Arrays.copyOf(upperLinks, capacity);
+        scores0 = Arrays.copyOf(scores0, capacity * (m0 + 1));
+        upperScores = Arrays.copyOf(upperScores, capacity);
+        visited = Arrays.copyOf(visited, capacity);
+    }
+
+    /**
+     * Writes the index at the channel's position: a header, then per node its scale, quantized
+     * vector, level, bottom-layer links and their scores, then the upper-layer links and scores of
+     * the nodes that have them, then the removed-node bitmap. Reads nothing searches write, so a
+     * caller that stops {@link #add} and {@link #remove} may write while searches run.
+     */
+    void write(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(dimensions).putInt(m).putInt(efConstruction)
+                .putInt(size).putInt(entryPoint).putInt(topLevel).putInt(removedCount);
+
+        for (int node = 0; node < size; node++) {
+            buffer = ensureRemaining(channel, buffer, Float.BYTES);
+            buffer.putFloat(scales[node]);
+        }
+        for (int at = 0; at < size * dimensions; ) {
+            buffer = ensureRemaining(channel, buffer, 1);
+            int length = Math.min(buffer.remaining(), size * dimensions - at);
+            buffer.put(vectors, at, length);
+            at += length;
+        }
+        for (int node = 0; node < size; node++) {
+            buffer = ensureRemaining(channel, buffer, 1);
+            buffer.put((byte) level(node));
+        }
+        for (int i = 0; i < size * (m0 + 1); i++) {
+            buffer = ensureRemaining(channel, buffer, Integer.BYTES);
+            buffer.putInt(links0[i]);
+        }
+        for (int i = 0; i < size * (m0 + 1); i++) {
+            buffer = ensureRemaining(channel, buffer, Float.BYTES);
+            buffer.putFloat(scores0[i]);
+        }
+        for (int node = 0; node < size; node++) {
+            if (upperLinks[node] != null) {
+                for (int i = 0; i < upperLinks[node].length; i++) {
+                    buffer = ensureRemaining(channel, buffer, Integer.BYTES + Float.BYTES);
+                    buffer.putInt(upperLinks[node][i]).putFloat(upperScores[node][i]);
+                }
+            }
+        }
+        long[] removedWords = Arrays.copyOf(removed.toLongArray(), (size + 63) >>> 6);
+        for (long word : removedWords) {
+            buffer = ensureRemaining(channel, buffer, Long.BYTES);
+            buffer.putLong(word);
+        }
+        writeFully(channel, buffer);
+    }
+
+    /** Reads an index written by {@link #write(FileChannel)} at the channel's position, leaving it just past the index. */
+    static HnswIndex read(FileChannel channel) throws IOException {
+        long position = channel.position();
+        ByteBuffer header = map(channel, position, HEADER_BYTES);
+        if (header.getInt(0) != MAGIC) {
+            throw new SearchIndexException("Not a vector index at offset " + position);
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new SearchIndexException("Vector index has format version " + header.getInt(4)
+                    + ", expected " + VERSION);
+        }
+        HnswIndex index = new HnswIndex(header.getInt(8), header.getInt(12), header.getInt(16), 42);
+        int size = header.getInt(20);
+        index.ensureCapacity(size);
+        index.size = size;
+        index.entryPoint = header.getInt(24);
+        index.topLevel = header.getInt(28);
+        index.removedCount = header.getInt(32);
+        position += HEADER_BYTES;
+
+        int linkInts = index.m0 + 1;
+        for (long done = 0; done < size; ) {
+            int count = (int) Math.min(size - done, READ_CHUNK_BYTES / Float.BYTES);
+            map(channel, position, (long) count * Float.BYTES).asFloatBuffer().get(index.scales, (int) done, count);
+            position += (long) count * Float.BYTES;
+            done += count;
+        }
+        for (long done = 0; done < (long) size * index.dimensions; ) {
+            int count = (int) Math.min((long) size * index.dimensions - done, READ_CHUNK_BYTES);
+            map(channel, position, count).get(index.vectors, (int) done, count);
+            position += count;
+            done += count;
+        }
+        byte[] levels = new byte[size];
+        map(channel, position, size).get(levels);
+        position += size;
+        for (long done = 0; done < (long) size * linkInts; ) {
+            int count = (int) Math.min((long) size * linkInts - done, READ_CHUNK_BYTES / Integer.BYTES);
+            map(channel, position, (long) count * Integer.BYTES).asIntBuffer().get(index.links0, (int) done, count);
+            position += (long) count * Integer.BYTES;
+            done += count;
+        }
+        for (long done = 0; done < (long) size * linkInts; ) {
+            int count = (int) Math.min((long) size * linkInts - done, READ_CHUNK_BYTES / Float.BYTES);
+            map(channel, position, (long) count * Float.BYTES).asFloatBuffer().get(index.scores0, (int) done, count);
+            position += (long) count * Float.BYTES;
+            done += count;
+        }
+        long upperBytes = 0;
+        for (byte level : levels) {
+            upperBytes += (long) level * (index.m + 1) * (Integer.BYTES + Float.BYTES);
+        }
+        ByteBuffer upper = map(channel, position, upperBytes);
+        for (int node = 0; node < size; node++) {
+            if (levels[node] > 0) {
+                int length = levels[node] * (index.m + 1);
+                index.upperLinks[node] = new int[length];
+                index.upperScores[node] = new float[length];
+                for (int i = 0; i < length; i++) {
+                    index.upperLinks[node][i] = upper.getInt();
+                    index.upperScores[node][i] = upper.getFloat();
+                }
+            }
+        }
+        position += upperBytes;
+        int removedWords = (size + 63) >>> 6;
+        long[] words = new long[removedWords];
+        map(channel, position, (long) removedWords * Long.BYTES).asLongBuffer().get(words);
+        index.removed.or(BitSet.valueOf(words));
+        position += (long) removedWords * Long.BYTES;
+
+        channel.position(position);
+        return index;
+    }
+
+    private int level(int node) {
+        return upperLinks[node] == null ? 0 : upperLinks[node].length / (m + 1);
+    }
+
+    private static ByteBuffer ensureRemaining(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            writeFully(channel, buffer);
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long bytes) throws IOException {
+        if (position + bytes > channel.size()) {
+            throw new SearchIndexException("Vector index is truncated: needs " + (position + bytes)
+                    + " bytes, file has " + channel.size());
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, bytes);
+    }
+
+    /** Empties {@code worstFirst} into the arrays, best first, and returns how many there were. */
+    private static int drainBestFirst(NeighborHeap worstFirst, int[] nodes, float[] scores) {
+        int count = worstFirst.size();
+        for (int i = count - 1; i >= 0; i--) {
+            nodes[i] = worstFirst.topNode();
+            scores[i] = worstFirst.topScore();
+            worstFirst.pop();
+        }
+        return count;
+    }
+
+    /** A binary heap of nodes keyed by score, in parallel arrays so a search allocates nothing per node visited. */
+    private static final class NeighborHeap {
+
+        private final boolean bestOnTop;
+        private int[] nodes = new int[64];
+        private float[] scores = new float[64];
+        private int size;
+
+        NeighborHeap(boolean bestOnTop) {
+            this.bestOnTop = bestOnTop;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int topNode() {
+            return nodes[0];
+        }
+
+        float topScore() {
+            return scores[0];
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        void push(int node, float score) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            int at = size++;
+            while (at > 0) {
+                int parent = (at - 1) >>> 1;
+                if (!above(score, scores[parent])) {
+                    break;
+                }
+                nodes[at] = nodes[parent];
+                scores[at] = scores[parent];
+                at = parent;
+            }
+            nodes[at] = node;
+            scores[at] = score;
+        }
+
+        void pop() {
+            int node = nodes[--size];
+            float score = scores[size];
+            int at = 0;
+            while (2 * at + 1 < size) {
+                int child = 2 * at + 1;
+                if (child + 1 < size && above(scores[child + 1], scores[child])) {
+                    child++;
+                }
+                if (!above(scores[child], score)) {
+                    break;
+                }
+                nodes[at] = nodes[child];
+                scores[at] = scores[child];
+                at = child;
+            }
+            nodes[at] = node;
+            scores[at] = score;
+        }
+
+        private boolean above(float a, float b) {
+            return bestOnTop ? a > b : a < b;
+        }
+    }
+}
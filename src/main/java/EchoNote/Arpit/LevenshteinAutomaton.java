@@ -0,0 +1,136 @@
+package EchoNote.Arpit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accepts the strings within {@code maxEdits} insertions, deletions or substitutions of a term.
+ *
+ * A state is a row of the edit-distance table with values capped at {@code maxEdits + 1}, so there
+ * are finitely many; states and transitions are built lazily, which turns the table into a DFA.
+ * Characters that do not occur in the term all behave alike and share one transition column.
+ */
+final class LevenshteinAutomaton {
+
+    static final int DEAD = -1;
+    private static final int UNKNOWN = -2;
+
+    private final String term;
+    private final int maxEdits;
+
+    // The term's distinct characters, sorted; character i has column i + 1 and column 0 is the rest.
+    private final char[] alphabet;
+    private final List<int[]> rows = new ArrayList<>();
+    private final Map<String, Integer> stateIds = new HashMap<>();
+    private int[][] transitions = new int[8][];
+
+    LevenshteinAutomaton(String term, int maxEdits) {
+        if (term == null) {
+            throw new IllegalArgumentException("term must not be null");
+        }
+        if (maxEdits < 0) {
+            throw new IllegalArgumentException("maxEdits must not be negative");
+        }
+        this.term = term;
+        this.maxEdits = maxEdits;
+        this.alphabet = term.chars().distinct().sorted()
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                .toString().toCharArray();
+
+        int[] start = new int[term.length() + 1];
+        for (int i = 0; i < start.length; i++) {
+            start[i] = Math.min(i, maxEdits + 1);
+        }
+        intern(start);
+    }
+
+    int start() {
+        return 0;
+    }
+
+    /** The state after reading {@code c}, or {@link #DEAD} if no continuation can be accepted. */
+    int step(int state, char c) {
+        int column = Arrays.binarySearch(alphabet, c) + 1;
+        if (column < 0) {
+            column = 0;
+        }
+        int cached = transitions[state][column];
+        if (cached != UNKNOWN) {
+            return cached;
+        }
+
+        int[] row = rows.get(state);
+        int[] next = new int[row.length];
+        next[0] = Math.min(row[0] + 1, maxEdits + 1);
+        int best = next[0];
+        for (int i = 1; i < row.length; i++) {
+            int substitute = row[i - 1] + (term.charAt(i - 1) == c ? 0 : 1);
+            next[i] = Math.min(Math.min(substitute, row[i] + 1), Math.min(next[i - 1] + 1, maxEdits + 1));
+            best = Math.min(best, next[i]);
+        }
+
+        int target = best > maxEdits ? DEAD : intern(next);
+        transitions[state][column] = target;
+        return target;
+    }
+
+    /**
+     * The smallest character after {@code after} that does not lead to {@link #DEAD} from
+     * {@code state}, or -1 if there is none.
+     */
+    int nextLiveChar(int state, char after) {
+        // All characters outside the term behave alike, so only the first one needs checking.
+        int other = after + 1;
+        int i = 0;
+        while (i < alphabet.length && alphabet[i] < other) {
+            i++;
+        }
+        while (i < alphabet.length && alphabet[i] == other) {
+            i++;
+            other++;
+        }
+        boolean otherLive = other <= Character.MAX_VALUE && step(state, (char) other) != DEAD;
+
+        for (char c : alphabet) {
+            if (c > after) {
+                if (otherLive && other < c) {
+                    return other;
+                }
+                if (step(state, c) != DEAD) {
+                    return c;
+                }
+            }
+        }
+        return otherLive ? other : -1;
+    }
+
+    boolean isAccepted(int state) {
+        return distance(state) <= maxEdits;
+    }
+
+    /** Edit distance between the term and the input read so far, if it is within the limit. */
+    int distance(int state) {
+        int[] row = rows.get(state);
+        return row[row.length - 1];
+    }
+
+    private int intern(int[] row) {
+        char[] key = new char[row.length];
+        for (int i = 0; i < row.length; i++) {
+            key[i] = (char) row[i];
+        }
+        return stateIds.computeIfAbsent(new String(key), k -> {
+            int id = rows.size();
+            rows.add(row);
+            if (id == transitions.length) {
+                transitions = Arrays.copyOf(transitions, id * 2);
+            }
+            transitions[id] = new int[alphabet.length + 1];
+            Arrays.fill(transitions[id], UNKNOWN);
+            return id;
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package EchoNote.Arpit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The mutable segment new and changed meetings are indexed into. A meeting keeps its
+ * document id across updates, and removed ids are not reused until the segment is flushed.
+ */
+final class MemorySegment implements SegmentView {
+
+    private final Map<SearchField, FieldIndex> fields = new EnumMap<>(SearchField.class);
+    private final List<UUID> documents = new ArrayList<>();
+    private final Map<UUID, Integer> docIds = new HashMap<>();
+    private long[] dates = new long[16];
+
+    MemorySegment() {
+        for (SearchField field : SearchField.values()) {
+            fields.put(field, new FieldIndex());
+        }
+    }
+
+    /** Indexes or re-indexes a meeting, returning how many postings were changed. */
+    int index(UUID meetingId, long date, Map<SearchField, List<Tokenizer.Token>> tokens) {
+        Integer docId = docIds.get(meetingId);
+        if (docId == null) {
+            docId = documents.size();
+            documents.add(meetingId);
+            docIds.put(meetingId, docId);
+            if (docId == dates.length) {
+                dates = Arrays.copyOf(dates, dates.length * 2);
+            }
+        }
+        dates[docId] = date;
+
+        int changed = 0;
+        for (SearchField field : SearchField.values()) {
+            changed += fields.get(field).put(docId, tokens.get(field));
+        }
+        return changed;
+    }
+
+    boolean remove(UUID meetingId) {
+        Integer docId = docIds.remove(meetingId);
+        if (docId == null) {
+            return false;
+        }
+        documents.set(docId, null);
+        for (FieldIndex field : fields.values()) {
+            field.remove(docId);
+        }
+        return true;
+    }
+
+    boolean contains(UUID meetingId) {
+        return docIds.containsKey(meetingId);
+    }
+
+    @Override
+    public int maxDoc() {
+        return documents.size();
+    }
+
+    @Override
+    public boolean isLive(int doc) {
+        return documents.get(doc) != null;
+    }
+
+    @Override
+    public int liveDocCount() {
+        return docIds.size();
+    }
+
+    @Override
+    public UUID uuid(int doc) {
+        return documents.get(doc);
+    }
+
+    @Override
+    public long date(int doc) {
+        return dates[doc];
+    }
+
+    @Override
+    public int length(SearchField field, int doc) {
+        return fields.get(field).length(doc);
+    }
+
+    @Override
+    public long liveTotalLength(SearchField field) {
+        return fields.get(field).totalLength();
+    }
+
+    @Override
+    public int documentFrequency(SearchField field, String term) {
+        PostingsList postings = fields.get(field).postings(term);
+        return postings != null ? postings.size() : 0;
+    }
+
+    @Override
+    public PostingsCursor postings(SearchField field, String term) {
+        PostingsList postings = fields.get(field).postings(term);
+        return postings != null ? postings.cursor() : null;
+    }
+
+    @Override
+    public void forEachTerm(SearchField field, TermConsumer consumer) {
+        FieldIndex index = fields.get(field);
+        for (Iterator<String> terms = index.terms(); terms.hasNext(); ) {
+            String term = terms.next();
+            consumer.accept(term, index.postings(term).size());
+        }
+    }
+
+    @Override
+    public Iterator<String> terms(SearchField field) {
+        return fields.get(field).terms();
+    }
+}
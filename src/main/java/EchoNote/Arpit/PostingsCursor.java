@@ -0,0 +1,26 @@
+package EchoNote.Arpit;
+
+/**
+ * Walks one term's postings in ascending document order, skipping deleted documents.
+ * Starts before the first document; call {@link #nextDoc()} or {@link #advance(int)} first.
+ */
+interface PostingsCursor extends DocIterator {
+
+    /**
+     * Moves to the first document at or after {@code target}, probing 1, 2, 4... postings ahead
+     * before binary searching, so skipping far is logarithmic and skipping near is cheap.
+     */
+    @Override
+    int advance(int target);
+
+    int frequency();
+
+    /** Positions of the term in the current document, ascending. */
+    int[] positions();
+
+    /**
+     * Character offsets of the term in the current document's field text: the start and end of
+     * each occurrence, two ints per position and in the same order.
+     */
+    int[] offsets();
+}
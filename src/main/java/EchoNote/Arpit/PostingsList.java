@@ -0,0 +1,129 @@
+package EchoNote.Arpit;
+
+import java.util.Arrays;
+
+/** Document ids in ascending order, each with the term's positions and character offsets in that document. */
+final class PostingsList {
+
+    private int[] docIds = new int[4];
+    private int[][] positions = new int[4][];
+    private int[][] offsets = new int[4][];
+    private int size;
+
+    /** Inserts or updates the posting for {@code docId}. New documents have the highest id, so this is usually an append. */
+    void put(int docId, int[] termPositions, int[] termOffsets) {
+        if (size > 0 && docIds[size - 1] < docId) {
+            append(docId, termPositions, termOffsets);
+            return;
+        }
+
+        int index = Arrays.binarySearch(docIds, 0, size, docId);
+        if (index >= 0) {
+            positions[index] = termPositions;
+            offsets[index] = termOffsets;
+            return;
+        }
+
+        int insertAt = -index - 1;
+        ensureCapacity();
+        System.arraycopy(docIds, insertAt, docIds, insertAt + 1, size - insertAt);
+        System.arraycopy(positions, insertAt, positions, insertAt + 1, size - insertAt);
+        System.arraycopy(offsets, insertAt, offsets, insertAt + 1, size - insertAt);
+        docIds[insertAt] = docId;
+        positions[insertAt] = termPositions;
+        offsets[insertAt] = termOffsets;
+        size++;
+    }
+
+    void remove(int docId) {
+        int index = Arrays.binarySearch(docIds, 0, size, docId);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(docIds, index + 1, docIds, index, size - index - 1);
+        System.arraycopy(positions, index + 1, positions, index, size - index - 1);
+        System.arraycopy(offsets, index + 1, offsets, index, size - index - 1);
+        size--;
+        positions[size] = null;
+        offsets[size] = null;
+    }
+
+    private void append(int docId, int[] termPositions, int[] termOffsets) {
+        ensureCapacity();
+        docIds[size] = docId;
+        positions[size] = termPositions;
+        offsets[size] = termOffsets;
+        size++;
+    }
+
+    private void ensureCapacity() {
+        if (size == docIds.length) {
+            docIds = Arrays.copyOf(docIds, size * 2);
+            positions = Arrays.copyOf(positions, size * 2);
+            offsets = Arrays.copyOf(offsets, size * 2);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int docId(int index) {
+        return docIds[index];
+    }
+
+    int frequency(int index) {
+        return positions[index].length;
+    }
+
+    PostingsCursor cursor() {
+        return new PostingsCursor() {
+            private int index = -1;
+
+            @Override
+            public int doc() {
+                return index < 0 ? -1 : index < size ? docIds[index] : NO_MORE_DOCS;
+            }
+
+            @Override
+            public int nextDoc() {
+                index++;
+                return doc();
+            }
+
+            @Override
+            public int advance(int target) {
+                int from = Math.max(index, 0);
+                int step = 1;
+                int bound = from;
+                while (bound < size && docIds[bound] < target) {
+                    from = bound + 1;
+                    bound += step;
+                    step <<= 1;
+                }
+                int found = Arrays.binarySearch(docIds, from, Math.min(bound + 1, size), target);
+                index = found >= 0 ? found : -found - 1;
+                return doc();
+            }
+
+            @Override
+            public int frequency() {
+                return positions[index].length;
+            }
+
+            @Override
+            public int[] positions() {
+                return positions[index];
+            }
+
+            @Override
+            public int[] offsets() {
+                return offsets[index];
+            }
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package EchoNote.Arpit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * An immutable autocomplete index. Every suggestion is keyed by its lowercased text and by each
+ * later word in it, so "rev" finds "Budget Review". Keys are kept in one sorted array, and a
+ * segment tree over their frequencies finds the most frequent key in any range, so the top N
+ * for a prefix cost a binary search plus O(N log n), however many keys share the prefix.
+ */
+final class PrefixSuggester {
+
+    private final String[] keys;
+    private final Suggestion[] targets;
+    // tree[i] is the index of the most frequent key under node i; leaves start at leafBase.
+    private final int[] tree;
+    private final int leafBase;
+
+    private PrefixSuggester(String[] keys, Suggestion[] targets) {
+        this.keys = keys;
+        this.targets = targets;
+
+        int base = 1;
+        while (base < Math.max(1, keys.length)) {
+            base <<= 1;
+        }
+        this.leafBase = base;
+        this.tree = new int[2 * base];
+        Arrays.fill(tree, -1);
+        for (int i = 0; i < keys.length; i++) {
+            tree[base + i] = i;
+        }
+        for (int node = base - 1; node > 0; node--) {
+            tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    static PrefixSuggester build(Collection<Suggestion> suggestions) {
+        record Key(String key, Suggestion target) {
+        }
+
+        List<Key> all = new ArrayList<>();
+        for (Suggestion suggestion : suggestions) {
+            String text = suggestion.text().toLowerCase(Locale.ROOT);
+            for (int i = 0; i < text.length(); i++) {
+                boolean wordStart = Character.isLetterOrDigit(text.charAt(i))
+                        && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)));
+                if (wordStart) {
+                    all.add(new Key(text.substring(i), suggestion));
+                }
+            }
+        }
+        all.sort((a, b) -> a.key().compareTo(b.key()));
+
+        String[] keys = new String[all.size()];
+        Suggestion[] targets = new Suggestion[all.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = all.get(i).key();
+            targets[i] = all.get(i).target();
+        }
+        return new PrefixSuggester(keys, targets);
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    /** The {@code limit} most frequent suggestions with a key starting with {@code prefix}, in lowercase. */
+    List<Suggestion> suggest(String prefix, int limit) {
+        int from = lowerBound(prefix);
+        int to = lowerBound(prefix + Character.MAX_VALUE);
+
+        // Ranges ordered by their best key; taking one splits it around that key.
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> compare(b[2], a[2]));
+        offer(ranges, from, to);
+
+        List<Suggestion> result = new ArrayList<>();
+        Set<Suggestion> seen = new HashSet<>();
+        while (!ranges.isEmpty() && result.size() < limit) {
+            int[] range = ranges.poll();
+            int best = range[2];
+            if (seen.add(targets[best])) {
+                result.add(targets[best]);
+            }
+            offer(ranges, range[0], best);
+            offer(ranges, best + 1, range[1]);
+        }
+        return result;
+    }
+
+    private void offer(PriorityQueue<int[]> ranges, int from, int to) {
+        if (from < to) {
+            ranges.add(new int[] {from, to, best(from, to)});
+        }
+    }
+
+    /** The most frequent key in {@code [from, to)}. */
+    private int best(int from, int to) {
+        int result = -1;
+        for (int lo = from + leafBase, hi = to + leafBase; lo < hi; lo >>= 1, hi >>= 1) {
+            if ((lo & 1) == 1) {
+                result = better(result, tree[lo++]);
+            }
+            if ((hi & 1) == 1) {
+                result = better(result, tree[--hi]);
+            }
+        }
+        return result;
+    }
+
+    private int better(int a, int b) {
+        return compare(a, b) >= 0 ? a : b;
+    }
+
+    /** Higher frequency wins; ties go to the earlier key so results are alphabetical. */
+    private int compare(int a, int b) {
+        if (a < 0 || b < 0) {
+            return a < 0 ? (b < 0 ? 0 : -1) : 1;
+        }
+        int byFrequency = Integer.compare(targets[a].frequency(), targets[b].frequency());
+        return byFrequency != 0 ? byFrequency : Integer.compare(b, a);
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
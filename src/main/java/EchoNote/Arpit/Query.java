@@ -0,0 +1,29 @@
+package EchoNote.Arpit;
+
+import java.util.List;
+
+/** A parsed search query; see {@link QueryParser} for the syntax. A null field means every field. */
+sealed interface Query {
+
+    /** A word, matched exactly or by prefix, substring or typo. */
+    record Term(SearchField field, String text) implements Query {
+    }
+
+    /** Words that must occur consecutively and in order. */
+    record Phrase(SearchField field, List<String> terms) implements Query {
+    }
+
+    /** Two phrases (a word being a one-word phrase) in either order with at most {@code distance} words between them. */
+    record Near(SearchField field, List<String> left, List<String> right, int distance) implements Query {
+    }
+
+    /** Every positive clause must match and no {@link Not} clause may. */
+    record And(List<Query> clauses) implements Query {
+    }
+
+    record Or(List<Query> clauses) implements Query {
+    }
+
+    record Not(Query clause) implements Query {
+    }
+}
@@ -0,0 +1,529 @@
+package EchoNote.Arpit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Scores a {@link Query} against a snapshot of the index segments with BM25. Collection statistics
+ * are summed over all segments so scores do not depend on where a meeting is stored. Documents are
+ * keyed by segment position in the high 32 bits.
+ *
+ * Words are matched exactly, by prefix, by substring or within a few typos, with inexact matches
+ * counting for less. Phrases and NEAR match exact words only: their postings are intersected by
+ * leapfrogging cursors, and positions are only compared in documents containing every word.
+ *
+ * Words that must all match are intersected the same way: each word's cursor is the union of its
+ * fields and expansions, the rarest word leads, and the others skip ahead to its documents, so
+ * only documents containing every word are scored. Other clauses (phrases, OR groups) are scored
+ * in full and intersected by document key.
+ */
+final class QueryEvaluator {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_MATCH_WEIGHT = 0.5;
+    private static final double SUBSTRING_MATCH_WEIGHT = 0.3;
+    private static final double FUZZY_MATCH_WEIGHT = 0.4;
+    private static final int MAX_EXPANSIONS = 64;
+
+    private final List<SegmentView> views;
+    private final TermDictionary dictionary;
+    private final int liveCount;
+    private final double[] averageLengths = new double[SearchField.values().length];
+
+    QueryEvaluator(List<SegmentView> views, TermDictionary dictionary) {
+        this.views = views;
+        this.dictionary = dictionary;
+        int live = 0;
+        for (SegmentView view : views) {
+            live += view.liveDocCount();
+        }
+        this.liveCount = live;
+        for (SearchField field : SearchField.values()) {
+            long totalLength = 0;
+            for (SegmentView view : views) {
+                totalLength += view.liveTotalLength(field);
+            }
+            averageLengths[field.ordinal()] = live > 0 ? (double) totalLength / live : 0.0;
+        }
+    }
+
+    /** BM25 score per matching document. */
+    Map<Long, Double> evaluate(Query query) {
+        return evaluate(query, true);
+    }
+
+    /** Excluded words are matched exactly, so NOT ship does not also drop meetings about a shop. */
+    private Map<Long, Double> evaluate(Query query, boolean expand) {
+        if (query instanceof Query.Term term) {
+            return expand
+                    ? scoreTerm(term.field(), term.text())
+                    : scorePositional(term.field(), List.of(term.text()), null, 0);
+        }
+        if (query instanceof Query.Phrase phrase) {
+            return scorePositional(phrase.field(), phrase.terms(), null, 0);
+        }
+        if (query instanceof Query.Near near) {
+            return scorePositional(near.field(), near.left(), near.right(), near.distance());
+        }
+        if (query instanceof Query.And and) {
+            return and(and.clauses(), expand);
+        }
+        if (query instanceof Query.Or or) {
+            Map<Long, Double> scores = new HashMap<>();
+            for (Query clause : or.clauses()) {
+                evaluate(clause, expand).forEach((doc, score) -> scores.merge(doc, score, Double::sum));
+            }
+            return scores;
+        }
+        return and(List.of(query), expand);
+    }
+
+    /** The indexed words {@code query} matches per field, expansions included; excluded words are left out. */
+    Map<SearchField, Set<String>> matchedTerms(Query query) {
+        Map<SearchField, Set<String>> terms = new EnumMap<>(SearchField.class);
+        collectTerms(query, terms);
+        return terms;
+    }
+
+    private void collectTerms(Query query, Map<SearchField, Set<String>> terms) {
+        List<String> words = new ArrayList<>();
+        SearchField scope = null;
+        if (query instanceof Query.Term term) {
+            words.addAll(expand(term.text()).keySet());
+            scope = term.field();
+        } else if (query instanceof Query.Phrase phrase) {
+            words.addAll(phrase.terms());
+            scope = phrase.field();
+        } else if (query instanceof Query.Near near) {
+            words.addAll(near.left());
+            words.addAll(near.right());
+            scope = near.field();
+        } else if (query instanceof Query.And and) {
+            and.clauses().forEach(clause -> collectTerms(clause, terms));
+        } else if (query instanceof Query.Or or) {
+            or.clauses().forEach(clause -> collectTerms(clause, terms));
+        }
+        for (SearchField field : words.isEmpty() ? new SearchField[0] : fields(scope)) {
+            terms.computeIfAbsent(field, f -> new HashSet<>()).addAll(words);
+        }
+    }
+
+    /** Documents matching every positive clause and no {@link Query.Not}; all live documents if all are negative. */
+    private Map<Long, Double> and(List<Query> clauses, boolean expand) {
+        Map<Long, Double> scores = null;
+        List<Query> excluded = new ArrayList<>();
+        List<Query.Term> words = new ArrayList<>();
+        List<Query> others = new ArrayList<>();
+        for (Query clause : clauses) {
+            if (clause instanceof Query.Not not) {
+                excluded.add(not.clause());
+            } else if (expand && clause instanceof Query.Term term) {
+                words.add(term);
+            } else {
+                others.add(clause);
+            }
+        }
+        if (words.size() > 1) {
+            scores = conjunction(words);
+            if (scores.isEmpty()) {
+                return scores;
+            }
+        } else {
+            others.addAll(0, words);
+        }
+        for (Query clause : others) {
+            Map<Long, Double> clauseScores = evaluate(clause, expand);
+            scores = scores == null ? clauseScores : intersect(scores, clauseScores);
+            if (scores.isEmpty()) {
+                return scores;
+            }
+        }
+        if (scores == null) {
+            scores = allLive();
+        }
+        for (Query clause : excluded) {
+            scores.keySet().removeAll(evaluate(clause, false).keySet());
+        }
+        return scores;
+    }
+
+    private static Map<Long, Double> intersect(Map<Long, Double> a, Map<Long, Double> b) {
+        Map<Long, Double> smaller = a.size() <= b.size() ? a : b;
+        Map<Long, Double> larger = smaller == a ? b : a;
+        Map<Long, Double> both = new HashMap<>();
+        for (Map.Entry<Long, Double> entry : smaller.entrySet()) {
+            Double other = larger.get(entry.getKey());
+            if (other != null) {
+                both.put(entry.getKey(), entry.getValue() + other);
+            }
+        }
+        return both;
+    }
+
+    /** Every live document, scored zero. */
+    Map<Long, Double> allLive() {
+        Map<Long, Double> all = new HashMap<>();
+        for (int i = 0; i < views.size(); i++) {
+            SegmentView view = views.get(i);
+            for (int doc = 0; doc < view.maxDoc(); doc++) {
+                if (view.isLive(doc)) {
+                    all.put(key(i, doc), 0.0);
+                }
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Documents containing every word, by leapfrogging one {@link WordCursor} per word rarest first,
+     * scored with the same sums as {@link #scoreTerm} added up word by word.
+     */
+    private Map<Long, Double> conjunction(List<Query.Term> words) {
+        List<List<Match>> matches = new ArrayList<>();
+        for (Query.Term word : words) {
+            List<Match> wordMatches = matches(word.field(), word.text());
+            if (wordMatches.isEmpty()) {
+                return new HashMap<>();
+            }
+            matches.add(wordMatches);
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        segments:
+        for (int i = 0; i < views.size(); i++) {
+            SegmentView view = views.get(i);
+            WordCursor[] cursors = new WordCursor[words.size()];
+            for (int k = 0; k < cursors.length; k++) {
+                cursors[k] = new WordCursor(view, matches.get(k));
+                if (cursors[k].cost == 0) {
+                    continue segments;
+                }
+            }
+            WordCursor[] byRarity = cursors.clone();
+            Arrays.sort(byRarity, Comparator.comparingLong(cursor -> cursor.cost));
+
+            for (int doc = nextCommonDoc(byRarity); doc != DocIterator.NO_MORE_DOCS; doc = nextCommonDoc(byRarity)) {
+                double score = cursors[0].score();
+                for (int k = 1; k < cursors.length; k++) {
+                    score += cursors[k].score();
+                }
+                scores.put(key(i, doc), score);
+            }
+        }
+        return scores;
+    }
+
+    /** One indexed term a query word matches in one field, with its weight and idf. */
+    private record Match(SearchField field, String term, double weight, double idf) {
+    }
+
+    /** What a word matches, in the order {@link #scoreTerm} sums them: by field, then by expansion. */
+    private List<Match> matches(SearchField scope, String word) {
+        List<Match> matches = new ArrayList<>();
+        Map<String, Double> expansions = expand(word);
+        for (SearchField field : fields(scope)) {
+            for (Map.Entry<String, Double> expansion : expansions.entrySet()) {
+                double idf = idf(field, expansion.getKey());
+                if (idf != 0) {
+                    matches.add(new Match(field, expansion.getKey(), field.getWeight() * expansion.getValue(), idf));
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * The documents of one segment containing any of a word's matches: the union of their postings.
+     * Every match's cursor is kept at or past the current document, so those on it are the ones to score.
+     */
+    private final class WordCursor implements DocIterator {
+
+        private final SegmentView view;
+        private final Match[] matches;
+        private final PostingsCursor[] postings;
+        // Postings in this segment; the rarest word leads the intersection.
+        private final long cost;
+        private int doc = -1;
+
+        WordCursor(SegmentView view, List<Match> wordMatches) {
+            this.view = view;
+            List<Match> present = new ArrayList<>();
+            List<PostingsCursor> cursors = new ArrayList<>();
+            long total = 0;
+            for (Match match : wordMatches) {
+                PostingsCursor cursor = view.postings(match.field(), match.term());
+                if (cursor != null) {
+                    present.add(match);
+                    cursors.add(cursor);
+                    total += view.documentFrequency(match.field(), match.term());
+                }
+            }
+            this.matches = present.toArray(new Match[0]);
+            this.postings = cursors.toArray(new PostingsCursor[0]);
+            this.cost = total;
+        }
+
+        @Override
+        public int doc() {
+            return doc;
+        }
+
+        @Override
+        public int nextDoc() {
+            return advance(doc + 1);
+        }
+
+        @Override
+        public int advance(int target) {
+            int next = NO_MORE_DOCS;
+            for (PostingsCursor cursor : postings) {
+                int at = cursor.doc() < target ? cursor.advance(target) : cursor.doc();
+                next = Math.min(next, at);
+            }
+            doc = next;
+            return doc;
+        }
+
+        /** The summed score of the matches in the current document. */
+        double score() {
+            double score = 0;
+            for (int m = 0; m < postings.length; m++) {
+                if (postings[m].doc() == doc) {
+                    Match match = matches[m];
+                    score += match.weight() * bm25(match.idf(), postings[m].frequency(), view.length(match.field(), doc), match.field());
+                }
+            }
+            return score;
+        }
+    }
+
+    /** Score per document for one word, summed over fields and expansions. */
+    private Map<Long, Double> scoreTerm(SearchField scope, String term) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Match match : matches(scope, term)) {
+            for (int i = 0; i < views.size(); i++) {
+                SegmentView view = views.get(i);
+                PostingsCursor cursor = view.postings(match.field(), match.term());
+                if (cursor == null) {
+                    continue;
+                }
+                for (int doc = cursor.nextDoc(); doc != PostingsCursor.NO_MORE_DOCS; doc = cursor.nextDoc()) {
+                    double score = bm25(match.idf(), cursor.frequency(), view.length(match.field(), doc), match.field());
+                    scores.merge(key(i, doc), match.weight() * score, Double::sum);
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * The indexed terms a word matches, with the weight each counts for: the word itself,
+     * then up to {@link #MAX_EXPANSIONS} each of prefix, substring and fuzzy matches.
+     */
+    private Map<String, Double> expand(String term) {
+        Map<String, Double> expansions = new LinkedHashMap<>();
+        expansions.put(term, 1.0);
+
+        int added = 0;
+        for (String match : dictionary.withPrefix(term)) {
+            if (added == MAX_EXPANSIONS) {
+                break;
+            }
+            if (expansions.putIfAbsent(match, PREFIX_MATCH_WEIGHT) == null) {
+                added++;
+            }
+        }
+
+        if (term.length() >= TermDictionary.GRAM) {
+            added = 0;
+            for (String match : dictionary.containing(term)) {
+                if (added == MAX_EXPANSIONS) {
+                    break;
+                }
+                if (expansions.putIfAbsent(match, SUBSTRING_MATCH_WEIGHT) == null) {
+                    added++;
+                }
+            }
+        }
+
+        int maxEdits = term.length() < 3 ? 0 : term.length() < 6 ? 1 : 2;
+        if (maxEdits > 0) {
+            added = 0;
+            for (TermDictionary.Match match : dictionary.withinDistance(term, maxEdits)) {
+                if (added == MAX_EXPANSIONS) {
+                    break;
+                }
+                if (expansions.putIfAbsent(match.term(), FUZZY_MATCH_WEIGHT / match.distance()) == null) {
+                    added++;
+                }
+            }
+        }
+        return expansions;
+    }
+
+    /**
+     * Scores documents where {@code left} occurs as a phrase or, given {@code right}, where the two
+     * phrases occur in either order with at most {@code distance} words between them. The match
+     * count stands in for term frequency and the words' idfs are summed.
+     */
+    private Map<Long, Double> scorePositional(SearchField scope, List<String> left, List<String> right, int distance) {
+        List<String> words = new ArrayList<>(left);
+        if (right != null) {
+            right.stream().filter(word -> !words.contains(word)).forEach(words::add);
+        }
+        int[] leftSlots = slots(words, left);
+        int[] rightSlots = right != null ? slots(words, right) : null;
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (SearchField field : fields(scope)) {
+            double idf = 0;
+            for (String word : words) {
+                double wordIdf = idf(field, word);
+                if (wordIdf == 0) {
+                    idf = 0;
+                    break;
+                }
+                idf += wordIdf;
+            }
+            if (idf == 0) {
+                continue;
+            }
+
+            for (int i = 0; i < views.size(); i++) {
+                SegmentView view = views.get(i);
+                PostingsCursor[] cursors = new PostingsCursor[words.size()];
+                for (int k = 0; k < cursors.length && (k == 0 || cursors[k - 1] != null); k++) {
+                    cursors[k] = view.postings(field, words.get(k));
+                }
+                if (cursors[cursors.length - 1] == null) {
+                    continue;
+                }
+                // Lead with the rarest word so the others are advanced as far as possible each step.
+                PostingsCursor[] byRarity = IntStream.range(0, cursors.length).boxed()
+                        .sorted(Comparator.comparingInt(k -> view.documentFrequency(field, words.get(k))))
+                        .map(k -> cursors[k])
+                        .toArray(PostingsCursor[]::new);
+
+                int[][] positions = new int[cursors.length][];
+                for (int doc = nextCommonDoc(byRarity); doc != PostingsCursor.NO_MORE_DOCS; doc = nextCommonDoc(byRarity)) {
+                    for (int k = 0; k < cursors.length; k++) {
+                        positions[k] = cursors[k].positions();
+                    }
+                    int[] leftStarts = phraseStarts(positions, leftSlots);
+                    int matches = rightSlots == null
+                            ? leftStarts.length
+                            : nearMatches(leftStarts, left.size(), phraseStarts(positions, rightSlots), right.size(), distance);
+                    if (matches > 0) {
+                        double score = bm25(idf, matches, view.length(field, doc), field);
+                        scores.merge(key(i, doc), field.getWeight() * score, Double::sum);
+                    }
+                }
+            }
+        }
+        return scores;
+    }
+
+    /** Where each word of {@code phrase} is in {@code words}. */
+    private static int[] slots(List<String> words, List<String> phrase) {
+        int[] slots = new int[phrase.size()];
+        for (int k = 0; k < slots.length; k++) {
+            slots[k] = words.indexOf(phrase.get(k));
+        }
+        return slots;
+    }
+
+    /** Advances the cursors to the next document all of them contain. */
+    private static int nextCommonDoc(DocIterator[] cursors) {
+        int doc = cursors[0].nextDoc();
+        int k = 1;
+        while (doc != PostingsCursor.NO_MORE_DOCS && k < cursors.length) {
+            int at = cursors[k].doc() < doc ? cursors[k].advance(doc) : cursors[k].doc();
+            if (at == doc) {
+                k++;
+            } else {
+                doc = cursors[0].advance(at);
+                k = 1;
+            }
+        }
+        return doc;
+    }
+
+    /** Positions where the phrase's words occur one after another. */
+    private static int[] phraseStarts(int[][] positions, int[] slots) {
+        int[] first = positions[slots[0]];
+        int[] starts = new int[first.length];
+        int count = 0;
+        candidates:
+        for (int start : first) {
+            for (int k = 1; k < slots.length; k++) {
+                if (Arrays.binarySearch(positions[slots[k]], start + k) < 0) {
+                    continue candidates;
+                }
+            }
+            starts[count++] = start;
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    /** Pairs of occurrences with at most {@code distance} words between them, in either order. */
+    private static int nearMatches(int[] leftStarts, int leftLength, int[] rightStarts, int rightLength, int distance) {
+        int matches = 0;
+        for (int start : leftStarts) {
+            int after = start + leftLength;
+            matches += countBetween(rightStarts, after, after + distance);
+            matches += countBetween(rightStarts, start - rightLength - distance, start - rightLength);
+        }
+        return matches;
+    }
+
+    private static int countBetween(int[] sorted, int from, int to) {
+        return lowerBound(sorted, to + 1) - lowerBound(sorted, from);
+    }
+
+    private static int lowerBound(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Zero if no live or deleted document in any segment contains the term. */
+    private double idf(SearchField field, String term) {
+        double df = 0;
+        for (SegmentView view : views) {
+            df += view.documentFrequency(field, term);
+        }
+        return df == 0 ? 0 : Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+    }
+
+    private double bm25(double idf, double tf, int length, SearchField field) {
+        double averageLength = averageLengths[field.ordinal()];
+        double norm = averageLength > 0 ? length / averageLength : 1.0;
+        return idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * norm));
+    }
+
+    private static SearchField[] fields(SearchField scope) {
+        return scope == null ? SearchField.values() : new SearchField[] {scope};
+    }
+
+    private static long key(int segment, int doc) {
+        return (long) segment << 32 | doc;
+    }
+}
@@ -0,0 +1,248 @@
+package EchoNote.Arpit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the search box syntax:
+ * <ul>
+ *   <li>{@code budget review} - both words (AND is implied); {@code AND}, {@code OR} and {@code NOT}
+ *       combine clauses, with parentheses for grouping</li>
+ *   <li>{@code "quarterly budget review"} - the words next to each other, in order</li>
+ *   <li>{@code budget NEAR/3 review} - at most three words apart, either order ({@code NEAR} alone allows five)</li>
+ *   <li>{@code title:budget}, {@code action:"send deck"}, {@code decision:(ship OR delay)} - one field only</li>
+ * </ul>
+ * Operators are only recognized in upper case, so "and", "or" and "not" are searched as words.
+ * The parser never rejects input: unbalanced quotes and parentheses are closed at the end, and an
+ * unknown {@code name:} prefix is searched as text.
+ */
+final class QueryParser {
+
+    static final int DEFAULT_NEAR_DISTANCE = 5;
+
+    private static final Pattern NEAR = Pattern.compile("NEAR(?:/(\\d+))?");
+    private static final Map<String, SearchField> FIELDS = Map.ofEntries(
+            Map.entry("title", SearchField.TITLE),
+            Map.entry("tag", SearchField.TAGS),
+            Map.entry("tags", SearchField.TAGS),
+            Map.entry("summary", SearchField.SUMMARY),
+            Map.entry("decision", SearchField.DECISION),
+            Map.entry("decisions", SearchField.DECISION),
+            Map.entry("action", SearchField.ACTION),
+            Map.entry("actions", SearchField.ACTION),
+            Map.entry("transcript", SearchField.TRANSCRIPT));
+
+    private enum Type { WORD, PHRASE, FIELD, OPEN, CLOSE }
+
+    private record Token(Type type, String text) {
+    }
+
+    private final List<Token> tokens;
+    private int next;
+
+    private QueryParser(List<Token> tokens) {
+        this.tokens = tokens;
+    }
+
+    /** The parsed query, or null if it contains nothing searchable. */
+    static Query parse(String query) {
+        if (query == null) {
+            return null;
+        }
+        QueryParser parser = new QueryParser(lex(query));
+        // A stray ')' ends a top-level clause early; keep going so nothing typed is ignored.
+        List<Query> clauses = new ArrayList<>();
+        while (parser.next < parser.tokens.size()) {
+            addClause(clauses, parser.parseOr(null));
+            if (parser.peek(Type.CLOSE)) {
+                parser.next++;
+            }
+        }
+        return combine(clauses, true);
+    }
+
+    private static List<Token> lex(String query) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(new Token(c == '(' ? Type.OPEN : Type.CLOSE, String.valueOf(c)));
+                i++;
+            } else if (c == '"') {
+                int end = query.indexOf('"', i + 1);
+                end = end < 0 ? query.length() : end;
+                tokens.add(new Token(Type.PHRASE, query.substring(i + 1, end)));
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < query.length() && !Character.isWhitespace(query.charAt(end))
+                        && "()\"".indexOf(query.charAt(end)) < 0) {
+                    end++;
+                }
+                String word = query.substring(i, end);
+                int colon = word.indexOf(':');
+                SearchField field = colon > 0 ? FIELDS.get(word.substring(0, colon).toLowerCase(Locale.ROOT)) : null;
+                if (field != null) {
+                    tokens.add(new Token(Type.FIELD, field.name()));
+                    if (colon + 1 < word.length()) {
+                        tokens.add(new Token(Type.WORD, word.substring(colon + 1)));
+                    }
+                } else {
+                    tokens.add(new Token(Type.WORD, word));
+                }
+                i = end;
+            }
+        }
+        return tokens;
+    }
+
+    private Query parseOr(SearchField field) {
+        List<Query> clauses = new ArrayList<>();
+        addClause(clauses, parseAnd(field));
+        while (peekWord("OR")) {
+            next++;
+            addClause(clauses, parseAnd(field));
+        }
+        return combine(clauses, false);
+    }
+
+    private Query parseAnd(SearchField field) {
+        List<Query> clauses = new ArrayList<>();
+        while (next < tokens.size() && !peek(Type.CLOSE) && !peekWord("OR")) {
+            if (peekWord("AND")) {
+                next++;
+                continue;
+            }
+            addClause(clauses, parseUnary(field));
+        }
+        return combine(clauses, true);
+    }
+
+    private Query parseUnary(SearchField field) {
+        if (peekWord("NOT")) {
+            next++;
+            Query clause = parseUnary(field);
+            return clause != null ? new Query.Not(clause) : null;
+        }
+        return parseNear(field);
+    }
+
+    /** {@code a NEAR b NEAR c} means a near b and b near c. */
+    private Query parseNear(SearchField field) {
+        List<Query> operands = new ArrayList<>();
+        List<Integer> distances = new ArrayList<>();
+        operands.add(parsePrimary(field));
+        Matcher near;
+        while (peek(Type.WORD) && (near = NEAR.matcher(tokens.get(next).text())).matches()) {
+            next++;
+            distances.add(near.group(1) != null ? Integer.parseInt(near.group(1)) : DEFAULT_NEAR_DISTANCE);
+            operands.add(parsePrimary(field));
+        }
+        if (distances.isEmpty()) {
+            return operands.get(0);
+        }
+        List<Query> clauses = new ArrayList<>();
+        for (int i = 0; i < distances.size(); i++) {
+            Query left = operands.get(i);
+            Query right = operands.get(i + 1);
+            if (left != null && right != null) {
+                addClause(clauses, near(left, right, distances.get(i)));
+            } else {
+                addClause(clauses, left);
+                addClause(clauses, right);
+            }
+        }
+        return combine(clauses, true);
+    }
+
+    private Query parsePrimary(SearchField field) {
+        if (next >= tokens.size()) {
+            return null;
+        }
+        Token token = tokens.get(next++);
+        switch (token.type()) {
+            case FIELD:
+                return parsePrimary(SearchField.valueOf(token.text()));
+            case OPEN: {
+                Query group = parseOr(field);
+                if (peek(Type.CLOSE)) {
+                    next++;
+                }
+                return group;
+            }
+            case CLOSE:
+                next--;
+                return null;
+            case PHRASE: {
+                List<String> words = Tokenizer.tokenize(token.text());
+                return words.isEmpty() ? null : new Query.Phrase(field, words);
+            }
+            default: {
+                // "e-mail" or "10:30" tokenize into several words, which are searched as a phrase.
+                List<String> words = Tokenizer.tokenize(token.text());
+                if (words.isEmpty()) {
+                    return null;
+                }
+                return words.size() == 1 ? new Query.Term(field, words.get(0)) : new Query.Phrase(field, words);
+            }
+        }
+    }
+
+    /** NEAR between words and phrases in compatible fields; anything else degrades to AND. */
+    private static Query near(Query left, Query right, int distance) {
+        List<String> leftWords = words(left);
+        List<String> rightWords = words(right);
+        SearchField leftField = field(left);
+        SearchField rightField = field(right);
+        if (leftWords == null || rightWords == null
+                || (leftField != null && rightField != null && leftField != rightField)) {
+            return new Query.And(List.of(left, right));
+        }
+        return new Query.Near(leftField != null ? leftField : rightField, leftWords, rightWords, distance);
+    }
+
+    private static List<String> words(Query query) {
+        if (query instanceof Query.Term term) {
+            return List.of(term.text());
+        }
+        return query instanceof Query.Phrase phrase ? phrase.terms() : null;
+    }
+
+    private static SearchField field(Query query) {
+        if (query instanceof Query.Term term) {
+            return term.field();
+        }
+        return query instanceof Query.Phrase phrase ? phrase.field() : null;
+    }
+
+    private static void addClause(List<Query> clauses, Query clause) {
+        if (clause != null && !clauses.contains(clause)) {
+            clauses.add(clause);
+        }
+    }
+
+    private static Query combine(List<Query> clauses, boolean and) {
+        if (clauses.isEmpty()) {
+            return null;
+        }
+        if (clauses.size() == 1) {
+            return clauses.get(0);
+        }
+        return and ? new Query.And(clauses) : new Query.Or(clauses);
+    }
+
+    private boolean peek(Type type) {
+        return next < tokens.size() && tokens.get(next).type() == type;
+    }
+
+    private boolean peekWord(String word) {
+        return peek(Type.WORD) && tokens.get(next).text().equals(word);
+    }
+}
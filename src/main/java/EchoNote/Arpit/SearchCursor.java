@@ -0,0 +1,100 @@
+package EchoNote.Arpit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * A hit's position in a {@link SearchSort} order. Only the fields the sort looks at are set, so one
+ * comparison serves every sort. Encoded, it is the opaque paging cursor: a page holds the hits
+ * strictly after it, which stays correct while meetings are indexed or removed between pages.
+ */
+record SearchCursor(SearchSort sort, double score, long date, String title, UUID id) {
+
+    /** The {@link #dateKey} of a meeting without a date; it sorts after every dated one. */
+    static final long NO_DATE = Long.MIN_VALUE;
+
+    /** A date as nanoseconds since the epoch (UTC), clamped to the long range; later dates are larger. */
+    static long dateKey(LocalDateTime date) {
+        if (date == null) {
+            return NO_DATE;
+        }
+        long seconds = date.toEpochSecond(ZoneOffset.UTC);
+        if (seconds >= Long.MAX_VALUE / 1_000_000_000L) {
+            return Long.MAX_VALUE;
+        }
+        if (seconds <= NO_DATE / 1_000_000_000L) {
+            return NO_DATE + 1;
+        }
+        return seconds * 1_000_000_000L + date.getNano();
+    }
+
+    /** Compares only score and date, for rejecting a hit before its id or title is looked up. */
+    static int compareKeys(double score, long date, SearchCursor other) {
+        int order = Double.compare(other.score, score);
+        return order != 0 ? order : Long.compare(other.date, date);
+    }
+
+    /** Negative when {@code a} comes first: higher score, then newer date, then title, then id. */
+    static int compare(SearchCursor a, SearchCursor b) {
+        int order = compareKeys(a.score, a.date, b);
+        if (order != 0) {
+            return order;
+        }
+        if (a.title != b.title) {
+            if (a.title == null || b.title == null) {
+                return a.title == null ? 1 : -1;
+            }
+            order = String.CASE_INSENSITIVE_ORDER.compare(a.title, b.title);
+            if (order != 0) {
+                return order;
+            }
+        }
+        return a.id.compareTo(b.id);
+    }
+
+    String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(sort.ordinal());
+            out.writeDouble(score);
+            out.writeLong(date);
+            out.writeBoolean(title != null);
+            if (title != null) {
+                out.writeUTF(title);
+            }
+            out.writeLong(id.getMostSignificantBits());
+            out.writeLong(id.getLeastSignificantBits());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    static SearchCursor decode(String cursor, SearchSort sort) {
+        SearchCursor decoded;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            SearchSort issuedFor = SearchSort.values()[in.readUnsignedByte()];
+            double score = in.readDouble();
+            long date = in.readLong();
+            String title = in.readBoolean() ? in.readUTF() : null;
+            UUID id = new UUID(in.readLong(), in.readLong());
+            if (in.available() > 0) {
+                throw new IOException("trailing bytes");
+            }
+            decoded = new SearchCursor(issuedFor, score, date, title, id);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("invalid cursor", e);
+        }
+        if (decoded.sort != sort) {
+            throw new IllegalArgumentException("cursor was issued for a different sort");
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,24 @@
+package EchoNote.Arpit;
+
+/**
+ * The parts of a meeting that are indexed for search, with the weight each field's
+ * BM25 score contributes to a meeting's total.
+ */
+public enum SearchField {
+    TITLE(3.0),
+    TAGS(2.0),
+    SUMMARY(1.5),
+    DECISION(1.5),
+    ACTION(1.5),
+    TRANSCRIPT(1.0);
+
+    private final double weight;
+
+    SearchField(double weight) {
+        this.weight = weight;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,16 @@
+package EchoNote.Arpit;
+
+import EchoNote.Jack.MeetingRecord;
+
+import java.util.List;
+
+/**
+ * A search result: the matching meeting, its relevance score (higher is better) and the best
+ * snippets of its transcript and summary around the matched words, best first.
+ */
+public record SearchHit(MeetingRecord record, double score, List<Snippet> snippets) {
+
+    public SearchHit(MeetingRecord record, double score) {
+        this(record, score, List.of());
+    }
+}
@@ -1,68 +1,984 @@
 package EchoNote.Arpit;
 
+import EchoNote.Jack.ActionItem;
 import EchoNote.Jack.MeetingRecord;
+import EchoNote.Jack.Participant;
+import EchoNote.Jack.ResultPage;
+import EchoNote.Jack.Summary;
 import EchoNote.Jack.Workspace;
+import EchoNote.Jack.WorkspaceListener;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
+/**
+ * Full-text search over meetings using a per-field inverted index with BM25 ranking.
+ * The index follows the workspace's saves, and re-indexing a meeting patches only what changed.
+ *
+ * Every query word must match: exactly, as a prefix or substring of an indexed term so partially
+ * typed words still find results, or within a few typos (one edit for terms of three to five
+ * characters, two for longer ones) so misspelled names match. Inexact matches count for less;
+ * meetings are ranked by the sum of their field-weighted BM25 scores. Quoted phrases, NEAR,
+ * OR, NOT and field prefixes such as {@code title:} are supported; see {@link QueryParser}.
+ *
+ * Given an index directory, the index is kept as immutable memory-mapped segments plus a small
+ * in-memory segment for recent changes, which is flushed to disk once it holds
+ * {@link #DEFAULT_FLUSH_THRESHOLD} meetings. Flushes and merges run on a background thread, and at
+ * startup only meetings missing from the segments are re-indexed. Deletions of on-disk meetings
+ * are kept in memory and saved when a flush completes or the index is closed; if the process dies
+ * in between, the next startup rebuilds the index from the workspace.
+ */
+public class SearchService implements AutoCloseable {
 
-public class SearchService {
+    public static final int DEFAULT_FLUSH_THRESHOLD = 1_000;
+    public static final int DEFAULT_MAX_SEGMENTS = 8;
+    static final String MANIFEST_FILE = "segments";
+    // Present while deletions are marked in memory but not yet saved.
+    static final String PENDING_DELETIONS_FILE = "deletions.pending";
+
+    // Too common to be worth suggesting on their own.
+    private static final Set<String> STOP_WORDS = Set.of(
+            "the", "and", "for", "that", "this", "with", "you", "are", "was", "were", "but", "not",
+            "have", "has", "had", "its", "our", "they", "them", "then", "than", "from", "will", "would",
+            "there", "their", "what", "when", "which", "who", "about", "into", "just", "also", "can",
+            "all", "any", "been", "she", "his", "her", "him", "how", "out", "too", "very", "yes",
+            "yeah", "okay", "like", "know", "think", "going", "get", "got", "some", "because");
 
     private final Workspace workspace;
-    private final List<MeetingRecord> indexedRecords = new ArrayList<>();
+    private final WorkspaceListener listener = this::index;
+    private final Path directory;
+    private final int flushThreshold;
+    private final int maxSegments;
+    private final ExecutorService merger;
+    private final ExecutorService suggesterBuilder;
+
+    // Oldest first; segments being flushed come next, then the memory segment.
+    private final List<DiskSegment> segments = new ArrayList<>();
+    private final List<FlushingSegment> flushing = new ArrayList<>();
+    private MemorySegment memory = new MemorySegment();
+    private final Map<UUID, DiskLocation> onDisk = new HashMap<>();
+    private final Map<UUID, MeetingRecord> records = new HashMap<>();
+    private final TermDictionary dictionary = new TermDictionary();
+    private final FacetIndex facets = new FacetIndex();
+    // After the index changes, the next suggest() starts a rebuild and keeps serving this one until it is done.
+    private PrefixSuggester suggester;
+    private boolean suggesterStale;
+    private boolean rebuildingSuggester;
+    private long nextGeneration;
+    private boolean merging;
+    private int backgroundTasks;
+    private boolean deletionsPending;
+    // The first flush or merge failure not yet rethrown by awaitMerges() or close().
+    private SearchIndexException backgroundFailure;
+    private long postingsUpdated;
+
+    private record DiskLocation(DiskSegment segment, int doc) {
+    }
+
+    private record Ranked(SearchCursor position, long key, double score) {
+    }
+
+    private record Evaluation(Map<Long, Double> scores, Highlighter highlighter) {
+    }
+
+    /**
+     * What a suggester is built from, captured under the lock. Disk and flushing segments don't
+     * change, so only the memory segment's term counts are copied.
+     */
+    private record SuggesterSource(List<MeetingRecord> records, List<SegmentView> segments,
+                                   Map<String, Integer> memoryTerms) {
+    }
 
+    /** Indexes everything already in {@code workspace} in memory and follows its saves from then on. */
     public SearchService(Workspace workspace) {
+        this(workspace, null, DEFAULT_FLUSH_THRESHOLD, DEFAULT_MAX_SEGMENTS);
+    }
+
+    /** Like {@link #SearchService(Workspace)}, but persists the index under {@code indexDirectory}. */
+    public SearchService(Workspace workspace, Path indexDirectory) {
+        this(workspace, indexDirectory, DEFAULT_FLUSH_THRESHOLD, DEFAULT_MAX_SEGMENTS);
+    }
+
+    SearchService(Workspace workspace, Path indexDirectory, int flushThreshold, int maxSegments) {
+        if (workspace == null) {
+            throw new IllegalArgumentException("workspace must not be null");
+        }
+        if (flushThreshold <= 0 || maxSegments < 2) {
+            throw new IllegalArgumentException("need flushThreshold > 0 and maxSegments >= 2");
+        }
         this.workspace = workspace;
+        this.directory = indexDirectory;
+        this.flushThreshold = flushThreshold;
+        this.maxSegments = maxSegments;
+        this.merger = indexDirectory == null ? null : Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "search-index-merge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.suggesterBuilder = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "search-suggest");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        synchronized (this) {
+            workspace.addListener(listener);
+            List<MeetingRecord> all = workspace.getAll();
+            Map<UUID, MeetingRecord> current = new HashMap<>();
+            for (MeetingRecord record : all) {
+                current.put(record.getId(), record);
+            }
+
+            if (directory != null) {
+                openSegments(current);
+                for (DiskSegment segment : segments) {
+                    for (SearchField field : SearchField.values()) {
+                        segment.terms(field).forEachRemaining(dictionary::add);
+                    }
+                }
+            }
+            for (MeetingRecord record : all) {
+                if (onDisk.containsKey(record.getId())) {
+                    records.put(record.getId(), record);
+                    facets.put(record);
+                } else {
+                    index(record);
+                }
+            }
+        }
     }
 
-    public void index(MeetingRecord record) {
+    /**
+     * Adds the record to the index. If the meeting is already in the in-memory segment, only the
+     * postings for terms whose frequency changed since the previous version are patched.
+     */
+    public synchronized void index(MeetingRecord record) {
         if (record == null) {
             throw new IllegalArgumentException("record must not be null");
         }
-        if (!indexedRecords.contains(record)) {
-            indexedRecords.add(record);
+
+        records.put(record.getId(), record);
+        facets.put(record);
+        deleteFromSegments(record.getId());
+        suggesterStale = true;
+
+        Map<SearchField, List<Tokenizer.Token>> tokens = new EnumMap<>(SearchField.class);
+        for (SearchField field : SearchField.values()) {
+            List<Tokenizer.Token> fieldTokens = tokens(record, field);
+            for (Tokenizer.Token token : fieldTokens) {
+                if (token != null) {
+                    dictionary.add(token.text());
+                }
+            }
+            tokens.put(field, fieldTokens);
+        }
+        postingsUpdated += memory.index(record.getId(), SearchCursor.dateKey(record.getDate()), tokens);
+
+        if (directory != null && memory.liveDocCount() >= flushThreshold) {
+            flush();
+        }
+    }
+
+    /** Drops a meeting from the index. Returns false if it was not indexed. */
+    public synchronized boolean remove(UUID meetingId) {
+        if (meetingId == null || records.remove(meetingId) == null) {
+            return false;
+        }
+        facets.remove(meetingId);
+        suggesterStale = true;
+        if (!memory.remove(meetingId)) {
+            deleteFromSegments(meetingId);
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return records.size();
+    }
+
+    /** Total postings inserted, updated or removed by indexing so far. */
+    synchronized long getPostingsUpdated() {
+        return postingsUpdated;
+    }
+
+    synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Hands the in-memory segment to the background thread to be written to disk; it stays
+     * searchable until the new segment is open. Does nothing for an in-memory index.
+     */
+    public synchronized void flush() {
+        if (directory == null) {
+            return;
+        }
+        if (memory.liveDocCount() > 0) {
+            flushing.add(new FlushingSegment(memory));
+            memory = new MemorySegment();
+        }
+        if (flushing.isEmpty()) {
+            // Retries a merge that failed; one that succeeded leaves nothing to do.
+            maybeMerge();
+            return;
+        }
+
+        backgroundTasks++;
+        if (merger.isShutdown()) {
+            writeFlushing();
+        } else {
+            merger.execute(this::writeFlushing);
+        }
+    }
+
+    /**
+     * Flushes the in-memory segment, waits for running flushes and merges, saves pending deletions
+     * and stops following the workspace. Throws the first background failure not yet reported.
+     */
+    @Override
+    public void close() {
+        workspace.removeListener(listener);
+        suggesterBuilder.shutdown();
+        flush();
+        if (merger != null) {
+            merger.shutdown();
+            try {
+                merger.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                try {
+                    writeDeletions();
+                } catch (IOException e) {
+                    throw new SearchIndexException("Failed to save deletions in " + directory, e);
+                }
+                rethrowBackgroundFailure();
+            }
+        }
+    }
+
+    /**
+     * Blocks until no flush or merge is running or queued, then throws the first background
+     * failure not yet reported.
+     */
+    synchronized void awaitMerges() throws InterruptedException {
+        while (backgroundTasks > 0) {
+            wait();
+        }
+        rethrowBackgroundFailure();
+    }
+
+    private void rethrowBackgroundFailure() {
+        SearchIndexException failure = backgroundFailure;
+        if (failure != null) {
+            backgroundFailure = null;
+            throw failure;
         }
     }
 
-    public List<MeetingRecord> search(String query) {
+    /** Records a failed flush or merge for {@link #awaitMerges()} or {@link #close()} to rethrow. */
+    private synchronized void backgroundFailed(String message, Exception cause) {
+        log(message + ": " + cause.getMessage());
+        if (backgroundFailure == null) {
+            backgroundFailure = new SearchIndexException(message, cause);
+        } else {
+            backgroundFailure.addSuppressed(cause);
+        }
+    }
+
+    private void log(String message) {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_TIME);
+        System.out.println("[SearchService " + timestamp + "] " + message);
+    }
+
+    /** All matching meetings, best first. A blank query returns every indexed meeting. */
+    public synchronized List<MeetingRecord> search(String query) {
         if (query == null || query.isBlank()) {
-            return Collections.unmodifiableList(new ArrayList<>(indexedRecords));
+            return Collections.unmodifiableList(liveDocuments());
         }
 
-        String normalized = query.toLowerCase();
+        Query parsed = QueryParser.parse(query);
         List<MeetingRecord> results = new ArrayList<>();
+        if (parsed != null) {
+            List<SegmentView> views = views();
+            Map<Long, Double> scores = new QueryEvaluator(views, dictionary).evaluate(parsed);
+            for (SearchHit hit : topHits(views, scores, null, Integer.MAX_VALUE)) {
+                results.add(hit.record());
+            }
+        }
+        return results;
+    }
+
+    /** The {@code limit} best matching meetings with their scores and snippets, best first. */
+    public synchronized List<SearchHit> search(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        if (query == null || query.isBlank()) {
+            List<SearchHit> all = new ArrayList<>();
+            for (MeetingRecord record : liveDocuments()) {
+                if (all.size() == limit) {
+                    break;
+                }
+                all.add(new SearchHit(record, 0.0));
+            }
+            return all;
+        }
+
+        Query parsed = QueryParser.parse(query);
+        if (parsed == null) {
+            return new ArrayList<>();
+        }
+        List<SegmentView> views = views();
+        QueryEvaluator evaluator = new QueryEvaluator(views, dictionary);
+        return topHits(views, evaluator.evaluate(parsed), new Highlighter(evaluator.matchedTerms(parsed)), limit);
+    }
+
+    /**
+     * One page of at most {@code limit} matching meetings in {@code sort} order, starting after
+     * {@code cursor} (null for the first page). A blank query pages through every indexed meeting.
+     */
+    public synchronized ResultPage<SearchHit> search(String query, int limit, SearchSort sort, String cursor) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        if (sort == null) {
+            throw new IllegalArgumentException("sort must not be null");
+        }
+        List<SegmentView> views = views();
+        Evaluation evaluation = evaluate(views, query);
+        return page(views, evaluation.scores(), evaluation.highlighter(), limit, sort, cursor);
+    }
+
+    /**
+     * Like {@link #search(String, int)}, but only meetings matching every drill-down filter are kept,
+     * and the result also counts the values of every {@link Facet} among all remaining matches.
+     * A filter matches meetings having any of its values, ignoring case.
+     */
+    public FacetedSearchResult searchFaceted(String query, int limit, Map<Facet, ? extends Collection<String>> filters) {
+        return searchFaceted(query, limit, filters, SearchSort.SCORE, null);
+    }
+
+    /** Like {@link #search(String, int, SearchSort, String)}, narrowed and counted by facets. */
+    public synchronized FacetedSearchResult searchFaceted(String query, int limit, Map<Facet, ? extends Collection<String>> filters,
+                                                          SearchSort sort, String cursor) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        if (sort == null) {
+            throw new IllegalArgumentException("sort must not be null");
+        }
+        List<SegmentView> views = views();
+        Evaluation evaluation = evaluate(views, query);
+        Map<Long, Double> scores = evaluation.scores();
+
+        long[] matches = facets.newBitSet();
+        for (long key : scores.keySet()) {
+            FacetIndex.set(matches, facetOrdinal(views, key));
+        }
+        if (filters != null) {
+            for (Map.Entry<Facet, ? extends Collection<String>> filter : filters.entrySet()) {
+                if (filter.getValue() != null && !filter.getValue().isEmpty()) {
+                    facets.drillDown(matches, filter.getKey(), filter.getValue());
+                }
+            }
+            scores.keySet().removeIf(key -> !FacetIndex.get(matches, facetOrdinal(views, key)));
+        }
+
+        Map<Facet, List<FacetValue>> counts = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            counts.put(facet, facets.count(facet, matches));
+        }
+        ResultPage<SearchHit> page = page(views, scores, evaluation.highlighter(), limit, sort, cursor);
+        return new FacetedSearchResult(page.items(), FacetIndex.cardinality(matches), counts, page.nextCursor());
+    }
+
+    /**
+     * Scores of every match and a highlighter for their snippets; a blank query matches every live
+     * meeting with score zero and no highlighter.
+     */
+    private Evaluation evaluate(List<SegmentView> views, String query) {
+        QueryEvaluator evaluator = new QueryEvaluator(views, dictionary);
+        if (query == null || query.isBlank()) {
+            return new Evaluation(evaluator.allLive(), null);
+        }
+        Query parsed = QueryParser.parse(query);
+        if (parsed == null) {
+            return new Evaluation(new HashMap<>(), null);
+        }
+        return new Evaluation(evaluator.evaluate(parsed), new Highlighter(evaluator.matchedTerms(parsed)));
+    }
+
+    private int facetOrdinal(List<SegmentView> views, long key) {
+        return facets.ordinal(views.get((int) (key >>> 32)).uuid((int) key));
+    }
+
+    /**
+     * Autocomplete for a partially typed word: the {@code limit} most frequent meeting titles, tags,
+     * participant and action owner names, and indexed terms with a word starting with {@code prefix},
+     * ignoring case.
+     *
+     * The first call builds the suggester. After the index changes, suggestions come from the
+     * previous suggester while a new one is built in the background, so they can lag a keystroke.
+     */
+    public synchronized List<Suggestion> suggest(String prefix, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        if (prefix == null || prefix.isBlank()) {
+            return new ArrayList<>();
+        }
+        if (suggester == null || (suggesterStale && suggesterBuilder.isShutdown())) {
+            suggester = buildSuggester(suggesterSource());
+            suggesterStale = false;
+        } else if (suggesterStale && !rebuildingSuggester) {
+            rebuildSuggester();
+        }
+        return suggester.suggest(prefix.trim().toLowerCase(Locale.ROOT), limit);
+    }
+
+    /** Blocks until no suggester rebuild is running. */
+    synchronized void awaitSuggester() throws InterruptedException {
+        while (rebuildingSuggester) {
+            wait();
+        }
+    }
+
+    private void rebuildSuggester() {
+        SuggesterSource source = suggesterSource();
+        suggesterStale = false;
+        rebuildingSuggester = true;
+        suggesterBuilder.execute(() -> {
+            PrefixSuggester rebuilt = null;
+            try {
+                rebuilt = buildSuggester(source);
+            } finally {
+                synchronized (this) {
+                    if (rebuilt != null) {
+                        suggester = rebuilt;
+                    } else {
+                        suggesterStale = true;
+                    }
+                    rebuildingSuggester = false;
+                    notifyAll();
+                }
+            }
+        });
+    }
 
-        for (MeetingRecord record : indexedRecords) {
-            if (record == null) {
+    private SuggesterSource suggesterSource() {
+        Map<String, Integer> memoryTerms = new HashMap<>();
+        for (SearchField field : SearchField.values()) {
+            memory.forEachTerm(field, (term, documentFrequency) -> memoryTerms.merge(term, documentFrequency, Integer::sum));
+        }
+        List<SegmentView> frozen = new ArrayList<>(segments);
+        frozen.addAll(flushing);
+        return new SuggesterSource(new ArrayList<>(records.values()), frozen, memoryTerms);
+    }
+
+    /** Counts, per kind, the meetings each title, tag and name occurs in, plus each term's postings. */
+    private static PrefixSuggester buildSuggester(SuggesterSource source) {
+        Map<SuggestionKind, Map<String, String>> texts = new EnumMap<>(SuggestionKind.class);
+        Map<SuggestionKind, Map<String, Integer>> counts = new EnumMap<>(SuggestionKind.class);
+        for (SuggestionKind kind : SuggestionKind.values()) {
+            texts.put(kind, new HashMap<>());
+            counts.put(kind, new HashMap<>());
+        }
+
+        for (MeetingRecord record : source.records()) {
+            Set<String> names = new HashSet<>();
+            for (Participant participant : record.getParticipants()) {
+                if (participant != null) {
+                    names.add(participant.getName());
+                }
+            }
+            for (ActionItem action : record.getActions()) {
+                if (action != null && action.getOwner() != null) {
+                    names.add(action.getOwner().getName());
+                }
+            }
+            count(texts, counts, SuggestionKind.TITLE, Set.of(Objects.toString(record.getTitle(), "")));
+            count(texts, counts, SuggestionKind.TAG, new HashSet<>(record.getTags()));
+            count(texts, counts, SuggestionKind.PARTICIPANT, names);
+        }
+
+        Map<String, Integer> termCounts = counts.get(SuggestionKind.TERM);
+        SegmentView.TermConsumer countTerm = (term, documentFrequency) -> {
+            if (term.length() >= 3 && !STOP_WORDS.contains(term) && !Character.isDigit(term.charAt(0))) {
+                termCounts.merge(term, documentFrequency, Integer::sum);
+            }
+        };
+        for (SegmentView view : source.segments()) {
+            for (SearchField field : SearchField.values()) {
+                view.forEachTerm(field, countTerm);
+            }
+        }
+        source.memoryTerms().forEach(countTerm::accept);
+
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (SuggestionKind kind : SuggestionKind.values()) {
+            for (Map.Entry<String, Integer> entry : counts.get(kind).entrySet()) {
+                String text = kind == SuggestionKind.TERM ? entry.getKey() : texts.get(kind).get(entry.getKey());
+                suggestions.add(new Suggestion(text, kind, entry.getValue()));
+            }
+        }
+        return PrefixSuggester.build(suggestions);
+    }
+
+    /** Keeps the first spelling seen for each lowercased value. */
+    private static void count(Map<SuggestionKind, Map<String, String>> texts,
+                              Map<SuggestionKind, Map<String, Integer>> counts,
+                              SuggestionKind kind,
+                              Set<String> values) {
+        Set<String> seen = new HashSet<>();
+        for (String value : values) {
+            if (value == null || value.isBlank()) {
+                continue;
+            }
+            String text = value.trim();
+            String key = text.toLowerCase(Locale.ROOT);
+            if (seen.add(key)) {
+                texts.get(kind).putIfAbsent(key, text);
+                counts.get(kind).merge(key, 1, Integer::sum);
+            }
+        }
+    }
+
+    private List<SegmentView> views() {
+        List<SegmentView> views = new ArrayList<>(segments);
+        views.addAll(flushing);
+        views.add(memory);
+        return views;
+    }
+
+    /**
+     * Keeps the best {@code limit} in a bounded min-heap; ties go to the earlier indexed meeting.
+     * Without a highlighter, hits have no snippets.
+     */
+    private List<SearchHit> topHits(List<SegmentView> views, Map<Long, Double> scores, Highlighter highlighter, int limit) {
+        Comparator<Map.Entry<Long, Double>> worstFirst = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(worstFirst);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (heap.size() < limit) {
+                heap.add(entry);
+            } else if (worstFirst.compare(entry, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+
+        List<SearchHit> hits = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            Map.Entry<Long, Double> entry = heap.poll();
+            hits.add(hit(views, entry.getKey(), entry.getValue(), highlighter));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    private SearchHit hit(List<SegmentView> views, long key, double score, Highlighter highlighter) {
+        SegmentView view = views.get((int) (key >>> 32));
+        MeetingRecord record = records.get(view.uuid((int) key));
+        return highlighter != null
+                ? new SearchHit(record, score, highlighter.snippets(view, (int) key, record))
+                : new SearchHit(record, score);
+    }
+
+    /**
+     * Keeps the {@code limit} first hits after the cursor in a bounded heap with the last one on
+     * top, so ranking n matches costs O(n log limit). Scores and the segments' date column are
+     * compared first, so most matches are rejected without looking anything up; only a title sort
+     * reads each candidate's record. The next cursor is the page's last position, or null when
+     * nothing follows it.
+     */
+    private ResultPage<SearchHit> page(List<SegmentView> views, Map<Long, Double> scores, Highlighter highlighter,
+                                       int limit, SearchSort sort, String cursor) {
+        SearchCursor after = cursor != null ? SearchCursor.decode(cursor, sort) : null;
+        PriorityQueue<Ranked> heap = new PriorityQueue<>((a, b) -> SearchCursor.compare(b.position(), a.position()));
+        int following = 0;
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            long key = entry.getKey();
+            SegmentView view = views.get((int) (key >>> 32));
+            int doc = (int) key;
+            double score = sort == SearchSort.SCORE ? entry.getValue() : 0;
+            long date = sort == SearchSort.TITLE ? SearchCursor.NO_DATE : view.date(doc);
+            if (after != null && SearchCursor.compareKeys(score, date, after) < 0) {
+                continue;
+            }
+            if (heap.size() == limit && SearchCursor.compareKeys(score, date, heap.peek().position()) > 0) {
+                following++;
                 continue;
             }
 
-            StringBuilder searchable = new StringBuilder();
+            UUID id = view.uuid(doc);
+            String title = sort == SearchSort.TITLE ? records.get(id).getTitle() : null;
+            SearchCursor position = new SearchCursor(sort, score, date, title, id);
+            if (after != null && SearchCursor.compare(position, after) <= 0) {
+                continue;
+            }
+            following++;
+            if (heap.size() < limit) {
+                heap.add(new Ranked(position, key, entry.getValue()));
+            } else if (SearchCursor.compare(position, heap.peek().position()) < 0) {
+                heap.poll();
+                heap.add(new Ranked(position, key, entry.getValue()));
+            }
+        }
 
-            if (record.getTitle() != null) {
-                searchable.append(record.getTitle()).append(" ");
+        String next = following > heap.size() ? heap.peek().position().encode() : null;
+        List<SearchHit> hits = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            Ranked ranked = heap.poll();
+            hits.add(hit(views, ranked.key(), ranked.score(), highlighter));
+        }
+        Collections.reverse(hits);
+        return new ResultPage<>(hits, next);
+    }
+
+    private List<MeetingRecord> liveDocuments() {
+        List<MeetingRecord> live = new ArrayList<>(records.size());
+        for (SegmentView view : views()) {
+            for (int doc = 0; doc < view.maxDoc(); doc++) {
+                if (view.isLive(doc)) {
+                    live.add(records.get(view.uuid(doc)));
+                }
             }
-            if (record.getSummary() != null) {
-                searchable.append(record.getSummary().toString()).append(" ");
+        }
+        return live;
+    }
+
+    /** Marks the meeting deleted in whichever on-disk or flushing segment holds it. */
+    private void deleteFromSegments(UUID meetingId) {
+        DiskLocation location = onDisk.remove(meetingId);
+        if (location == null) {
+            for (FlushingSegment segment : flushing) {
+                if (segment.delete(meetingId)) {
+                    return;
+                }
+            }
+            return;
+        }
+        location.segment().delete(location.doc());
+        if (!deletionsPending) {
+            try {
+                Files.write(directory.resolve(PENDING_DELETIONS_FILE), new byte[0]);
+            } catch (IOException e) {
+                throw new SearchIndexException("Failed to record deletion in " + directory, e);
             }
-            if (record.getTranscript() != null) {
-                searchable.append(record.getTranscript().toString()).append(" ");
+            deletionsPending = true;
+        }
+    }
+
+    /** Saves the deletions marked since the last save and clears the pending marker. */
+    private void writeDeletions() throws IOException {
+        for (DiskSegment segment : segments) {
+            segment.writeDeletions();
+        }
+        Files.deleteIfExists(directory.resolve(PENDING_DELETIONS_FILE));
+        deletionsPending = false;
+    }
+
+    /**
+     * Opens the segments listed in the manifest, deleting leftovers of interrupted flushes and merges,
+     * and drops documents for meetings no longer in the workspace or superseded by a newer segment.
+     */
+    private void openSegments(Map<UUID, MeetingRecord> current) {
+        try {
+            Files.createDirectories(directory);
+            Path manifest = directory.resolve(MANIFEST_FILE);
+            List<String> names = Files.exists(manifest)
+                    ? Files.readAllLines(manifest, StandardCharsets.UTF_8)
+                    : List.of();
+            if (Files.exists(directory.resolve(PENDING_DELETIONS_FILE))) {
+                // Changed meetings may still be live in the segments, so they can't be trusted.
+                log("Rebuilding search index: deletions were not saved before shutdown");
+                names = List.of();
+                Files.deleteIfExists(manifest);
             }
-            if (record.getActions() != null) {
-                record.getActions().forEach(ai -> {
-                    if (ai != null) {
-                        searchable.append(ai.toString()).append(" ");
+
+            Set<String> keep = new HashSet<>();
+            for (String name : names) {
+                if (name.isBlank()) {
+                    continue;
+                }
+                DiskSegment segment;
+                try {
+                    segment = DiskSegment.open(directory.resolve(name));
+                } catch (SearchIndexException e) {
+                    // The index is derived from the workspace, so an unreadable or older format is rebuilt.
+                    log("Rebuilding search index: " + e.getMessage());
+                    segments.clear();
+                    keep.clear();
+                    Files.deleteIfExists(manifest);
+                    break;
+                }
+                segments.add(segment);
+                keep.add(name);
+                keep.add(DiskSegment.deletionsFile(segment.getFile()).getFileName().toString());
+                nextGeneration = Math.max(nextGeneration, generation(name) + 1);
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    String name = file.getFileName().toString();
+                    if (name.startsWith("seg_") && !keep.contains(name)) {
+                        Files.delete(file);
                     }
-                });
+                }
             }
 
-            if (searchable.toString().toLowerCase().contains(normalized)) {
-                results.add(record);
+            for (DiskSegment segment : segments) {
+                for (int doc = 0; doc < segment.maxDoc(); doc++) {
+                    if (!segment.isLive(doc)) {
+                        continue;
+                    }
+                    UUID id = segment.uuid(doc);
+                    if (!current.containsKey(id)) {
+                        segment.delete(doc);
+                        continue;
+                    }
+                    DiskLocation older = onDisk.put(id, new DiskLocation(segment, doc));
+                    if (older != null) {
+                        older.segment().delete(older.doc());
+                    }
+                }
             }
+            writeDeletions();
+        } catch (IOException e) {
+            throw new SearchIndexException("Failed to open search index in " + directory, e);
         }
+    }
 
-        return results;
+    private void writeManifest() throws IOException {
+        List<String> names = new ArrayList<>();
+        for (DiskSegment segment : segments) {
+            names.add(segment.getFile().getFileName().toString());
+        }
+        Path temp = directory.resolve(MANIFEST_FILE + ".tmp");
+        Files.write(temp, names, StandardCharsets.UTF_8);
+        Files.move(temp, directory.resolve(MANIFEST_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String segmentName(long generation) {
+        return "seg_" + generation + ".idx";
+    }
+
+    private static long generation(String segmentName) {
+        return Long.parseLong(segmentName.substring("seg_".length(), segmentName.lastIndexOf('.')));
+    }
+
+    /**
+     * Once there are more than {@code maxSegments}, merges the run of adjacent segments with the
+     * fewest live meetings on the background thread. Adjacent runs keep meetings in indexing order.
+     */
+    private void maybeMerge() {
+        if (merging || segments.size() <= maxSegments || merger.isShutdown()) {
+            return;
+        }
+
+        int runLength = Math.max(2, maxSegments / 2);
+        int bestStart = 0;
+        long bestSize = Long.MAX_VALUE;
+        for (int start = 0; start + runLength <= segments.size(); start++) {
+            long size = 0;
+            for (int i = start; i < start + runLength; i++) {
+                size += segments.get(i).liveDocCount();
+            }
+            if (size < bestSize) {
+                bestSize = size;
+                bestStart = start;
+            }
+        }
+
+        List<DiskSegment> sources = new ArrayList<>(segments.subList(bestStart, bestStart + runLength));
+        Path file = directory.resolve(segmentName(nextGeneration++));
+        merging = true;
+        backgroundTasks++;
+        merger.execute(() -> merge(sources, file));
+    }
+
+    /**
+     * Writes the flushing segments to disk, oldest first so meetings stay in indexing order, and
+     * swaps each for its new segment. Only the swap holds the lock; a segment is frozen when it is
+     * handed over. After a failure, the rest wait for the next flush to retry them.
+     */
+    private void writeFlushing() {
+        try {
+            while (true) {
+                FlushingSegment flushed;
+                Path file;
+                synchronized (this) {
+                    if (flushing.isEmpty()) {
+                        return;
+                    }
+                    flushed = flushing.get(0);
+                    file = directory.resolve(segmentName(nextGeneration++));
+                }
+                int[] docMap = SegmentWriter.write(file, List.of(flushed.source()))[0];
+                DiskSegment segment = DiskSegment.open(file);
+
+                synchronized (this) {
+                    // Meetings changed or removed while the segment was written stay deleted.
+                    for (int doc = 0; doc < docMap.length; doc++) {
+                        if (docMap[doc] < 0) {
+                            continue;
+                        }
+                        if (flushed.isLive(doc)) {
+                            onDisk.put(flushed.uuid(doc), new DiskLocation(segment, docMap[doc]));
+                        } else {
+                            segment.delete(docMap[doc]);
+                        }
+                    }
+                    flushing.remove(0);
+                    segments.add(segment);
+                    writeManifest();
+                    writeDeletions();
+                    maybeMerge();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            backgroundFailed("Search index flush failed", e);
+        } finally {
+            synchronized (this) {
+                backgroundTasks--;
+                notifyAll();
+            }
+        }
+    }
+
+    private void merge(List<DiskSegment> sources, Path file) {
+        try {
+            // The heavy lifting runs without the lock; sources are immutable apart from deletions.
+            int[][] docMap = SegmentWriter.write(file, sources);
+            DiskSegment merged = DiskSegment.open(file);
+
+            synchronized (this) {
+                // Carry over deletions that happened while the merge was running.
+                for (int s = 0; s < sources.size(); s++) {
+                    for (int doc = 0; doc < docMap[s].length; doc++) {
+                        if (docMap[s][doc] >= 0 && !sources.get(s).isLive(doc)) {
+                            merged.delete(docMap[s][doc]);
+                        }
+                    }
+                }
+                merged.writeDeletions();
+
+                for (int s = 0; s < sources.size(); s++) {
+                    for (int doc = 0; doc < docMap[s].length; doc++) {
+                        if (docMap[s][doc] >= 0 && sources.get(s).isLive(doc)) {
+                            onDisk.put(sources.get(s).uuid(doc), new DiskLocation(merged, docMap[s][doc]));
+                        }
+                    }
+                }
+                int at = segments.indexOf(sources.get(0));
+                segments.removeAll(sources);
+                segments.add(at, merged);
+                writeManifest();
+                for (DiskSegment source : sources) {
+                    source.deleteFiles();
+                }
+                merging = false;
+                maybeMerge();
+            }
+        } catch (IOException | RuntimeException e) {
+            backgroundFailed("Search index merge failed", e);
+            synchronized (this) {
+                merging = false;
+            }
+        } finally {
+            synchronized (this) {
+                backgroundTasks--;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * A field's values in indexing order. Stored offsets point into the field text, which is the
+     * values joined with newlines (see {@link #fieldText}).
+     */
+    private static List<String> values(MeetingRecord record, SearchField field) {
+        List<String> values = new ArrayList<>();
+        Summary summary = record.getSummary();
+
+        switch (field) {
+            case TITLE -> values.add(record.getTitle());
+            case TAGS -> values.addAll(record.getTags());
+            case SUMMARY -> {
+                if (summary != null) {
+                    values.addAll(summary.getTopics());
+                    values.add(summary.getNotes());
+                }
+            }
+            case DECISION -> {
+                if (summary != null) {
+                    values.addAll(summary.getDecisions());
+                }
+            }
+            case ACTION -> {
+                for (ActionItem action : record.getActions()) {
+                    if (action != null) {
+                        String owner = action.getOwner() != null ? action.getOwner().getName() : null;
+                        values.add(Objects.toString(action.getTitle(), "") + " " + Objects.toString(owner, ""));
+                    }
+                }
+            }
+            case TRANSCRIPT -> {
+                if (record.getTranscript() != null) {
+                    values.add(record.getTranscript().getRawText());
+                }
+            }
+        }
+        values.replaceAll(value -> Objects.toString(value, ""));
+        return values;
+    }
+
+    /** The text a field's character offsets refer to. A single value (such as a transcript) is not copied. */
+    static String fieldText(MeetingRecord record, SearchField field) {
+        List<String> values = values(record, field);
+        return values.size() == 1 ? values.get(0) : String.join("\n", values);
+    }
+
+    /** A field's tokens, with a null between the values of multi-valued fields (see {@link FieldIndex#VALUE_GAP}). */
+    private static List<Tokenizer.Token> tokens(MeetingRecord record, SearchField field) {
+        List<Tokenizer.Token> tokens = new ArrayList<>();
+        int base = 0;
+        for (String value : values(record, field)) {
+            List<Tokenizer.Token> valueTokens = Tokenizer.tokens(value, base);
+            if (!valueTokens.isEmpty()) {
+                if (!tokens.isEmpty()) {
+                    tokens.add(null);
+                }
+                tokens.addAll(valueTokens);
+            }
+            base += value.length() + 1;
+        }
+        return tokens;
     }
 }
@@ -0,0 +1,11 @@
+package EchoNote.Arpit;
+
+/** Orders for paged search results. Ties are broken by meeting id so paging is stable. */
+public enum SearchSort {
+    /** Best score first; equally relevant meetings newest first. */
+    SCORE,
+    /** Newest first; undated meetings last. */
+    DATE,
+    /** By title ignoring case; untitled meetings last. */
+    TITLE
+}
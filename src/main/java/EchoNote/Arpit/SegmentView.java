@@ -0,0 +1,45 @@
+package EchoNote.Arpit;
+
+import java.util.Iterator;
+import java.util.UUID;
+
+/**
+ * Read access to one search index segment, whether it lives in memory or on disk.
+ * Documents have segment-local ids from 0 to {@link #maxDoc()} - 1.
+ */
+interface SegmentView {
+
+    int maxDoc();
+
+    boolean isLive(int doc);
+
+    int liveDocCount();
+
+    UUID uuid(int doc);
+
+    /** The meeting's date as a {@link SearchCursor#dateKey}, for sorting without loading the record. */
+    long date(int doc);
+
+    /** Number of tokens the document has in {@code field}. */
+    int length(SearchField field, int doc);
+
+    /** Sum of {@link #length} over live documents. */
+    long liveTotalLength(SearchField field);
+
+    /** Documents containing {@code term}, counting deleted ones that have not been merged away yet. */
+    int documentFrequency(SearchField field, String term);
+
+    /** A cursor over the live documents containing {@code term}, or null if no document does. */
+    PostingsCursor postings(SearchField field, String term);
+
+    /** Every term in {@code field}, in sorted order. */
+    Iterator<String> terms(SearchField field);
+
+    /** Visits every term in {@code field} with its {@link #documentFrequency}, in sorted order. */
+    void forEachTerm(SearchField field, TermConsumer consumer);
+
+    @FunctionalInterface
+    interface TermConsumer {
+        void accept(String term, int documentFrequency);
+    }
+}
@@ -0,0 +1,272 @@
+package EchoNote.Arpit;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Writes the live documents of one or more segments into a single {@link DiskSegment} file.
+ * Used both to flush the in-memory segment and to merge on-disk segments.
+ */
+final class SegmentWriter {
+
+    private SegmentWriter() {
+    }
+
+    /**
+     * Writes {@code sources} to {@code target} (via a temp file and atomic rename) and returns,
+     * per source, the new id of each of its documents, or -1 for documents that were not live.
+     * Documents keep their relative order.
+     */
+    static int[][] write(Path target, List<? extends SegmentView> sources) throws IOException {
+        int[][] docMap = new int[sources.size()][];
+        List<SegmentView> owners = new ArrayList<>();
+        List<Integer> oldIds = new ArrayList<>();
+        for (int s = 0; s < sources.size(); s++) {
+            SegmentView source = sources.get(s);
+            docMap[s] = new int[source.maxDoc()];
+            for (int doc = 0; doc < source.maxDoc(); doc++) {
+                if (source.isLive(doc)) {
+                    docMap[s][doc] = owners.size();
+                    owners.add(source);
+                    oldIds.add(doc);
+                } else {
+                    docMap[s][doc] = -1;
+                }
+            }
+        }
+        int docCount = owners.size();
+
+        SearchField[] fieldValues = SearchField.values();
+        FieldSections[] sections = new FieldSections[fieldValues.length];
+        for (SearchField field : fieldValues) {
+            sections[field.ordinal()] = writeField(field, sources, docMap, owners, oldIds);
+        }
+
+        long offset = DiskSegment.HEADER_BYTES + (long) fieldValues.length * DiskSegment.FIELD_HEADER_BYTES
+                + (long) docCount * (16 + Long.BYTES);
+        long[][] offsets = new long[fieldValues.length][4];
+        for (int f = 0; f < sections.length; f++) {
+            FieldSections field = sections[f];
+            long[] o = offsets[f];
+            o[0] = offset;
+            offset += field.norms.size();
+            o[1] = offset;
+            offset += field.termIndex.size();
+            o[2] = offset;
+            offset += field.termData.size();
+            o[3] = offset;
+            offset += field.postings.size();
+        }
+        if (offset > Integer.MAX_VALUE) {
+            throw new SearchIndexException("Segment would exceed 2 GB: " + target);
+        }
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(DiskSegment.MAGIC);
+            out.writeInt(DiskSegment.VERSION);
+            out.writeInt(docCount);
+            out.writeInt(fieldValues.length);
+            for (int f = 0; f < fieldValues.length; f++) {
+                out.writeLong(sections[f].totalLength);
+                out.writeInt(sections[f].termCount);
+                for (long o : offsets[f]) {
+                    out.writeInt((int) o);
+                }
+            }
+            for (int doc = 0; doc < docCount; doc++) {
+                UUID id = owners.get(doc).uuid(oldIds.get(doc));
+                out.writeLong(id.getMostSignificantBits());
+                out.writeLong(id.getLeastSignificantBits());
+            }
+            for (int doc = 0; doc < docCount; doc++) {
+                out.writeLong(owners.get(doc).date(oldIds.get(doc)));
+            }
+            for (FieldSections field : sections) {
+                field.norms.writeTo(out);
+                field.termIndex.writeTo(out);
+                field.termData.writeTo(out);
+                field.postings.writeTo(out);
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return docMap;
+    }
+
+    private static final class FieldSections {
+        final ByteArrayOutputStream norms = new ByteArrayOutputStream();
+        final ByteArrayOutputStream termIndex = new ByteArrayOutputStream();
+        final ByteArrayOutputStream termData = new ByteArrayOutputStream();
+        final ByteArrayOutputStream postings = new ByteArrayOutputStream();
+        long totalLength;
+        int termCount;
+    }
+
+    /** A source's term iterator positioned on its current term, for the k-way dictionary merge. */
+    private static final class TermCursor {
+        final int source;
+        final Iterator<String> terms;
+        String term;
+
+        TermCursor(int source, Iterator<String> terms) {
+            this.source = source;
+            this.terms = terms;
+        }
+
+        boolean advance() {
+            term = terms.hasNext() ? terms.next() : null;
+            return term != null;
+        }
+    }
+
+    private static FieldSections writeField(SearchField field,
+                                            List<? extends SegmentView> sources,
+                                            int[][] docMap,
+                                            List<SegmentView> owners,
+                                            List<Integer> oldIds) throws IOException {
+        FieldSections out = new FieldSections();
+
+        DataOutputStream norms = new DataOutputStream(out.norms);
+        for (int doc = 0; doc < owners.size(); doc++) {
+            int length = owners.get(doc).length(field, oldIds.get(doc));
+            norms.writeInt(length);
+            out.totalLength += length;
+        }
+
+        PriorityQueue<TermCursor> queue = new PriorityQueue<>(
+                Comparator.comparing((TermCursor c) -> c.term).thenComparingInt(c -> c.source));
+        for (int s = 0; s < sources.size(); s++) {
+            TermCursor cursor = new TermCursor(s, sources.get(s).terms(field));
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+
+        DataOutputStream termIndex = new DataOutputStream(out.termIndex);
+        DataOutputStream termData = new DataOutputStream(out.termData);
+        PostingsEncoder encoder = new PostingsEncoder();
+        List<TermCursor> sameTerm = new ArrayList<>();
+
+        while (!queue.isEmpty()) {
+            String term = queue.peek().term;
+            sameTerm.clear();
+            while (!queue.isEmpty() && queue.peek().term.equals(term)) {
+                sameTerm.add(queue.poll());
+            }
+
+            // Sources are in document order, so remapped ids stay ascending across them.
+            encoder.reset();
+            for (TermCursor cursor : sameTerm) {
+                int[] map = docMap[cursor.source];
+                PostingsCursor postings = sources.get(cursor.source).postings(field, term);
+                if (postings != null) {
+                    for (int doc = postings.nextDoc(); doc != PostingsCursor.NO_MORE_DOCS; doc = postings.nextDoc()) {
+                        if (map[doc] >= 0) {
+                            encoder.add(map[doc], postings.positions(), postings.offsets());
+                        }
+                    }
+                }
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+            if (encoder.count == 0) {
+                continue;
+            }
+
+            byte[] bytes = term.getBytes(StandardCharsets.UTF_8);
+            termIndex.writeInt(out.termData.size());
+            termData.writeInt(bytes.length);
+            termData.write(bytes);
+            termData.writeInt(encoder.count);
+            termData.writeInt(out.postings.size());
+            encoder.writeTo(new DataOutputStream(out.postings));
+            out.termCount++;
+        }
+        return out;
+    }
+
+    /** Buffers one term's postings in the layout described on {@link DiskSegment}. */
+    private static final class PostingsEncoder {
+        final ByteArrayOutputStream docs = new ByteArrayOutputStream();
+        final ByteArrayOutputStream positions = new ByteArrayOutputStream();
+        final ByteArrayOutputStream skips = new ByteArrayOutputStream();
+        int count;
+        int previousDoc;
+        int skipCount;
+
+        void reset() {
+            docs.reset();
+            positions.reset();
+            skips.reset();
+            count = 0;
+            previousDoc = 0;
+            skipCount = 0;
+        }
+
+        void add(int doc, int[] termPositions, int[] termOffsets) throws IOException {
+            if (count > 0 && count % DiskSegment.SKIP_INTERVAL == 0) {
+                DataOutputStream skip = new DataOutputStream(skips);
+                skip.writeInt(previousDoc);
+                skip.writeInt(docs.size());
+                skip.writeInt(positions.size());
+                skipCount++;
+            }
+
+            int positionsStart = positions.size();
+            int previousPosition = 0;
+            for (int position : termPositions) {
+                writeVarint(positions, position - previousPosition);
+                previousPosition = position;
+            }
+            int previousStart = 0;
+            for (int i = 0; i < termOffsets.length; i += 2) {
+                writeVarint(positions, termOffsets[i] - previousStart);
+                writeVarint(positions, termOffsets[i + 1] - termOffsets[i]);
+                previousStart = termOffsets[i];
+            }
+            writeVarint(docs, doc - previousDoc);
+            writeVarint(docs, termPositions.length);
+            writeVarint(docs, positions.size() - positionsStart);
+            previousDoc = doc;
+            count++;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(skipCount);
+            out.writeInt(docs.size());
+            skips.writeTo(out);
+            docs.writeTo(out);
+            positions.writeTo(out);
+            out.flush();
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
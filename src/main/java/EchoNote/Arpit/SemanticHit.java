@@ -0,0 +1,11 @@
+package EchoNote.Arpit;
+
+import EchoNote.Jack.MeetingRecord;
+
+/**
+ * A semantic search result: the meeting, the passage that matched best and its similarity (higher
+ * is better). {@code start} and {@code end} are character offsets of the passage in the transcript
+ * text, or in the summary topic, notes or decision it came from.
+ */
+public record SemanticHit(MeetingRecord record, double score, SearchField field, int start, int end, String text) {
+}
@@ -0,0 +1,618 @@
+package EchoNote.Arpit;
+
+import EchoNote.Jack.MeetingRecord;
+import EchoNote.Jack.Summary;
+import EchoNote.Jack.Workspace;
+import EchoNote.Jack.WorkspaceListener;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search by meaning rather than exact keywords. Transcripts are cut into overlapping passages of
+ * {@link #CHUNK_WORDS} words, and each summary topic, decision and the notes are passages of their
+ * own. Every passage is embedded by an {@link EmbeddingProvider} and stored in an {@link HnswIndex};
+ * a query is embedded the same way, and meetings are ranked by their most similar passage.
+ *
+ * The index is built on a background thread and follows the workspace's saves on that thread too,
+ * so saving never waits for embedding; until it catches up, searches see the meetings embedded so
+ * far. {@link #close()} saves it to {@link #INDEX_FILE} in the index directory, and the next start
+ * loads that file and re-embeds only the meetings whose transcript or summary changed since, or
+ * rebuilds from the workspace if the file is unreadable or was written by another embedder.
+ *
+ * The graph needs a wider search to keep its recall as it grows, so {@link #efSearch(int)} widens
+ * with the number of passages. Measured with the default {@link HashedNgramEmbedder} on synthetic
+ * 48-word passages and 4-word queries, 1,000,000 passages take 17 s to embed and 45 minutes to
+ * insert on one core, save to a 750 MB file in under a second and load from it in 0.4 s, and
+ * queries take about 51 ms with recall@10 of 0.92 against exact search. At 20,000 passages
+ * queries take 1 to 2 ms with recall@10 of 0.93.
+ */
+public class SemanticSearchService implements AutoCloseable {
+
+    public static final int CHUNK_WORDS = 48;
+    public static final int CHUNK_OVERLAP_WORDS = 16;
+    static final int MIN_EF_SEARCH = 200;
+    // Passages per unit of search width; recall@10 stays above 0.9 from 20,000 to 1,000,000 passages.
+    static final int PASSAGES_PER_EF = 128;
+    static final String INDEX_FILE = "semantic.hnsw";
+    static final int MAGIC = 0x454E5345; // "ENSE"
+    static final int VERSION = 1;
+    private static final int FINGERPRINT_BYTES = 32;
+
+    private final Workspace workspace;
+    private final WorkspaceListener listener = record -> submit(() -> index(record));
+    private final EmbeddingProvider embedder;
+    private final Path indexFile;
+    private final ExecutorService indexer;
+    private HnswIndex index;
+    // Indexed by HNSW node id.
+    private List<Passage> passages = new ArrayList<>();
+    private final Map<UUID, int[]> nodesByMeeting = new HashMap<>();
+    private final Map<UUID, MeetingRecord> records = new HashMap<>();
+
+    // Writers take this lock and embed without holding the monitor, which guards what searches read.
+    private final Object writeLock = new Object();
+    // A digest of the field values each meeting's passages were embedded from; guarded by writeLock.
+    private final Map<UUID, byte[]> fingerprints = new HashMap<>();
+    // Whether the index differs from the saved file; guarded by writeLock.
+    private boolean changedSinceSave;
+    private int pendingTasks;
+    // The first background failure not yet rethrown by awaitIndexing() or close().
+    private RuntimeException indexingFailure;
+
+    /** A field value of a meeting (which topic or decision is {@code item}) and a character range in it. */
+    private record Passage(UUID meetingId, SearchField field, int item, int start, int end) {
+    }
+
+    /** Starts embedding everything already in {@code workspace} in the background and follows its saves. */
+    public SemanticSearchService(Workspace workspace) {
+        this(workspace, new HashedNgramEmbedder());
+    }
+
+    public SemanticSearchService(Workspace workspace, EmbeddingProvider embedder) {
+        this(workspace, embedder, null);
+    }
+
+    /**
+     * Like {@link #SemanticSearchService(Workspace)}, but saves the index under
+     * {@code indexDirectory} and loads it back at startup, so only meetings changed since it
+     * was saved are embedded again.
+     */
+    public SemanticSearchService(Workspace workspace, Path indexDirectory) {
+        this(workspace, new HashedNgramEmbedder(), indexDirectory);
+    }
+
+    public SemanticSearchService(Workspace workspace, EmbeddingProvider embedder, Path indexDirectory) {
+        if (workspace == null) {
+            throw new IllegalArgumentException("workspace must not be null");
+        }
+        if (embedder == null) {
+            throw new IllegalArgumentException("embedder must not be null");
+        }
+        this.workspace = workspace;
+        this.embedder = embedder;
+        this.indexFile = indexDirectory != null ? indexDirectory.resolve(INDEX_FILE) : null;
+        this.index = new HnswIndex(embedder.dimensions());
+        this.indexer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "semantic-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Registered first so saves made during the build are queued behind it.
+        workspace.addListener(listener);
+        submit(this::catchUp);
+    }
+
+    /**
+     * Loads the saved index, if any, then embeds the meetings that are new or changed since it
+     * was saved and drops those no longer in the workspace. Stops early if the service is closed.
+     */
+    private void catchUp() {
+        if (indexFile != null && Files.exists(indexFile)) {
+            load();
+        }
+        Set<UUID> current = new HashSet<>();
+        for (MeetingRecord record : workspace.getAll()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            index(record);
+            current.add(record.getId());
+        }
+        synchronized (writeLock) {
+            for (UUID id : new ArrayList<>(fingerprints.keySet())) {
+                if (!current.contains(id)) {
+                    remove(id);
+                }
+            }
+        }
+        save();
+    }
+
+    /**
+     * Embeds the meeting's passages, replacing those of its previous version, on the calling
+     * thread. Does nothing beyond updating the record if its transcript and summary are unchanged.
+     */
+    public void index(MeetingRecord record) {
+        if (record == null) {
+            throw new IllegalArgumentException("record must not be null");
+        }
+        UUID id = record.getId();
+        byte[] fingerprint = fingerprint(record);
+
+        synchronized (writeLock) {
+            if (Arrays.equals(fingerprint, fingerprints.get(id))) {
+                synchronized (this) {
+                    records.put(id, record);
+                }
+                return;
+            }
+
+            List<Passage> found = new ArrayList<>();
+            List<float[]> vectors = new ArrayList<>();
+            for (Passage passage : passages(record)) {
+                float[] vector = embedder.embed(text(record, passage));
+                if (!isZero(vector)) {
+                    found.add(passage);
+                    vectors.add(vector);
+                }
+            }
+
+            synchronized (this) {
+                removeNodes(id);
+                records.put(id, record);
+                int[] nodes = new int[found.size()];
+                for (int i = 0; i < nodes.length; i++) {
+                    nodes[i] = index.add(vectors.get(i));
+                    passages.add(found.get(i));
+                }
+                nodesByMeeting.put(id, nodes);
+            }
+            fingerprints.put(id, fingerprint);
+            changedSinceSave = true;
+        }
+        compactInBackgroundIfMostlyRemoved();
+    }
+
+    /** Drops a meeting from the index. Returns false if it was not indexed. */
+    public boolean remove(UUID meetingId) {
+        synchronized (writeLock) {
+            if (meetingId == null || fingerprints.remove(meetingId) == null) {
+                return false;
+            }
+            synchronized (this) {
+                records.remove(meetingId);
+                removeNodes(meetingId);
+            }
+            changedSinceSave = true;
+        }
+        compactInBackgroundIfMostlyRemoved();
+        return true;
+    }
+
+    /**
+     * Blocks until the initial build and every queued save are embedded, then throws the first
+     * background failure not yet reported.
+     */
+    public synchronized void awaitIndexing() throws InterruptedException {
+        while (pendingTasks > 0) {
+            wait();
+        }
+        RuntimeException failure = indexingFailure;
+        if (failure != null) {
+            indexingFailure = null;
+            throw failure;
+        }
+    }
+
+    /** The {@code limit} meetings with the passages most similar to {@code query}, best first. */
+    public synchronized List<SemanticHit> search(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        List<SemanticHit> hits = new ArrayList<>();
+        float[] vector = query == null || query.isBlank() ? null : embedder.embed(query);
+        if (vector == null || isZero(vector)) {
+            return hits;
+        }
+
+        // Several passages may come from one meeting, so fetch more until enough meetings are found.
+        int live = index.size() - index.removedCount();
+        int k = Math.min(live, limit * 4);
+        Map<UUID, HnswIndex.Neighbor> best = new LinkedHashMap<>();
+        while (k > 0) {
+            best.clear();
+            List<HnswIndex.Neighbor> neighbors = index.search(vector, k, Math.max(efSearch(index.size()), k));
+            for (HnswIndex.Neighbor neighbor : neighbors) {
+                // A meeting loaded from disk has no record until the catch-up reaches it.
+                if (neighbor.score() > 0 && records.containsKey(passages.get(neighbor.node()).meetingId())) {
+                    best.putIfAbsent(passages.get(neighbor.node()).meetingId(), neighbor);
+                }
+            }
+            boolean exhausted = neighbors.isEmpty() || neighbors.get(neighbors.size() - 1).score() <= 0;
+            if (best.size() >= limit || exhausted || k == live) {
+                break;
+            }
+            k = Math.min(live, k * 4);
+        }
+
+        for (HnswIndex.Neighbor neighbor : best.values()) {
+            if (hits.size() == limit) {
+                break;
+            }
+            Passage passage = passages.get(neighbor.node());
+            MeetingRecord record = records.get(passage.meetingId());
+            hits.add(new SemanticHit(record, neighbor.score(), passage.field(),
+                    passage.start(), passage.end(), text(record, passage)));
+        }
+        return hits;
+    }
+
+    public synchronized int size() {
+        return records.size();
+    }
+
+    synchronized int getPassageCount() {
+        return index.size() - index.removedCount();
+    }
+
+    /**
+     * Stops following the workspace and abandons queued work, then saves the index if it is
+     * persisted. Meetings whose work was abandoned are embedded at the next startup.
+     */
+    @Override
+    public void close() {
+        workspace.removeListener(listener);
+        indexer.shutdownNow();
+        try {
+            indexer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        save();
+    }
+
+    /**
+     * Writes the index to a temp file and renames it over the saved one, if anything changed
+     * since the last save. The file holds the embedder's name and dimensions, each meeting's
+     * fingerprint, each node's passage, and then the {@link HnswIndex} itself. Holding the write
+     * lock keeps the graph unchanged while it is written; searches carry on meanwhile.
+     */
+    private void save() {
+        if (indexFile == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (!changedSinceSave) {
+                return;
+            }
+            long start = System.nanoTime();
+            Path temp = indexFile.resolveSibling(INDEX_FILE + ".tmp");
+            try {
+                Files.createDirectories(indexFile.getParent());
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                            Channels.newOutputStream(channel), 1 << 16));
+                    byte[] embedderName = embedder.getClass().getName().getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeInt(embedderName.length);
+                    out.write(embedderName);
+                    out.writeInt(embedder.dimensions());
+                    out.writeInt(fingerprints.size());
+                    for (Map.Entry<UUID, byte[]> entry : fingerprints.entrySet()) {
+                        out.writeLong(entry.getKey().getMostSignificantBits());
+                        out.writeLong(entry.getKey().getLeastSignificantBits());
+                        out.write(entry.getValue());
+                    }
+                    out.writeInt(passages.size());
+                    for (Passage passage : passages) {
+                        out.writeLong(passage.meetingId().getMostSignificantBits());
+                        out.writeLong(passage.meetingId().getLeastSignificantBits());
+                        out.writeByte(passage.field().ordinal());
+                        out.writeInt(passage.item());
+                        out.writeInt(passage.start());
+                        out.writeInt(passage.end());
+                    }
+                    out.flush();
+                    index.write(channel);
+                    channel.force(true);
+                }
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new SearchIndexException("Failed to save the semantic index to " + indexFile, e);
+            }
+            changedSinceSave = false;
+            log("Saved " + passages.size() + " passages to " + indexFile + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+    }
+
+    /**
+     * Replaces the index with the one saved in {@link #indexFile}. A file that cannot be read, or
+     * was written for another embedder, is ignored and the index is rebuilt from the workspace.
+     */
+    private void load() {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), Integer.MAX_VALUE));
+            if (data.getInt() != MAGIC) {
+                throw new SearchIndexException("Not a semantic index: " + indexFile);
+            }
+            int version = data.getInt();
+            if (version != VERSION) {
+                throw new SearchIndexException("Semantic index " + indexFile + " has format version "
+                        + version + ", expected " + VERSION);
+            }
+            byte[] embedderName = new byte[data.getInt()];
+            data.get(embedderName);
+            String name = new String(embedderName, StandardCharsets.UTF_8);
+            int dimensions = data.getInt();
+            if (!name.equals(embedder.getClass().getName()) || dimensions != embedder.dimensions()) {
+                log("Rebuilding the semantic index: it was saved for " + name + " with " + dimensions + " dimensions");
+                return;
+            }
+
+            Map<UUID, byte[]> savedFingerprints = new HashMap<>();
+            int meetings = data.getInt();
+            for (int i = 0; i < meetings; i++) {
+                UUID id = new UUID(data.getLong(), data.getLong());
+                byte[] fingerprint = new byte[FINGERPRINT_BYTES];
+                data.get(fingerprint);
+                savedFingerprints.put(id, fingerprint);
+            }
+            List<Passage> savedPassages = new ArrayList<>();
+            SearchField[] fields = SearchField.values();
+            int count = data.getInt();
+            for (int i = 0; i < count; i++) {
+                UUID id = new UUID(data.getLong(), data.getLong());
+                savedPassages.add(new Passage(id, fields[data.get()], data.getInt(), data.getInt(), data.getInt()));
+            }
+            channel.position(data.position());
+            HnswIndex savedIndex = HnswIndex.read(channel);
+            if (savedIndex.size() != savedPassages.size()) {
+                throw new SearchIndexException("Semantic index " + indexFile + " has " + savedIndex.size()
+                        + " vectors for " + savedPassages.size() + " passages");
+            }
+
+            Map<UUID, List<Integer>> nodes = new HashMap<>();
+            for (int node = 0; node < savedIndex.size(); node++) {
+                if (!savedIndex.isRemoved(node)) {
+                    nodes.computeIfAbsent(savedPassages.get(node).meetingId(), id -> new ArrayList<>()).add(node);
+                }
+            }
+            synchronized (writeLock) {
+                synchronized (this) {
+                    index = savedIndex;
+                    passages = savedPassages;
+                    nodesByMeeting.clear();
+                    nodes.forEach((id, list) -> nodesByMeeting.put(id, list.stream().mapToInt(Integer::intValue).toArray()));
+                }
+                fingerprints.putAll(savedFingerprints);
+            }
+            log("Loaded " + count + " passages of " + meetings + " meetings from " + indexFile + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (IOException | RuntimeException e) {
+            log("Rebuilding the semantic index: " + indexFile + " could not be read: " + e);
+        }
+    }
+
+    private synchronized void submit(Runnable task) {
+        if (indexer.isShutdown()) {
+            return;
+        }
+        pendingTasks++;
+        indexer.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                failed(e);
+            } finally {
+                synchronized (this) {
+                    pendingTasks--;
+                    notifyAll();
+                }
+            }
+        });
+    }
+
+    private synchronized void failed(RuntimeException e) {
+        log("Semantic indexing failed: " + e.getMessage());
+        if (indexingFailure == null) {
+            indexingFailure = e;
+        } else {
+            indexingFailure.addSuppressed(e);
+        }
+    }
+
+    private void log(String message) {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_TIME);
+        System.out.println("[SemanticSearchService " + timestamp + "] " + message);
+    }
+
+    private void removeNodes(UUID meetingId) {
+        int[] nodes = nodesByMeeting.remove(meetingId);
+        if (nodes != null) {
+            for (int node : nodes) {
+                index.remove(node);
+            }
+        }
+    }
+
+    /** Removed passages still cost search time, so the graph is rebuilt once they outnumber live ones. */
+    private void compactInBackgroundIfMostlyRemoved() {
+        if (mostlyRemoved()) {
+            submit(this::compact);
+        }
+    }
+
+    private synchronized boolean mostlyRemoved() {
+        return index.removedCount() * 2 > index.size();
+    }
+
+    /**
+     * Rebuilds the graph from its live vectors. Holding the write lock keeps the graph unchanged,
+     * so the rebuild reads it without the monitor and searches only wait for the swap.
+     */
+    private void compact() {
+        synchronized (writeLock) {
+            if (!mostlyRemoved()) {
+                return;
+            }
+            HnswIndex rebuilt = new HnswIndex(embedder.dimensions());
+            List<Passage> kept = new ArrayList<>();
+            Map<UUID, List<Integer>> nodes = new HashMap<>();
+            for (int node = 0; node < index.size(); node++) {
+                if (!index.isRemoved(node)) {
+                    int newNode = rebuilt.add(index.vector(node));
+                    kept.add(passages.get(node));
+                    nodes.computeIfAbsent(passages.get(node).meetingId(), id -> new ArrayList<>()).add(newNode);
+                }
+            }
+            synchronized (this) {
+                index = rebuilt;
+                passages = kept;
+                nodesByMeeting.clear();
+                nodes.forEach((id, list) -> nodesByMeeting.put(id, list.stream().mapToInt(Integer::intValue).toArray()));
+            }
+            changedSinceSave = true;
+        }
+    }
+
+    /**
+     * A SHA-256 digest of the field values passages are cut from, compared to skip re-embedding
+     * an unchanged meeting. Each value is length-prefixed so different splits can't collide.
+     */
+    private static byte[] fingerprint(MeetingRecord record) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        Summary summary = record.getSummary();
+        digest(digest, record.getTranscript() != null ? record.getTranscript().getRawText() : null);
+        digest(digest, summary != null ? summary.getNotes() : null);
+        for (List<String> values : summary != null ? List.of(summary.getTopics(), summary.getDecisions()) : List.<List<String>>of()) {
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(values.size()).array());
+            for (String value : values) {
+                digest(digest, value);
+            }
+        }
+        return digest.digest();
+    }
+
+    private static void digest(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    /** Transcript windows of {@link #CHUNK_WORDS} words overlapping by {@link #CHUNK_OVERLAP_WORDS}, then summary bullets. */
+    private static List<Passage> passages(MeetingRecord record) {
+        List<Passage> passages = new ArrayList<>();
+        UUID id = record.getId();
+
+        String transcript = record.getTranscript() != null ? record.getTranscript().getRawText() : null;
+        if (transcript != null) {
+            List<int[]> words = new ArrayList<>();
+            int start = -1;
+            for (int i = 0; i <= transcript.length(); i++) {
+                boolean inWord = i < transcript.length() && !Character.isWhitespace(transcript.charAt(i));
+                if (inWord && start < 0) {
+                    start = i;
+                } else if (!inWord && start >= 0) {
+                    words.add(new int[] {start, i});
+                    start = -1;
+                }
+            }
+            for (int first = 0; first < words.size(); first += CHUNK_WORDS - CHUNK_OVERLAP_WORDS) {
+                int last = Math.min(words.size(), first + CHUNK_WORDS) - 1;
+                passages.add(new Passage(id, SearchField.TRANSCRIPT, 0, words.get(first)[0], words.get(last)[1]));
+                if (last == words.size() - 1) {
+                    break;
+                }
+            }
+        }
+
+        Summary summary = record.getSummary();
+        if (summary != null) {
+            List<String> topics = summary.getTopics();
+            for (int i = 0; i <= topics.size(); i++) {
+                String value = i < topics.size() ? topics.get(i) : summary.getNotes();
+                if (value != null && !value.isBlank()) {
+                    passages.add(new Passage(id, SearchField.SUMMARY, i, 0, value.length()));
+                }
+            }
+            List<String> decisions = summary.getDecisions();
+            for (int i = 0; i < decisions.size(); i++) {
+                String value = decisions.get(i);
+                if (value != null && !value.isBlank()) {
+                    passages.add(new Passage(id, SearchField.DECISION, i, 0, value.length()));
+                }
+            }
+        }
+        return passages;
+    }
+
+    /** The passage's text, clamped in case the record was edited since it was indexed. */
+    private static String text(MeetingRecord record, Passage passage) {
+        String value = "";
+        Summary summary = record.getSummary();
+        if (passage.field() == SearchField.TRANSCRIPT && record.getTranscript() != null) {
+            value = record.getTranscript().getRawText();
+        } else if (passage.field() == SearchField.SUMMARY && summary != null) {
+            value = passage.item() < summary.getTopics().size() ? summary.getTopics().get(passage.item()) : summary.getNotes();
+        } else if (passage.field() == SearchField.DECISION && summary != null && passage.item() < summary.getDecisions().size()) {
+            value = summary.getDecisions().get(passage.item());
+        }
+        value = value != null ? value : "";
+        int end = Math.min(passage.end(), value.length());
+        return value.substring(Math.min(passage.start(), end), end);
+    }
+
+    /** How many candidates a search explores in an index of {@code size} passages. */
+    static int efSearch(int size) {
+        return Math.max(MIN_EF_SEARCH, size / PASSAGES_PER_EF);
+    }
+
+    private static boolean isZero(float[] vector) {
+        for (float value : vector) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
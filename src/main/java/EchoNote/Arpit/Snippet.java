@@ -0,0 +1,27 @@
+package EchoNote.Arpit;
+
+import java.util.List;
+
+/**
+ * A window of a matching meeting's transcript or summary text around search hits. {@code start}
+ * and {@code end} are its character offsets in the field text (for multi-valued fields, the values
+ * joined with newlines); line breaks inside {@code text} are replaced by spaces. Each highlight is a
+ * matched word, as offsets within {@code text}.
+ */
+public record Snippet(SearchField field, int start, int end, String text, List<Highlight> highlights) {
+
+    public record Highlight(int start, int end) {
+    }
+
+    /** The text with every highlight wrapped in {@code before} and {@code after}. */
+    public String marked(String before, String after) {
+        StringBuilder sb = new StringBuilder(text.length() + highlights.size() * (before.length() + after.length()));
+        int at = 0;
+        for (Highlight highlight : highlights) {
+            sb.append(text, at, highlight.start()).append(before)
+                    .append(text, highlight.start(), highlight.end()).append(after);
+            at = highlight.end();
+        }
+        return sb.append(text, at, text.length()).toString();
+    }
+}
@@ -0,0 +1,5 @@
+package EchoNote.Arpit;
+
+/** An autocomplete suggestion and how many meetings it occurs in. */
+public record Suggestion(String text, SuggestionKind kind, int frequency) {
+}
@@ -0,0 +1,9 @@
+package EchoNote.Arpit;
+
+/** Where an autocomplete {@link Suggestion} comes from. */
+public enum SuggestionKind {
+    TITLE,
+    TAG,
+    PARTICIPANT,
+    TERM
+}
@@ -0,0 +1,239 @@
+package EchoNote.Arpit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Every distinct term across the index's segments, for expanding a query term into the indexed
+ * terms it should also match: by prefix, by substring through a trigram index, and by edit
+ * distance through a {@link LevenshteinAutomaton} run over the sorted terms.
+ *
+ * Terms are never removed; one whose documents are all gone just has no postings to score.
+ */
+final class TermDictionary {
+
+    static final int GRAM = 3;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    // All terms in order; terms added since the last query wait in pending and are merged in lazily.
+    private String[] sorted = new String[0];
+    private final List<String> pending = new ArrayList<>();
+    // Ids of the terms containing each trigram, ascending.
+    private final Map<String, IdList> trigrams = new HashMap<>();
+
+    record Match(String term, int distance) {
+    }
+
+    /** Adds {@code term} if it is new; returns false if it was already known. */
+    boolean add(String term) {
+        if (ids.putIfAbsent(term, terms.size()) != null) {
+            return false;
+        }
+        int id = terms.size();
+        terms.add(term);
+        pending.add(term);
+        for (String gram : trigrams(term)) {
+            trigrams.computeIfAbsent(gram, g -> new IdList()).add(id);
+        }
+        return true;
+    }
+
+    int size() {
+        return terms.size();
+    }
+
+    /** Terms starting with {@code prefix}, in sorted order. */
+    List<String> withPrefix(String prefix) {
+        String[] all = sorted();
+        int from = lowerBound(all, prefix, 0);
+        int to = lowerBound(all, prefix + Character.MAX_VALUE, from);
+        return Arrays.asList(all).subList(from, to);
+    }
+
+    /**
+     * Terms containing {@code fragment}, in sorted order. Fragments of at least three characters
+     * intersect the id lists of their trigrams, rarest first, and only check the survivors;
+     * shorter ones have no trigram to look up and scan every term.
+     */
+    List<String> containing(String fragment) {
+        List<String> matches = new ArrayList<>();
+        if (fragment.length() < GRAM) {
+            for (String term : sorted()) {
+                if (term.contains(fragment)) {
+                    matches.add(term);
+                }
+            }
+            return matches;
+        }
+
+        List<IdList> lists = new ArrayList<>();
+        for (String gram : trigrams(fragment)) {
+            IdList ids = trigrams.get(gram);
+            if (ids == null) {
+                return matches;
+            }
+            lists.add(ids);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        int[] candidates = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        int count = candidates.length;
+        for (int l = 1; l < lists.size() && count > 0; l++) {
+            count = intersect(candidates, count, lists.get(l));
+        }
+
+        for (int i = 0; i < count; i++) {
+            String term = terms.get(candidates[i]);
+            // Sharing every trigram doesn't mean the fragment occurs in one piece.
+            if (term.contains(fragment)) {
+                matches.add(term);
+            }
+        }
+        Collections.sort(matches);
+        return matches;
+    }
+
+    /**
+     * Terms within {@code maxEdits} of {@code term}, in sorted order. Walks the sorted terms while
+     * reusing automaton states along shared prefixes; when a term is rejected, seeks straight to the
+     * smallest string the automaton could still accept, so most of the dictionary is never visited.
+     */
+    List<Match> withinDistance(String term, int maxEdits) {
+        LevenshteinAutomaton automaton = new LevenshteinAutomaton(term, maxEdits);
+        List<Match> matches = new ArrayList<>();
+
+        // states[d] is the state after the first d characters of the previous term, for d <= live.
+        int[] states = new int[16];
+        states[0] = automaton.start();
+        String previous = "";
+        int live = 0;
+
+        String[] all = sorted();
+        int index = 0;
+        while (index < all.length) {
+            String candidate = all[index];
+            int depth = 0;
+            int limit = Math.min(live, candidate.length());
+            while (depth < limit && previous.charAt(depth) == candidate.charAt(depth)) {
+                depth++;
+            }
+            if (candidate.length() >= states.length) {
+                states = Arrays.copyOf(states, candidate.length() * 2);
+            }
+
+            int state = states[depth];
+            while (depth < candidate.length()) {
+                state = automaton.step(state, candidate.charAt(depth));
+                if (state == LevenshteinAutomaton.DEAD) {
+                    break;
+                }
+                states[++depth] = state;
+            }
+            previous = candidate;
+            live = depth;
+
+            if (state == LevenshteinAutomaton.DEAD) {
+                String next = seek(automaton, states, candidate, depth);
+                if (next == null) {
+                    break;
+                }
+                index = lowerBound(all, next, index + 1);
+                continue;
+            }
+            if (automaton.isAccepted(state)) {
+                matches.add(new Match(candidate, automaton.distance(state)));
+            }
+            index++;
+        }
+        return matches;
+    }
+
+    /**
+     * The smallest string after {@code candidate} whose prefix the automaton has not rejected yet:
+     * the rejected character is replaced by the next live one, backing up a position at a time.
+     */
+    private static String seek(LevenshteinAutomaton automaton, int[] states, String candidate, int liveDepth) {
+        for (int depth = liveDepth; depth >= 0; depth--) {
+            int next = automaton.nextLiveChar(states[depth], candidate.charAt(depth));
+            if (next >= 0) {
+                return candidate.substring(0, depth) + (char) next;
+            }
+        }
+        return null;
+    }
+
+    private String[] sorted() {
+        if (!pending.isEmpty()) {
+            Collections.sort(pending);
+            String[] merged = new String[sorted.length + pending.size()];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < merged.length; k++) {
+                merged[k] = j == pending.size() || (i < sorted.length && sorted[i].compareTo(pending.get(j)) < 0)
+                        ? sorted[i++]
+                        : pending.get(j++);
+            }
+            sorted = merged;
+            pending.clear();
+        }
+        return sorted;
+    }
+
+    /** The first index at or after {@code from} whose term is not less than {@code key}. */
+    private static int lowerBound(String[] terms, String key, int from) {
+        int low = from;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Keeps the candidates also in {@code ids}; both are ascending. Returns the new count. */
+    private static int intersect(int[] candidates, int count, IdList ids) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < count; i++) {
+            int id = candidates[i];
+            while (j < ids.size && ids.ids[j] < id) {
+                j++;
+            }
+            if (j < ids.size && ids.ids[j] == id) {
+                candidates[kept++] = id;
+            }
+        }
+        return kept;
+    }
+
+    static Set<String> trigrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static final class IdList {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
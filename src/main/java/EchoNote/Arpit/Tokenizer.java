@@ -0,0 +1,44 @@
+package EchoNote.Arpit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/** Splits text into lowercase runs of letters and digits. */
+final class Tokenizer {
+
+    /** A token and the character range {@code [start, end)} it was read from. */
+    record Token(String text, int start, int end) {
+    }
+
+    private Tokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        for (Token token : tokens(text, 0)) {
+            words.add(token.text());
+        }
+        return words;
+    }
+
+    /** Tokens with their offsets in {@code text}, shifted by {@code base}. */
+    static List<Token> tokens(String text, int base) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(new Token(text.substring(start, i).toLowerCase(Locale.ROOT), base + start, base + i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
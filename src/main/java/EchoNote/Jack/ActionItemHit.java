@@ -0,0 +1,7 @@
+package EchoNote.Jack;
+
+import java.util.UUID;
+
+/** An action item found by {@link ActionItemIndex}, with the id of the meeting it belongs to. */
+public record ActionItemHit(UUID meetingId, ActionItem item) {
+}
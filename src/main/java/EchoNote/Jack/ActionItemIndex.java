@@ -0,0 +1,173 @@
+package EchoNote.Jack;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * The action items of every meeting in a {@link Workspace}, indexed by owner, status and due date,
+ * and kept current as meetings are saved.
+ *
+ * Items are grouped by normalized owner name and then by status, and each group is sorted by due
+ * date, so a query for one owner's items in one status due within a range is a single range scan.
+ * A second set of groups by status alone serves queries without an owner. As in the workspace's own
+ * indexes, an item's owner, status and due date are captured when its meeting is saved; changing
+ * an item in place takes effect at the next save.
+ */
+public class ActionItemIndex implements AutoCloseable {
+
+    private static final Comparator<Posting> BY_DUE_DATE = Comparator
+            .comparing(Posting::dueDate, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()))
+            .thenComparingLong(Posting::sequence);
+
+    private final Workspace workspace;
+    private final WorkspaceListener listener = this::index;
+
+    private final Map<UUID, List<Posting>> byMeeting = new HashMap<>();
+    private final Map<String, Map<ActionStatus, NavigableSet<Posting>>> byOwner = new HashMap<>();
+    private final Map<ActionStatus, NavigableSet<Posting>> byStatus = new EnumMap<>(ActionStatus.class);
+    private long nextSequence;
+
+    private record Posting(UUID meetingId, ActionItem item, String owner, ActionStatus status,
+                           LocalDate dueDate, long sequence) {
+    }
+
+    /** Indexes every meeting already in {@code workspace} and follows its saves from then on. */
+    public ActionItemIndex(Workspace workspace) {
+        if (workspace == null) {
+            throw new IllegalArgumentException("workspace cannot be null");
+        }
+        this.workspace = workspace;
+        for (ActionStatus status : ActionStatus.values()) {
+            byStatus.put(status, new TreeSet<>(BY_DUE_DATE));
+        }
+
+        synchronized (this) {
+            workspace.addListener(listener);
+            for (MeetingRecord record : workspace.getAll()) {
+                index(record);
+            }
+        }
+    }
+
+    /** Replaces the indexed items of the meeting with its current ones. */
+    public synchronized void index(MeetingRecord record) {
+        if (record == null) {
+            throw new IllegalArgumentException("record cannot be null");
+        }
+
+        List<Posting> previous = byMeeting.remove(record.getId());
+        if (previous != null) {
+            for (Posting posting : previous) {
+                unindex(posting);
+            }
+        }
+
+        List<Posting> postings = new ArrayList<>();
+        for (ActionItem item : record.getActions()) {
+            if (item == null) {
+                continue;
+            }
+            String owner = item.getOwner() != null ? normalizeOwner(item.getOwner().getName()) : "";
+            ActionStatus status = item.getStatus() != null ? item.getStatus() : ActionStatus.OPEN;
+            Posting posting = new Posting(record.getId(), item, owner, status, item.getDueDate(), nextSequence++);
+            byOwner.computeIfAbsent(owner, o -> new EnumMap<>(ActionStatus.class))
+                    .computeIfAbsent(status, s -> new TreeSet<>(BY_DUE_DATE))
+                    .add(posting);
+            byStatus.get(status).add(posting);
+            postings.add(posting);
+        }
+        if (!postings.isEmpty()) {
+            byMeeting.put(record.getId(), postings);
+        }
+    }
+
+    private void unindex(Posting posting) {
+        byStatus.get(posting.status()).remove(posting);
+        Map<ActionStatus, NavigableSet<Posting>> statuses = byOwner.get(posting.owner());
+        NavigableSet<Posting> group = statuses.get(posting.status());
+        group.remove(posting);
+        if (group.isEmpty()) {
+            statuses.remove(posting.status());
+            if (statuses.isEmpty()) {
+                byOwner.remove(posting.owner());
+            }
+        }
+    }
+
+    /**
+     * Action items matching every given condition, earliest due first, then undated ones, each in
+     * the order they were saved. A null {@code owner} or {@code status} matches any; the owner is
+     * matched ignoring case and surrounding whitespace. Due dates are within {@code [dueFrom, dueTo)};
+     * either bound may be null for an open range, and items without a due date are only returned
+     * when both are.
+     */
+    public synchronized List<ActionItemHit> find(String owner, ActionStatus status, LocalDate dueFrom, LocalDate dueTo) {
+        if (dueFrom != null && dueTo != null && dueFrom.isAfter(dueTo)) {
+            throw new IllegalArgumentException("dueFrom cannot be after dueTo");
+        }
+
+        Map<ActionStatus, NavigableSet<Posting>> groups = owner != null ? byOwner.get(normalizeOwner(owner)) : byStatus;
+        if (groups == null) {
+            return new ArrayList<>();
+        }
+
+        List<Posting> found = new ArrayList<>();
+        for (ActionStatus candidate : ActionStatus.values()) {
+            NavigableSet<Posting> group = groups.get(candidate);
+            if (group != null && (status == null || status == candidate)) {
+                found.addAll(dueWithin(group, dueFrom, dueTo));
+            }
+        }
+        if (status == null) {
+            found.sort(BY_DUE_DATE);
+        }
+
+        List<ActionItemHit> hits = new ArrayList<>(found.size());
+        for (Posting posting : found) {
+            hits.add(new ActionItemHit(posting.meetingId(), posting.item()));
+        }
+        return hits;
+    }
+
+    private static NavigableSet<Posting> dueWithin(NavigableSet<Posting> group, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return group;
+        }
+        // Probes sort before every item due on their date; an undated probe sorts before every undated item.
+        Posting lower = from != null ? probe(from) : null;
+        Posting upper = probe(to);
+        return lower != null ? group.subSet(lower, true, upper, false) : group.headSet(upper, false);
+    }
+
+    private static Posting probe(LocalDate dueDate) {
+        return new Posting(null, null, null, null, dueDate, Long.MIN_VALUE);
+    }
+
+    /** Number of indexed action items. */
+    public synchronized int size() {
+        int size = 0;
+        for (NavigableSet<Posting> group : byStatus.values()) {
+            size += group.size();
+        }
+        return size;
+    }
+
+    private static String normalizeOwner(String owner) {
+        return owner == null ? "" : owner.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Stops following the workspace. */
+    @Override
+    public void close() {
+        workspace.removeListener(listener);
+    }
+}
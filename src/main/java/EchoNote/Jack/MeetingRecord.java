@@ -19,7 +19,15 @@ public class MeetingRecord {
     private String audioFilePath;
 
     public MeetingRecord() {
-        this.id = UUID.randomUUID();
+        this(UUID.randomUUID());
+    }
+
+    /** Recreates a record with a known id, e.g. when loading it from storage. */
+    public MeetingRecord(UUID id) {
+        if (id == null) {
+            throw new IllegalArgumentException("id cannot be null");
+        }
+        this.id = id;
         this.status = ApprovalStatus.DRAFT;
     }
 
@@ -0,0 +1,201 @@
+package EchoNote.Jack;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact binary form of a {@link MeetingRecord}. Strings are length-prefixed UTF-8
+ * (length -1 for null) so transcripts aren't limited to 64 KB like {@code writeUTF}.
+ */
+final class MeetingRecordCodec {
+
+    private static final byte VERSION = 1;
+
+    private MeetingRecordCodec() {
+    }
+
+    static byte[] encode(MeetingRecord record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(record.getId().getMostSignificantBits());
+            out.writeLong(record.getId().getLeastSignificantBits());
+            writeString(out, record.getTitle());
+            writeStrings(out, record.getTags());
+
+            LocalDateTime date = record.getDate();
+            out.writeBoolean(date != null);
+            if (date != null) {
+                out.writeLong(date.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(date.getNano());
+            }
+            writeString(out, record.getStatus() != null ? record.getStatus().name() : null);
+
+            out.writeInt(record.getParticipants().size());
+            for (Participant participant : record.getParticipants()) {
+                writeParticipant(out, participant);
+            }
+
+            Transcript transcript = record.getTranscript();
+            out.writeBoolean(transcript != null);
+            if (transcript != null) {
+                writeString(out, transcript.getId());
+                writeString(out, transcript.getRawText());
+                writeStrings(out, transcript.getTimestamps());
+                writeString(out, transcript.getSource() != null ? transcript.getSource().name() : null);
+            }
+
+            Summary summary = record.getSummary();
+            out.writeBoolean(summary != null);
+            if (summary != null) {
+                writeString(out, summary.getId());
+                writeStrings(out, summary.getTopics());
+                writeStrings(out, summary.getDecisions());
+                writeString(out, summary.getNotes());
+            }
+
+            out.writeInt(record.getActions().size());
+            for (ActionItem action : record.getActions()) {
+                writeString(out, action.getId());
+                writeString(out, action.getTitle());
+                writeParticipant(out, action.getOwner());
+                out.writeLong(action.getDueDate() != null ? action.getDueDate().toEpochDay() : Long.MIN_VALUE);
+                writeString(out, action.getStatus() != null ? action.getStatus().name() : null);
+            }
+
+            writeString(out, record.getAudioFilePath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Decodes one record from {@code in}, leaving its position just past the record. */
+    static MeetingRecord decode(ByteBuffer in) {
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new WorkspaceStoreException("Unsupported meeting record version " + version);
+        }
+
+        MeetingRecord record = new MeetingRecord(new UUID(in.getLong(), in.getLong()));
+        record.setTitle(readString(in));
+        record.setTags(readStrings(in));
+
+        if (in.get() != 0) {
+            long epochSecond = in.getLong();
+            int nano = in.getInt();
+            record.setDate(LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC));
+        }
+        String status = readString(in);
+        record.setStatus(status != null ? ApprovalStatus.valueOf(status) : null);
+
+        int participantCount = in.getInt();
+        List<Participant> participants = new ArrayList<>(participantCount);
+        for (int i = 0; i < participantCount; i++) {
+            participants.add(readParticipant(in));
+        }
+        record.setParticipants(participants);
+
+        if (in.get() != 0) {
+            String id = readString(in);
+            String rawText = readString(in);
+            List<String> timestamps = readStrings(in);
+            String source = readString(in);
+            record.setTranscript(new Transcript(id, rawText, timestamps,
+                    source != null ? TranscriptSource.valueOf(source) : null));
+        }
+
+        if (in.get() != 0) {
+            Summary summary = new Summary(readString(in));
+            readStrings(in).forEach(summary::addTopic);
+            readStrings(in).forEach(summary::addDecision);
+            summary.setNotes(readString(in));
+            record.setSummary(summary);
+        }
+
+        int actionCount = in.getInt();
+        List<ActionItem> actions = new ArrayList<>(actionCount);
+        for (int i = 0; i < actionCount; i++) {
+            String id = readString(in);
+            String title = readString(in);
+            Participant owner = readParticipant(in);
+            long dueEpochDay = in.getLong();
+            ActionItem action = new ActionItem(id, title, owner,
+                    dueEpochDay != Long.MIN_VALUE ? LocalDate.ofEpochDay(dueEpochDay) : null);
+            String actionStatus = readString(in);
+            action.setStatus(actionStatus != null ? ActionStatus.valueOf(actionStatus) : null);
+            actions.add(action);
+        }
+        record.setActions(actions);
+
+        record.setAudioFilePath(readString(in));
+        return record;
+    }
+
+    private static void writeParticipant(DataOutputStream out, Participant participant) throws IOException {
+        out.writeBoolean(participant != null);
+        if (participant != null) {
+            writeString(out, participant.getName());
+            writeString(out, participant.getEmail());
+            writeString(out, participant.getRole());
+        }
+    }
+
+    private static Participant readParticipant(ByteBuffer in) {
+        if (in.get() == 0) {
+            return null;
+        }
+        return new Participant(readString(in), readString(in), readString(in));
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readStrings(ByteBuffer in) {
+        int count = in.getInt();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (in.hasArray()) {
+            String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return value;
+        }
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,11 @@
+package EchoNote.Jack;
+
+import java.util.List;
+
+/** One page of results. Pass {@code nextCursor} back to get the next page; it is null on the last one. */
+public record ResultPage<T>(List<T> items, String nextCursor) {
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -1,58 +1,454 @@
 package EchoNote.Jack;
 
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 
-public class Workspace {
+/**
+ * Meeting records keyed by id, iterated in the order they were last saved.
+ *
+ * Reads never lock: lookups go straight to a concurrent hash index, and full scans walk an
+ * immutable snapshot of the save order published through a volatile reference. Only writers
+ * serialize, among themselves. Tags, dates and approval status have secondary indexes that are
+ * maintained on every save.
+ */
+public class Workspace implements AutoCloseable {
 
-    private final List<MeetingRecord> records = new ArrayList<>();
+    private static final int INITIAL_CAPACITY = 16;
 
-    public synchronized void save(MeetingRecord record) {
+    private final Map<UUID, Entry> byId = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(new Entry[INITIAL_CAPACITY], 0, 0);
+
+    // Secondary indexes hold entries directly, already in the order queries return them.
+    private final Map<String, ConcurrentSkipListMap<Long, Entry>> byTag = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<DateKey, Entry> byDate = new ConcurrentSkipListMap<>();
+    private final Map<ApprovalStatus, ConcurrentSkipListMap<Long, Entry>> byStatus = new EnumMap<>(ApprovalStatus.class);
+
+    private final Object writeLock = new Object();
+    private long nextSequence;
+
+    private final WorkspaceStore store;
+    private final List<WorkspaceListener> listeners = new CopyOnWriteArrayList<>();
+
+    /** Creates an in-memory workspace; nothing survives a restart. */
+    public Workspace() {
+        this.store = null;
+        initStatusIndex();
+    }
+
+    /** Creates a workspace backed by {@code store}, loading everything it holds. */
+    public Workspace(WorkspaceStore store) {
+        if (store == null) {
+            throw new IllegalArgumentException("store cannot be null");
+        }
+        this.store = store;
+        initStatusIndex();
+        for (MeetingRecord record : store.load()) {
+            put(record);
+        }
+    }
+
+    /**
+     * Saves the record, replacing any previous version. With a store, this returns once the
+     * record is durable; the fsync happens outside the lock so concurrent saves share it.
+     *
+     * A listener that throws does not stop the save or the other listeners: once the record is
+     * durable, the first failure is rethrown with any later ones attached as suppressed.
+     */
+    public void save(MeetingRecord record) {
         Objects.requireNonNull(record, "record cannot be null");
 
-        records.removeIf(r -> r.getId().equals(record.getId()));
-        records.add(record);
+        long seq = 0;
+        RuntimeException listenerFailure = null;
+        synchronized (writeLock) {
+            if (store != null) {
+                seq = store.append(record);
+            }
+
+            put(record);
+
+            if (store != null && store.needsCompaction()) {
+                store.compact(collect(e -> true));
+            }
+
+            // Still under the write lock so listeners see saves in the order they were applied.
+            for (WorkspaceListener listener : listeners) {
+                try {
+                    listener.onSaved(record);
+                } catch (RuntimeException e) {
+                    if (listenerFailure == null) {
+                        listenerFailure = e;
+                    } else {
+                        listenerFailure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+
+        if (store != null) {
+            store.awaitDurable(seq);
+        }
+        if (listenerFailure != null) {
+            throw listenerFailure;
+        }
+    }
+
+    /** Registers a listener for subsequent saves; records already saved are not replayed. */
+    public void addListener(WorkspaceListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    public void removeListener(WorkspaceListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void initStatusIndex() {
+        for (ApprovalStatus status : ApprovalStatus.values()) {
+            byStatus.put(status, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    /**
+     * Publishes a new version at the end of the order. The new entry is indexed before the old
+     * version is unindexed, so a concurrent index read can't miss the record.
+     */
+    private void put(MeetingRecord record) {
+        Entry entry = new Entry(record, nextSequence++);
+
+        for (String tag : entry.tags) {
+            byTag.computeIfAbsent(tag, t -> new ConcurrentSkipListMap<>()).put(entry.sequence, entry);
+        }
+        if (entry.date != null) {
+            byDate.put(new DateKey(entry.date, entry.sequence), entry);
+        }
+        if (entry.status != null) {
+            byStatus.get(entry.status).put(entry.sequence, entry);
+        }
+
+        Entry previous = byId.put(record.getId(), entry);
+        if (previous != null) {
+            previous.supersededBy = entry.sequence;
+            unindex(previous);
+        }
+        append(entry);
+    }
+
+    /**
+     * Fills the next free slot and publishes a snapshot that includes it. Slots already visible
+     * to readers are never written; when the array is full, the current versions are copied into
+     * a new one twice their number, so the copying costs O(1) per save over time.
+     */
+    private void append(Entry entry) {
+        Snapshot current = snapshot;
+        Entry[] entries = current.entries;
+        int size = current.size;
+
+        if (size == entries.length) {
+            entries = new Entry[Math.max(INITIAL_CAPACITY, 2 * byId.size())];
+            size = 0;
+            for (int i = 0; i < current.size; i++) {
+                Entry existing = current.entries[i];
+                if (existing.supersededBy == Entry.CURRENT) {
+                    entries[size++] = existing;
+                }
+            }
+        }
+
+        entries[size++] = entry;
+        snapshot = new Snapshot(entries, size, entry.sequence + 1);
+    }
+
+    private void unindex(Entry previous) {
+        for (String tag : previous.tags) {
+            Map<Long, Entry> entries = byTag.get(tag);
+            if (entries != null) {
+                entries.remove(previous.sequence);
+                if (entries.isEmpty()) {
+                    byTag.remove(tag);
+                }
+            }
+        }
+        if (previous.date != null) {
+            byDate.remove(new DateKey(previous.date, previous.sequence));
+        }
+        if (previous.status != null) {
+            byStatus.get(previous.status).remove(previous.sequence);
+        }
     }
 
-    public synchronized List<MeetingRecord> findByQuery(String query) {
+    public List<MeetingRecord> findByQuery(String query) {
         if (query == null || query.isBlank()) {
-            return new ArrayList<>(records);
+            return getAll();
         }
+        return collect(queryMatcher(query));
+    }
 
-        String lower = query.toLowerCase();
+    /**
+     * Like {@link #findByQuery(String)}, but at most {@code limit} records in save order, starting
+     * after {@code cursor} (null for the first page). The scan stops once the page is full and one
+     * more match is seen, so a page costs the same however many records match. A record re-saved
+     * between pages moves to the end and may show up again on a later page.
+     */
+    public ResultPage<MeetingRecord> findByQuery(String query, int limit, String cursor) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
 
-        return records.stream()
-                .filter(rec ->
-                        (rec.getTitle() != null &&
-                                rec.getTitle().toLowerCase().contains(lower)) ||
-                                rec.getTags().stream()
-                                        .anyMatch(t -> t.toLowerCase().contains(lower)))
-                .collect(Collectors.toList());
+        long after = cursor != null ? decodeCursor(cursor) : -1;
+        Predicate<Entry> filter = queryMatcher(query);
+        Snapshot view = snapshot;
+        List<MeetingRecord> items = new ArrayList<>();
+        long last = after;
+        for (int i = view.indexAfter(after); i < view.size; i++) {
+            Entry entry = view.entries[i];
+            if (!view.isCurrent(entry) || !filter.test(entry)) {
+                continue;
+            }
+            if (items.size() == limit) {
+                return new ResultPage<>(items, encodeCursor(last));
+            }
+            items.add(entry.record);
+            last = entry.sequence;
+        }
+        return new ResultPage<>(items, null);
     }
 
-    public synchronized MeetingRecord getById(UUID id) {
+    private static Predicate<Entry> queryMatcher(String query) {
+        if (query == null || query.isBlank()) {
+            return e -> true;
+        }
+
+        String lower = query.toLowerCase(Locale.ROOT);
+        return e -> {
+            if (e.title != null && e.title.contains(lower)) {
+                return true;
+            }
+            for (String tag : e.tags) {
+                if (tag.contains(lower)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private static String encodeCursor(long sequence) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(sequence).array());
+    }
+
+    private static long decodeCursor(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid cursor", e);
+        }
+        if (bytes.length != Long.BYTES) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+        return ByteBuffer.wrap(bytes).getLong();
+    }
+
+    /** Records carrying {@code tag}, ignoring case and surrounding whitespace, in save order. */
+    public List<MeetingRecord> findByTag(String tag) {
+        if (tag == null || tag.isBlank()) {
+            throw new IllegalArgumentException("tag cannot be blank");
+        }
+
+        ConcurrentSkipListMap<Long, Entry> entries = byTag.get(normalizeTag(tag));
+        return entries != null ? latestVersions(entries.values()) : new ArrayList<>();
+    }
+
+    /**
+     * Records dated within {@code [from, to)}, oldest first. Either bound may be null for an
+     * open range; records without a date are never included.
+     */
+    public List<MeetingRecord> findByDateRange(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from cannot be after to");
+        }
+
+        NavigableMap<DateKey, Entry> range = byDate;
+        if (from != null) {
+            range = range.tailMap(new DateKey(from, Long.MIN_VALUE), true);
+        }
+        if (to != null) {
+            range = range.headMap(new DateKey(to, Long.MIN_VALUE), false);
+        }
+        return latestVersions(range.values());
+    }
+
+    /** Records with the given approval status, in save order. */
+    public List<MeetingRecord> findByStatus(ApprovalStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("status cannot be null");
+        }
+
+        return latestVersions(byStatus.get(status).values());
+    }
+
+    /**
+     * Copies index hits out in index order. A record re-saved during the read can show up at both
+     * versions; in that (rare) case only the newer one is kept.
+     */
+    private static List<MeetingRecord> latestVersions(Collection<Entry> entries) {
+        List<Entry> hits = new ArrayList<>();
+        boolean raced = false;
+        for (Entry entry : entries) {
+            hits.add(entry);
+            raced |= entry.supersededBy != Entry.CURRENT;
+        }
+
+        if (raced) {
+            Map<UUID, Entry> latest = new HashMap<>();
+            for (Entry entry : hits) {
+                latest.merge(entry.record.getId(), entry, (a, b) -> a.sequence >= b.sequence ? a : b);
+            }
+            hits.removeIf(entry -> latest.get(entry.record.getId()) != entry);
+        }
+
+        List<MeetingRecord> result = new ArrayList<>(hits.size());
+        for (Entry entry : hits) {
+            result.add(entry.record);
+        }
+        return result;
+    }
+
+    private static String normalizeTag(String tag) {
+        return tag.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public MeetingRecord getById(UUID id) {
         if (id == null) {
             throw new IllegalArgumentException("id cannot be null");
         }
 
-        return records.stream()
-                .filter(rec -> rec.getId().equals(id))
-                .findFirst()
-                .orElseThrow(() ->
-                        new RecordNotFoundException("No MeetingRecord found with id " + id));
+        Entry entry = byId.get(id);
+        if (entry == null) {
+            throw new RecordNotFoundException("No MeetingRecord found with id " + id);
+        }
+        return entry.record;
     }
 
-    public synchronized MeetingRecord getById(String id) {
+    public MeetingRecord getById(String id) {
         if (id == null || id.isBlank()) {
             throw new IllegalArgumentException("id cannot be blank");
         }
         return getById(UUID.fromString(id.trim()));
     }
 
-    public synchronized List<MeetingRecord> getAll() {
-        return new ArrayList<>(records);
+    /** The records as of one instant: a save that races with the call is wholly in or out. */
+    public List<MeetingRecord> getAll() {
+        return collect(e -> true);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private List<MeetingRecord> collect(Predicate<Entry> filter) {
+        Snapshot view = snapshot;
+        List<MeetingRecord> result = new ArrayList<>();
+        for (int i = 0; i < view.size; i++) {
+            Entry entry = view.entries[i];
+            if (view.isCurrent(entry) && filter.test(entry)) {
+                result.add(entry.record);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    /**
+     * Every version saved before {@code horizon}, in the first {@code size} slots of
+     * {@code entries} and in save order. Versions superseded later still count as current here,
+     * so a reader holding a snapshot sees one fixed state however many saves follow.
+     */
+    private record Snapshot(Entry[] entries, int size, long horizon) {
+
+        boolean isCurrent(Entry entry) {
+            return entry.supersededBy >= horizon;
+        }
+
+        /** The first slot holding a sequence greater than {@code sequence}. */
+        int indexAfter(long sequence) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (entries[mid].sequence <= sequence) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /** A meeting date, with ties ordered by save sequence. */
+    private record DateKey(LocalDateTime date, long sequence) implements Comparable<DateKey> {
+        @Override
+        public int compareTo(DateKey other) {
+            int byDate = date.compareTo(other.date);
+            return byDate != 0 ? byDate : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * One saved version of a record, with its indexed fields captured at save time so later
+     * in-place edits can't desynchronize the indexes before the record is saved again.
+     */
+    private static final class Entry {
+        static final long CURRENT = Long.MAX_VALUE;
+
+        final MeetingRecord record;
+        final long sequence;
+        final String title;
+        final Set<String> tags;
+        final LocalDateTime date;
+        final ApprovalStatus status;
+        // Sequence of the version that replaced this one.
+        volatile long supersededBy = CURRENT;
+
+        Entry(MeetingRecord record, long sequence) {
+            this.record = record;
+            this.sequence = sequence;
+            this.title = record.getTitle() != null ? record.getTitle().toLowerCase(Locale.ROOT) : null;
+            Set<String> normalized = new LinkedHashSet<>();
+            for (String tag : record.getTags()) {
+                if (tag != null && !tag.isBlank()) {
+                    normalized.add(normalizeTag(tag));
+                }
+            }
+            this.tags = normalized;
+            this.date = record.getDate();
+            this.status = record.getStatus();
+        }
     }
 }
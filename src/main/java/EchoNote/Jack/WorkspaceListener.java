@@ -0,0 +1,15 @@
+package EchoNote.Jack;
+
+/**
+ * Observer Pattern: notified whenever a {@link Workspace} saves a record, so derived
+ * structures such as search indexes stay current without full rebuilds.
+ */
+@FunctionalInterface
+public interface WorkspaceListener {
+
+    /**
+     * Called after {@code record} has been saved. Saves are delivered one at a time in the
+     * order they were applied, so listeners should return quickly.
+     */
+    void onSaved(MeetingRecord record);
+}
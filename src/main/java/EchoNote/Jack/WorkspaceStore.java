@@ -0,0 +1,385 @@
+package EchoNote.Jack;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Durable storage behind {@link Workspace}: a compacted snapshot plus an append-only log.
+ *
+ * Every entry in both files is framed as {@code [int length][int crc32c][payload]}. Saves are
+ * appended to the log and made durable with group commit: whichever writer finds no fsync in
+ * progress forces the log for everyone who has written so far. Once the log outgrows the last
+ * snapshot it is folded into a new snapshot and truncated. A torn entry at the end of the log
+ * (crash mid-write) is dropped on load.
+ */
+public class WorkspaceStore implements AutoCloseable {
+
+    static final String SNAPSHOT_FILE = "workspace.snapshot";
+    static final String LOG_FILE = "workspace.log";
+
+    private static final int SNAPSHOT_MAGIC = 0x454E5753; // "ENWS"
+    private static final byte OP_PUT = 1;
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final long DEFAULT_MIN_COMPACTION_BYTES = 4L * 1024 * 1024;
+
+    private final Path directory;
+    private final Path snapshotFile;
+    private final Path logFile;
+    private final long minCompactionBytes;
+    private final FileChannel log;
+
+    private final Object writeLock = new Object();
+    private long logSize;
+    private long snapshotSize;
+    private volatile long writtenSeq;
+    private boolean loaded;
+
+    private final Object syncLock = new Object();
+    private long syncedSeq;
+    private boolean syncing;
+    private long syncCount;
+
+    private Duration lastLoadDuration = Duration.ZERO;
+
+    public WorkspaceStore(Path directory) {
+        this(directory, DEFAULT_MIN_COMPACTION_BYTES);
+    }
+
+    /**
+     * @param minCompactionBytes the log is never compacted below this size, so small
+     *                           workspaces don't rewrite their snapshot on every save
+     */
+    public WorkspaceStore(Path directory, long minCompactionBytes) {
+        if (directory == null) {
+            throw new IllegalArgumentException("directory cannot be null");
+        }
+        if (minCompactionBytes <= 0) {
+            throw new IllegalArgumentException("minCompactionBytes must be positive");
+        }
+
+        this.directory = directory;
+        this.snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        this.logFile = directory.resolve(LOG_FILE);
+        this.minCompactionBytes = minCompactionBytes;
+
+        try {
+            Files.createDirectories(directory);
+            this.log = FileChannel.open(logFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new WorkspaceStoreException("Unable to open workspace store in " + directory, e);
+        }
+    }
+
+    /**
+     * Replays the snapshot and then the log, returning the records in workspace order.
+     * Must be called once before anything is appended.
+     */
+    public List<MeetingRecord> load() {
+        long started = System.nanoTime();
+
+        synchronized (writeLock) {
+            LinkedHashMap<UUID, MeetingRecord> records = new LinkedHashMap<>();
+            try {
+                snapshotSize = Files.exists(snapshotFile) ? Files.size(snapshotFile) : 0;
+                if (snapshotSize > 0) {
+                    readSnapshot(records);
+                }
+
+                long validLogBytes = replayLog(records);
+                if (validLogBytes < log.size()) {
+                    log.truncate(validLogBytes);
+                    log.force(false);
+                }
+                logSize = validLogBytes;
+            } catch (IOException e) {
+                throw new WorkspaceStoreException("Unable to load workspace from " + directory, e);
+            }
+
+            loaded = true;
+            lastLoadDuration = Duration.ofNanos(System.nanoTime() - started);
+            return new ArrayList<>(records.values());
+        }
+    }
+
+    /** How long the last {@link #load()} took, from opening the snapshot to the end of the log. */
+    public Duration getLastLoadDuration() {
+        return lastLoadDuration;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Writes {@code record} to the end of the log without forcing it to disk.
+     * Returns the sequence number to pass to {@link #awaitDurable(long)}.
+     */
+    long append(MeetingRecord record) {
+        byte[] frame = frame(OP_PUT, MeetingRecordCodec.encode(record));
+
+        synchronized (writeLock) {
+            if (!loaded) {
+                throw new IllegalStateException("store must be loaded before appending");
+            }
+            try {
+                writeFully(ByteBuffer.wrap(frame), logSize);
+            } catch (IOException e) {
+                throw new WorkspaceStoreException("Unable to append to " + logFile, e);
+            }
+            logSize += frame.length;
+            writtenSeq++;
+            return writtenSeq;
+        }
+    }
+
+    /** Blocks until everything up to {@code seq} has been forced, sharing one fsync between concurrent writers. */
+    void awaitDurable(long seq) {
+        while (true) {
+            synchronized (syncLock) {
+                while (syncing && syncedSeq < seq) {
+                    try {
+                        syncLock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new WorkspaceStoreException("Interrupted waiting for workspace sync", e);
+                    }
+                }
+                if (syncedSeq >= seq) {
+                    return;
+                }
+                syncing = true;
+            }
+
+            // Everything written up to here is covered by this force, including other threads' entries.
+            long target = writtenSeq;
+            IOException failure = null;
+            try {
+                log.force(false);
+            } catch (IOException e) {
+                failure = e;
+            }
+
+            synchronized (syncLock) {
+                syncing = false;
+                if (failure == null) {
+                    syncedSeq = Math.max(syncedSeq, target);
+                    syncCount++;
+                }
+                syncLock.notifyAll();
+            }
+            if (failure != null) {
+                throw new WorkspaceStoreException("Unable to sync " + logFile, failure);
+            }
+        }
+    }
+
+    /** True once the log has grown past the last snapshot, so compacting is amortized linear. */
+    boolean needsCompaction() {
+        synchronized (writeLock) {
+            return logSize >= Math.max(minCompactionBytes, snapshotSize);
+        }
+    }
+
+    /**
+     * Replaces the snapshot with {@code records} and empties the log. The caller must pass the
+     * full current state and keep other saves out until this returns.
+     */
+    void compact(Collection<MeetingRecord> records) {
+        synchronized (writeLock) {
+            Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                     DataOutputStream out = new DataOutputStream(
+                             new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+                    out.writeInt(SNAPSHOT_MAGIC);
+                    for (MeetingRecord record : records) {
+                        out.write(frame(OP_PUT, MeetingRecordCodec.encode(record)));
+                    }
+                    out.flush();
+                    channel.force(true);
+                }
+
+                try {
+                    Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+                snapshotSize = Files.size(snapshotFile);
+
+                // Replaying the old log over the new snapshot is harmless, so a crash here loses nothing.
+                log.truncate(0);
+                log.force(false);
+                logSize = 0;
+            } catch (IOException e) {
+                throw new WorkspaceStoreException("Unable to compact workspace in " + directory, e);
+            }
+
+            synchronized (syncLock) {
+                syncedSeq = Math.max(syncedSeq, writtenSeq);
+                syncLock.notifyAll();
+            }
+        }
+    }
+
+    long getSyncCount() {
+        synchronized (syncLock) {
+            return syncCount;
+        }
+    }
+
+    long getLogSize() {
+        synchronized (writeLock) {
+            return logSize;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (log.isOpen()) {
+                log.force(false);
+                log.close();
+            }
+        } catch (IOException e) {
+            throw new WorkspaceStoreException("Unable to close " + logFile, e);
+        }
+    }
+
+    private void readSnapshot(LinkedHashMap<UUID, MeetingRecord> records) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            FrameReader reader = new FrameReader(channel);
+            if (!reader.ensure(4) || reader.buffer.getInt() != SNAPSHOT_MAGIC) {
+                throw new WorkspaceStoreException("Not a workspace snapshot: " + snapshotFile);
+            }
+            reader.position = 4;
+
+            while (reader.position < snapshotSize) {
+                ByteBuffer payload = reader.next();
+                if (payload == null) {
+                    // The snapshot is only ever replaced atomically, so damage here is real corruption.
+                    throw new WorkspaceStoreException("Corrupt workspace snapshot at byte " + reader.position);
+                }
+                apply(payload, records);
+            }
+        }
+    }
+
+    /** Applies every intact log entry and returns the length of the intact prefix. */
+    private long replayLog(LinkedHashMap<UUID, MeetingRecord> records) throws IOException {
+        FrameReader reader = new FrameReader(log);
+        ByteBuffer payload;
+        while ((payload = reader.next()) != null) {
+            apply(payload, records);
+        }
+        return reader.position;
+    }
+
+    private static void apply(ByteBuffer payload, LinkedHashMap<UUID, MeetingRecord> records) {
+        byte op = payload.get();
+        if (op != OP_PUT) {
+            throw new WorkspaceStoreException("Unknown workspace log operation " + op);
+        }
+        MeetingRecord record = MeetingRecordCodec.decode(payload);
+        // Same semantics as Workspace.save: a re-saved record moves to the end.
+        records.remove(record.getId());
+        records.put(record.getId(), record);
+    }
+
+    /**
+     * Sequential frame reader over a channel. Payloads are views into a reusable buffer,
+     * so each one must be consumed before the next call.
+     */
+    private static final class FrameReader {
+        private final FileChannel channel;
+        private final long size;
+        private ByteBuffer buffer = ByteBuffer.allocate(1 << 20).flip();
+        private long filePosition;
+        long position;
+
+        FrameReader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        /** Returns the next intact payload, or null at the end or at a truncated or corrupt frame. */
+        ByteBuffer next() throws IOException {
+            if (!ensure(FRAME_HEADER_BYTES)) {
+                return null;
+            }
+            int length = buffer.getInt(buffer.position());
+            int checksum = buffer.getInt(buffer.position() + 4);
+            if (length <= 0 || length > size - position - FRAME_HEADER_BYTES || !ensure(FRAME_HEADER_BYTES + length)) {
+                return null;
+            }
+
+            int offset = buffer.position() + FRAME_HEADER_BYTES;
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.array(), offset, length);
+            if ((int) crc.getValue() != checksum) {
+                return null;
+            }
+
+            ByteBuffer payload = ByteBuffer.wrap(buffer.array(), offset, length).slice();
+            buffer.position(offset + length);
+            position += FRAME_HEADER_BYTES + length;
+            return payload;
+        }
+
+        boolean ensure(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return true;
+            }
+            if (buffer.capacity() < bytes) {
+                buffer = ByteBuffer.allocate(Math.max(bytes, buffer.capacity() * 2)).put(buffer);
+            } else {
+                buffer.compact();
+            }
+            while (buffer.position() < bytes && filePosition < size) {
+                int read = channel.read(buffer, filePosition);
+                if (read < 0) {
+                    break;
+                }
+                filePosition += read;
+            }
+            buffer.flip();
+            return buffer.remaining() >= bytes;
+        }
+    }
+
+    private static byte[] frame(byte op, byte[] record) {
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_BYTES + 1 + record.length);
+        frame.putInt(1 + record.length);
+        frame.putInt(0);
+        frame.put(op);
+        frame.put(record);
+
+        CRC32C crc = new CRC32C();
+        crc.update(frame.array(), FRAME_HEADER_BYTES, 1 + record.length);
+        frame.putInt(4, (int) crc.getValue());
+        return frame.array();
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += log.write(buffer, position);
+        }
+    }
+}
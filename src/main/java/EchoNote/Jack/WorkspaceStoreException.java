@@ -0,0 +1,11 @@
+package EchoNote.Jack;
+
+public class WorkspaceStoreException extends RuntimeException {
+    public WorkspaceStoreException(String message) {
+        super(message);
+    }
+
+    public WorkspaceStoreException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,38 @@
+package EchoNote.Mihail;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Output format written by {@link Recorder}. Audio is always captured at the microphone's
+ * native rate and resampled to the profile's rate before it reaches disk.
+ */
+public enum CaptureProfile {
+
+    /** 16 kHz mono, the rate Whisper resamples to anyway. */
+    TRANSCRIPTION(16_000),
+
+    /** Native 44.1 kHz mono, for archiving. */
+    HIGH_FIDELITY(44_100);
+
+    private final int sampleRate;
+
+    CaptureProfile(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public AudioFormat toAudioFormat() {
+        return new AudioFormat(
+                AudioFormat.Encoding.PCM_SIGNED,
+                sampleRate,
+                16,
+                1,
+                2,
+                sampleRate,
+                false
+        );
+    }
+}
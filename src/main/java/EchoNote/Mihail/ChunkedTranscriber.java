@@ -0,0 +1,242 @@
+package EchoNote.Mihail;
+
+import EchoNote.Jack.Transcript;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Splits long WAV files on quiet points near a target chunk length, transcribes the chunks
+ * concurrently on a bounded pool and stitches the segments back into one ordered Transcript.
+ * Short files go straight to the wrapped Transcriber.
+ */
+public class ChunkedTranscriber implements TranscriptionService, AutoCloseable {
+
+    private static final int ENERGY_WINDOW_MILLIS = 100;
+
+    private final Transcriber transcriber;
+    private final double targetChunkSeconds;
+    private final double searchWindowSeconds;
+    private final ExecutorService executor;
+
+    public ChunkedTranscriber(Transcriber transcriber) {
+        this(transcriber, Duration.ofMinutes(5), 4);
+    }
+
+    public ChunkedTranscriber(Transcriber transcriber, Duration targetChunkLength, int maxConcurrency) {
+        if (transcriber == null) {
+            throw new IllegalArgumentException("transcriber cannot be null");
+        }
+        if (targetChunkLength == null || targetChunkLength.isNegative() || targetChunkLength.isZero()) {
+            throw new IllegalArgumentException("targetChunkLength must be positive");
+        }
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+
+        this.transcriber = transcriber;
+        this.targetChunkSeconds = targetChunkLength.toMillis() / 1000.0;
+        this.searchWindowSeconds = targetChunkSeconds / 10.0;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrency, r -> {
+            Thread t = new Thread(r, "Transcriber-Chunk-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public Transcript transcribe(Path audioFile) {
+        if (audioFile == null || !Files.exists(audioFile)) {
+            throw new IllegalArgumentException("wavFile must exist: " + audioFile);
+        }
+
+        AudioFormat format;
+        long frames;
+        try (AudioInputStream ais = AudioSystem.getAudioInputStream(audioFile.toFile())) {
+            format = ais.getFormat();
+            frames = ais.getFrameLength();
+        } catch (UnsupportedAudioFileException | IOException e) {
+            // Not a WAV we can split; let the API deal with it as a single upload.
+            return transcriber.transcribeFile(audioFile);
+        }
+
+        double duration = frames / format.getFrameRate();
+        if (duration <= targetChunkSeconds * 1.5 || !VoiceActivityDetector.isSupported(format)) {
+            return transcriber.transcribeFile(audioFile);
+        }
+
+        Path workDir;
+        try {
+            workDir = Files.createTempDirectory("echonote-chunks-");
+        } catch (IOException e) {
+            throw new TranscriptionException("Unable to create temp directory for chunks", e);
+        }
+
+        try {
+            List<Chunk> chunks = split(audioFile, workDir);
+            return Transcriber.toTranscript(transcribeChunks(chunks));
+        } finally {
+            deleteRecursively(workDir);
+        }
+    }
+
+    private List<TranscriptSegment> transcribeChunks(List<Chunk> chunks) {
+        List<Future<List<TranscriptSegment>>> futures = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            futures.add(executor.submit(() -> transcriber.transcribeSegments(chunk.file())));
+        }
+
+        List<TranscriptSegment> stitched = new ArrayList<>();
+        try {
+            for (int i = 0; i < chunks.size(); i++) {
+                double offset = chunks.get(i).offsetSeconds();
+                for (TranscriptSegment segment : futures.get(i).get()) {
+                    stitched.add(segment.shift(offset));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            throw new TranscriptionException("Interrupted while transcribing chunks", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new TranscriptionException("Chunk transcription failed", cause);
+        }
+        return stitched;
+    }
+
+    /** Writes the chunks for {@code input} into {@code directory}, in order. */
+    List<Chunk> split(Path input, Path directory) {
+        AudioFormat format;
+        float[] energy;
+        int framesPerWindow;
+
+        try (AudioInputStream ais = AudioSystem.getAudioInputStream(input.toFile())) {
+            format = ais.getFormat();
+            framesPerWindow = Math.max(1, (int) (format.getFrameRate() * ENERGY_WINDOW_MILLIS / 1000));
+            energy = measureEnergy(ais, framesPerWindow * format.getFrameSize());
+        } catch (UnsupportedAudioFileException | IOException e) {
+            throw new TranscriptionException("Unable to read audio for chunking " + input, e);
+        }
+
+        List<Integer> boundaries = chooseBoundaries(energy);
+        double windowSeconds = framesPerWindow / format.getFrameRate();
+
+        List<Chunk> chunks = new ArrayList<>(boundaries.size() + 1);
+        byte[] buffer = new byte[framesPerWindow * format.getFrameSize()];
+
+        try (AudioInputStream ais = AudioSystem.getAudioInputStream(input.toFile())) {
+            int window = 0;
+            int start = 0;
+            for (int b = 0; b <= boundaries.size(); b++) {
+                int end = b < boundaries.size() ? boundaries.get(b) : Integer.MAX_VALUE;
+                Path file = directory.resolve(String.format("chunk-%04d.wav", b));
+
+                try (WavFileWriter writer = new WavFileWriter(file, format)) {
+                    while (window < end) {
+                        int n = ais.readNBytes(buffer, 0, buffer.length);
+                        if (n <= 0) {
+                            break;
+                        }
+                        writer.write(buffer, 0, n);
+                        window++;
+                    }
+                }
+                chunks.add(new Chunk(file, start * windowSeconds));
+                start = end;
+            }
+        } catch (UnsupportedAudioFileException | IOException e) {
+            throw new TranscriptionException("Unable to write audio chunks for " + input, e);
+        }
+        return chunks;
+    }
+
+    private float[] measureEnergy(AudioInputStream ais, int windowBytes) throws IOException {
+        long frames = ais.getFrameLength();
+        int frameSize = ais.getFormat().getFrameSize();
+        int expected = frames > 0 ? (int) ((frames * frameSize + windowBytes - 1) / windowBytes) : 16;
+
+        float[] energy = new float[Math.max(1, expected)];
+        byte[] window = new byte[windowBytes];
+        int count = 0;
+        while (true) {
+            int n = ais.readNBytes(window, 0, window.length);
+            if (n <= 0) {
+                break;
+            }
+            if (count == energy.length) {
+                energy = Arrays.copyOf(energy, energy.length * 2);
+            }
+            energy[count++] = (float) Recorder.computeLevelRms(window, n);
+        }
+        return Arrays.copyOf(energy, count);
+    }
+
+    /** Picks the quietest energy window within the search window around each target boundary. */
+    private List<Integer> chooseBoundaries(float[] energy) {
+        int windowsPerSecond = 1000 / ENERGY_WINDOW_MILLIS;
+        int target = (int) Math.round(targetChunkSeconds * windowsPerSecond);
+        int search = (int) Math.round(searchWindowSeconds * windowsPerSecond);
+
+        List<Integer> boundaries = new ArrayList<>();
+        int previous = 0;
+        while (energy.length - previous > target + target / 2) {
+            int ideal = previous + target;
+            int from = Math.max(previous + 1, ideal - search);
+            int to = Math.min(energy.length - 1, ideal + search);
+
+            int best = ideal;
+            for (int i = from; i <= to; i++) {
+                if (energy[i] < energy[best]
+                        || (energy[i] == energy[best] && Math.abs(i - ideal) < Math.abs(best - ideal))) {
+                    best = i;
+                }
+            }
+            boundaries.add(best);
+            previous = best;
+        }
+        return boundaries;
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException ignored) {
+                }
+            });
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    record Chunk(Path file, double offsetSeconds) {
+    }
+}
@@ -0,0 +1,16 @@
+package EchoNote.Mihail;
+
+import EchoNote.Jack.ActionItem;
+import EchoNote.Jack.Summary;
+
+import java.util.List;
+
+/**
+ * Summary and action items produced together by {@link Summarizer#summarizeWithActions}.
+ */
+public record MeetingAnalysis(Summary summary, List<ActionItem> actions) {
+
+    public MeetingAnalysis {
+        actions = List.copyOf(actions);
+    }
+}
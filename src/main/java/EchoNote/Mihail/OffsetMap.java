@@ -0,0 +1,63 @@
+package EchoNote.Mihail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Maps time in a silence-trimmed WAV back to time in the original recording.
+ * Each span is a stretch of audio that was kept, in compacted order.
+ */
+public class OffsetMap {
+
+    private final List<Span> spans;
+
+    public OffsetMap(List<Span> spans) {
+        this.spans = new ArrayList<>(spans);
+    }
+
+    public static OffsetMap identity() {
+        return new OffsetMap(List.of(new Span(0.0, 0.0, Double.MAX_VALUE)));
+    }
+
+    public List<Span> getSpans() {
+        return Collections.unmodifiableList(spans);
+    }
+
+    public boolean isEmpty() {
+        return spans.isEmpty();
+    }
+
+    /** Total seconds of audio kept. */
+    public double getKeptSeconds() {
+        double total = 0;
+        for (Span span : spans) {
+            total += span.length();
+        }
+        return total;
+    }
+
+    public double toOriginalSeconds(double compactedSeconds) {
+        if (spans.isEmpty()) {
+            return compactedSeconds;
+        }
+
+        int lo = 0;
+        int hi = spans.size() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (spans.get(mid).compactedStart() <= compactedSeconds) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+
+        Span span = spans.get(lo);
+        double into = Math.max(0.0, compactedSeconds - span.compactedStart());
+        return span.originalStart() + Math.min(into, span.length());
+    }
+
+    public record Span(double compactedStart, double originalStart, double length) {
+    }
+}
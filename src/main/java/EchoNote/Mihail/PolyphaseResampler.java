@@ -0,0 +1,153 @@
+package EchoNote.Mihail;
+
+import java.util.Arrays;
+
+/**
+ * Rational-ratio sample rate converter for 16-bit little-endian mono PCM.
+ *
+ * Uses a windowed-sinc low-pass split into L polyphase branches, so each output sample costs
+ * one short dot product. All buffers are allocated up front; {@link #process} allocates nothing.
+ */
+public class PolyphaseResampler {
+
+    private static final int MIN_TAPS_PER_PHASE = 32;
+
+    private final int interpolation;
+    private final int decimation;
+    private final int tapsPerPhase;
+    private final float[] coefficients;
+
+    // Doubled ring buffer: every sample is stored at pos and pos + taps, so the
+    // filter window is always contiguous and never needs a modulo.
+    private final float[] history;
+    private int historyPos;
+    private int phase;
+    private int skip;
+
+    public PolyphaseResampler(int inputRate, int outputRate) {
+        this(inputRate, outputRate, defaultTapsPerPhase(inputRate, outputRate));
+    }
+
+    public PolyphaseResampler(int inputRate, int outputRate, int tapsPerPhase) {
+        if (inputRate <= 0 || outputRate <= 0) {
+            throw new IllegalArgumentException("sample rates must be positive");
+        }
+        if (tapsPerPhase <= 0) {
+            throw new IllegalArgumentException("tapsPerPhase must be positive");
+        }
+
+        int gcd = gcd(inputRate, outputRate);
+        this.interpolation = outputRate / gcd;
+        this.decimation = inputRate / gcd;
+        this.tapsPerPhase = tapsPerPhase;
+        this.coefficients = designFilter(interpolation, decimation, tapsPerPhase);
+        this.history = new float[2 * tapsPerPhase];
+    }
+
+    /** Upper bound on output bytes produced for {@code inputBytes} of input. */
+    public int maxOutputBytes(int inputBytes) {
+        long samples = (long) (inputBytes / 2) * interpolation / decimation + 1;
+        return (int) samples * 2;
+    }
+
+    /**
+     * Resamples {@code length} bytes of PCM from {@code in} into {@code out} and returns the number
+     * of bytes written. {@code out} must hold at least {@link #maxOutputBytes(int)} bytes.
+     */
+    public int process(byte[] in, int length, byte[] out) {
+        int written = 0;
+
+        for (int i = 0; i + 1 < length; i += 2) {
+            short sample = (short) ((in[i] & 0xFF) | (in[i + 1] << 8));
+
+            historyPos = historyPos == 0 ? tapsPerPhase - 1 : historyPos - 1;
+            history[historyPos] = sample;
+            history[historyPos + tapsPerPhase] = sample;
+
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+
+            while (true) {
+                int base = phase * tapsPerPhase;
+                float acc = 0f;
+                for (int k = 0; k < tapsPerPhase; k++) {
+                    acc += coefficients[base + k] * history[historyPos + k];
+                }
+
+                int value = Math.round(acc);
+                if (value > Short.MAX_VALUE) value = Short.MAX_VALUE;
+                if (value < Short.MIN_VALUE) value = Short.MIN_VALUE;
+                out[written++] = (byte) value;
+                out[written++] = (byte) (value >> 8);
+
+                phase += decimation;
+                int advance = phase / interpolation;
+                phase %= interpolation;
+                if (advance > 0) {
+                    skip = advance - 1;
+                    break;
+                }
+            }
+        }
+
+        return written;
+    }
+
+    /** Clears filter state so the next call starts a fresh stream. */
+    public void reset() {
+        Arrays.fill(history, 0f);
+        historyPos = 0;
+        phase = 0;
+        skip = 0;
+    }
+
+    private static float[] designFilter(int interpolation, int decimation, int tapsPerPhase) {
+        int length = interpolation * tapsPerPhase;
+        double center = (length - 1) / 2.0;
+        // Cutoff just below the lower of the two Nyquist limits, relative to the upsampled rate.
+        double cutoff = 0.45 / Math.max(interpolation, decimation);
+
+        double[] prototype = new double[length];
+        for (int n = 0; n < length; n++) {
+            double x = n - center;
+            double sinc = x == 0 ? 2 * cutoff : Math.sin(2 * Math.PI * cutoff * x) / (Math.PI * x);
+            double window = 0.42 - 0.5 * Math.cos(2 * Math.PI * n / (length - 1))
+                    + 0.08 * Math.cos(4 * Math.PI * n / (length - 1));
+            prototype[n] = sinc * window;
+        }
+
+        // Normalise each branch to unity DC gain so no phase adds a level ripple.
+        float[] branches = new float[length];
+        for (int p = 0; p < interpolation; p++) {
+            double sum = 0;
+            for (int k = 0; k < tapsPerPhase; k++) {
+                sum += prototype[p + k * interpolation];
+            }
+            for (int k = 0; k < tapsPerPhase; k++) {
+                branches[p * tapsPerPhase + k] = (float) (prototype[p + k * interpolation] / sum);
+            }
+        }
+        return branches;
+    }
+
+    // When decimating, the filter must span proportionally more input samples to keep
+    // the same transition band, so taps grow with the decimation ratio.
+    private static int defaultTapsPerPhase(int inputRate, int outputRate) {
+        if (inputRate <= 0 || outputRate <= 0) {
+            return MIN_TAPS_PER_PHASE;
+        }
+        int ratio = (inputRate + outputRate - 1) / outputRate;
+        return MIN_TAPS_PER_PHASE * Math.max(1, ratio);
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -1,17 +1,18 @@
 package EchoNote.Mihail;
 
 import javax.sound.sampled.*;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.List;
 import java.util.function.DoubleConsumer;
 
 public class Recorder {
 
-    private static final AudioFormat AUDIO_FORMAT = new AudioFormat(
+    private static final Path RECORDINGS_DIR = Path.of("recordings");
+
+    private static final AudioFormat CAPTURE_FORMAT = new AudioFormat(
             AudioFormat.Encoding.PCM_SIGNED,
             44_100.0f,   // sample rate
             16,          // sample size in bits
@@ -21,6 +22,22 @@ public class Recorder {
             false        // little-endian
     );
 
+    private final CaptureProfile profile;
+
+    public Recorder() {
+        this(CaptureProfile.TRANSCRIPTION);
+    }
+
+    public Recorder(CaptureProfile profile) {
+        if (profile == null) {
+            throw new IllegalArgumentException("profile cannot be null");
+        }
+        this.profile = profile;
+    }
+
+    public CaptureProfile getProfile() {
+        return profile;
+    }
 
     public Path recordToFile(Path outputFile, Duration maxDuration) {
         return recordToFile(outputFile, maxDuration, null);
@@ -37,14 +54,20 @@ public class Recorder {
 
         TargetDataLine microphone;
         try {
-            DataLine.Info info = new DataLine.Info(TargetDataLine.class, AUDIO_FORMAT);
+            DataLine.Info info = new DataLine.Info(TargetDataLine.class, CAPTURE_FORMAT);
             microphone = (TargetDataLine) AudioSystem.getLine(info);
-            microphone.open(AUDIO_FORMAT);
+            microphone.open(CAPTURE_FORMAT);
         } catch (LineUnavailableException e) {
             throw new TranscriptionException("Microphone line unavailable", e);
         }
 
-        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        WavFileWriter writer;
+        try {
+            writer = new WavFileWriter(outputFile, profile.toAudioFormat());
+        } catch (TranscriptionException e) {
+            microphone.close();
+            throw e;
+        }
 
         final boolean[] running = {true};
 
@@ -63,34 +86,29 @@ public class Recorder {
         microphone.start();
 
         byte[] data = new byte[4096];
+        PolyphaseResampler resampler = newResampler();
+        byte[] resampled = resampler != null ? new byte[resampler.maxOutputBytes(data.length)] : data;
+
+        try (WavFileWriter out = writer) {
+            while (running[0]) {
+                int bytesRead = microphone.read(data, 0, data.length);
+                if (bytesRead <= 0) {
+                    break;
+                }
 
-        while (running[0]) {
-            int bytesRead = microphone.read(data, 0, data.length);
-            if (bytesRead <= 0) {
-                break;
-            }
-
-            buffer.write(data, 0, bytesRead);
+                int outLength = resampler != null ? resampler.process(data, bytesRead, resampled) : bytesRead;
+                out.write(resampled, 0, outLength);
 
-            if (levelCallback != null) {
-                double level = computeLevelRms(data, bytesRead);
-                try {
-                    levelCallback.accept(level);
-                } catch (Exception ignored) {
+                if (levelCallback != null) {
+                    double level = computeLevelRms(data, bytesRead);
+                    try {
+                        levelCallback.accept(level);
+                    } catch (Exception ignored) {
+                    }
                 }
             }
-        }
-
-        byte[] audioBytes = buffer.toByteArray();
-        int frameSize = AUDIO_FORMAT.getFrameSize();
-        long frameCount = frameSize > 0 ? audioBytes.length / frameSize : audioBytes.length;
-
-        try (ByteArrayInputStream bais = new ByteArrayInputStream(audioBytes);
-             AudioInputStream ais = new AudioInputStream(bais, AUDIO_FORMAT, frameCount)) {
-
-            AudioSystem.write(ais, AudioFileFormat.Type.WAVE, outputFile.toFile());
-        } catch (IOException e) {
-            throw new TranscriptionException("Error while writing WAV file " + outputFile, e);
+        } finally {
+            stopper.interrupt();
         }
 
         return outputFile;
@@ -109,7 +127,15 @@ public class Recorder {
         }
     }
 
-    private double computeLevelRms(byte[] data, int length) {
+    private PolyphaseResampler newResampler() {
+        int captureRate = (int) CAPTURE_FORMAT.getSampleRate();
+        if (profile.getSampleRate() == captureRate) {
+            return null;
+        }
+        return new PolyphaseResampler(captureRate, profile.getSampleRate());
+    }
+
+    static double computeLevelRms(byte[] data, int length) {
         if (length <= 0) {
             return 0.0;
         }
@@ -132,6 +158,14 @@ public class Recorder {
         return rms;
     }
 
+    /**
+     * Rebuilds WAV files from recordings that were interrupted by a crash.
+     * Call once at startup, before a new interactive recording begins.
+     */
+    public List<Path> recoverOrphanedRecordings() {
+        return RecordingJournal.recover(RECORDINGS_DIR);
+    }
+
     private volatile boolean interactiveRecording = false;
     private Thread interactiveThread;
     private Path interactiveOutputFile;
@@ -147,11 +181,10 @@ public class Recorder {
         interactiveError = null;
 
         try {
-            Path recordingsDir = Path.of("recordings");
-            Files.createDirectories(recordingsDir);
+            Files.createDirectories(RECORDINGS_DIR);
 
             String filename = filePrefix + System.currentTimeMillis() + ".wav";
-            interactiveOutputFile = recordingsDir.resolve(filename);
+            interactiveOutputFile = RECORDINGS_DIR.resolve(filename);
         } catch (IOException e) {
             interactiveRecording = false;
             throw new TranscriptionException("Unable to create recordings directory", e);
@@ -159,15 +192,16 @@ public class Recorder {
 
         interactiveThread = new Thread(() -> {
             TargetDataLine microphone = null;
-            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
 
-            try {
-                DataLine.Info info = new DataLine.Info(TargetDataLine.class, AUDIO_FORMAT);
+            try (RecordingJournal out = new RecordingJournal(interactiveOutputFile, profile.toAudioFormat())) {
+                DataLine.Info info = new DataLine.Info(TargetDataLine.class, CAPTURE_FORMAT);
                 microphone = (TargetDataLine) AudioSystem.getLine(info);
-                microphone.open(AUDIO_FORMAT);
+                microphone.open(CAPTURE_FORMAT);
                 microphone.start();
 
                 byte[] data = new byte[4096];
+                PolyphaseResampler resampler = newResampler();
+                byte[] resampled = resampler != null ? new byte[resampler.maxOutputBytes(data.length)] : data;
 
                 while (interactiveRecording) {
                     int bytesRead = microphone.read(data, 0, data.length);
@@ -175,7 +209,8 @@ public class Recorder {
                         continue;
                     }
 
-                    buffer.write(data, 0, bytesRead);
+                    int outLength = resampler != null ? resampler.process(data, bytesRead, resampled) : bytesRead;
+                    out.append(resampled, 0, outLength);
 
                     if (levelCallback != null) {
                         double level = computeLevelRms(data, bytesRead);
@@ -190,14 +225,7 @@ public class Recorder {
                 microphone.close();
                 microphone = null;
 
-                byte[] audioBytes = buffer.toByteArray();
-                int frameSize = AUDIO_FORMAT.getFrameSize();
-                long frameCount = frameSize > 0 ? audioBytes.length / frameSize : audioBytes.length;
-
-                try (ByteArrayInputStream bais = new ByteArrayInputStream(audioBytes);
-                     AudioInputStream ais = new AudioInputStream(bais, AUDIO_FORMAT, frameCount)) {
-                    AudioSystem.write(ais, AudioFileFormat.Type.WAVE, interactiveOutputFile.toFile());
-                }
+                out.complete();
             } catch (Exception ex) {
                 synchronized (Recorder.this) {
                     interactiveError = ex;
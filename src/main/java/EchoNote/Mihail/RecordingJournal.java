@@ -0,0 +1,305 @@
+package EchoNote.Mihail;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Write-ahead log for an in-progress recording.
+ *
+ * PCM is appended to numbered segment files next to the target WAV and fsynced periodically.
+ * A small sidecar journal lists the format and the segments, so if the JVM dies mid-recording
+ * {@link #recover(Path)} can rebuild a valid WAV from whatever reached the disk.
+ */
+public class RecordingJournal implements AutoCloseable {
+
+    static final String JOURNAL_SUFFIX = ".journal";
+    private static final String SEGMENT_SUFFIX = ".pcm";
+
+    private static final long DEFAULT_SYNC_INTERVAL_MILLIS = 1_000;
+    private static final int DEFAULT_SEGMENT_SECONDS = 60;
+
+    private final Path target;
+    private final AudioFormat format;
+    private final long syncIntervalNanos;
+    private final long maxSegmentBytes;
+
+    private final FileChannel journal;
+    private FileChannel segment;
+    private int segmentIndex;
+    private long segmentBytes;
+    private long totalBytes;
+    private long lastSyncNanos;
+    private boolean finished;
+
+    public RecordingJournal(Path target, AudioFormat format) {
+        this(target, format, DEFAULT_SYNC_INTERVAL_MILLIS, DEFAULT_SEGMENT_SECONDS);
+    }
+
+    public RecordingJournal(Path target, AudioFormat format, long syncIntervalMillis, int segmentSeconds) {
+        this.target = target;
+        this.format = format;
+        this.syncIntervalNanos = syncIntervalMillis * 1_000_000L;
+
+        long bytesPerSecond = (long) format.getFrameRate() * format.getFrameSize();
+        this.maxSegmentBytes = Math.max(format.getFrameSize(), bytesPerSecond * segmentSeconds);
+
+        try {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            this.journal = FileChannel.open(journalFor(target),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            appendLine("format " + (int) format.getSampleRate() + " "
+                    + format.getSampleSizeInBits() + " " + format.getChannels());
+            openNextSegment();
+        } catch (IOException e) {
+            throw new TranscriptionException("Unable to start recording journal for " + target, e);
+        }
+        this.lastSyncNanos = System.nanoTime();
+    }
+
+    public void append(byte[] data, int offset, int length) {
+        if (finished) {
+            throw new IllegalStateException("Recording journal already finished");
+        }
+
+        try {
+            while (length > 0) {
+                if (segmentBytes >= maxSegmentBytes) {
+                    segment.force(false);
+                    segment.close();
+                    openNextSegment();
+                }
+
+                int n = (int) Math.min(length, maxSegmentBytes - segmentBytes);
+                ByteBuffer buffer = ByteBuffer.wrap(data, offset, n);
+                while (buffer.hasRemaining()) {
+                    segment.write(buffer);
+                }
+                segmentBytes += n;
+                totalBytes += n;
+                offset += n;
+                length -= n;
+            }
+
+            long now = System.nanoTime();
+            if (now - lastSyncNanos >= syncIntervalNanos) {
+                segment.force(false);
+                lastSyncNanos = now;
+            }
+        } catch (IOException e) {
+            throw new TranscriptionException("Error while appending to recording journal for " + target, e);
+        }
+    }
+
+    /** Assembles all segments into the target WAV and removes the journal and its segments. */
+    public Path complete() {
+        if (finished) {
+            throw new IllegalStateException("Recording journal already finished");
+        }
+        finished = true;
+
+        try {
+            segment.force(false);
+            segment.close();
+            assemble(target, format, segmentsFor(target, segmentIndex));
+            appendLine("complete");
+            journal.close();
+            deleteArtifacts(target, segmentIndex);
+        } catch (IOException e) {
+            throw new TranscriptionException("Error while finalizing recording " + target, e);
+        }
+        return target;
+    }
+
+    /**
+     * Releases file handles without assembling; segments stay on disk for recovery. If no audio
+     * was ever appended, as when capture fails to start, the journal is deleted instead.
+     */
+    @Override
+    public void close() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+
+        try {
+            segment.force(false);
+            segment.close();
+            journal.close();
+            if (totalBytes == 0) {
+                deleteArtifacts(target, segmentIndex);
+            }
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Scans a directory for journals left behind by an interrupted recording and rebuilds
+     * a WAV file for each one. Returns the recovered WAV paths. A journal that fails to recover
+     * does not stop the others; the failures are reported together at the end as a
+     * {@link RecordingRecoveryException} listing what was recovered.
+     */
+    public static List<Path> recover(Path directory) {
+        List<Path> recovered = new ArrayList<>();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return recovered;
+        }
+
+        List<Path> journals = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + JOURNAL_SUFFIX)) {
+            stream.forEach(journals::add);
+        } catch (IOException e) {
+            throw new TranscriptionException("Unable to scan " + directory + " for recording journals", e);
+        }
+
+        List<Exception> failures = new ArrayList<>();
+        for (Path journalFile : journals) {
+            String name = journalFile.getFileName().toString();
+            Path target = journalFile.resolveSibling(name.substring(0, name.length() - JOURNAL_SUFFIX.length()));
+
+            try {
+                Path result = recoverOne(journalFile, target);
+                if (result != null) {
+                    recovered.add(result);
+                }
+            } catch (IOException | RuntimeException e) {
+                failures.add(new TranscriptionException("Unable to recover recording " + target, e));
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            RecordingRecoveryException failure = new RecordingRecoveryException("Unable to recover "
+                    + failures.size() + " of " + journals.size() + " interrupted recording(s) in " + directory, recovered);
+            failures.forEach(failure::addSuppressed);
+            throw failure;
+        }
+        return recovered;
+    }
+
+    private static Path recoverOne(Path journalFile, Path target) throws IOException {
+        AudioFormat format = null;
+        int segments = 0;
+        boolean complete = false;
+
+        for (String line : Files.readAllLines(journalFile, StandardCharsets.UTF_8)) {
+            String[] parts = line.trim().split(" ");
+            switch (parts[0]) {
+                case "format" -> {
+                    if (parts.length == 4) {
+                        format = new AudioFormat(Float.parseFloat(parts[1]),
+                                Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), true, false);
+                    }
+                }
+                case "segment" -> segments++;
+                case "complete" -> complete = true;
+                default -> {
+                }
+            }
+        }
+
+        if (complete || !hasAudio(target, segments)) {
+            // The WAV was assembled before the crash, or there is nothing to assemble.
+            deleteArtifacts(target, segments);
+            return complete ? target : null;
+        }
+        if (format == null) {
+            // Without the format the audio cannot be framed; keep it for a later attempt by hand.
+            throw new TranscriptionException("Journal " + journalFile + " has no audio format; its "
+                    + segments + " segment(s) were left in place");
+        }
+
+        assemble(target, format, segmentsFor(target, segments));
+        deleteArtifacts(target, segments);
+        return target;
+    }
+
+    private static boolean hasAudio(Path target, int segments) throws IOException {
+        for (Path seg : segmentsFor(target, segments)) {
+            if (Files.exists(seg) && Files.size(seg) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void assemble(Path target, AudioFormat format, List<Path> segments) throws IOException {
+        int frameSize = format.getFrameSize();
+        byte[] buffer = new byte[64 * 1024];
+
+        try (WavFileWriter writer = new WavFileWriter(target, format)) {
+            for (Path seg : segments) {
+                if (!Files.exists(seg)) {
+                    continue;
+                }
+                // A torn write can leave a partial frame at the end of the last segment.
+                long usable = Files.size(seg) - (Files.size(seg) % frameSize);
+                try (InputStream in = Files.newInputStream(seg)) {
+                    long remaining = usable;
+                    while (remaining > 0) {
+                        int n = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                        if (n < 0) {
+                            break;
+                        }
+                        writer.write(buffer, 0, n);
+                        remaining -= n;
+                    }
+                }
+            }
+        }
+    }
+
+    private void openNextSegment() throws IOException {
+        segmentIndex++;
+        Path next = segmentPath(target, segmentIndex);
+        segment = FileChannel.open(next,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        segmentBytes = 0;
+        appendLine("segment " + next.getFileName());
+    }
+
+    private void appendLine(String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+        journal.force(true);
+    }
+
+    private static void deleteArtifacts(Path target, int segments) throws IOException {
+        for (Path seg : segmentsFor(target, segments)) {
+            Files.deleteIfExists(seg);
+        }
+        Files.deleteIfExists(journalFor(target));
+    }
+
+    private static List<Path> segmentsFor(Path target, int count) {
+        List<Path> segments = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            segments.add(segmentPath(target, i));
+        }
+        return segments;
+    }
+
+    static Path journalFor(Path target) {
+        return target.resolveSibling(target.getFileName() + JOURNAL_SUFFIX);
+    }
+
+    static Path segmentPath(Path target, int index) {
+        return target.resolveSibling(target.getFileName() + String.format(".seg%04d", index) + SEGMENT_SUFFIX);
+    }
+}
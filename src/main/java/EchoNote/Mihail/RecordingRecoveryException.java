@@ -0,0 +1,22 @@
+package EchoNote.Mihail;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Thrown by {@link RecordingJournal#recover(Path)} when some interrupted recordings could not be
+ * rebuilt. The others were still recovered and are listed here; each failure is a suppressed exception.
+ */
+public class RecordingRecoveryException extends TranscriptionException {
+
+    private final List<Path> recovered;
+
+    public RecordingRecoveryException(String message, List<Path> recovered) {
+        super(message);
+        this.recovered = List.copyOf(recovered);
+    }
+
+    public List<Path> getRecovered() {
+        return recovered;
+    }
+}
@@ -19,36 +19,70 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 public class Summarizer {
 
     private static final String CHAT_COMPLETIONS_URL = "https://api.openai.com/v1/chat/completions";
     private static final String MODEL = "gpt-4.1-mini";
+    private static final int MAX_CONCURRENT_REQUESTS = 4;
+    // Well under the model's context so long prompts don't degrade; longer transcripts are map-reduced.
+    private static final int DEFAULT_MAX_PROMPT_TOKENS = 24_000;
 
     private final OkHttpClient httpClient;
     private final ObjectMapper objectMapper;
     private final String apiKey;
+    private final ExecutorService executor;
+    private final int maxPromptTokens;
 
     public Summarizer() {
         this(resolveApiKey());
     }
 
     public Summarizer(String apiKey) {
+        this(apiKey, MAX_CONCURRENT_REQUESTS, DEFAULT_MAX_PROMPT_TOKENS);
+    }
+
+    /**
+     * @param maxConcurrentRequests chat requests allowed in flight at once
+     * @param maxPromptTokens       estimated transcript tokens sent per request; longer transcripts
+     *                              are split into windows and summarized in parallel
+     */
+    public Summarizer(String apiKey, int maxConcurrentRequests, int maxPromptTokens) {
+        if (maxConcurrentRequests <= 0) {
+            throw new IllegalArgumentException("maxConcurrentRequests must be positive");
+        }
+        if (maxPromptTokens <= 0) {
+            throw new IllegalArgumentException("maxPromptTokens must be positive");
+        }
+
         this.httpClient = new OkHttpClient();
         this.objectMapper = new ObjectMapper();
         this.apiKey = apiKey;
+        this.maxPromptTokens = maxPromptTokens;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrentRequests, r -> {
+            Thread t = new Thread(r, "Summarizer-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
     }
 
     public Summary summarize(Transcript transcript) {
-        if (transcript == null) {
-            throw new IllegalArgumentException("transcript cannot be null");
-        }
-
-        String text = transcript.getRawText();
-        if (text == null || text.isBlank()) {
-            throw new IllegalArgumentException("transcript raw text cannot be blank");
+        String text = requireText(transcript);
+        if (!fitsInOnePrompt(text)) {
+            return await(mapReduce(text, this::summarizeText, Summarizer::reduceSummaries));
         }
+        return summarizeText(text);
+    }
 
+    private Summary summarizeText(String text) {
         String prompt = """
                 You are a meeting summarizer. The meeting can be about any topic (school, work, language class, etc.).
                 Given the full transcript below, produce a concise structured summary.
@@ -61,25 +95,18 @@ public class Summarizer {
                 Transcript:
                 """ + text;
 
-        JsonNode result = callChatApiForJson(prompt);
-
-        List<String> topics = readStringList(result, "topics");
-        List<String> decisions = readStringList(result, "decisions");
-        String notes = result.has("notes") ? result.get("notes").asText() : "";
-
-        return new Summary(topics, decisions, notes);
+        return parseSummary(callChatApiForJson(prompt));
     }
 
     public List<ActionItem> extractActions(Transcript transcript) {
-        if (transcript == null) {
-            throw new IllegalArgumentException("transcript cannot be null");
-        }
-
-        String text = transcript.getRawText();
-        if (text == null || text.isBlank()) {
-            throw new IllegalArgumentException("transcript raw text cannot be blank");
+        String text = requireText(transcript);
+        if (!fitsInOnePrompt(text)) {
+            return await(mapReduce(text, this::extractActionsFromText, Summarizer::reduceActions));
         }
+        return extractActionsFromText(text);
+    }
 
+    private List<ActionItem> extractActionsFromText(String text) {
         String prompt = """
                 You are an assistant that extracts action items from meeting transcripts.
 
@@ -100,6 +127,197 @@ public class Summarizer {
             throw new SummarizationException("Expected JSON array for action items");
         }
 
+        return parseActions(arrayNode);
+    }
+
+    /**
+     * Produces the summary and the action items from a single chat request, so the
+     * transcript is sent (and billed) once instead of twice.
+     */
+    public MeetingAnalysis summarizeWithActions(Transcript transcript) {
+        String text = requireText(transcript);
+        if (!fitsInOnePrompt(text)) {
+            return await(mapReduce(text, this::analyzeText, Summarizer::reduceAnalyses));
+        }
+        return analyzeText(text);
+    }
+
+    private MeetingAnalysis analyzeText(String text) {
+        String prompt = """
+                You are a meeting assistant. The meeting can be about any topic (school, work, language class, etc.).
+                Given the full transcript below, produce a concise structured summary and extract the action items.
+
+                Return your answer as a JSON object with exactly two fields:
+                - "summary": an object with
+                    - "topics": an array of short bullet-like strings summarizing main topics.
+                    - "decisions": an array of short bullet-like strings summarizing key decisions or conclusions.
+                    - "notes": a single string with any additional important context, paraphrased in the same language as the transcript when possible.
+                - "actions": an array of objects, one per clear action item, each with
+                    - "title": short imperative phrase describing the task.
+                    - "owner": name of the person responsible (if unclear, use "Unassigned").
+                    - "dueDate": ISO date (YYYY-MM-DD) if a specific deadline is mentioned; otherwise null.
+
+                Transcript:
+                """ + text;
+
+        return parseAnalysis(callChatApiForJson(prompt));
+    }
+
+    /** Runs {@link #summarize} on the summarizer's executor. */
+    public CompletableFuture<Summary> summarizeAsync(Transcript transcript) {
+        String text = requireText(transcript);
+        if (!fitsInOnePrompt(text)) {
+            return mapReduce(text, this::summarizeText, Summarizer::reduceSummaries);
+        }
+        return CompletableFuture.supplyAsync(() -> summarizeText(text), executor);
+    }
+
+    /** Runs {@link #extractActions} on the summarizer's executor. */
+    public CompletableFuture<List<ActionItem>> extractActionsAsync(Transcript transcript) {
+        String text = requireText(transcript);
+        if (!fitsInOnePrompt(text)) {
+            return mapReduce(text, this::extractActionsFromText, Summarizer::reduceActions);
+        }
+        return CompletableFuture.supplyAsync(() -> extractActionsFromText(text), executor);
+    }
+
+    private boolean fitsInOnePrompt(String text) {
+        return TranscriptWindower.estimateTokens(text) <= maxPromptTokens;
+    }
+
+    /**
+     * Map step runs one request per overlapping window on the executor; the reduce step is local.
+     * Nothing blocks inside the pool, so async callers can't starve it.
+     */
+    private <T> CompletableFuture<T> mapReduce(String text,
+                                               Function<String, T> map,
+                                               Function<List<T>, T> reduce) {
+        List<String> windows = TranscriptWindower.split(text, maxPromptTokens, maxPromptTokens / 20);
+
+        List<CompletableFuture<T>> partials = new ArrayList<>();
+        for (String window : windows) {
+            partials.add(CompletableFuture.supplyAsync(() -> map.apply(window), executor));
+        }
+
+        return CompletableFuture.allOf(partials.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    List<T> results = new ArrayList<>();
+                    for (CompletableFuture<T> partial : partials) {
+                        results.add(partial.join());
+                    }
+                    return reduce.apply(results);
+                });
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new SummarizationException("Summarization failed", e.getCause());
+        }
+    }
+
+    static Summary reduceSummaries(List<Summary> partials) {
+        List<List<String>> topics = new ArrayList<>();
+        List<List<String>> decisions = new ArrayList<>();
+        List<List<String>> notes = new ArrayList<>();
+
+        for (Summary partial : partials) {
+            topics.add(partial.getTopics());
+            decisions.add(partial.getDecisions());
+            notes.add(List.of(partial.getNotes() != null ? partial.getNotes() : ""));
+        }
+
+        return new Summary(
+                TranscriptWindower.mergeBullets(topics),
+                TranscriptWindower.mergeBullets(decisions),
+                String.join(" ", TranscriptWindower.mergeBullets(notes))
+        );
+    }
+
+    /**
+     * Drops actions that repeat an earlier one for the same owner, keeping a due date or owner if
+     * only the repeat had one.
+     */
+    static List<ActionItem> reduceActions(List<List<ActionItem>> partials) {
+        List<ActionItem> merged = new ArrayList<>();
+
+        for (List<ActionItem> actions : partials) {
+            for (ActionItem action : actions) {
+                ActionItem existing = findSimilar(merged, action);
+                if (existing == null) {
+                    merged.add(action);
+                    continue;
+                }
+                if (existing.getDueDate() == null && action.getDueDate() != null) {
+                    existing.setDueDate(action.getDueDate());
+                }
+                if (isUnassigned(existing.getOwner()) && !isUnassigned(action.getOwner())) {
+                    existing.setOwner(action.getOwner());
+                }
+            }
+        }
+        return merged;
+    }
+
+    /** A near-duplicate title for the same owner, ignoring case; an unassigned action matches any owner. */
+    private static ActionItem findSimilar(List<ActionItem> actions, ActionItem candidate) {
+        for (ActionItem action : actions) {
+            if (TranscriptWindower.isNearDuplicate(action.getTitle(), candidate.getTitle())
+                    && sameOwner(action.getOwner(), candidate.getOwner())) {
+                return action;
+            }
+        }
+        return null;
+    }
+
+    private static boolean sameOwner(Participant a, Participant b) {
+        return isUnassigned(a) || isUnassigned(b) || a.getName().trim().equalsIgnoreCase(b.getName().trim());
+    }
+
+    private static boolean isUnassigned(Participant owner) {
+        return owner == null || owner.getName() == null || owner.getName().isBlank()
+                || owner.getName().trim().equalsIgnoreCase("Unassigned");
+    }
+
+    static MeetingAnalysis reduceAnalyses(List<MeetingAnalysis> partials) {
+        List<Summary> summaries = new ArrayList<>();
+        List<List<ActionItem>> actions = new ArrayList<>();
+        for (MeetingAnalysis partial : partials) {
+            summaries.add(partial.summary());
+            actions.add(partial.actions());
+        }
+        return new MeetingAnalysis(reduceSummaries(summaries), reduceActions(actions));
+    }
+
+    static MeetingAnalysis parseAnalysis(JsonNode root) {
+        JsonNode summaryNode = root.get("summary");
+        JsonNode actionsNode = root.get("actions");
+        if (summaryNode == null || !summaryNode.isObject()) {
+            throw new SummarizationException("Expected JSON object for summary");
+        }
+        if (actionsNode != null && !actionsNode.isNull() && !actionsNode.isArray()) {
+            throw new SummarizationException("Expected JSON array for action items");
+        }
+
+        List<ActionItem> actions = actionsNode != null && actionsNode.isArray()
+                ? parseActions(actionsNode)
+                : new ArrayList<>();
+        return new MeetingAnalysis(parseSummary(summaryNode), actions);
+    }
+
+    static Summary parseSummary(JsonNode result) {
+        List<String> topics = readStringList(result, "topics");
+        List<String> decisions = readStringList(result, "decisions");
+        String notes = result.has("notes") ? result.get("notes").asText() : "";
+
+        return new Summary(topics, decisions, notes);
+    }
+
+    static List<ActionItem> parseActions(JsonNode arrayNode) {
         List<ActionItem> items = new ArrayList<>();
 
         for (JsonNode node : arrayNode) {
@@ -130,7 +348,19 @@ public class Summarizer {
         return items;
     }
 
-    private JsonNode callChatApiForJson(String prompt) {
+    private static String requireText(Transcript transcript) {
+        if (transcript == null) {
+            throw new IllegalArgumentException("transcript cannot be null");
+        }
+
+        String text = transcript.getRawText();
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("transcript raw text cannot be blank");
+        }
+        return text;
+    }
+
+    JsonNode callChatApiForJson(String prompt) {
         try {
             Map<String, Object> payload = Map.of(
                     "model", MODEL,
@@ -182,7 +412,7 @@ public class Summarizer {
         }
     }
 
-    private List<String> readStringList(JsonNode node, String fieldName) {
+    private static List<String> readStringList(JsonNode node, String fieldName) {
         List<String> result = new ArrayList<>();
         JsonNode arr = node.get(fieldName);
         if (arr != null && arr.isArray()) {
@@ -7,9 +7,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.cdimascio.dotenv.Dotenv;
 import okhttp3.*;
 
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 
 /**
@@ -26,6 +31,7 @@ public class Transcriber implements TranscriptionService {
     private final OkHttpClient httpClient;
     private final ObjectMapper objectMapper;
     private final String apiKey;
+    private volatile VoiceActivityDetector voiceActivityDetector;
 
     public Transcriber() {
         this(resolveApiKey());
@@ -42,17 +48,70 @@ public class Transcriber implements TranscriptionService {
         return transcribeFile(audioFile);
     }
 
+    /** Enables silence trimming before upload; pass null to upload audio verbatim. */
+    public void setVoiceActivityDetector(VoiceActivityDetector voiceActivityDetector) {
+        this.voiceActivityDetector = voiceActivityDetector;
+    }
+
     public Transcript transcribeFile(Path wavFile) {
         if (wavFile == null || !Files.exists(wavFile)) {
             throw new IllegalArgumentException("wavFile must exist: " + wavFile);
         }
 
+        return toTranscript(transcribeSegments(wavFile));
+    }
+
+    /**
+     * Transcribes a WAV file into timed segments. When a voice activity detector is configured,
+     * silence is trimmed before upload and segment times are mapped back to the original audio.
+     */
+    public List<TranscriptSegment> transcribeSegments(Path wavFile) {
+        if (wavFile == null || !Files.exists(wavFile)) {
+            throw new IllegalArgumentException("wavFile must exist: " + wavFile);
+        }
+
+        VoiceActivityDetector vad = voiceActivityDetector;
+        if (vad == null || !canTrim(wavFile)) {
+            return requestSegments(wavFile);
+        }
+
+        Path trimmed;
+        try {
+            trimmed = Files.createTempFile("echonote-vad-", ".wav");
+        } catch (IOException e) {
+            throw new TranscriptionException("Unable to create temp file for trimmed audio", e);
+        }
+
+        try {
+            OffsetMap offsets = vad.trim(wavFile, trimmed);
+            if (offsets.isEmpty()) {
+                return List.of();
+            }
+
+            List<TranscriptSegment> mapped = new ArrayList<>();
+            for (TranscriptSegment segment : requestSegments(trimmed)) {
+                mapped.add(new TranscriptSegment(
+                        offsets.toOriginalSeconds(segment.start()),
+                        offsets.toOriginalSeconds(segment.end()),
+                        segment.text()));
+            }
+            return mapped;
+        } finally {
+            try {
+                Files.deleteIfExists(trimmed);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    List<TranscriptSegment> requestSegments(Path wavFile) {
         RequestBody fileBody = RequestBody.create(wavFile.toFile(), MEDIA_TYPE_WAV);
 
         MultipartBody requestBody = new MultipartBody.Builder()
                 .setType(MultipartBody.FORM)
                 .addFormDataPart("file", wavFile.getFileName().toString(), fileBody)
                 .addFormDataPart("model", "whisper-1")
+                .addFormDataPart("response_format", "verbose_json")
                 .build();
 
         Request request = new Request.Builder()
@@ -69,16 +128,60 @@ public class Transcriber implements TranscriptionService {
             }
 
             String json = response.body() != null ? response.body().string() : "";
-            JsonNode root = objectMapper.readTree(json);
-            String text = root.has("text") ? root.get("text").asText() : "";
-
-
-            return new Transcript(text, TranscriptSource.LIVE);
+            return parseSegments(objectMapper.readTree(json));
         } catch (IOException e) {
             throw new TranscriptionException("Error calling OpenAI transcription API", e);
         }
     }
 
+    static List<TranscriptSegment> parseSegments(JsonNode root) {
+        List<TranscriptSegment> segments = new ArrayList<>();
+        JsonNode array = root.get("segments");
+        if (array != null && array.isArray()) {
+            for (JsonNode node : array) {
+                String text = node.has("text") ? node.get("text").asText().trim() : "";
+                if (text.isEmpty()) {
+                    continue;
+                }
+                segments.add(new TranscriptSegment(
+                        node.path("start").asDouble(0.0),
+                        node.path("end").asDouble(0.0),
+                        text));
+            }
+        }
+
+        if (segments.isEmpty()) {
+            String text = root.has("text") ? root.get("text").asText().trim() : "";
+            if (!text.isEmpty()) {
+                segments.add(new TranscriptSegment(0.0, 0.0, text));
+            }
+        }
+        return segments;
+    }
+
+    static Transcript toTranscript(List<TranscriptSegment> segments) {
+        StringBuilder text = new StringBuilder();
+        List<String> timestamps = new ArrayList<>(segments.size());
+
+        for (TranscriptSegment segment : segments) {
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(segment.text());
+            timestamps.add(segment.toTimestampLine());
+        }
+
+        return new Transcript(UUID.randomUUID().toString(), text.toString(), timestamps, TranscriptSource.LIVE);
+    }
+
+    private static boolean canTrim(Path wavFile) {
+        try {
+            return VoiceActivityDetector.isSupported(AudioSystem.getAudioFileFormat(wavFile.toFile()).getFormat());
+        } catch (UnsupportedAudioFileException | IOException e) {
+            return false;
+        }
+    }
+
     private static String resolveApiKey() {
         String key = System.getenv("OPENAI_API_KEY");
         if (key != null && !key.isBlank()) {
@@ -2,33 +2,63 @@ package EchoNote.Mihail;
 
 import EchoNote.Jack.Transcript;
 
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Proxy Pattern: Caching proxy for Transcriber with logging and statistics.
  */
 public class TranscriberProxy implements TranscriptionService {
 
+    private static final long HASH_WINDOW_BYTES = 64L * 1024 * 1024;
+    private static final long DEFAULT_MAX_CACHED_CHARACTERS = 50_000_000L;
+
     private final TranscriptionService realTranscriber;
-    private final Map<String, Transcript> cache;
+    private final TranscriptCache cache;
+    private final TranscriptCacheStore store;
     private final boolean loggingEnabled;
 
-    private int totalRequests;
-    private int cacheHits;
-    private int apiCalls;
+    private final Map<String, CompletableFuture<Transcript>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder totalRequests = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder apiCalls = new LongAdder();
+    private final LongAdder coalescedRequests = new LongAdder();
 
 
     public TranscriberProxy(TranscriptionService realTranscriber, boolean loggingEnabled) {
+        this(realTranscriber, loggingEnabled, null);
+    }
+
+    /** Creates a proxy that also persists transcripts to {@code store} so they survive restarts. */
+    public TranscriberProxy(TranscriptionService realTranscriber, boolean loggingEnabled, TranscriptCacheStore store) {
+        this(realTranscriber, loggingEnabled, store, new TranscriptCache(DEFAULT_MAX_CACHED_CHARACTERS));
+    }
+
+    public TranscriberProxy(TranscriptionService realTranscriber,
+                            boolean loggingEnabled,
+                            TranscriptCacheStore store,
+                            TranscriptCache cache) {
+        if (cache == null) {
+            throw new IllegalArgumentException("cache cannot be null");
+        }
         this.realTranscriber = realTranscriber;
-        this.cache = new ConcurrentHashMap<>();
+        this.cache = cache;
+        this.store = store;
         this.loggingEnabled = loggingEnabled;
-        this.totalRequests = 0;
-        this.cacheHits = 0;
-        this.apiCalls = 0;
     }
 
 
@@ -41,28 +71,73 @@ public class TranscriberProxy implements TranscriptionService {
         this(new Transcriber(), true);
     }
 
+    /**
+     * Returns the cached transcript if there is one. Otherwise concurrent requests for the same
+     * content share a single call to the real transcriber.
+     */
     @Override
     public Transcript transcribe(Path audioFile) {
-        totalRequests++;
+        totalRequests.increment();
         String cacheKey = getCacheKey(audioFile);
-        
+
         log("Transcription requested for: " + audioFile.getFileName());
 
-        if (cache.containsKey(cacheKey)) {
-            cacheHits++;
+        Transcript cached = cache.get(cacheKey);
+        if (cached != null) {
+            cacheHits.increment();
             log("Cache HIT - returning cached transcript for: " + audioFile.getFileName());
-            return cache.get(cacheKey);
+            return cached;
+        }
+
+        CompletableFuture<Transcript> mine = new CompletableFuture<>();
+        CompletableFuture<Transcript> leader = inFlight.putIfAbsent(cacheKey, mine);
+        if (leader != null) {
+            cacheHits.increment();
+            coalescedRequests.increment();
+            log("Joining in-flight transcription for: " + audioFile.getFileName());
+            return await(leader);
+        }
+
+        try {
+            Transcript transcript = load(cacheKey, audioFile);
+            mine.complete(transcript);
+            return transcript;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, mine);
+        }
+    }
+
+    private Transcript load(String cacheKey, Path audioFile) {
+        // A previous leader may have finished between our cache check and winning the slot.
+        Transcript cached = cache.get(cacheKey);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
+        }
+
+        Transcript stored = store != null ? store.get(cacheKey) : null;
+        if (stored != null) {
+            cacheHits.increment();
+            cache.put(cacheKey, stored);
+            log("Disk cache HIT - returning stored transcript for: " + audioFile.getFileName());
+            return stored;
         }
 
         log("Cache MISS - calling OpenAI API for: " + audioFile.getFileName());
-        
+
         try {
-            apiCalls++;
+            apiCalls.increment();
             Transcript transcript = realTranscriber.transcribe(audioFile);
-            
+
             cache.put(cacheKey, transcript);
+            if (store != null) {
+                store.put(cacheKey, transcript);
+            }
             log("Transcription successful, cached result for: " + audioFile.getFileName());
-            
+
             return transcript;
         } catch (TranscriptionException e) {
             log("Transcription FAILED for: " + audioFile.getFileName() + " - " + e.getMessage());
@@ -70,15 +145,50 @@ public class TranscriberProxy implements TranscriptionService {
         }
     }
 
+    private static Transcript await(CompletableFuture<Transcript> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new TranscriptionException("Transcription failed", e.getCause());
+        }
+    }
+
+    /**
+     * Keys on the file's content rather than its path, so copies, renames and re-imports
+     * of the same recording all hit the cache. Falls back to the path if the file can't be read.
+     */
     private String getCacheKey(Path audioFile) {
         try {
-            long lastModified = java.nio.file.Files.getLastModifiedTime(audioFile).toMillis();
-            return audioFile.toAbsolutePath().toString() + ":" + lastModified;
-        } catch (Exception e) {
-            return audioFile.toAbsolutePath().toString();
+            return contentHash(audioFile);
+        } catch (IOException e) {
+            return Integer.toHexString(audioFile.toAbsolutePath().toString().hashCode()) + "p";
         }
     }
 
+    /** Streaming SHA-256 of a file, read through memory-mapped windows. */
+    static String contentHash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += HASH_WINDOW_BYTES) {
+                long length = Math.min(HASH_WINDOW_BYTES, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                digest.update(window);
+            }
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
     private void log(String message) {
         if (loggingEnabled) {
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_TIME);
@@ -88,6 +198,9 @@ public class TranscriberProxy implements TranscriptionService {
 
     public void clearCache() {
         cache.clear();
+        if (store != null) {
+            store.clear();
+        }
         log("Cache cleared");
     }
 
@@ -96,11 +209,29 @@ public class TranscriberProxy implements TranscriptionService {
     }
 
     public ProxyStats getStats() {
-        return new ProxyStats(totalRequests, cacheHits, apiCalls);
+        return new ProxyStats(
+                totalRequests.intValue(),
+                cacheHits.intValue(),
+                apiCalls.intValue(),
+                coalescedRequests.intValue(),
+                cache.getEvictionCount(),
+                cache.getExpirationCount(),
+                cache.getWeightedSize(),
+                cache.getMaxWeight());
     }
 
-    /** Statistics record for proxy usage. */
-    public record ProxyStats(int totalRequests, int cacheHits, int apiCalls) {
+    /**
+     * Statistics record for proxy usage. Coalesced requests are also counted as cache hits.
+     * Weights are in transcript characters held by the in-memory cache.
+     */
+    public record ProxyStats(int totalRequests,
+                             int cacheHits,
+                             int apiCalls,
+                             int coalescedRequests,
+                             long evictions,
+                             long expirations,
+                             long weightedSize,
+                             long maxWeight) {
         public double cacheHitRate() {
             return totalRequests > 0 ? (double) cacheHits / totalRequests : 0.0;
         }
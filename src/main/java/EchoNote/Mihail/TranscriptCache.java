@@ -0,0 +1,128 @@
+package EchoNote.Mihail;
+
+import EchoNote.Jack.Transcript;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory transcript cache bounded by total transcript characters rather than entry count,
+ * with least-recently-used eviction and an optional time-to-live.
+ */
+public class TranscriptCache {
+
+    private final long maxWeight;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    // Access-ordered, so iteration starts at the least recently used entry.
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weightedSize;
+    private long evictions;
+    private long expirations;
+
+    /** Creates a cache holding up to {@code maxWeight} characters with no expiry. */
+    public TranscriptCache(long maxWeight) {
+        this(maxWeight, null);
+    }
+
+    public TranscriptCache(long maxWeight, Duration ttl) {
+        this(maxWeight, ttl, System::currentTimeMillis);
+    }
+
+    TranscriptCache(long maxWeight, Duration ttl, LongSupplier clock) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive");
+        }
+        if (ttl != null && (ttl.isNegative() || ttl.isZero())) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+
+        this.maxWeight = maxWeight;
+        this.ttlMillis = ttl != null ? ttl.toMillis() : 0;
+        this.clock = clock;
+    }
+
+    public synchronized Transcript get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry)) {
+            entries.remove(key);
+            weightedSize -= entry.weight;
+            expirations++;
+            return null;
+        }
+        return entry.transcript;
+    }
+
+    public synchronized void put(String key, Transcript transcript) {
+        long weight = weigh(transcript);
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            weightedSize -= previous.weight;
+        }
+
+        if (weight > maxWeight) {
+            // Too large to ever fit; caching it would just flush everything else.
+            evictions++;
+            return;
+        }
+
+        entries.put(key, new Entry(transcript, weight, clock.getAsLong()));
+        weightedSize += weight;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (weightedSize > maxWeight && eldest.hasNext()) {
+            Entry victim = eldest.next();
+            eldest.remove();
+            weightedSize -= victim.weight;
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weightedSize = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getWeightedSize() {
+        return weightedSize;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /** Entries removed to stay under the weight bound, including ones too large to admit. */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    public synchronized long getExpirationCount() {
+        return expirations;
+    }
+
+    /** Weight is the number of characters the transcript keeps on the heap. */
+    static long weigh(Transcript transcript) {
+        long weight = transcript.getRawText() != null ? transcript.getRawText().length() : 0;
+        for (String timestamp : transcript.getTimestamps()) {
+            weight += timestamp.length();
+        }
+        return Math.max(1, weight);
+    }
+
+    private boolean isExpired(Entry entry) {
+        return ttlMillis > 0 && clock.getAsLong() - entry.createdAt >= ttlMillis;
+    }
+
+    private record Entry(Transcript transcript, long weight, long createdAt) {
+    }
+}
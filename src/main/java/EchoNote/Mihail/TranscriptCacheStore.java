@@ -0,0 +1,180 @@
+package EchoNote.Mihail;
+
+import EchoNote.Jack.Transcript;
+import EchoNote.Jack.TranscriptSource;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable transcript cache: one JSON file per content key under a directory.
+ *
+ * Reads bump the file's modification time, and when the directory grows past
+ * {@code maxBytes} the least recently used entries are deleted first.
+ */
+public class TranscriptCacheStore {
+
+    private static final String SUFFIX = ".json";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    public TranscriptCacheStore(Path directory, long maxBytes) {
+        if (directory == null) {
+            throw new IllegalArgumentException("directory cannot be null");
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+
+        try {
+            Files.createDirectories(directory);
+            for (Path file : listEntries()) {
+                totalBytes.addAndGet(Files.size(file));
+            }
+        } catch (IOException e) {
+            throw new TranscriptionException("Unable to open transcript cache directory " + directory, e);
+        }
+    }
+
+    public Transcript get(String key) {
+        Path file = fileFor(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try {
+            JsonNode node = objectMapper.readTree(file.toFile());
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return fromJson(node);
+        } catch (IOException | RuntimeException e) {
+            // Corrupt or concurrently evicted entry: treat as a miss.
+            return null;
+        }
+    }
+
+    public void put(String key, Transcript transcript) {
+        Path file = fileFor(key);
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(toJson(transcript));
+            long previous = Files.exists(file) ? Files.size(file) : 0;
+
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            Files.write(temp, json);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            if (totalBytes.addAndGet(json.length - previous) > maxBytes) {
+                evict();
+            }
+        } catch (IOException e) {
+            throw new TranscriptionException("Unable to write transcript cache entry " + file, e);
+        }
+    }
+
+    public void clear() {
+        try {
+            for (Path file : listEntries()) {
+                Files.deleteIfExists(file);
+            }
+            totalBytes.set(0);
+        } catch (IOException e) {
+            throw new TranscriptionException("Unable to clear transcript cache " + directory, e);
+        }
+    }
+
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private synchronized void evict() throws IOException {
+        if (totalBytes.get() <= maxBytes) {
+            return;
+        }
+
+        List<Path> entries = listEntries();
+        entries.sort(Comparator.comparingLong(TranscriptCacheStore::lastModified));
+
+        for (Path file : entries) {
+            if (totalBytes.get() <= maxBytes) {
+                break;
+            }
+            long size = Files.exists(file) ? Files.size(file) : 0;
+            if (Files.deleteIfExists(file)) {
+                totalBytes.addAndGet(-size);
+            }
+        }
+    }
+
+    private List<Path> listEntries() throws IOException {
+        List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            stream.forEach(entries::add);
+        }
+        return entries;
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private Path fileFor(String key) {
+        if (key == null || !key.matches("[A-Za-z0-9]+")) {
+            throw new IllegalArgumentException("cache key must be alphanumeric: " + key);
+        }
+        return directory.resolve(key + SUFFIX);
+    }
+
+    private ObjectNode toJson(Transcript transcript) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", transcript.getId());
+        node.put("rawText", transcript.getRawText());
+        node.put("source", transcript.getSource() != null ? transcript.getSource().name() : null);
+        ArrayNode timestamps = node.putArray("timestamps");
+        transcript.getTimestamps().forEach(timestamps::add);
+        return node;
+    }
+
+    private static Transcript fromJson(JsonNode node) {
+        List<String> timestamps = new ArrayList<>();
+        node.path("timestamps").forEach(t -> timestamps.add(t.asText()));
+        String source = node.path("source").asText(null);
+
+        return new Transcript(
+                node.path("id").asText(),
+                node.path("rawText").asText(""),
+                timestamps,
+                source != null ? TranscriptSource.valueOf(source) : null
+        );
+    }
+}
@@ -0,0 +1,25 @@
+package EchoNote.Mihail;
+
+/**
+ * One timed piece of a transcription, in seconds from the start of the audio.
+ */
+public record TranscriptSegment(double start, double end, String text) {
+
+    public TranscriptSegment shift(double offsetSeconds) {
+        return new TranscriptSegment(start + offsetSeconds, end + offsetSeconds, text);
+    }
+
+    /** Formats the segment as a Transcript timestamp line, e.g. {@code [00:01:02.500 - 00:01:05.120] text}. */
+    public String toTimestampLine() {
+        return "[" + formatTime(start) + " - " + formatTime(end) + "] " + text;
+    }
+
+    static String formatTime(double seconds) {
+        long millis = Math.max(0, Math.round(seconds * 1000));
+        return String.format("%02d:%02d:%02d.%03d",
+                millis / 3_600_000,
+                (millis / 60_000) % 60,
+                (millis / 1000) % 60,
+                millis % 1000);
+    }
+}
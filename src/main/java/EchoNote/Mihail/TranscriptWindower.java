@@ -0,0 +1,136 @@
+package EchoNote.Mihail;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits transcripts into overlapping, token-budgeted windows and merges the bullet lists
+ * summarised from each window back together.
+ *
+ * Tokens are estimated at four characters each, which is close enough for English and
+ * errs on the safe side for most other languages Whisper produces.
+ */
+public final class TranscriptWindower {
+
+    static final int CHARS_PER_TOKEN = 4;
+    private static final double DUPLICATE_SIMILARITY = 0.7;
+
+    private TranscriptWindower() {
+    }
+
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    /**
+     * Splits {@code text} into windows of at most {@code windowTokens}, each starting
+     * {@code overlapTokens} before the previous one ended. Cuts prefer sentence ends, then whitespace.
+     */
+    public static List<String> split(String text, int windowTokens, int overlapTokens) {
+        if (windowTokens <= 0 || overlapTokens < 0 || overlapTokens >= windowTokens) {
+            throw new IllegalArgumentException("need 0 <= overlapTokens < windowTokens");
+        }
+
+        int windowChars = windowTokens * CHARS_PER_TOKEN;
+        int overlapChars = overlapTokens * CHARS_PER_TOKEN;
+        List<String> windows = new ArrayList<>();
+
+        int start = 0;
+        while (start < text.length()) {
+            int limit = Math.min(text.length(), start + windowChars);
+            int end = limit == text.length() ? limit : findCut(text, start + windowChars / 2, limit);
+
+            String window = text.substring(start, end).trim();
+            if (!window.isEmpty()) {
+                windows.add(window);
+            }
+            if (end >= text.length()) {
+                break;
+            }
+
+            int next = Math.max(start + 1, end - overlapChars);
+            // Start the overlap on a word boundary so no window begins mid-word.
+            while (next < end && !Character.isWhitespace(text.charAt(next - 1))) {
+                next++;
+            }
+            start = next;
+        }
+        return windows;
+    }
+
+    private static int findCut(String text, int from, int limit) {
+        for (int i = limit - 1; i > from; i--) {
+            char c = text.charAt(i - 1);
+            if ((c == '.' || c == '?' || c == '!') && Character.isWhitespace(text.charAt(i))) {
+                return i;
+            }
+        }
+        for (int i = limit - 1; i > from; i--) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Concatenates bullet lists in order, dropping bullets whose word sets overlap an already kept
+     * bullet by at least 70% (Jaccard), which catches the same point restated by adjacent windows.
+     */
+    public static List<String> mergeBullets(List<List<String>> bulletLists) {
+        List<String> merged = new ArrayList<>();
+        List<Set<String>> keptWords = new ArrayList<>();
+
+        for (List<String> bullets : bulletLists) {
+            for (String bullet : bullets) {
+                if (bullet == null || bullet.isBlank()) {
+                    continue;
+                }
+                Set<String> words = words(bullet);
+                boolean duplicate = false;
+                for (Set<String> kept : keptWords) {
+                    if (jaccard(words, kept) >= DUPLICATE_SIMILARITY) {
+                        duplicate = true;
+                        break;
+                    }
+                }
+                if (!duplicate) {
+                    merged.add(bullet.trim());
+                    keptWords.add(words);
+                }
+            }
+        }
+        return merged;
+    }
+
+    /** True when the two bullets share at least 70% of their words. */
+    public static boolean isNearDuplicate(String a, String b) {
+        return jaccard(words(a), words(b)) >= DUPLICATE_SIMILARITY;
+    }
+
+    static Set<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() && b.isEmpty()) {
+            return 1.0;
+        }
+        int intersection = 0;
+        for (String word : a) {
+            if (b.contains(word)) {
+                intersection++;
+            }
+        }
+        return (double) intersection / (a.size() + b.size() - intersection);
+    }
+}
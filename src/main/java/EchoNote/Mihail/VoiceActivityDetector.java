@@ -0,0 +1,182 @@
+package EchoNote.Mihail;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Energy and zero-crossing voice activity detector.
+ *
+ * Frames whose RMS level (same measure as the recorder's level meter) clears the energy threshold
+ * are speech. Quieter frames still count when their zero-crossing rate looks like an unvoiced
+ * consonant. Speech is padded on both sides, and only silences longer than
+ * {@code minSilenceMillis} are cut, so word boundaries are never clipped.
+ */
+public class VoiceActivityDetector {
+
+    private static final int FRAME_MILLIS = 30;
+
+    private final double energyThreshold;
+    private final double fricativeZeroCrossingRate;
+    private final int paddingMillis;
+    private final int minSilenceMillis;
+
+    public VoiceActivityDetector() {
+        this(0.015, 0.25, 300, 1_000);
+    }
+
+    public VoiceActivityDetector(double energyThreshold,
+                                 double fricativeZeroCrossingRate,
+                                 int paddingMillis,
+                                 int minSilenceMillis) {
+        this.energyThreshold = energyThreshold;
+        this.fricativeZeroCrossingRate = fricativeZeroCrossingRate;
+        this.paddingMillis = paddingMillis;
+        this.minSilenceMillis = minSilenceMillis;
+    }
+
+    public static boolean isSupported(AudioFormat format) {
+        return format.getEncoding() == AudioFormat.Encoding.PCM_SIGNED
+                && format.getSampleSizeInBits() == 16
+                && format.getChannels() == 1
+                && !format.isBigEndian();
+    }
+
+    /**
+     * Writes the speech portions of {@code input} to {@code output} and returns the map from
+     * compacted time back to original time. The input is streamed twice and never held in memory.
+     */
+    public OffsetMap trim(Path input, Path output) {
+        AudioFormat format;
+        BitSet speech = new BitSet();
+        int frameCount;
+        int framesPerChunk;
+
+        try (AudioInputStream ais = AudioSystem.getAudioInputStream(input.toFile())) {
+            format = ais.getFormat();
+            if (!isSupported(format)) {
+                throw new IllegalArgumentException("VAD requires 16-bit mono little-endian PCM: " + format);
+            }
+            framesPerChunk = Math.max(1, (int) (format.getFrameRate() * FRAME_MILLIS / 1000));
+            frameCount = classify(ais, framesPerChunk * format.getFrameSize(), speech);
+        } catch (UnsupportedAudioFileException | IOException e) {
+            throw new TranscriptionException("Unable to read audio for voice activity detection " + input, e);
+        }
+
+        List<int[]> kept = keptRanges(speech, frameCount);
+        double chunkSeconds = framesPerChunk / format.getFrameRate();
+
+        try (AudioInputStream ais = AudioSystem.getAudioInputStream(input.toFile());
+             WavFileWriter writer = new WavFileWriter(output, format)) {
+            copyRanges(ais, writer, kept, framesPerChunk * format.getFrameSize());
+        } catch (UnsupportedAudioFileException | IOException e) {
+            throw new TranscriptionException("Unable to write trimmed audio " + output, e);
+        }
+
+        List<OffsetMap.Span> spans = new ArrayList<>(kept.size());
+        double compacted = 0;
+        for (int[] range : kept) {
+            double length = (range[1] - range[0]) * chunkSeconds;
+            spans.add(new OffsetMap.Span(compacted, range[0] * chunkSeconds, length));
+            compacted += length;
+        }
+        return new OffsetMap(spans);
+    }
+
+    /** Marks speech frames in {@code speech} and returns the number of frames read. */
+    private int classify(AudioInputStream ais, int frameBytes, BitSet speech) throws IOException {
+        byte[] frame = new byte[frameBytes];
+        int index = 0;
+
+        while (true) {
+            int n = ais.readNBytes(frame, 0, frame.length);
+            if (n <= 0) {
+                break;
+            }
+            if (isSpeech(frame, n)) {
+                speech.set(index);
+            }
+            index++;
+            if (n < frame.length) {
+                break;
+            }
+        }
+        return index;
+    }
+
+    boolean isSpeech(byte[] frame, int length) {
+        double rms = Recorder.computeLevelRms(frame, length);
+        if (rms >= energyThreshold) {
+            return true;
+        }
+        return rms >= energyThreshold * 0.4 && zeroCrossingRate(frame, length) >= fricativeZeroCrossingRate;
+    }
+
+    static double zeroCrossingRate(byte[] data, int length) {
+        int samples = length / 2;
+        if (samples < 2) {
+            return 0.0;
+        }
+
+        int crossings = 0;
+        int previous = (short) ((data[0] & 0xFF) | (data[1] << 8));
+        for (int i = 2; i + 1 < length; i += 2) {
+            int sample = (short) ((data[i] & 0xFF) | (data[i + 1] << 8));
+            if ((sample >= 0) != (previous >= 0)) {
+                crossings++;
+            }
+            previous = sample;
+        }
+        return (double) crossings / (samples - 1);
+    }
+
+    private List<int[]> keptRanges(BitSet speech, int frameCount) {
+        int padding = (paddingMillis + FRAME_MILLIS - 1) / FRAME_MILLIS;
+        int minSilence = (minSilenceMillis + FRAME_MILLIS - 1) / FRAME_MILLIS;
+
+        List<int[]> ranges = new ArrayList<>();
+        int start = speech.nextSetBit(0);
+        while (start >= 0 && start < frameCount) {
+            int end = speech.nextClearBit(start);
+            int from = Math.max(0, start - padding);
+            int to = Math.min(frameCount, end + padding);
+
+            if (!ranges.isEmpty() && from - ranges.get(ranges.size() - 1)[1] < minSilence) {
+                ranges.get(ranges.size() - 1)[1] = to;
+            } else {
+                ranges.add(new int[]{from, to});
+            }
+            start = speech.nextSetBit(end);
+        }
+        return ranges;
+    }
+
+    private void copyRanges(AudioInputStream ais, WavFileWriter writer, List<int[]> ranges, int frameBytes)
+            throws IOException {
+        byte[] frame = new byte[frameBytes];
+        int index = 0;
+        int rangeIndex = 0;
+
+        while (rangeIndex < ranges.size()) {
+            int n = ais.readNBytes(frame, 0, frame.length);
+            if (n <= 0) {
+                break;
+            }
+
+            int[] range = ranges.get(rangeIndex);
+            if (index >= range[0] && index < range[1]) {
+                writer.write(frame, 0, n);
+            }
+            index++;
+            if (index >= range[1]) {
+                rangeIndex++;
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package EchoNote.Mihail;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming WAV sink: writes a placeholder RIFF header, appends PCM as it arrives
+ * and patches the header sizes on close, so heap use stays flat for any recording length.
+ */
+public class WavFileWriter implements Closeable {
+
+    static final int HEADER_SIZE = 44;
+    private static final long MAX_DATA_SIZE = 0xFFFFFFFFL - (HEADER_SIZE - 8);
+
+    private final Path file;
+    private final AudioFormat format;
+    private final FileChannel channel;
+    private long dataSize;
+    private boolean closed;
+
+    public WavFileWriter(Path file, AudioFormat format) {
+        if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED || format.isBigEndian()) {
+            throw new IllegalArgumentException("Only little-endian signed PCM is supported: " + format);
+        }
+
+        this.file = file;
+        this.format = format;
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            this.channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            writeFully(buildHeader(format, 0), 0);
+        } catch (IOException e) {
+            throw new TranscriptionException("Unable to open WAV file for writing " + file, e);
+        }
+    }
+
+    public void write(byte[] data, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        if (closed) {
+            throw new IllegalStateException("WAV writer already closed");
+        }
+        if (dataSize + length > MAX_DATA_SIZE) {
+            throw new TranscriptionException("WAV file exceeds 4 GB limit: " + file);
+        }
+
+        try {
+            writeFully(ByteBuffer.wrap(data, offset, length), HEADER_SIZE + dataSize);
+            dataSize += length;
+        } catch (IOException e) {
+            throw new TranscriptionException("Error while writing WAV data to " + file, e);
+        }
+    }
+
+    /** Patches the current sizes into the header and forces data to disk without closing. */
+    public void sync() {
+        try {
+            patchHeader();
+            channel.force(false);
+        } catch (IOException e) {
+            throw new TranscriptionException("Error while syncing WAV file " + file, e);
+        }
+    }
+
+    public long getDataSize() {
+        return dataSize;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public AudioFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try (FileChannel ch = channel) {
+            patchHeader();
+            ch.force(false);
+        } catch (IOException e) {
+            throw new TranscriptionException("Error while finalizing WAV file " + file, e);
+        }
+    }
+
+    private void patchHeader() throws IOException {
+        ByteBuffer sizes = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+
+        sizes.putInt(0, (int) (dataSize + HEADER_SIZE - 8));
+        writeFully(sizes, 4);
+
+        sizes.clear();
+        sizes.putInt(0, (int) dataSize);
+        writeFully(sizes, 40);
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    static ByteBuffer buildHeader(AudioFormat format, long dataSize) {
+        int channels = format.getChannels();
+        int sampleRate = (int) format.getSampleRate();
+        int bitsPerSample = format.getSampleSizeInBits();
+        int blockAlign = format.getFrameSize();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(new byte[]{'R', 'I', 'F', 'F'});
+        header.putInt((int) (dataSize + HEADER_SIZE - 8));
+        header.put(new byte[]{'W', 'A', 'V', 'E'});
+        header.put(new byte[]{'f', 'm', 't', ' '});
+        header.putInt(16);
+        header.putShort((short) 1);
+        header.putShort((short) channels);
+        header.putInt(sampleRate);
+        header.putInt(sampleRate * blockAlign);
+        header.putShort((short) blockAlign);
+        header.putShort((short) bitsPerSample);
+        header.put(new byte[]{'d', 'a', 't', 'a'});
+        header.putInt((int) dataSize);
+        header.flip();
+        return header;
+    }
+}
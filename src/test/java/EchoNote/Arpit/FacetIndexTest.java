@@ -0,0 +1,84 @@
+package EchoNote.Arpit;
+
+import EchoNote.Jack.ActionItem;
+import EchoNote.Jack.ActionStatus;
+import EchoNote.Jack.ApprovalStatus;
+import EchoNote.Jack.MeetingRecord;
+import EchoNote.Jack.MeetingRecordBuilder;
+import EchoNote.Jack.Participant;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FacetIndexTest {
+
+    private MeetingRecord createRecord(List<String> tags, String owner, LocalDateTime date) {
+        MeetingRecord record = new MeetingRecordBuilder()
+                .withTitle("Sync")
+                .withTags(tags)
+                .withDate(date)
+                .withParticipants(List.of(new Participant("Sam", null, null)))
+                .withActions(List.of(new ActionItem("Follow up", new Participant(owner, null, null), null, ActionStatus.OPEN)))
+                .build();
+        record.setStatus(ApprovalStatus.APPROVED);
+        return record;
+    }
+
+    private long[] all(FacetIndex index, MeetingRecord... records) {
+        long[] bits = index.newBitSet();
+        for (MeetingRecord record : records) {
+            FacetIndex.set(bits, index.ordinal(record.getId()));
+        }
+        return bits;
+    }
+
+    @Test
+    void count_countsValuesAmongResultsIgnoringCase() {
+        FacetIndex index = new FacetIndex();
+        MeetingRecord a = createRecord(List.of("Planning", "q3"), "Priya", LocalDateTime.of(2025, 3, 1, 9, 0));
+        MeetingRecord b = createRecord(List.of("planning"), "priya", LocalDateTime.of(2025, 4, 2, 9, 0));
+        MeetingRecord c = createRecord(List.of("hiring"), "Sam", LocalDateTime.of(2025, 4, 3, 9, 0));
+        index.put(a);
+        index.put(b);
+        index.put(c);
+
+        assertEquals(List.of(new FacetValue(Facet.TAG, "Planning", 2), new FacetValue(Facet.TAG, "hiring", 1),
+                        new FacetValue(Facet.TAG, "q3", 1)),
+                index.count(Facet.TAG, all(index, a, b, c)));
+        assertEquals(List.of(new FacetValue(Facet.OWNER, "Priya", 2)), index.count(Facet.OWNER, all(index, a, b)));
+        assertEquals(List.of(new FacetValue(Facet.MONTH, "2025-04", 2), new FacetValue(Facet.MONTH, "2025-03", 1)),
+                index.count(Facet.MONTH, all(index, a, b, c)));
+        assertEquals(List.of(new FacetValue(Facet.STATUS, "APPROVED", 1)), index.count(Facet.STATUS, all(index, c)));
+
+        long[] results = all(index, a, b, c);
+        index.drillDown(results, Facet.TAG, List.of("PLANNING", "hiring"));
+        index.drillDown(results, Facet.MONTH, List.of("2025-04"));
+        assertEquals(2, FacetIndex.cardinality(results));
+        assertFalse(FacetIndex.get(results, index.ordinal(a.getId())));
+    }
+
+    @Test
+    void put_reindexReplacesValuesAndRemovedOrdinalsAreReused() {
+        FacetIndex index = new FacetIndex();
+        MeetingRecord a = createRecord(List.of("planning"), "Priya", LocalDateTime.of(2025, 3, 1, 9, 0));
+        MeetingRecord b = createRecord(List.of("hiring"), "Sam", LocalDateTime.of(2025, 3, 2, 9, 0));
+        index.put(a);
+        index.put(b);
+
+        a.setTags(List.of("budget"));
+        index.put(a);
+        assertEquals(List.of(new FacetValue(Facet.TAG, "budget", 1), new FacetValue(Facet.TAG, "hiring", 1)),
+                index.count(Facet.TAG, all(index, a, b)));
+
+        int ordinal = index.ordinal(a.getId());
+        index.remove(a.getId());
+        assertEquals(-1, index.ordinal(a.getId()));
+        MeetingRecord c = createRecord(List.of("offsite"), "Lee", LocalDateTime.of(2025, 5, 1, 9, 0));
+        index.put(c);
+        assertEquals(ordinal, index.ordinal(c.getId()));
+        assertEquals(List.of(new FacetValue(Facet.TAG, "offsite", 1)), index.count(Facet.TAG, all(index, c)));
+    }
+}
@@ -0,0 +1,39 @@
+package EchoNote.Arpit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashedNgramEmbedderTest {
+
+    private static float dot(float[] a, float[] b) {
+        float dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+
+    @Test
+    void embed_isDeterministicAndUnitLength() {
+        HashedNgramEmbedder embedder = new HashedNgramEmbedder();
+        float[] first = embedder.embed("Quarterly budget review");
+        float[] second = new HashedNgramEmbedder().embed("quarterly BUDGET review!");
+
+        assertEquals(HashedNgramEmbedder.DEFAULT_DIMENSIONS, first.length);
+        assertArrayEquals(first, second, 1e-6f);
+        assertEquals(1.0, dot(first, first), 1e-5);
+        assertEquals(0.0, dot(embedder.embed("..."), embedder.embed("...")));
+    }
+
+    @Test
+    void embed_wordFormsSharingAStemAreCloserThanUnrelatedWords() {
+        HashedNgramEmbedder embedder = new HashedNgramEmbedder();
+        float[] spend = embedder.embed("spend");
+
+        assertTrue(dot(spend, embedder.embed("spending")) > dot(spend, embedder.embed("hiring")));
+        assertTrue(dot(embedder.embed("marketing spend for q3"), embedder.embed("q3 marketing spending"))
+                > dot(embedder.embed("marketing spend for q3"), embedder.embed("office move timeline")));
+        assertThrows(IllegalArgumentException.class, () -> new HashedNgramEmbedder(0));
+    }
+}
@@ -0,0 +1,145 @@
+package EchoNote.Arpit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HnswIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static float[] randomUnitVector(Random random, int dimensions) {
+        float[] vector = new float[dimensions];
+        double norm = 0;
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+
+    @Test
+    void search_findsMostTrueNearestNeighbours() {
+        Random random = new Random(7);
+        List<float[]> vectors = new ArrayList<>();
+        HnswIndex index = new HnswIndex(32);
+        for (int i = 0; i < 3_000; i++) {
+            float[] vector = randomUnitVector(random, 32);
+            vectors.add(vector);
+            assertEquals(i, index.add(vector));
+        }
+
+        double recall = 0;
+        for (int q = 0; q < 50; q++) {
+            float[] query = randomUnitVector(random, 32);
+            Set<Integer> exact = IntStream.range(0, vectors.size()).boxed()
+                    .sorted((a, b) -> Float.compare(dot(query, vectors.get(b)), dot(query, vectors.get(a))))
+                    .limit(10)
+                    .collect(Collectors.toSet());
+            List<HnswIndex.Neighbor> found = index.search(query, 10, 64);
+            assertEquals(10, found.size());
+            for (int i = 1; i < found.size(); i++) {
+                assertTrue(found.get(i - 1).score() >= found.get(i).score(), "Results should be best first");
+            }
+            recall += found.stream().filter(n -> exact.contains(n.node())).count() / 10.0;
+        }
+        assertTrue(recall / 50 >= 0.9, "recall@10 was " + recall / 50);
+    }
+
+    @Test
+    void search_neverReturnsRemovedNodes() {
+        Random random = new Random(3);
+        HnswIndex index = new HnswIndex(16);
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            vectors.add(randomUnitVector(random, 16));
+            index.add(vectors.get(i));
+        }
+        Set<Integer> removed = new HashSet<>();
+        for (int i = 0; i < 500; i += 2) {
+            index.remove(i);
+            removed.add(i);
+        }
+
+        assertEquals(250, index.removedCount());
+        for (int q = 0; q < 20; q++) {
+            for (HnswIndex.Neighbor neighbor : index.search(vectors.get(q), 20, 64)) {
+                assertFalse(removed.contains(neighbor.node()));
+            }
+        }
+        assertEquals(1, index.search(vectors.get(1), 1, 64).get(0).node(), "A stored vector is its own nearest");
+    }
+
+    @Test
+    void vector_roundTripsThroughInt8Quantization() {
+        float[] vector = randomUnitVector(new Random(11), 64);
+        HnswIndex index = new HnswIndex(64);
+        index.add(vector);
+
+        float[] restored = index.vector(0);
+        for (int i = 0; i < vector.length; i++) {
+            assertEquals(vector[i], restored[i], 0.01f);
+        }
+        assertThrows(IllegalArgumentException.class, () -> index.add(new float[3]));
+    }
+
+    @Test
+    void write_readsBackTheSameGraph() throws Exception {
+        Random random = new Random(5);
+        HnswIndex index = new HnswIndex(32);
+        for (int i = 0; i < 2000; i++) {
+            index.add(randomUnitVector(random, 32));
+        }
+        for (int i = 0; i < 2000; i += 3) {
+            index.remove(i);
+        }
+        Path file = tempDir.resolve("vectors.hnsw");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {9, 9, 9}));
+            index.write(channel);
+        }
+
+        HnswIndex loaded;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(3);
+            loaded = HnswIndex.read(channel);
+            assertEquals(channel.size(), channel.position(), "read should stop just past the index");
+        }
+
+        assertEquals(index.size(), loaded.size());
+        assertEquals(index.removedCount(), loaded.removedCount());
+        assertArrayEquals(index.vector(1), loaded.vector(1));
+        for (int q = 0; q < 20; q++) {
+            float[] query = randomUnitVector(random, 32);
+            assertEquals(index.search(query, 10, 64), loaded.search(query, 10, 64));
+        }
+        float[] added = randomUnitVector(random, 32);
+        assertEquals(2000, loaded.add(added));
+        assertEquals(2000, loaded.search(added, 1, 64).get(0).node());
+    }
+}
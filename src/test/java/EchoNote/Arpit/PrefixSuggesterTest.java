@@ -0,0 +1,65 @@
+package EchoNote.Arpit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrefixSuggesterTest {
+
+    @Test
+    void suggest_returnsMostFrequentFirstThenAlphabetical() {
+        PrefixSuggester suggester = PrefixSuggester.build(List.of(
+                new Suggestion("budget", SuggestionKind.TERM, 3),
+                new Suggestion("budgets", SuggestionKind.TERM, 7),
+                new Suggestion("Budapest", SuggestionKind.TAG, 3),
+                new Suggestion("burn", SuggestionKind.TERM, 9)));
+
+        assertEquals(List.of("budgets", "Budapest", "budget"),
+                suggester.suggest("bud", 5).stream().map(Suggestion::text).toList());
+        assertEquals(List.of("burn", "budgets"),
+                suggester.suggest("bu", 2).stream().map(Suggestion::text).toList());
+        assertTrue(suggester.suggest("x", 5).isEmpty());
+    }
+
+    @Test
+    void suggest_matchesLaterWordsOnceEach() {
+        Suggestion title = new Suggestion("Review the Review", SuggestionKind.TITLE, 1);
+        PrefixSuggester suggester = PrefixSuggester.build(List.of(
+                title,
+                new Suggestion("Priya Sharma", SuggestionKind.PARTICIPANT, 2)));
+
+        assertEquals(List.of(title), suggester.suggest("rev", 5));
+        assertEquals("Priya Sharma", suggester.suggest("sha", 5).get(0).text());
+        assertTrue(suggester.suggest("he", 5).isEmpty(), "Only word starts are keys");
+    }
+
+    @Test
+    void randomSuggestions_agreeWithSortingEveryMatch() {
+        Random random = new Random(3);
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int c = 0; c < 3 + random.nextInt(5); c++) {
+                text.append((char) ('a' + random.nextInt(4)));
+            }
+            suggestions.add(new Suggestion(text + "" + i, SuggestionKind.TERM, random.nextInt(50)));
+        }
+        PrefixSuggester suggester = PrefixSuggester.build(suggestions);
+
+        for (String prefix : List.of("a", "ab", "dca", "bbb", "c")) {
+            List<Suggestion> expected = suggestions.stream()
+                    .filter(s -> s.text().toLowerCase(Locale.ROOT).startsWith(prefix))
+                    .sorted(Comparator.comparingInt(Suggestion::frequency).reversed()
+                            .thenComparing(Suggestion::text))
+                    .limit(10)
+                    .toList();
+            assertEquals(expected, suggester.suggest(prefix, 10), prefix);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package EchoNote.Arpit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryParserTest {
+
+    private static Query.Term term(String text) {
+        return new Query.Term(null, text);
+    }
+
+    @Test
+    void parse_wordsAreImplicitlyAndedAndDeduplicated() {
+        assertEquals(new Query.And(List.of(term("budget"), term("review"))),
+                QueryParser.parse("Budget review budget"));
+        assertEquals(term("budget"), QueryParser.parse("budget AND"));
+        assertNull(QueryParser.parse("  ... "));
+    }
+
+    @Test
+    void parse_phrasesNearAndFieldPrefixes() {
+        assertEquals(new Query.Phrase(null, List.of("ship", "the", "beta")), QueryParser.parse("\"Ship the beta\""));
+        assertEquals(new Query.Phrase(null, List.of("e", "mail")), QueryParser.parse("e-mail"));
+        assertEquals(new Query.Near(SearchField.TITLE, List.of("budget"), List.of("q3", "review"), 2),
+                QueryParser.parse("title:budget NEAR/2 \"q3 review\""));
+        assertEquals(new Query.Near(null, List.of("a"), List.of("b"), QueryParser.DEFAULT_NEAR_DISTANCE),
+                QueryParser.parse("a NEAR b"));
+        assertEquals(new Query.And(List.of(
+                        new Query.Near(null, List.of("a"), List.of("b"), 1),
+                        new Query.Near(null, List.of("b"), List.of("c"), 3))),
+                QueryParser.parse("a NEAR/1 b NEAR/3 c"));
+        assertEquals(new Query.Phrase(SearchField.ACTION, List.of("send", "deck")),
+                QueryParser.parse("action:\"send deck\""));
+        assertEquals(new Query.Phrase(null, List.of("unknown", "field")), QueryParser.parse("unknown:field"));
+    }
+
+    @Test
+    void parse_booleanOperatorsAndGroups() {
+        assertEquals(new Query.Or(List.of(
+                        new Query.And(List.of(term("a"), term("b"))),
+                        term("c"))),
+                QueryParser.parse("a b OR c"));
+        assertEquals(new Query.And(List.of(term("a"), new Query.Not(term("b")))), QueryParser.parse("a NOT b"));
+        assertEquals(new Query.Or(List.of(
+                        new Query.Term(SearchField.DECISION, "ship"),
+                        new Query.Term(SearchField.DECISION, "delay"))),
+                QueryParser.parse("decision:(ship OR delay)"));
+        assertEquals(new Query.And(List.of(term("not"), term("or"))), QueryParser.parse("not or"),
+                "Lower-case operators are words");
+    }
+
+    @Test
+    void parse_unbalancedInputIsClosedLeniently() {
+        assertEquals(new Query.Phrase(null, List.of("ship", "it")), QueryParser.parse("\"ship it"));
+        assertEquals(new Query.And(List.of(term("a"), term("b"))), QueryParser.parse("(a) b)"));
+        assertEquals(term("a"), QueryParser.parse("((a"));
+        assertEquals(term("a"), QueryParser.parse("a NOT"));
+    }
+}
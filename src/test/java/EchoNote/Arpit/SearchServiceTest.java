@@ -1,17 +1,37 @@
 package EchoNote.Arpit;
 
+import EchoNote.Jack.ActionItem;
+import EchoNote.Jack.ActionStatus;
 import EchoNote.Jack.MeetingRecord;
 import EchoNote.Jack.MeetingRecordBuilder;
+import EchoNote.Jack.Participant;
+import EchoNote.Jack.ResultPage;
+import EchoNote.Jack.Summary;
+import EchoNote.Jack.Transcript;
+import EchoNote.Jack.TranscriptSource;
 import EchoNote.Jack.Workspace;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class SearchServiceTest {
 
+    @TempDir
+    Path indexDir;
+
     private MeetingRecord createRecord(String title) {
         return new MeetingRecordBuilder()
                 .withTitle(title)
@@ -65,4 +85,635 @@ public class SearchServiceTest {
         assertEquals(1, results.size(), "Only the AI Strategy meeting should match 'strategy'");
         assertSame(aiMeeting, results.get(0));
     }
+
+    private MeetingRecord createMeeting(String title, String transcript, List<String> decisions, String action) {
+        return new MeetingRecordBuilder()
+                .withTitle(title)
+                .withDate(LocalDateTime.now())
+                .withTranscript(new Transcript(transcript, TranscriptSource.LIVE))
+                .withSummary(new Summary(List.of(), decisions, ""))
+                .withActions(List.of(new ActionItem(action, new Participant("Priya", null, null), null, ActionStatus.OPEN)))
+                .build();
+    }
+
+    @Test
+    void search_matchesSummaryTranscriptAndActions() {
+        SearchService service = new SearchService(new Workspace());
+        MeetingRecord meeting = createMeeting("Weekly Sync",
+                "We talked about the hiring pipeline.", List.of("Freeze the roadmap"), "Send invoice");
+        service.index(meeting);
+
+        assertEquals(List.of(meeting), service.search("pipeline"));
+        assertEquals(List.of(meeting), service.search("ROADMAP"));
+        assertEquals(List.of(meeting), service.search("invoice"));
+        assertEquals(List.of(meeting), service.search("priya"));
+        assertTrue(service.search("payroll").isEmpty());
+    }
+
+    @Test
+    void search_ranksTitleMatchesAboveTranscriptMentions() {
+        SearchService service = new SearchService(new Workspace());
+        MeetingRecord mention = createMeeting("Weekly Sync",
+                "Someone briefly mentioned the budget before moving on to hiring and travel plans.",
+                List.of(), "Book travel");
+        MeetingRecord budgetMeeting = createMeeting("Budget Review",
+                "We went through the numbers.", List.of(), "Update spreadsheet");
+        MeetingRecord unrelated = createMeeting("Coffee Chat", "Nothing about money.", List.of(), "Buy beans");
+
+        service.index(mention);
+        service.index(budgetMeeting);
+        service.index(unrelated);
+
+        List<SearchHit> hits = service.search("budget", 10);
+
+        assertEquals(2, hits.size());
+        assertSame(budgetMeeting, hits.get(0).record());
+        assertSame(mention, hits.get(1).record());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void search_prefixOfIndexedTermStillMatches() {
+        SearchService service = new SearchService(new Workspace());
+        MeetingRecord meeting = createRecord("Budget Review");
+        service.index(meeting);
+
+        assertEquals(List.of(meeting), service.search("budg"));
+        assertEquals(List.of(meeting), service.search("budget rev"));
+    }
+
+    @Test
+    void search_substringOfIndexedTermMatches() {
+        SearchService service = new SearchService(new Workspace());
+        MeetingRecord meeting = createRecord("Budget Review");
+        service.index(meeting);
+        service.index(createRecord("Hiring Sync"));
+
+        assertEquals(List.of(meeting), service.search("dget"));
+        assertEquals(List.of(meeting), service.search("view"));
+    }
+
+    @Test
+    void search_misspelledTermsStillMatchButRankBelowExact() {
+        SearchService service = new SearchService(new Workspace());
+        MeetingRecord exact = createMeeting("Design Review", "Priyanka walked us through it.", List.of(), "Send notes");
+        MeetingRecord misspelled = createMeeting("Design Sync", "Whisper heard Priyanca this time.", List.of(), "Book room");
+        service.index(exact);
+        service.index(misspelled);
+        service.index(createRecord("Offsite"));
+
+        List<SearchHit> hits = service.search("priyanka", 10);
+        assertEquals(2, hits.size());
+        assertSame(exact, hits.get(0).record());
+        assertSame(misspelled, hits.get(1).record());
+
+        assertEquals(List.of(exact), service.search("reveiw"), "Two edits away from review");
+        assertTrue(service.search("offsight sync").isEmpty());
+    }
+
+    @Test
+    void suggest_completesTitlesTagsNamesAndTermsByFrequency() {
+        SearchService service = new SearchService(new Workspace());
+        MeetingRecord budget = createMeeting("Budget Review", "The budget is tight.", List.of(), "Send budget");
+        budget.setTags(List.of("Finance"));
+        service.index(budget);
+        service.index(createMeeting("Budget Planning", "Budget talk again.", List.of(), "Plan"));
+        service.index(createMeeting("Offsite", "Nothing about money.", List.of(), "Book"));
+
+        List<Suggestion> suggestions = service.suggest("BUD", 10);
+        assertEquals(new Suggestion("budget", SuggestionKind.TERM, 5), suggestions.get(0));
+        assertTrue(suggestions.contains(new Suggestion("Budget Review", SuggestionKind.TITLE, 1)));
+        assertTrue(suggestions.contains(new Suggestion("Budget Planning", SuggestionKind.TITLE, 1)));
+
+        assertEquals(List.of(new Suggestion("Priya", SuggestionKind.PARTICIPANT, 3)),
+                service.suggest("pri", 10).stream().filter(s -> s.kind() == SuggestionKind.PARTICIPANT).toList());
+        assertEquals(new Suggestion("Finance", SuggestionKind.TAG, 1), service.suggest("fin", 1).get(0));
+        assertTrue(service.suggest("the", 10).isEmpty(), "Stop words are not suggested");
+        assertTrue(service.suggest(" ", 10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> service.suggest("bud", 0));
+    }
+
+    @Test
+    void suggest_servesThePreviousSuggesterWhileRebuildingAfterAChange() throws Exception {
+        SearchService service = new SearchService(new Workspace());
+        service.index(createMeeting("Budget Review", "The budget is tight.", List.of(), "Send budget"));
+        assertEquals(1, service.suggest("budget", 10).stream().filter(s -> s.kind() == SuggestionKind.TITLE).count());
+
+        service.index(createMeeting("Budget Offsite", "More budget talk.", List.of(), "Book"));
+        Suggestion offsite = new Suggestion("Budget Offsite", SuggestionKind.TITLE, 1);
+        assertFalse(service.suggest("budget", 10).contains(offsite), "The rebuild runs in the background");
+
+        service.awaitSuggester();
+        assertTrue(service.suggest("budget", 10).contains(offsite));
+        assertTrue(service.suggest("offs", 10).contains(offsite));
+    }
+
+    @Test
+    void search_requiresEveryQueryTerm() {
+        SearchService service = new SearchService(new Workspace());
+        MeetingRecord aiPlanning = createRecord("AI Planning");
+        MeetingRecord aiReview = createRecord("AI Review");
+        service.index(aiPlanning);
+        service.index(aiReview);
+
+        assertEquals(List.of(aiReview), service.search("ai review"));
+        assertEquals(2, service.search("ai").size());
+    }
+
+    @Test
+    void search_quotedPhraseRequiresAdjacentWordsInOrder() {
+        SearchService service = new SearchService(new Workspace());
+        MeetingRecord phrase = createMeeting("Sync", "We agreed the budget review moves to Friday.", List.of(), "Plan");
+        MeetingRecord reversed = createMeeting("Sync", "Review the budget later.", List.of(), "Plan");
+        MeetingRecord apart = createMeeting("Sync", "The budget needs a proper review.", List.of(), "Plan");
+        service.index(phrase);
+        service.index(reversed);
+        service.index(apart);
+
+        assertEquals(List.of(phrase), service.search("\"budget review\""));
+        assertEquals(3, service.search("budget review").size());
+        assertTrue(service.search("\"budget friday\"").isEmpty());
+    }
+
+    @Test
+    void search_nearMatchesWithinDistanceInEitherOrder() {
+        SearchService service = new SearchService(new Workspace());
+        MeetingRecord close = createMeeting("Sync", "Priya sends the deck today.", List.of(), "Plan");
+        MeetingRecord reversed = createMeeting("Sync", "The deck is now something Priya owns.", List.of(), "Plan");
+        MeetingRecord far = createMeeting("Sync",
+                "Priya joined late and after a long discussion about hiring we looked at the deck.", List.of(), "Plan");
+        service.index(close);
+        service.index(reversed);
+        service.index(far);
+
+        assertEquals(List.of(close), service.search("priya NEAR/2 deck"));
+        List<MeetingRecord> nearby = service.search("priya NEAR/4 deck");
+        assertEquals(2, nearby.size());
+        assertTrue(nearby.contains(close) && nearby.contains(reversed));
+        assertEquals(3, service.search("priya NEAR/20 deck").size());
+    }
+
+    @Test
+    void search_phrasesDoNotSpanSeparateValues() {
+        SearchService service = new SearchService(new Workspace());
+        MeetingRecord meeting = createMeeting("Sync", "Nothing to report.", List.of("Freeze hiring", "Budget approved"), "Plan");
+        service.index(meeting);
+
+        assertEquals(List.of(meeting), service.search("\"budget approved\""));
+        assertTrue(service.search("\"hiring budget\"").isEmpty());
+        assertTrue(service.search("hiring NEAR/3 budget").isEmpty());
+    }
+
+    @Test
+    void search_booleanOperatorsAndFieldScopes() {
+        SearchService service = new SearchService(new Workspace());
+        MeetingRecord ship = createMeeting("Launch Review", "We talked about the budget.", List.of("Ship the beta"), "Send deck");
+        MeetingRecord delay = createMeeting("Budget Sync", "Launch is at risk.", List.of("Delay the launch"), "Book room");
+        MeetingRecord other = createMeeting("Offsite", "Nothing to report.", List.of(), "Plan offsite");
+        service.index(ship);
+        service.index(delay);
+        service.index(other);
+
+        assertEquals(List.of(delay), service.search("title:budget"));
+        assertEquals(List.of(ship), service.search("action:\"send deck\""));
+        assertEquals(2, service.search("decision:(beta OR delay)").size());
+        assertEquals(List.of(ship), service.search("launch NOT delay"));
+        assertEquals(List.of(other), service.search("NOT decision:launch NOT beta"));
+        assertEquals(2, service.search("title:launch OR title:offsite").size());
+        assertTrue(service.search("\"\"").isEmpty(), "Nothing searchable matches nothing");
+    }
+
+    @Test
+    void persisted_positionalQueriesMatchInMemoryIndex() throws Exception {
+        Workspace workspace = workspaceWithMeetings(300);
+        SearchService inMemory = new SearchService(workspace);
+        SearchService segmented = new SearchService(workspace, indexDir, 140, 8);
+        for (String query : List.of("\"team 3\"", "\"hiring plan for team\"", "roadmap NEAR/5 team",
+                "\"ship the beta\" NOT \"team 2\"", "decision:launch OR title:\"sync 12\"")) {
+            List<SearchHit> expected = inMemory.search(query, 500);
+            List<SearchHit> actual = segmented.search(query, 500);
+            assertEquals(expected.size(), actual.size(), query);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).record(), actual.get(i).record(), query);
+                assertEquals(expected.get(i).score(), actual.get(i).score(), 1e-9, query);
+            }
+        }
+        assertEquals(75, segmented.search("\"team 3\"", 500).size());
+        segmented.close();
+    }
+
+    @Test
+    void search_scoresEveryWordQueryAsTheSumOfItsWords() {
+        Workspace workspace = workspaceWithMeetings(60);
+        SearchService service = new SearchService(workspace, indexDir, 25, 8);
+        Map<MeetingRecord, Double> roadmap = scores(service.search("roadmap", 100));
+        Map<MeetingRecord, Double> team = scores(service.search("team", 100));
+        Map<MeetingRecord, Double> beta = scores(service.search("beta", 100));
+
+        Map<MeetingRecord, Double> all = scores(service.search("roadmap team beta", 100));
+        assertEquals(30, all.size());
+        for (Map.Entry<MeetingRecord, Double> hit : all.entrySet()) {
+            MeetingRecord record = hit.getKey();
+            assertEquals(roadmap.get(record) + team.get(record) + beta.get(record), hit.getValue(), 1e-9);
+        }
+        assertTrue(service.search("beta launch", 100).isEmpty(), "No meeting both ships and delays");
+        service.close();
+    }
+
+    private static Map<MeetingRecord, Double> scores(List<SearchHit> hits) {
+        Map<MeetingRecord, Double> scores = new HashMap<>();
+        for (SearchHit hit : hits) {
+            scores.put(hit.record(), hit.score());
+        }
+        return scores;
+    }
+
+    @Test
+    void persisted_olderSegmentFormatIsRebuilt() throws Exception {
+        Workspace workspace = workspaceWithMeetings(12);
+        new SearchService(workspace, indexDir, 5, 8).close();
+        Path segment = indexDir.resolve(Files.readAllLines(indexDir.resolve(SearchService.MANIFEST_FILE)).get(0));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, DiskSegment.VERSION - 1), 4);
+        }
+
+        SearchService reopened = new SearchService(workspace, indexDir, 5, 8);
+        assertEquals(12, reopened.search("\"hiring plan\"").size());
+        reopened.close();
+    }
+
+    @Test
+    void search_pagesThroughEveryMatchInSortOrder() {
+        SearchService service = new SearchService(new Workspace());
+        List<MeetingRecord> meetings = new ArrayList<>();
+        for (int i = 0; i < 57; i++) {
+            String transcript = "budget ".repeat(1 + i % 4) + "review";
+            MeetingRecord meeting = createMeeting("Sync " + (char) ('a' + i % 26) + i, transcript, List.of(), "Plan");
+            meeting.setDate(i % 10 == 0 ? null : LocalDateTime.of(2025, 1, 1, 9, 0).plusDays(i % 7));
+            service.index(meeting);
+            meetings.add(meeting);
+        }
+        service.index(createMeeting("Offsite", "Travel.", List.of(), "Book"));
+
+        for (SearchSort sort : SearchSort.values()) {
+            List<SearchHit> paged = new ArrayList<>();
+            String cursor = null;
+            do {
+                ResultPage<SearchHit> page = service.search("budget", 10, sort, cursor);
+                assertTrue(page.items().size() <= 10);
+                paged.addAll(page.items());
+                cursor = page.nextCursor();
+            } while (cursor != null);
+
+            assertEquals(57, paged.size(), sort.name());
+            assertEquals(57, paged.stream().map(hit -> hit.record().getId()).distinct().count(), sort.name());
+            for (int i = 1; i < paged.size(); i++) {
+                SearchHit previous = paged.get(i - 1);
+                SearchHit hit = paged.get(i);
+                switch (sort) {
+                    case SCORE -> assertTrue(previous.score() >= hit.score());
+                    case DATE -> assertTrue(hit.record().getDate() == null
+                            || !previous.record().getDate().isBefore(hit.record().getDate()));
+                    case TITLE -> assertTrue(previous.record().getTitle().compareToIgnoreCase(hit.record().getTitle()) <= 0);
+                }
+            }
+        }
+
+        List<SearchHit> best = service.search("budget", 5, SearchSort.SCORE, null).items();
+        assertEquals(service.search("budget", 5).stream().map(SearchHit::score).toList(),
+                best.stream().map(SearchHit::score).toList());
+        assertFalse(service.search("budget", 57, SearchSort.SCORE, null).hasMore());
+        assertEquals(58, service.search("", 100, SearchSort.DATE, null).items().size());
+    }
+
+    @Test
+    void search_sortsByDateAcrossPersistedSegments() throws Exception {
+        Workspace workspace = new Workspace();
+        List<MeetingRecord> meetings = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            MeetingRecord meeting = createMeeting("Budget " + i, "Numbers.", List.of(), "Plan");
+            meeting.setDate(LocalDateTime.of(2024, 1, 1, 9, 0).plusDays((i * 7L) % 23));
+            workspace.save(meeting);
+            meetings.add(meeting);
+        }
+        meetings.sort((a, b) -> b.getDate().compareTo(a.getDate()));
+
+        SearchService first = new SearchService(workspace, indexDir, 5, 8);
+        first.close();
+        SearchService reopened = new SearchService(workspace, indexDir, 5, 8);
+        ResultPage<SearchHit> page = reopened.search("budget", 10, SearchSort.DATE, null);
+        assertEquals(meetings.subList(0, 10), page.items().stream().map(SearchHit::record).toList());
+        page = reopened.search("budget", 10, SearchSort.DATE, page.nextCursor());
+        assertEquals(meetings.subList(10, 20), page.items().stream().map(SearchHit::record).toList());
+        reopened.close();
+    }
+
+    @Test
+    void search_cursorSurvivesChangesBetweenPages() {
+        SearchService service = new SearchService(new Workspace());
+        List<MeetingRecord> meetings = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            MeetingRecord meeting = createMeeting(String.format("Budget %02d", i), "Numbers.", List.of(), "Plan");
+            service.index(meeting);
+            meetings.add(meeting);
+        }
+
+        ResultPage<SearchHit> first = service.search("budget", 5, SearchSort.TITLE, null);
+        assertEquals(meetings.subList(0, 5), first.items().stream().map(SearchHit::record).toList());
+
+        service.remove(meetings.get(4).getId());
+        service.remove(meetings.get(5).getId());
+        service.index(createMeeting("Budget 00a", "Numbers.", List.of(), "Plan"));
+        ResultPage<SearchHit> second = service.search("budget", 5, SearchSort.TITLE, first.nextCursor());
+        assertEquals(meetings.subList(6, 11), second.items().stream().map(SearchHit::record).toList());
+
+        assertThrows(IllegalArgumentException.class, () -> service.search("budget", 5, SearchSort.DATE, first.nextCursor()));
+        assertThrows(IllegalArgumentException.class, () -> service.search("budget", 5, SearchSort.TITLE, "garbage!"));
+    }
+
+    @Test
+    void search_returnsSnippetsAroundTheBestMatches() throws Exception {
+        String filler = "we talked about other things for a while. ".repeat(40);
+        String transcript = "Budget first. " + filler + "Then the quarterly budget review for the Paris offsite was approved. "
+                + filler + "One more budget remark.";
+        MeetingRecord meeting = new MeetingRecordBuilder()
+                .withTitle("Planning")
+                .withDate(LocalDateTime.now())
+                .withTranscript(new Transcript(transcript, TranscriptSource.LIVE))
+                .withSummary(new Summary(List.of("Offsite logistics"), List.of("Approve the offsite budget"), "Mostly budgets."))
+                .build();
+        Workspace workspace = new Workspace();
+        workspace.save(meeting);
+
+        SearchService service = new SearchService(workspace);
+        List<Snippet> snippets = service.search("budget offsite", 5).get(0).snippets();
+        assertEquals(3, snippets.size());
+        Snippet best = snippets.get(0);
+        assertTrue(best.text().length() <= Highlighter.SNIPPET_CHARS);
+        assertFalse(best.text().startsWith(" ") || best.text().endsWith(" "));
+        for (Snippet snippet : snippets) {
+            String fieldText = SearchService.fieldText(meeting, snippet.field());
+            assertEquals(fieldText.substring(snippet.start(), snippet.end()).replace('\n', ' '), snippet.text());
+            for (Snippet.Highlight highlight : snippet.highlights()) {
+                String word = snippet.text().substring(highlight.start(), highlight.end()).toLowerCase();
+                assertTrue(word.startsWith("budget") || word.equals("offsite"), word);
+            }
+        }
+        assertTrue(snippets.stream().anyMatch(snippet -> snippet.field() == SearchField.TRANSCRIPT
+                && snippet.marked("[", "]").contains("[budget] review for the Paris [offsite]")));
+        assertTrue(snippets.stream().anyMatch(snippet -> snippet.field() == SearchField.SUMMARY
+                && snippet.marked("[", "]").contains("Mostly [budgets].")));
+
+        SearchService persisted = new SearchService(workspace, indexDir, 1, 8);
+        persisted.close();
+        SearchService reopened = new SearchService(workspace, indexDir, 1, 8);
+        assertEquals(snippets, reopened.search("budget offsite", 5).get(0).snippets());
+        assertEquals(List.of(), reopened.search("", 5, SearchSort.SCORE, null).items().get(0).snippets());
+        reopened.close();
+    }
+
+    @Test
+    void searchFaceted_countsAllMatchesAndDrillsDown() {
+        SearchService service = new SearchService(new Workspace());
+        for (int i = 0; i < 30; i++) {
+            MeetingRecord meeting = createMeeting("Budget Sync " + i, "Numbers.", List.of(), "Follow up");
+            meeting.setTags(List.of(i % 3 == 0 ? "Finance" : "Planning"));
+            meeting.setDate(LocalDateTime.of(2025, 1 + i % 2, 10, 9, 0));
+            service.index(meeting);
+        }
+        service.index(createMeeting("Offsite", "Travel.", List.of(), "Book"));
+
+        FacetedSearchResult result = service.searchFaceted("budget", 5, Map.of());
+        assertEquals(5, result.hits().size());
+        assertEquals(30, result.totalHits());
+        assertEquals(List.of(new FacetValue(Facet.TAG, "Planning", 20), new FacetValue(Facet.TAG, "Finance", 10)),
+                result.facets().get(Facet.TAG));
+        assertEquals(List.of(new FacetValue(Facet.OWNER, "Priya", 30)), result.facets().get(Facet.OWNER));
+        assertEquals(List.of(new FacetValue(Facet.MONTH, "2025-02", 15), new FacetValue(Facet.MONTH, "2025-01", 15)),
+                result.facets().get(Facet.MONTH));
+
+        FacetedSearchResult finance = service.searchFaceted("budget", 50,
+                Map.of(Facet.TAG, Set.of("finance"), Facet.MONTH, Set.of("2025-01")));
+        assertEquals(5, finance.totalHits());
+        assertEquals(5, finance.hits().size());
+        assertTrue(finance.hits().stream().allMatch(hit -> hit.record().getTags().equals(List.of("Finance"))));
+        assertEquals(List.of(new FacetValue(Facet.TAG, "Finance", 5)), finance.facets().get(Facet.TAG));
+
+        assertEquals(31, service.searchFaceted("", 100, null).totalHits());
+        assertEquals(0, service.searchFaceted("budget", 5, Map.of(Facet.TAG, Set.of("nope"))).totalHits());
+    }
+
+    @Test
+    void search_limitReturnsTopK() {
+        SearchService service = new SearchService(new Workspace());
+        for (int i = 0; i < 20; i++) {
+            service.index(createRecord("Standup " + i));
+        }
+
+        List<SearchHit> hits = service.search("standup", 5);
+
+        assertEquals(5, hits.size());
+        assertEquals("Standup 0", hits.get(0).record().getTitle(), "Equal scores keep indexing order");
+        assertThrows(IllegalArgumentException.class, () -> service.search("standup", 0));
+    }
+
+    @Test
+    void index_sameMeetingTwice_replacesPreviousVersion() {
+        SearchService service = new SearchService(new Workspace());
+        MeetingRecord meeting = createRecord("Draft Agenda");
+        service.index(meeting);
+
+        meeting.setTitle("Final Agenda");
+        service.index(meeting);
+
+        assertEquals(1, service.search("").size());
+        assertTrue(service.search("draft").isEmpty());
+        assertEquals(List.of(meeting), service.search("final"));
+    }
+
+    @Test
+    void constructor_indexesExistingRecordsAndFollowsWorkspaceSaves() {
+        Workspace workspace = new Workspace();
+        MeetingRecord existing = createRecord("Roadmap Review");
+        workspace.save(existing);
+
+        SearchService service = new SearchService(workspace);
+        assertEquals(List.of(existing), service.search("roadmap"));
+
+        MeetingRecord later = createRecord("Hiring Sync");
+        workspace.save(later);
+        assertEquals(List.of(later), service.search("hiring"));
+
+        existing.setTitle("Roadmap Retro");
+        workspace.save(existing);
+        assertEquals(List.of(existing), service.search("retro"));
+        assertTrue(service.search("review").isEmpty());
+    }
+
+    @Test
+    void index_update_patchesOnlyChangedPostings() {
+        SearchService service = new SearchService(new Workspace());
+        MeetingRecord meeting = createMeeting("Quarterly Planning",
+                "A long discussion about revenue targets, hiring and the product roadmap.",
+                List.of("Approve the budget"), "Draft the plan");
+        service.index(meeting);
+        long afterFirstIndex = service.getPostingsUpdated();
+
+        service.index(meeting);
+        assertEquals(afterFirstIndex, service.getPostingsUpdated(), "Re-indexing an unchanged meeting touches nothing");
+
+        meeting.setTitle("Quarterly Review");
+        service.index(meeting);
+        assertEquals(afterFirstIndex + 2, service.getPostingsUpdated(),
+                "Renaming one title word removes one posting and adds one");
+
+        assertEquals(List.of(meeting), service.search("review"));
+        assertTrue(service.search("planning").isEmpty());
+        assertEquals(List.of(meeting), service.search("roadmap"));
+    }
+
+    @Test
+    void remove_dropsMeetingFromResults() {
+        SearchService service = new SearchService(new Workspace());
+        MeetingRecord first = createRecord("Budget Review");
+        MeetingRecord second = createRecord("Budget Planning");
+        service.index(first);
+        service.index(second);
+
+        assertTrue(service.remove(first.getId()));
+        assertFalse(service.remove(first.getId()));
+
+        assertEquals(List.of(second), service.search("budget"));
+        assertEquals(1, service.size());
+    }
+
+    private Workspace workspaceWithMeetings(int count) {
+        Workspace workspace = new Workspace();
+        for (int i = 0; i < count; i++) {
+            workspace.save(createMeeting("Weekly Sync " + i,
+                    "Discussed the roadmap and hiring plan for team " + (i % 4) + ".",
+                    List.of(i % 2 == 0 ? "Ship the beta" : "Delay the launch"),
+                    "Follow up with team " + (i % 4)));
+        }
+        return workspace;
+    }
+
+    @Test
+    void persisted_reopenLoadsSegmentsInsteadOfReindexing() {
+        Workspace workspace = workspaceWithMeetings(25);
+        SearchService first = new SearchService(workspace, indexDir, 10, 8);
+        first.close();
+
+        SearchService reopened = new SearchService(workspace, indexDir, 10, 8);
+        assertEquals(0, reopened.getPostingsUpdated(), "Every meeting should come from a segment");
+        assertEquals(25, reopened.size());
+        assertEquals(25, reopened.search("roadmap").size());
+        assertEquals(13, reopened.search("beta").size());
+        reopened.close();
+    }
+
+    @Test
+    void persisted_scoresMatchInMemoryIndex() throws Exception {
+        Workspace workspace = workspaceWithMeetings(40);
+        SearchService inMemory = new SearchService(workspace);
+        SearchService segmented = new SearchService(workspace, indexDir, 7, 3);
+        segmented.awaitMerges();
+
+        for (String query : List.of("team 2", "sync", "launch", "ro", "follow hiring")) {
+            List<SearchHit> expected = inMemory.search(query, 50);
+            List<SearchHit> actual = segmented.search(query, 50);
+            assertEquals(expected.size(), actual.size(), query);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).score(), actual.get(i).score(), 1e-9, query);
+            }
+        }
+        segmented.close();
+    }
+
+    @Test
+    void merges_keepSegmentCountBoundedAndResultsComplete() throws Exception {
+        Workspace workspace = workspaceWithMeetings(60);
+        SearchService service = new SearchService(workspace, indexDir, 3, 4);
+        service.awaitMerges();
+
+        assertTrue(service.getSegmentCount() <= 4, "Segments: " + service.getSegmentCount());
+        assertEquals(60, service.search("weekly").size());
+        service.close();
+
+        SearchService reopened = new SearchService(workspace, indexDir, 3, 4);
+        assertEquals(60, reopened.search("weekly").size());
+        assertEquals(0, reopened.getPostingsUpdated());
+        reopened.close();
+    }
+
+    @Test
+    void persisted_updatedAndStaleMeetingsAreNotServedFromOldSegments() {
+        Workspace workspace = workspaceWithMeetings(10);
+        MeetingRecord edited = workspace.getAll().get(3);
+        MeetingRecord unsaved = createRecord("Scratch Notes");
+
+        SearchService service = new SearchService(workspace, indexDir, 5, 8);
+        service.index(unsaved);
+        service.flush();
+        edited.setTitle("Offsite Planning");
+        workspace.save(edited);
+
+        assertEquals(List.of(edited), service.search("offsite"));
+        assertEquals(9, service.search("weekly").size());
+        service.close();
+
+        SearchService reopened = new SearchService(workspace, indexDir, 5, 8);
+        assertEquals(List.of(edited), reopened.search("offsite"));
+        assertEquals(9, reopened.search("weekly").size());
+        assertTrue(reopened.search("scratch").isEmpty(), "Meetings not in the workspace are dropped");
+        reopened.close();
+    }
+
+    @Test
+    void persisted_failedFlushIsReportedAndRetriedByTheNextFlush() throws Exception {
+        Workspace workspace = new Workspace();
+        SearchService service = new SearchService(workspace, indexDir, 5, 8);
+        // A directory where a segment's temp file should go makes writing it fail.
+        List<Path> blockers = new ArrayList<>();
+        for (int generation = 0; generation < 10; generation++) {
+            blockers.add(Files.createDirectories(indexDir.resolve("seg_" + generation + ".idx.tmp")));
+        }
+        for (MeetingRecord meeting : workspaceWithMeetings(12).getAll()) {
+            workspace.save(meeting);
+        }
+
+        assertThrows(SearchIndexException.class, service::awaitMerges);
+        assertEquals(0, service.getSegmentCount());
+        assertEquals(12, service.search("weekly").size());
+
+        for (Path blocker : blockers) {
+            Files.delete(blocker);
+        }
+        service.close();
+
+        SearchService reopened = new SearchService(workspace, indexDir, 5, 8);
+        assertEquals(0, reopened.getPostingsUpdated(), "Every meeting should come from a segment");
+        assertEquals(12, reopened.search("weekly").size());
+        reopened.close();
+    }
+
+    @Test
+    void persisted_deletionsNotSavedBeforeACrashRebuildTheIndex() throws Exception {
+        Workspace workspace = workspaceWithMeetings(10);
+        SearchService crashed = new SearchService(workspace, indexDir, 5, 8);
+        crashed.awaitMerges();
+        MeetingRecord edited = workspace.getAll().get(3);
+        edited.setTitle("Offsite Planning");
+        workspace.save(edited);
+
+        assertTrue(Files.exists(indexDir.resolve(SearchService.PENDING_DELETIONS_FILE)));
+        assertEquals(9, crashed.search("weekly").size());
+
+        SearchService reopened = new SearchService(workspace, indexDir, 5, 8);
+        assertTrue(reopened.getPostingsUpdated() > 0, "The index should be rebuilt");
+        assertEquals(List.of(edited), reopened.search("offsite"));
+        assertEquals(9, reopened.search("weekly").size());
+        reopened.close();
+        assertFalse(Files.exists(indexDir.resolve(SearchService.PENDING_DELETIONS_FILE)));
+    }
 }
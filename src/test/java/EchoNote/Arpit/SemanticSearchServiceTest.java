@@ -0,0 +1,204 @@
+package EchoNote.Arpit;
+
+import EchoNote.Jack.MeetingRecord;
+import EchoNote.Jack.MeetingRecordBuilder;
+import EchoNote.Jack.Summary;
+import EchoNote.Jack.Transcript;
+import EchoNote.Jack.TranscriptSource;
+import EchoNote.Jack.Workspace;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SemanticSearchServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    /** Counts the passages and queries it embeds. */
+    private static final class CountingEmbedder implements EmbeddingProvider {
+        private final HashedNgramEmbedder hashed = new HashedNgramEmbedder();
+        private final AtomicInteger embedded = new AtomicInteger();
+
+        @Override
+        public int dimensions() {
+            return hashed.dimensions();
+        }
+
+        @Override
+        public float[] embed(String text) {
+            embedded.incrementAndGet();
+            return hashed.embed(text);
+        }
+    }
+
+    private MeetingRecord createMeeting(String title, String transcript, List<String> decisions) {
+        return new MeetingRecordBuilder()
+                .withTitle(title)
+                .withDate(LocalDateTime.now())
+                .withTranscript(new Transcript(transcript, TranscriptSource.LIVE))
+                .withSummary(new Summary(List.of(), decisions, ""))
+                .build();
+    }
+
+    private static String filler(int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append("filler").append(i % 7).append(' ');
+        }
+        return text.toString();
+    }
+
+    @Test
+    void search_matchesWordFormsAndReportsThePassage() throws Exception {
+        Workspace workspace = new Workspace();
+        String transcript = filler(100) + "we are overspending on cloud hosting every month " + filler(100);
+        MeetingRecord cloud = createMeeting("Infra Sync", transcript, List.of());
+        workspace.save(cloud);
+        workspace.save(createMeeting("Hiring Sync", "Two candidates for the designer role.", List.of("Hire both")));
+        SemanticSearchService service = new SemanticSearchService(workspace);
+        service.awaitIndexing();
+
+        List<SemanticHit> hits = service.search("cloud hosting spend", 1);
+        assertEquals(1, hits.size());
+        SemanticHit hit = hits.get(0);
+        assertSame(cloud, hit.record());
+        assertEquals(SearchField.TRANSCRIPT, hit.field());
+        assertEquals(transcript.substring(hit.start(), hit.end()), hit.text());
+        assertTrue(hit.text().contains("overspending on cloud hosting"));
+        service.close();
+    }
+
+    @Test
+    void search_ranksMeetingsByBestPassageOncePerMeeting() throws Exception {
+        Workspace workspace = new Workspace();
+        MeetingRecord ship = createMeeting("Launch", filler(200), List.of("Ship the beta on Friday"));
+        MeetingRecord delay = createMeeting("Launch", filler(200), List.of("Delay the beta launch"));
+        workspace.save(ship);
+        workspace.save(delay);
+        SemanticSearchService service = new SemanticSearchService(workspace);
+        service.awaitIndexing();
+
+        List<SemanticHit> hits = service.search("ship beta friday", 5);
+        assertEquals(ship, hits.get(0).record());
+        assertEquals(SearchField.DECISION, hits.get(0).field());
+        assertEquals(hits.size(), hits.stream().map(SemanticHit::record).distinct().count());
+        assertTrue(service.search("  ", 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> service.search("beta", 0));
+    }
+
+    @Test
+    void index_followsWorkspaceSavesAndReplacesOldPassages() throws Exception {
+        Workspace workspace = new Workspace();
+        MeetingRecord meeting = createMeeting("Planning", "We discussed the office relocation.", List.of());
+        workspace.save(meeting);
+        SemanticSearchService service = new SemanticSearchService(workspace);
+        service.awaitIndexing();
+        int passages = service.getPassageCount();
+
+        for (int i = 0; i < 5; i++) {
+            meeting.setTranscript(new Transcript("Vendor contract renewal, take " + i, TranscriptSource.LIVE));
+            workspace.save(meeting);
+        }
+        service.awaitIndexing();
+        assertEquals(passages, service.getPassageCount());
+        assertEquals(meeting, service.search("vendor contract", 1).get(0).record());
+        assertFalse(service.search("office relocation", 1).stream()
+                .anyMatch(hit -> hit.text().contains("relocation")));
+
+        assertTrue(service.remove(meeting.getId()));
+        assertTrue(service.search("vendor contract", 1).isEmpty());
+        assertEquals(0, service.size());
+        service.close();
+    }
+
+    @Test
+    void index_skipsReembeddingWhenTranscriptAndSummaryAreUnchanged() throws Exception {
+        CountingEmbedder counting = new CountingEmbedder();
+        AtomicInteger embedded = counting.embedded;
+        Workspace workspace = new Workspace();
+        MeetingRecord meeting = createMeeting("Planning", filler(100), List.of("Move the offsite"));
+        workspace.save(meeting);
+        SemanticSearchService service = new SemanticSearchService(workspace, counting);
+        service.awaitIndexing();
+        int initial = embedded.get();
+
+        meeting.setTitle("Quarterly Planning");
+        workspace.save(meeting);
+        service.awaitIndexing();
+        assertEquals(initial, embedded.get(), "A title change should not re-embed passages");
+
+        meeting.setSummary(new Summary(List.of(), List.of("Cancel the offsite"), ""));
+        workspace.save(meeting);
+        service.awaitIndexing();
+        assertTrue(embedded.get() > initial);
+        assertEquals(meeting, service.search("cancel offsite", 1).get(0).record());
+        service.close();
+    }
+
+    @Test
+    void close_savesTheIndexAndTheNextStartLoadsItWithoutReembedding() throws Exception {
+        Workspace workspace = new Workspace();
+        MeetingRecord cloud = createMeeting("Infra Sync", filler(100) + "we are overspending on cloud hosting", List.of());
+        workspace.save(cloud);
+        workspace.save(createMeeting("Hiring Sync", "Two candidates for the designer role.", List.of("Hire both")));
+        SemanticSearchService first = new SemanticSearchService(workspace, new CountingEmbedder(), tempDir);
+        first.awaitIndexing();
+        int passages = first.getPassageCount();
+        first.close();
+        assertTrue(Files.exists(tempDir.resolve(SemanticSearchService.INDEX_FILE)));
+
+        CountingEmbedder counting = new CountingEmbedder();
+        SemanticSearchService second = new SemanticSearchService(workspace, counting, tempDir);
+        second.awaitIndexing();
+
+        assertEquals(0, counting.embedded.get(), "Unchanged meetings should come from the saved index");
+        assertEquals(passages, second.getPassageCount());
+        assertEquals(2, second.size());
+        assertSame(cloud, second.search("cloud hosting spend", 1).get(0).record());
+        second.close();
+    }
+
+    @Test
+    void startup_reembedsOnlyMeetingsChangedSinceTheIndexWasSaved() throws Exception {
+        Workspace workspace = new Workspace();
+        MeetingRecord offsite = createMeeting("Planning", filler(100), List.of("Move the offsite"));
+        workspace.save(offsite);
+        workspace.save(createMeeting("Hiring Sync", filler(200), List.of("Hire both")));
+        SemanticSearchService first = new SemanticSearchService(workspace, new CountingEmbedder(), tempDir);
+        first.awaitIndexing();
+        first.close();
+
+        offsite.setSummary(new Summary(List.of(), List.of("Cancel the offsite"), ""));
+        workspace.save(offsite);
+        CountingEmbedder counting = new CountingEmbedder();
+        SemanticSearchService service = new SemanticSearchService(workspace, counting, tempDir);
+        service.awaitIndexing();
+
+        // Three transcript windows and one decision for the changed meeting only.
+        assertEquals(4, counting.embedded.get());
+        assertEquals(offsite, service.search("cancel offsite", 1).get(0).record());
+        service.close();
+    }
+
+    @Test
+    void startup_unreadableSavedIndex_rebuildsFromTheWorkspace() throws Exception {
+        Workspace workspace = new Workspace();
+        MeetingRecord cloud = createMeeting("Infra Sync", "we are overspending on cloud hosting", List.of());
+        workspace.save(cloud);
+        Files.write(tempDir.resolve(SemanticSearchService.INDEX_FILE), new byte[] {1, 2, 3});
+
+        SemanticSearchService service = new SemanticSearchService(workspace, tempDir);
+        service.awaitIndexing();
+
+        assertSame(cloud, service.search("cloud hosting spend", 1).get(0).record());
+        service.close();
+    }
+}
@@ -0,0 +1,100 @@
+package EchoNote.Arpit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TermDictionaryTest {
+
+    private static TermDictionary dictionaryOf(String... terms) {
+        TermDictionary dictionary = new TermDictionary();
+        for (String term : terms) {
+            dictionary.add(term);
+        }
+        return dictionary;
+    }
+
+    private static int editDistance(String a, String b) {
+        int[] row = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            row[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int diagonal = row[0];
+            row[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int above = row[j];
+                row[j] = Math.min(Math.min(row[j] + 1, row[j - 1] + 1),
+                        diagonal + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1));
+                diagonal = above;
+            }
+        }
+        return row[b.length()];
+    }
+
+    @Test
+    void containing_findsTermsWithFragmentAnywhere() {
+        TermDictionary dictionary = dictionaryOf("budget", "budgets", "nudge", "gadget", "review");
+
+        assertEquals(List.of("budget", "budgets", "gadget"), dictionary.containing("dget"));
+        assertEquals(List.of("budget", "budgets", "nudge"), dictionary.containing("udg"));
+        assertEquals(List.of("budget", "budgets", "gadget", "nudge"), dictionary.containing("dg"));
+        assertTrue(dictionary.containing("gdet").isEmpty());
+    }
+
+    @Test
+    void containing_requiresFragmentInOnePiece() {
+        TermDictionary dictionary = dictionaryOf("abcxbcd");
+
+        assertTrue(dictionary.containing("abcd").isEmpty(), "Shares abc and bcd but not abcd");
+        assertEquals(List.of("abcxbcd"), dictionary.containing("xbcd"));
+    }
+
+    @Test
+    void withinDistance_matchesTyposInNames() {
+        TermDictionary dictionary = dictionaryOf("priya", "priyanka", "maria", "mario", "marion", "sam");
+
+        assertEquals(List.of(new TermDictionary.Match("priya", 1)), dictionary.withinDistance("prija", 1));
+        assertEquals(List.of(new TermDictionary.Match("maria", 1), new TermDictionary.Match("mario", 0),
+                new TermDictionary.Match("marion", 1)), dictionary.withinDistance("mario", 1));
+        assertTrue(dictionary.withinDistance("xyz", 2).isEmpty());
+    }
+
+    @Test
+    void randomDictionary_agreesWithLinearScan() {
+        Random random = new Random(42);
+        TreeSet<String> terms = new TreeSet<>();
+        TermDictionary dictionary = new TermDictionary();
+        for (int i = 0; i < 3_000; i++) {
+            StringBuilder term = new StringBuilder();
+            int length = 2 + random.nextInt(8);
+            for (int c = 0; c < length; c++) {
+                term.append((char) ('a' + random.nextInt(6)));
+            }
+            terms.add(term.toString());
+            dictionary.add(term.toString());
+        }
+
+        for (String query : List.of("abc", "fed", "aaaa", "bcdef", "ab", "cafe", "eeeeeee")) {
+            List<String> expectedContaining = new ArrayList<>();
+            List<TermDictionary.Match> expectedFuzzy = new ArrayList<>();
+            for (String term : terms) {
+                if (term.contains(query)) {
+                    expectedContaining.add(term);
+                }
+                int distance = editDistance(query, term);
+                if (distance <= 2) {
+                    expectedFuzzy.add(new TermDictionary.Match(term, distance));
+                }
+            }
+
+            assertEquals(expectedContaining, dictionary.containing(query), query);
+            assertEquals(expectedFuzzy, dictionary.withinDistance(query, 2), query);
+        }
+    }
+}
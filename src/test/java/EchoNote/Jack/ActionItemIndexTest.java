@@ -0,0 +1,89 @@
+package EchoNote.Jack;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ActionItemIndexTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 6, 2);
+
+    private ActionItem action(String title, String owner, LocalDate due, ActionStatus status) {
+        return new ActionItem(title, owner != null ? new Participant(owner, null, null) : null, due, status);
+    }
+
+    private MeetingRecord meeting(String title, ActionItem... actions) {
+        return new MeetingRecordBuilder()
+                .withTitle(title)
+                .withDate(LocalDateTime.now())
+                .withActions(List.of(actions))
+                .build();
+    }
+
+    private List<String> titles(List<ActionItemHit> hits) {
+        return hits.stream().map(hit -> hit.item().getTitle()).toList();
+    }
+
+    @Test
+    void find_filtersByOwnerStatusAndDueRange() {
+        Workspace workspace = new Workspace();
+        MeetingRecord planning = meeting("Planning",
+                action("Draft budget", "Priya", MONDAY.plusDays(3), ActionStatus.OPEN),
+                action("Book room", "priya ", MONDAY.plusDays(1), ActionStatus.OPEN),
+                action("Send notes", "Priya", MONDAY.plusDays(2), ActionStatus.DONE),
+                action("Next quarter", "Priya", MONDAY.plusWeeks(2), ActionStatus.OPEN),
+                action("Someday", "Priya", null, ActionStatus.OPEN));
+        MeetingRecord standup = meeting("Standup",
+                action("Fix build", "Sam", MONDAY.plusDays(1), ActionStatus.OPEN),
+                action("Last week", "Priya", MONDAY.minusDays(1), ActionStatus.OPEN),
+                action("Unowned", null, MONDAY.plusDays(4), ActionStatus.OPEN));
+        workspace.save(planning);
+        workspace.save(standup);
+
+        try (ActionItemIndex index = new ActionItemIndex(workspace)) {
+            List<ActionItemHit> dueThisWeek = index.find(" PRIYA", ActionStatus.OPEN, MONDAY, MONDAY.plusWeeks(1));
+            assertEquals(List.of("Book room", "Draft budget"), titles(dueThisWeek));
+            assertEquals(planning.getId(), dueThisWeek.get(0).meetingId());
+
+            assertEquals(List.of("Last week", "Book room", "Send notes", "Draft budget", "Next quarter", "Someday"),
+                    titles(index.find("priya", null, null, null)));
+            assertEquals(List.of("Book room", "Fix build", "Draft budget", "Unowned"),
+                    titles(index.find(null, ActionStatus.OPEN, MONDAY, MONDAY.plusWeeks(1))));
+            assertEquals(List.of("Next quarter"), titles(index.find("Priya", null, MONDAY.plusDays(5), null)));
+            assertEquals(List.of("Last week"), titles(index.find("Priya", ActionStatus.OPEN, null, MONDAY)));
+            assertEquals(List.of(), index.find("Nobody", null, null, null));
+            assertEquals(8, index.size());
+            assertThrows(IllegalArgumentException.class, () -> index.find(null, null, MONDAY, MONDAY.minusDays(1)));
+        }
+    }
+
+    @Test
+    void index_followsSavesAndCapturesItemsAtSaveTime() {
+        Workspace workspace = new Workspace();
+        ActionItem budget = action("Draft budget", "Priya", MONDAY, ActionStatus.OPEN);
+        MeetingRecord planning = meeting("Planning", budget);
+        workspace.save(planning);
+        ActionItemIndex index = new ActionItemIndex(workspace);
+
+        budget.setStatus(ActionStatus.DONE);
+        assertEquals(List.of("Draft budget"), titles(index.find("Priya", ActionStatus.OPEN, null, null)));
+
+        workspace.save(planning);
+        assertEquals(List.of(), index.find("Priya", ActionStatus.OPEN, null, null));
+        assertEquals(List.of("Draft budget"), titles(index.find("Priya", ActionStatus.DONE, null, null)));
+
+        planning.setActions(List.of(action("Hire", "Sam", MONDAY, ActionStatus.OPEN)));
+        workspace.save(planning);
+        assertEquals(List.of(), index.find("Priya", null, null, null));
+        assertEquals(List.of("Hire"), titles(index.find("sam", ActionStatus.OPEN, MONDAY, MONDAY.plusDays(1))));
+        assertEquals(1, index.size());
+
+        index.close();
+        workspace.save(meeting("Later", action("Ignored", "Sam", MONDAY, ActionStatus.OPEN)));
+        assertEquals(1, index.size());
+    }
+}
@@ -0,0 +1,210 @@
+package EchoNote.Jack;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkspaceStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MeetingRecord createRecord(String title) {
+        Participant priya = new Participant("Priya", "priya@example.com", "PM");
+        ActionItem action = new ActionItem("Send deck", priya, LocalDate.of(2025, 3, 14), ActionStatus.DONE);
+
+        MeetingRecord record = new MeetingRecordBuilder()
+                .withTitle(title)
+                .withTags(List.of("planning", "q3"))
+                .withDate(LocalDateTime.of(2025, 3, 1, 9, 30, 15, 123_000_000))
+                .withParticipants(List.of(priya, new Participant("Sam", null, null)))
+                .withTranscript(new Transcript("t1", "We agreed to ship. Priya sends the deck.",
+                        List.of("[00:00:00.000 - 00:00:04.000] We agreed to ship."), TranscriptSource.LIVE))
+                .withSummary(new Summary(List.of("Release"), List.of("Ship on Friday"), "Short call"))
+                .withActions(List.of(action, new ActionItem("Book room", null, null, ActionStatus.OPEN)))
+                .build();
+        record.setAudioFilePath("recordings/meeting.wav");
+        record.setStatus(ApprovalStatus.APPROVED);
+        return record;
+    }
+
+    private Workspace open() {
+        return new Workspace(new WorkspaceStore(tempDir));
+    }
+
+    @Test
+    void reopen_replaysSavedRecordsWithAllFields() {
+        MeetingRecord original = createRecord("Planning");
+        try (Workspace workspace = open()) {
+            workspace.save(original);
+        }
+
+        try (Workspace reopened = open()) {
+            MeetingRecord loaded = reopened.getById(original.getId());
+
+            assertEquals("Planning", loaded.getTitle());
+            assertEquals(List.of("planning", "q3"), loaded.getTags());
+            assertEquals(original.getDate(), loaded.getDate());
+            assertEquals(ApprovalStatus.APPROVED, loaded.getStatus());
+            assertEquals("recordings/meeting.wav", loaded.getAudioFilePath());
+
+            assertEquals(2, loaded.getParticipants().size());
+            assertEquals("priya@example.com", loaded.getParticipants().get(0).getEmail());
+            assertNull(loaded.getParticipants().get(1).getEmail());
+
+            assertEquals("We agreed to ship. Priya sends the deck.", loaded.getTranscript().getRawText());
+            assertEquals(original.getTranscript().getTimestamps(), loaded.getTranscript().getTimestamps());
+            assertEquals(TranscriptSource.LIVE, loaded.getTranscript().getSource());
+
+            assertEquals(original.getSummary().getId(), loaded.getSummary().getId());
+            assertEquals(List.of("Ship on Friday"), loaded.getSummary().getDecisions());
+            assertEquals("Short call", loaded.getSummary().getNotes());
+
+            ActionItem action = loaded.getActions().get(0);
+            assertEquals(original.getActions().get(0).getId(), action.getId());
+            assertEquals(LocalDate.of(2025, 3, 14), action.getDueDate());
+            assertEquals(ActionStatus.DONE, action.getStatus());
+            assertEquals("Priya", action.getOwner().getName());
+            assertNull(loaded.getActions().get(1).getOwner());
+        }
+    }
+
+    @Test
+    void reopen_resavedRecordKeepsLatestVersionAndOrder() {
+        MeetingRecord first = createRecord("First");
+        MeetingRecord second = createRecord("Second");
+        try (Workspace workspace = open()) {
+            workspace.save(first);
+            workspace.save(second);
+            first.setTitle("First (edited)");
+            workspace.save(first);
+        }
+
+        try (Workspace reopened = open()) {
+            List<MeetingRecord> all = reopened.getAll();
+            assertEquals(2, all.size());
+            assertEquals("Second", all.get(0).getTitle());
+            assertEquals("First (edited)", all.get(1).getTitle());
+        }
+    }
+
+    @Test
+    void load_tornTailIsDroppedAndLaterSavesSurvive() throws IOException {
+        MeetingRecord kept = createRecord("Kept");
+        try (Workspace workspace = open()) {
+            workspace.save(kept);
+            workspace.save(createRecord("Torn"));
+        }
+
+        Path log = tempDir.resolve(WorkspaceStore.LOG_FILE);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(log) - 10);
+        }
+
+        MeetingRecord afterCrash = createRecord("After crash");
+        try (Workspace workspace = open()) {
+            assertEquals(List.of("Kept"), workspace.getAll().stream().map(MeetingRecord::getTitle).toList());
+            workspace.save(afterCrash);
+        }
+
+        try (Workspace reopened = open()) {
+            assertEquals(List.of("Kept", "After crash"),
+                    reopened.getAll().stream().map(MeetingRecord::getTitle).toList());
+        }
+    }
+
+    @Test
+    void compaction_foldsLogIntoSnapshot() throws IOException {
+        List<MeetingRecord> saved = new ArrayList<>();
+        WorkspaceStore store = new WorkspaceStore(tempDir, 4096);
+        try (Workspace workspace = new Workspace(store)) {
+            for (int i = 0; i < 50; i++) {
+                MeetingRecord record = createRecord("Meeting " + i);
+                saved.add(record);
+                workspace.save(record);
+                workspace.save(record);
+            }
+            Path snapshot = tempDir.resolve(WorkspaceStore.SNAPSHOT_FILE);
+            assertTrue(Files.exists(snapshot), "Log should have been compacted");
+            assertTrue(store.getLogSize() < Files.size(snapshot),
+                    "Log should be truncated once it outgrows the snapshot");
+        }
+
+        try (Workspace reopened = open()) {
+            List<MeetingRecord> all = reopened.getAll();
+            assertEquals(50, all.size());
+            for (int i = 0; i < 50; i++) {
+                assertEquals(saved.get(i).getId(), all.get(i).getId());
+            }
+        }
+    }
+
+    @Test
+    void concurrentSaves_shareFsyncs() throws Exception {
+        WorkspaceStore store = new WorkspaceStore(tempDir);
+        Workspace workspace = new Workspace(store);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            MeetingRecord record = createRecord("Concurrent " + i);
+            futures.add(pool.submit(() -> workspace.save(record)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        workspace.close();
+
+        assertTrue(store.getSyncCount() <= 400);
+        try (Workspace reopened = open()) {
+            assertEquals(400, reopened.getAll().size());
+        }
+    }
+
+    @Test
+    void load_hundredThousandMeetings_isFast() {
+        List<MeetingRecord> records = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            MeetingRecord record = new MeetingRecord();
+            record.setTitle("Meeting " + i);
+            record.setTags(List.of("team", "weekly"));
+            record.setDate(LocalDateTime.of(2025, 1, 1, 9, 0).plusHours(i));
+            record.setSummary(new Summary(List.of("Topic " + i), List.of(), "Notes for meeting " + i));
+            records.add(record);
+        }
+        WorkspaceStore writer = new WorkspaceStore(tempDir);
+        writer.load();
+        writer.compact(records);
+        writer.close();
+
+        WorkspaceStore store = new WorkspaceStore(tempDir);
+        try (Workspace workspace = new Workspace(store)) {
+            assertEquals(100_000, workspace.getAll().size());
+            assertTrue(store.getLastLoadDuration().toMillis() < 5_000,
+                    "Loading 100k meetings took " + store.getLastLoadDuration().toMillis() + " ms");
+        }
+    }
+
+    @Test
+    void append_beforeLoad_throwsIllegalStateException() {
+        WorkspaceStore store = new WorkspaceStore(tempDir);
+
+        assertThrows(IllegalStateException.class, () -> store.append(createRecord("Too early")));
+        store.close();
+    }
+}
@@ -3,9 +3,18 @@ package EchoNote.Jack;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -88,6 +97,36 @@ public class WorkspaceTest {
                 "Blank query should return all stored records");
     }
 
+    @Test
+    void findByQuery_pagesInSaveOrderWithCursor() {
+        Workspace workspace = new Workspace();
+        List<MeetingRecord> planning = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            MeetingRecord record = createRecord("Planning " + i);
+            workspace.save(record);
+            planning.add(record);
+            workspace.save(createRecord("Coffee " + i));
+        }
+
+        List<MeetingRecord> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ResultPage<MeetingRecord> page = workspace.findByQuery("planning", 10, cursor);
+            assertTrue(page.items().size() <= 10);
+            paged.addAll(page.items());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(planning, paged);
+        assertFalse(workspace.findByQuery("planning", 25, null).hasMore());
+        assertEquals(50, workspace.findByQuery(null, 100, null).items().size());
+        assertThrows(IllegalArgumentException.class, () -> workspace.findByQuery("planning", 10, "not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> workspace.findByQuery("planning", 0, null));
+    }
+
     @Test
     void getById_unknownUuid_throwsRecordNotFoundException() {
         Workspace workspace = new Workspace();
@@ -106,4 +145,196 @@ public class WorkspaceTest {
                 () -> workspace.getById("  "),
                 "Blank id string should throw IllegalArgumentException");
     }
+
+    @Test
+    void save_keepsInsertionOrderAndMovesResavedRecordToEnd() {
+        Workspace workspace = new Workspace();
+        MeetingRecord first = createRecord("First");
+        MeetingRecord second = createRecord("Second");
+        MeetingRecord third = createRecord("Third");
+
+        workspace.save(first);
+        workspace.save(second);
+        workspace.save(third);
+        workspace.save(first);
+
+        assertEquals(List.of(second, third, first), workspace.getAll());
+        assertEquals(3, workspace.size());
+    }
+
+    @Test
+    void concurrentReadsDuringSaves_seeEveryRecordExactlyOnce() throws Exception {
+        Workspace workspace = new Workspace();
+        List<MeetingRecord> baseline = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            MeetingRecord record = createRecord("Baseline " + i, "base");
+            baseline.add(record);
+            workspace.save(record);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(4);
+        ExecutorService pool = Executors.newFixedThreadPool(5);
+        List<Future<Integer>> readers = new ArrayList<>();
+
+        for (int r = 0; r < 4; r++) {
+            readers.add(pool.submit(() -> {
+                started.countDown();
+                int reads = 0;
+                while (running.get()) {
+                    List<MeetingRecord> all = workspace.getAll();
+                    Set<UUID> ids = new HashSet<>();
+                    for (MeetingRecord record : all) {
+                        assertTrue(ids.add(record.getId()), "A record appeared twice in one scan");
+                    }
+                    for (MeetingRecord record : baseline) {
+                        assertTrue(ids.contains(record.getId()), "A re-saved record went missing from a scan");
+                        assertSame(record, workspace.getById(record.getId()));
+                    }
+                    assertTrue(workspace.findByQuery("base").size() >= baseline.size());
+                    reads++;
+                }
+                return reads;
+            }));
+        }
+
+        Future<?> writer = pool.submit(() -> {
+            Random random = new Random(42);
+            try {
+                started.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (int i = 0; i < 20_000; i++) {
+                if (i % 10 == 0) {
+                    workspace.save(createRecord("New " + i));
+                } else {
+                    workspace.save(baseline.get(random.nextInt(baseline.size())));
+                }
+            }
+            running.set(false);
+        });
+
+        writer.get();
+        for (Future<Integer> reader : readers) {
+            assertTrue(reader.get() > 0);
+        }
+        pool.shutdown();
+
+        assertEquals(500 + 2_000, workspace.size());
+        assertEquals(workspace.size(), workspace.getAll().size());
+    }
+
+    @Test
+    void findByTag_matchesNormalizedTagInSaveOrder() {
+        Workspace workspace = new Workspace();
+        MeetingRecord kickoff = createRecord("Kickoff", " Client ", "alpha");
+        MeetingRecord review = createRecord("Review", "client");
+        MeetingRecord social = createRecord("Coffee Chat", "clients");
+
+        workspace.save(kickoff);
+        workspace.save(review);
+        workspace.save(social);
+
+        assertEquals(List.of(kickoff, review), workspace.findByTag("CLIENT"));
+        assertTrue(workspace.findByTag("unknown").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> workspace.findByTag(" "));
+    }
+
+    @Test
+    void findByTag_resavedRecordIsReindexed() {
+        Workspace workspace = new Workspace();
+        MeetingRecord record = createRecord("Planning", "draft-notes");
+        workspace.save(record);
+
+        record.setTags(List.of("final"));
+        assertEquals(List.of(record), workspace.findByTag("draft-notes"),
+                "Indexes reflect the last saved version until the record is saved again");
+
+        workspace.save(record);
+        assertTrue(workspace.findByTag("draft-notes").isEmpty());
+        assertEquals(List.of(record), workspace.findByTag("final"));
+    }
+
+    @Test
+    void findByDateRange_returnsRecordsInRangeOldestFirst() {
+        Workspace workspace = new Workspace();
+        LocalDateTime monday = LocalDateTime.of(2025, 3, 3, 9, 0);
+        MeetingRecord lastWeek = new MeetingRecordBuilder().withTitle("Last week").withDate(monday.minusDays(7)).build();
+        MeetingRecord thursday = new MeetingRecordBuilder().withTitle("Thursday").withDate(monday.plusDays(3)).build();
+        MeetingRecord mondayMeeting = new MeetingRecordBuilder().withTitle("Monday").withDate(monday).build();
+        MeetingRecord undated = new MeetingRecordBuilder().withTitle("Undated").build();
+
+        workspace.save(lastWeek);
+        workspace.save(thursday);
+        workspace.save(mondayMeeting);
+        workspace.save(undated);
+
+        assertEquals(List.of(mondayMeeting, thursday), workspace.findByDateRange(monday, monday.plusDays(7)));
+        assertEquals(List.of(lastWeek), workspace.findByDateRange(null, monday));
+        assertEquals(3, workspace.findByDateRange(null, null).size());
+
+        thursday.setDate(monday.plusDays(10));
+        workspace.save(thursday);
+        assertEquals(List.of(mondayMeeting), workspace.findByDateRange(monday, monday.plusDays(7)));
+
+        assertThrows(IllegalArgumentException.class, () -> workspace.findByDateRange(monday, lastWeek.getDate()));
+    }
+
+    @Test
+    void findByStatus_tracksApprovalChangesOnSave() {
+        Workspace workspace = new Workspace();
+        MeetingRecord draft = createRecord("Draft");
+        MeetingRecord approved = createRecord("Approved");
+        approved.setStatus(ApprovalStatus.APPROVED);
+
+        workspace.save(draft);
+        workspace.save(approved);
+
+        assertEquals(List.of(draft), workspace.findByStatus(ApprovalStatus.DRAFT));
+        assertEquals(List.of(approved), workspace.findByStatus(ApprovalStatus.APPROVED));
+
+        draft.setStatus(ApprovalStatus.APPROVED);
+        workspace.save(draft);
+
+        assertTrue(workspace.findByStatus(ApprovalStatus.DRAFT).isEmpty());
+        assertEquals(List.of(approved, draft), workspace.findByStatus(ApprovalStatus.APPROVED));
+    }
+
+    @Test
+    void save_notifiesListenersInOrderUntilRemoved() {
+        Workspace workspace = new Workspace();
+        List<MeetingRecord> seen = new ArrayList<>();
+        WorkspaceListener listener = seen::add;
+        workspace.addListener(listener);
+
+        MeetingRecord first = createRecord("First");
+        MeetingRecord second = createRecord("Second");
+        workspace.save(first);
+        workspace.save(second);
+        workspace.save(first);
+
+        workspace.removeListener(listener);
+        workspace.save(createRecord("Unobserved"));
+
+        assertEquals(List.of(first, second, first), seen);
+        assertThrows(IllegalArgumentException.class, () -> workspace.addListener(null));
+    }
+
+    @Test
+    void save_keepsTheRecordAndNotifiesLaterListenersWhenOneFails() {
+        Workspace workspace = new Workspace();
+        List<MeetingRecord> seen = new ArrayList<>();
+        workspace.addListener(record -> {
+            throw new IllegalStateException("index unavailable");
+        });
+        workspace.addListener(seen::add);
+
+        MeetingRecord record = createRecord("Planning");
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> workspace.save(record));
+
+        assertEquals("index unavailable", failure.getMessage());
+        assertEquals(List.of(record), seen);
+        assertEquals(record, workspace.getById(record.getId()));
+    }
 }
@@ -0,0 +1,139 @@
+package EchoNote.Mihail;
+
+import EchoNote.Jack.Transcript;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkedTranscriberTest {
+
+    private static final int RATE = 16_000;
+
+    @TempDir
+    Path tempDir;
+
+    /** Fake API: one segment per chunk, text is the chunk's length; later chunks answer first. */
+    static class FakeTranscriber extends Transcriber {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger inFlight = new AtomicInteger();
+        volatile int maxInFlight;
+
+        FakeTranscriber() {
+            super("dummy-api-key");
+        }
+
+        @Override
+        public List<TranscriptSegment> transcribeSegments(Path wavFile) {
+            int n = calls.incrementAndGet();
+            int concurrent = inFlight.incrementAndGet();
+            maxInFlight = Math.max(maxInFlight, concurrent);
+            try {
+                double seconds;
+                try (AudioInputStream ais = AudioSystem.getAudioInputStream(wavFile.toFile())) {
+                    seconds = ais.getFrameLength() / ais.getFormat().getFrameRate();
+                }
+                Thread.sleep(Math.max(5, 60 - n * 10L));
+                return List.of(new TranscriptSegment(0.5, seconds - 0.5, String.format("len=%.1f", seconds)));
+            } catch (Exception e) {
+                throw new TranscriptionException("fake failure", e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    /** Tone everywhere except short silent gaps at the given seconds. */
+    private Path writeWav(double totalSeconds, double... silenceAt) {
+        Path wav = tempDir.resolve("meeting.wav");
+        int samples = (int) (totalSeconds * RATE);
+        byte[] pcm = new byte[samples * 2];
+        for (int i = 0; i < samples; i++) {
+            double t = (double) i / RATE;
+            boolean silent = false;
+            for (double s : silenceAt) {
+                if (Math.abs(t - s) < 0.2) {
+                    silent = true;
+                }
+            }
+            int value = silent ? 0 : (int) (0.3 * 32767 * Math.sin(2 * Math.PI * 220 * t));
+            pcm[2 * i] = (byte) value;
+            pcm[2 * i + 1] = (byte) (value >> 8);
+        }
+        try (WavFileWriter writer = new WavFileWriter(wav, CaptureProfile.TRANSCRIPTION.toAudioFormat())) {
+            writer.write(pcm, 0, pcm.length);
+        }
+        return wav;
+    }
+
+    private void assertInGap(double cut, double gapCenter) {
+        assertTrue(Math.abs(cut - gapCenter) <= 0.2, "Cut at " + cut + " should land in the gap around " + gapCenter);
+    }
+
+    @Test
+    void split_cutsOnSilenceNearTargetLength() {
+        Path wav = writeWav(30, 10.6, 19.5);
+        ChunkedTranscriber chunked = new ChunkedTranscriber(new FakeTranscriber(), Duration.ofSeconds(10), 2);
+
+        List<ChunkedTranscriber.Chunk> chunks = chunked.split(wav, tempDir);
+        chunked.close();
+
+        assertEquals(3, chunks.size());
+        assertEquals(0.0, chunks.get(0).offsetSeconds(), 1e-9);
+        assertInGap(chunks.get(1).offsetSeconds(), 10.6);
+        assertInGap(chunks.get(2).offsetSeconds(), 19.5);
+    }
+
+    @Test
+    void transcribe_longFile_runsChunksConcurrentlyAndStitchesInOrder() {
+        Path wav = writeWav(40, 10.6, 19.5, 30.2);
+        FakeTranscriber fake = new FakeTranscriber();
+        ChunkedTranscriber chunked = new ChunkedTranscriber(fake, Duration.ofSeconds(10), 4);
+
+        Transcript transcript = chunked.transcribe(wav);
+        chunked.close();
+
+        assertEquals(4, fake.calls.get());
+        assertTrue(fake.maxInFlight > 1, "Chunks should be transcribed in parallel");
+
+        List<String> timestamps = transcript.getTimestamps();
+        assertEquals(4, timestamps.size());
+        assertEquals(0.5, startSeconds(timestamps.get(0)), 1e-9);
+        assertInGap(startSeconds(timestamps.get(1)) - 0.5, 10.6);
+        assertInGap(startSeconds(timestamps.get(2)) - 0.5, 19.5);
+        assertInGap(startSeconds(timestamps.get(3)) - 0.5, 30.2);
+        assertTrue(transcript.getRawText().startsWith("len=10."), "Chunks must stay in audio order");
+    }
+
+    private double startSeconds(String timestampLine) {
+        String[] hms = timestampLine.substring(1, 13).split(":");
+        return Integer.parseInt(hms[0]) * 3600 + Integer.parseInt(hms[1]) * 60 + Double.parseDouble(hms[2]);
+    }
+
+    @Test
+    void transcribe_shortFile_isSentAsSingleRequest() {
+        Path wav = writeWav(12);
+        FakeTranscriber fake = new FakeTranscriber();
+        ChunkedTranscriber chunked = new ChunkedTranscriber(fake, Duration.ofSeconds(10), 4);
+
+        chunked.transcribe(wav);
+        chunked.close();
+
+        assertEquals(1, fake.calls.get());
+    }
+
+    @Test
+    void transcribe_missingFile_throwsIllegalArgumentException() {
+        ChunkedTranscriber chunked = new ChunkedTranscriber(new FakeTranscriber());
+
+        assertThrows(IllegalArgumentException.class, () -> chunked.transcribe(tempDir.resolve("missing.wav")));
+        chunked.close();
+    }
+}
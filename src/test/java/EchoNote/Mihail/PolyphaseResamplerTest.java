@@ -0,0 +1,91 @@
+package EchoNote.Mihail;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PolyphaseResamplerTest {
+
+    private byte[] sine(double frequency, int sampleRate, int samples, double amplitude) {
+        byte[] pcm = new byte[samples * 2];
+        for (int i = 0; i < samples; i++) {
+            int value = (int) Math.round(amplitude * 32767 * Math.sin(2 * Math.PI * frequency * i / sampleRate));
+            pcm[2 * i] = (byte) value;
+            pcm[2 * i + 1] = (byte) (value >> 8);
+        }
+        return pcm;
+    }
+
+    private double rms(byte[] pcm, int length, int skipSamples) {
+        double sum = 0;
+        int count = 0;
+        for (int i = skipSamples * 2; i + 1 < length; i += 2) {
+            int sample = (short) ((pcm[i] & 0xFF) | (pcm[i + 1] << 8));
+            sum += (double) sample * sample;
+            count++;
+        }
+        return Math.sqrt(sum / count) / 32768.0;
+    }
+
+    private byte[] resampleInChunks(PolyphaseResampler resampler, byte[] input, int chunkBytes, int[] lengthOut) {
+        byte[] output = new byte[resampler.maxOutputBytes(input.length) + chunkBytes];
+        byte[] chunk = new byte[chunkBytes];
+        byte[] scratch = new byte[resampler.maxOutputBytes(chunkBytes)];
+        int written = 0;
+        for (int offset = 0; offset < input.length; offset += chunkBytes) {
+            int n = Math.min(chunkBytes, input.length - offset);
+            System.arraycopy(input, offset, chunk, 0, n);
+            int produced = resampler.process(chunk, n, scratch);
+            System.arraycopy(scratch, 0, output, written, produced);
+            written += produced;
+        }
+        lengthOut[0] = written;
+        return output;
+    }
+
+    @Test
+    void downsample44kTo16k_producesExpectedSampleCount() {
+        PolyphaseResampler resampler = new PolyphaseResampler(44_100, 16_000);
+        byte[] oneSecond = sine(440, 44_100, 44_100, 0.5);
+
+        int[] length = new int[1];
+        resampleInChunks(resampler, oneSecond, 4096, length);
+
+        assertEquals(16_000, length[0] / 2, 1, "One second at 44.1 kHz should become one second at 16 kHz");
+    }
+
+    @Test
+    void passbandTone_keepsItsLevel() {
+        PolyphaseResampler resampler = new PolyphaseResampler(44_100, 16_000);
+        byte[] tone = sine(1_000, 44_100, 44_100, 0.5);
+
+        int[] length = new int[1];
+        byte[] out = resampleInChunks(resampler, tone, 4096, length);
+
+        double expected = 0.5 / Math.sqrt(2);
+        assertEquals(expected, rms(out, length[0], 500), 0.02, "A 1 kHz tone should pass through unattenuated");
+    }
+
+    @Test
+    void toneAboveOutputNyquist_isFilteredOut() {
+        PolyphaseResampler resampler = new PolyphaseResampler(44_100, 16_000);
+        byte[] tone = sine(12_000, 44_100, 44_100, 0.5);
+
+        int[] length = new int[1];
+        byte[] out = resampleInChunks(resampler, tone, 4096, length);
+
+        assertTrue(rms(out, length[0], 500) < 0.01, "A 12 kHz tone must not alias into the 16 kHz output");
+    }
+
+    @Test
+    void constructor_nonPositiveRate_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new PolyphaseResampler(0, 16_000));
+    }
+
+    @Test
+    void transcriptionProfile_is16kHzMono() {
+        assertEquals(16_000f, CaptureProfile.TRANSCRIPTION.toAudioFormat().getSampleRate());
+        assertEquals(1, CaptureProfile.TRANSCRIPTION.toAudioFormat().getChannels());
+        assertEquals(CaptureProfile.TRANSCRIPTION, new Recorder().getProfile());
+    }
+}
@@ -0,0 +1,134 @@
+package EchoNote.Mihail;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordingJournalTest {
+
+    // 100 frames per second keeps segment rotation cheap to exercise.
+    private static final AudioFormat FORMAT = new AudioFormat(100f, 16, 1, true, false);
+
+    @TempDir
+    Path tempDir;
+
+    private byte[] pcm(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i % 251);
+        }
+        return data;
+    }
+
+    @Test
+    void complete_assemblesSegmentsIntoWavAndRemovesJournal() throws Exception {
+        Path target = tempDir.resolve("meeting.wav");
+        byte[] data = pcm(500);
+
+        RecordingJournal journal = new RecordingJournal(target, FORMAT, 0, 1);
+        journal.append(data, 0, data.length);
+        journal.complete();
+
+        assertFalse(Files.exists(RecordingJournal.journalFor(target)));
+        assertFalse(Files.exists(RecordingJournal.segmentPath(target, 1)));
+
+        try (AudioInputStream ais = AudioSystem.getAudioInputStream(target.toFile())) {
+            assertArrayEquals(data, ais.readAllBytes(), "PCM should survive segment rotation in order");
+        }
+    }
+
+    @Test
+    void recover_rebuildsWavFromOrphanedSegments() throws Exception {
+        Path target = tempDir.resolve("crashed.wav");
+        byte[] data = pcm(450);
+
+        // Simulates a JVM crash: segments are written but complete() is never called.
+        RecordingJournal journal = new RecordingJournal(target, FORMAT, 0, 1);
+        journal.append(data, 0, data.length);
+        journal.close();
+        assertFalse(Files.exists(target));
+
+        List<Path> recovered = RecordingJournal.recover(tempDir);
+
+        assertEquals(List.of(target), recovered);
+        assertFalse(Files.exists(RecordingJournal.journalFor(target)));
+        try (AudioInputStream ais = AudioSystem.getAudioInputStream(target.toFile())) {
+            assertArrayEquals(data, ais.readAllBytes());
+        }
+    }
+
+    @Test
+    void recover_dropsTornPartialFrame() throws Exception {
+        Path target = tempDir.resolve("torn.wav");
+        byte[] data = pcm(101);
+
+        RecordingJournal journal = new RecordingJournal(target, FORMAT, 0, 60);
+        journal.append(data, 0, data.length);
+        journal.close();
+
+        RecordingJournal.recover(tempDir);
+
+        try (AudioInputStream ais = AudioSystem.getAudioInputStream(target.toFile())) {
+            assertEquals(50, ais.getFrameLength(), "Trailing half frame should be discarded");
+        }
+    }
+
+    @Test
+    void recover_unreadableJournal_recoversTheRestAndReportsTheFailure() throws Exception {
+        Path good = tempDir.resolve("good.wav");
+        RecordingJournal journal = new RecordingJournal(good, FORMAT, 0, 60);
+        journal.append(pcm(200), 0, 200);
+        journal.close();
+        Path bad = tempDir.resolve("bad.wav");
+        Files.writeString(RecordingJournal.journalFor(bad), "format 100 sixteen 1\n");
+
+        RecordingRecoveryException failure = assertThrows(RecordingRecoveryException.class,
+                () -> RecordingJournal.recover(tempDir));
+
+        assertEquals(List.of(good), failure.getRecovered());
+        assertTrue(Files.exists(good));
+        assertEquals(1, failure.getSuppressed().length);
+        assertTrue(failure.getSuppressed()[0].getMessage().contains("bad.wav"));
+    }
+
+    @Test
+    void recover_journalWithoutFormat_keepsTheSegmentsAndReportsTheFailure() throws Exception {
+        Path target = tempDir.resolve("no-format.wav");
+        Path segment = RecordingJournal.segmentPath(target, 1);
+        Files.write(segment, pcm(200));
+        Files.writeString(RecordingJournal.journalFor(target), "segment " + segment.getFileName() + "\n");
+
+        RecordingRecoveryException failure = assertThrows(RecordingRecoveryException.class,
+                () -> RecordingJournal.recover(tempDir));
+
+        assertTrue(failure.getRecovered().isEmpty());
+        assertEquals(1, failure.getSuppressed().length);
+        assertTrue(Files.exists(RecordingJournal.journalFor(target)));
+        assertEquals(200, Files.size(segment), "Audio must not be deleted when it cannot be assembled");
+        assertFalse(Files.exists(target));
+    }
+
+    @Test
+    void close_withoutAnyAudio_deletesTheJournal() {
+        Path target = tempDir.resolve("never-started.wav");
+
+        new RecordingJournal(target, FORMAT, 0, 60).close();
+
+        assertFalse(Files.exists(RecordingJournal.journalFor(target)));
+        assertFalse(Files.exists(RecordingJournal.segmentPath(target, 1)));
+        assertTrue(RecordingJournal.recover(tempDir).isEmpty());
+    }
+
+    @Test
+    void recover_missingDirectory_returnsEmptyList() {
+        assertTrue(RecordingJournal.recover(tempDir.resolve("nope")).isEmpty());
+    }
+}
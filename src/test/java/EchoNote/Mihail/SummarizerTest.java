@@ -1,10 +1,21 @@
 package EchoNote.Mihail;
 
+import EchoNote.Jack.ActionItem;
+import EchoNote.Jack.ActionStatus;
+import EchoNote.Jack.Participant;
 import EchoNote.Jack.Transcript;
 import EchoNote.Jack.TranscriptSource;
+import EchoNote.Jack.Summary;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -72,4 +83,165 @@ public class SummarizerTest {
 
         assertEquals("transcript raw text cannot be blank", ex.getMessage());
     }
+
+    @Test
+    void summarizeAsync_nullTranscript_failsFastWithIllegalArgumentException() {
+        Summarizer summarizer = new Summarizer("dummy-api-key");
+
+        assertThrows(IllegalArgumentException.class, () -> summarizer.summarizeAsync(null));
+        assertThrows(IllegalArgumentException.class, () -> summarizer.extractActionsAsync(createBlankTranscript()));
+    }
+
+    @Test
+    void summarizeWithActions_blankTranscript_throwsIllegalArgumentException() {
+        Summarizer summarizer = new Summarizer("dummy-api-key");
+
+        IllegalArgumentException ex = assertThrows(
+                IllegalArgumentException.class,
+                () -> summarizer.summarizeWithActions(createBlankTranscript())
+        );
+
+        assertEquals("transcript raw text cannot be blank", ex.getMessage());
+    }
+
+    @Test
+    void parseAnalysis_combinedResponse_buildsSummaryAndActions() throws Exception {
+        String json = """
+                {"summary": {"topics": ["Budget"], "decisions": ["Approve Q3 plan"], "notes": "Short call"},
+                 "actions": [
+                   {"title": "Send deck", "owner": "Priya", "dueDate": "2025-03-14"},
+                   {"title": "", "owner": "Nobody"},
+                   {"title": "Book room", "owner": "Sam", "dueDate": null}
+                 ]}
+                """;
+
+        MeetingAnalysis analysis = Summarizer.parseAnalysis(new ObjectMapper().readTree(json));
+
+        assertEquals(List.of("Budget"), analysis.summary().getTopics());
+        assertEquals(List.of("Approve Q3 plan"), analysis.summary().getDecisions());
+        assertEquals("Short call", analysis.summary().getNotes());
+        assertEquals(2, analysis.actions().size(), "Blank action titles should be skipped");
+        assertEquals("Priya", analysis.actions().get(0).getOwner().getName());
+        assertEquals(LocalDate.of(2025, 3, 14), analysis.actions().get(0).getDueDate());
+        assertNull(analysis.actions().get(1).getDueDate());
+    }
+
+    @Test
+    void parseAnalysis_missingSummary_throwsSummarizationException() throws Exception {
+        assertThrows(SummarizationException.class,
+                () -> Summarizer.parseAnalysis(new ObjectMapper().readTree("{\"actions\": []}")));
+    }
+
+    /** Answers each window with its first word as a topic plus a shared decision; no network. */
+    static class FakeSummarizer extends Summarizer {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger inFlight = new AtomicInteger();
+        volatile int maxInFlight;
+
+        FakeSummarizer(int maxPromptTokens) {
+            super("dummy-api-key", 4, maxPromptTokens);
+        }
+
+        @Override
+        JsonNode callChatApiForJson(String prompt) {
+            calls.incrementAndGet();
+            maxInFlight = Math.max(maxInFlight, inFlight.incrementAndGet());
+            try {
+                Thread.sleep(20);
+                String window = prompt.substring(prompt.indexOf("Transcript:") + "Transcript:".length()).trim();
+                String firstWord = window.split("\\s+")[0];
+                String summary = "{\"topics\": [\"Topic " + firstWord + "\"], "
+                        + "\"decisions\": [\"Ship the release on Friday\"], \"notes\": \"\"}";
+                if (prompt.contains("\"actions\"")) {
+                    return new ObjectMapper().readTree("{\"summary\": " + summary + ", \"actions\": "
+                            + "[{\"title\": \"Write release notes\", \"owner\": \"Sam\", \"dueDate\": null}]}");
+                }
+                return new ObjectMapper().readTree(summary);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SummarizationException("interrupted", e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private Transcript longTranscript(int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            sb.append("w").append(i).append(i % 10 == 9 ? ". " : " ");
+        }
+        return new Transcript("t2", sb.toString().trim(), Collections.emptyList(), TranscriptSource.LIVE);
+    }
+
+    @Test
+    void summarize_shortTranscript_usesSingleRequest() {
+        FakeSummarizer summarizer = new FakeSummarizer(1000);
+
+        Summary summary = summarizer.summarize(longTranscript(20));
+
+        assertEquals(1, summarizer.calls.get());
+        assertEquals(List.of("Topic w0"), summary.getTopics());
+    }
+
+    @Test
+    void summarize_longTranscript_mapsWindowsInParallelAndReducesInOrder() {
+        FakeSummarizer summarizer = new FakeSummarizer(100);
+
+        Summary summary = summarizer.summarize(longTranscript(1000));
+
+        assertTrue(summarizer.calls.get() > 4, "Transcript should be split into several windows");
+        assertTrue(summarizer.maxInFlight > 1, "Windows should be summarized in parallel");
+        assertEquals(summarizer.calls.get(), summary.getTopics().size());
+        assertEquals("Topic w0", summary.getTopics().get(0));
+        assertEquals(List.of("Ship the release on Friday"), summary.getDecisions(),
+                "Identical decisions from every window should collapse to one bullet");
+    }
+
+    @Test
+    void summarizeWithActions_longTranscript_deduplicatesActions() {
+        FakeSummarizer summarizer = new FakeSummarizer(100);
+
+        MeetingAnalysis analysis = summarizer.summarizeWithActions(longTranscript(1000));
+
+        assertTrue(summarizer.calls.get() > 1);
+        assertEquals(1, analysis.actions().size());
+        assertEquals("Write release notes", analysis.actions().get(0).getTitle());
+    }
+
+    @Test
+    void reduceActions_sameTitleDifferentOwners_keepsBoth() {
+        ActionItem priya = new ActionItem("Write release notes", new Participant("Priya", null, null), null, ActionStatus.OPEN);
+        ActionItem sam = new ActionItem("Write release notes", new Participant("Sam", null, null), null, ActionStatus.OPEN);
+        ActionItem priyaAgain = new ActionItem("write release notes", new Participant("PRIYA", null, null),
+                LocalDate.of(2025, 3, 7), ActionStatus.OPEN);
+        ActionItem unassigned = new ActionItem("Write release notes", new Participant("Unassigned", null, null), null, ActionStatus.OPEN);
+
+        List<ActionItem> merged = Summarizer.reduceActions(List.of(List.of(priya, sam), List.of(priyaAgain, unassigned)));
+
+        assertEquals(List.of(priya, sam), merged);
+        assertEquals(LocalDate.of(2025, 3, 7), priya.getDueDate(), "A repeat for the same owner fills in the due date");
+    }
+
+    @Test
+    void reduceActions_unassignedAction_takesTheOwnerOfItsRepeat() {
+        ActionItem unassigned = new ActionItem("Book the venue", new Participant("Unassigned", null, null), null, ActionStatus.OPEN);
+        ActionItem owned = new ActionItem("Book the venue", new Participant("Lena", null, null), null, ActionStatus.OPEN);
+
+        List<ActionItem> merged = Summarizer.reduceActions(List.of(List.of(unassigned), List.of(owned)));
+
+        assertEquals(1, merged.size());
+        assertEquals("Lena", merged.get(0).getOwner().getName());
+    }
+
+    @Test
+    void summarizeAsync_longTranscript_completesWithReducedSummary() {
+        FakeSummarizer summarizer = new FakeSummarizer(100);
+
+        Summary summary = summarizer.summarizeAsync(longTranscript(1000)).join();
+
+        assertEquals("Topic w0", summary.getTopics().get(0));
+    }
 }
@@ -11,6 +11,14 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -131,6 +139,125 @@ public class TranscriberProxyTest {
             assertEquals(1, stats.apiCalls());
             assertEquals(2.0 / 3.0, stats.cacheHitRate(), 0.01);
         }
+
+        @Test
+        @DisplayName("Stats report eviction count and cache weight")
+        void stats_reportEvictionsAndWeight() throws IOException {
+            Path anotherFile = tempDir.resolve("another-audio.wav");
+            Files.writeString(anotherFile, "different content");
+            TranscriberProxy bounded = new TranscriberProxy(mockTranscriber, false, null, new TranscriptCache(30));
+
+            bounded.transcribe(testAudioFile);
+            bounded.transcribe(anotherFile);
+
+            TranscriberProxy.ProxyStats stats = bounded.getStats();
+            assertEquals(1, stats.evictions(), "Two 18-character transcripts exceed a 30-character bound");
+            assertEquals(18, stats.weightedSize());
+            assertEquals(30, stats.maxWeight());
+            assertEquals(1, bounded.getCacheSize());
+        }
     }
-}
 
+    @Nested
+    @DisplayName("Content Key and Persistence Tests")
+    class PersistenceTests {
+
+        @Test
+        @DisplayName("Renamed copy of the same recording hits the cache")
+        void copiedFile_sameContent_hitsCache() throws IOException {
+            proxy.transcribe(testAudioFile);
+
+            Path renamed = tempDir.resolve("Weekly_Sync.wav");
+            Files.copy(testAudioFile, renamed);
+            Transcript second = proxy.transcribe(renamed);
+
+            assertEquals(1, mockTranscriber.callCount, "Same bytes under a new name should not call the API");
+            assertEquals("Mock transcription", second.getRawText());
+        }
+
+        @Test
+        @DisplayName("Disk store serves transcripts to a fresh proxy instance")
+        void diskStore_survivesRestart() {
+            Path cacheDir = tempDir.resolve("cache");
+            new TranscriberProxy(mockTranscriber, false, new TranscriptCacheStore(cacheDir, 1_000_000))
+                    .transcribe(testAudioFile);
+
+            MockTranscriptionService afterRestart = new MockTranscriptionService();
+            TranscriberProxy restarted =
+                    new TranscriberProxy(afterRestart, false, new TranscriptCacheStore(cacheDir, 1_000_000));
+            Transcript result = restarted.transcribe(testAudioFile);
+
+            assertEquals(0, afterRestart.callCount, "Stored transcript should be reused across sessions");
+            assertEquals("Mock transcription", result.getRawText());
+            assertEquals(1, restarted.getStats().cacheHits());
+        }
+
+        @Test
+        @DisplayName("Content hash is stable and distinguishes different bytes")
+        void contentHash_dependsOnlyOnBytes() throws IOException {
+            Path same = tempDir.resolve("same.wav");
+            Path other = tempDir.resolve("other.wav");
+            Files.writeString(same, "fake audio content");
+            Files.writeString(other, "fake audio contenT");
+
+            assertEquals(TranscriberProxy.contentHash(testAudioFile), TranscriberProxy.contentHash(same));
+            assertNotEquals(TranscriberProxy.contentHash(testAudioFile), TranscriberProxy.contentHash(other));
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrency Tests")
+    class ConcurrencyTests {
+
+        @Test
+        @DisplayName("Concurrent requests for the same file share one API call")
+        void concurrentRequests_coalesceIntoSingleCall() throws Exception {
+            AtomicInteger calls = new AtomicInteger();
+            CountDownLatch release = new CountDownLatch(1);
+            TranscriptionService slow = audioFile -> {
+                calls.incrementAndGet();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new Transcript("Slow transcription", TranscriptSource.LIVE);
+            };
+            TranscriberProxy coalescing = new TranscriberProxy(slow, false);
+
+            int threads = 8;
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<Transcript>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> coalescing.transcribe(testAudioFile)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            Transcript first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Transcript> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            pool.shutdown();
+
+            assertEquals(1, calls.get(), "Only one request should reach the real transcriber");
+            TranscriberProxy.ProxyStats stats = coalescing.getStats();
+            assertEquals(threads, stats.totalRequests());
+            assertEquals(1, stats.apiCalls());
+            assertEquals(threads - 1, stats.cacheHits());
+        }
+
+        @Test
+        @DisplayName("Failure is propagated to every waiting caller and not cached")
+        void failure_propagatesAndIsNotCached() {
+            TranscriptionService failing = audioFile -> {
+                throw new TranscriptionException("API down");
+            };
+            TranscriberProxy failingProxy = new TranscriberProxy(failing, false);
+
+            assertThrows(TranscriptionException.class, () -> failingProxy.transcribe(testAudioFile));
+            assertThrows(TranscriptionException.class, () -> failingProxy.transcribe(testAudioFile));
+            assertEquals(2, failingProxy.getStats().apiCalls(), "Failures must not be cached");
+        }
+    }
+}
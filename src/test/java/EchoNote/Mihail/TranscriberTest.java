@@ -1,8 +1,11 @@
 package EchoNote.Mihail;
 
+import EchoNote.Jack.Transcript;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 
 import java.nio.file.Path;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -41,4 +44,33 @@ public class TranscriberTest {
                 "Exception message should include the offending path"
         );
     }
+
+    @Test
+    void parseSegments_verboseJson_buildsTimedTranscript() throws Exception {
+        String json = """
+                {"text": "Hello team. Budget is approved.",
+                 "segments": [
+                   {"start": 0.0, "end": 1.5, "text": " Hello team."},
+                   {"start": 61.25, "end": 63.0, "text": " Budget is approved."}
+                 ]}
+                """;
+
+        List<TranscriptSegment> segments = Transcriber.parseSegments(new ObjectMapper().readTree(json));
+        Transcript transcript = Transcriber.toTranscript(segments);
+
+        assertEquals("Hello team. Budget is approved.", transcript.getRawText());
+        assertEquals(List.of(
+                "[00:00:00.000 - 00:00:01.500] Hello team.",
+                "[00:01:01.250 - 00:01:03.000] Budget is approved."
+        ), transcript.getTimestamps());
+    }
+
+    @Test
+    void parseSegments_textOnlyResponse_fallsBackToSingleSegment() throws Exception {
+        List<TranscriptSegment> segments =
+                Transcriber.parseSegments(new ObjectMapper().readTree("{\"text\": \"Just text\"}"));
+
+        assertEquals(1, segments.size());
+        assertEquals("Just text", segments.get(0).text());
+    }
 }
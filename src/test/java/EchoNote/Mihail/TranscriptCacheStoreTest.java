@@ -0,0 +1,65 @@
+package EchoNote.Mihail;
+
+import EchoNote.Jack.Transcript;
+import EchoNote.Jack.TranscriptSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranscriptCacheStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Transcript transcript(String text) {
+        return new Transcript("id-" + text.length(), text, List.of("[00:00:00.000 - 00:00:01.000] " + text),
+                TranscriptSource.LIVE);
+    }
+
+    @Test
+    void putThenGet_roundTripsAllFields() {
+        TranscriptCacheStore store = new TranscriptCacheStore(tempDir, 1_000_000);
+        Transcript original = transcript("Budget review");
+
+        store.put("abc123", original);
+        Transcript loaded = store.get("abc123");
+
+        assertEquals(original.getId(), loaded.getId());
+        assertEquals(original.getRawText(), loaded.getRawText());
+        assertEquals(original.getTimestamps(), loaded.getTimestamps());
+        assertEquals(TranscriptSource.LIVE, loaded.getSource());
+    }
+
+    @Test
+    void get_unknownKey_returnsNull() {
+        assertNull(new TranscriptCacheStore(tempDir, 1_000_000).get("missing"));
+    }
+
+    @Test
+    void put_overBudget_evictsLeastRecentlyUsedFirst() throws Exception {
+        TranscriptCacheStore store = new TranscriptCacheStore(tempDir, 600);
+        String text = "x".repeat(200);
+
+        store.put("old", transcript(text));
+        Files.setLastModifiedTime(tempDir.resolve("old.json"), FileTime.fromMillis(1_000));
+        store.put("recent", transcript(text));
+        store.put("newest", transcript(text));
+
+        assertNull(store.get("old"), "Least recently used entry should be evicted");
+        assertNotNull(store.get("newest"));
+        assertTrue(store.getTotalBytes() <= 600);
+    }
+
+    @Test
+    void get_invalidKey_throwsIllegalArgumentException() {
+        TranscriptCacheStore store = new TranscriptCacheStore(tempDir, 1_000);
+
+        assertThrows(IllegalArgumentException.class, () -> store.get("../escape"));
+    }
+}
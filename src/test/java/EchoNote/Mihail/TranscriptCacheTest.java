@@ -0,0 +1,70 @@
+package EchoNote.Mihail;
+
+import EchoNote.Jack.Transcript;
+import EchoNote.Jack.TranscriptSource;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranscriptCacheTest {
+
+    private Transcript transcriptOfLength(int characters) {
+        return new Transcript("x".repeat(characters), TranscriptSource.LIVE);
+    }
+
+    @Test
+    void put_overWeightBound_evictsLeastRecentlyUsed() {
+        TranscriptCache cache = new TranscriptCache(250);
+
+        cache.put("a", transcriptOfLength(100));
+        cache.put("b", transcriptOfLength(100));
+        cache.get("a");
+        cache.put("c", transcriptOfLength(100));
+
+        assertNotNull(cache.get("a"), "Recently read entry should survive");
+        assertNull(cache.get("b"), "Least recently used entry should be evicted");
+        assertNotNull(cache.get("c"));
+        assertEquals(200, cache.getWeightedSize());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void put_entryLargerThanBound_isNotAdmitted() {
+        TranscriptCache cache = new TranscriptCache(100);
+        cache.put("small", transcriptOfLength(50));
+
+        cache.put("huge", transcriptOfLength(500));
+
+        assertNull(cache.get("huge"));
+        assertNotNull(cache.get("small"), "An oversized entry must not flush the rest of the cache");
+    }
+
+    @Test
+    void put_sameKey_replacesWeight() {
+        TranscriptCache cache = new TranscriptCache(1_000);
+
+        cache.put("a", transcriptOfLength(100));
+        cache.put("a", transcriptOfLength(300));
+
+        assertEquals(1, cache.size());
+        assertEquals(300, cache.getWeightedSize());
+    }
+
+    @Test
+    void get_afterTtl_expiresEntry() {
+        AtomicLong now = new AtomicLong(0);
+        TranscriptCache cache = new TranscriptCache(1_000, Duration.ofMinutes(10), now::get);
+        cache.put("a", transcriptOfLength(100));
+
+        now.set(Duration.ofMinutes(9).toMillis());
+        assertNotNull(cache.get("a"));
+
+        now.set(Duration.ofMinutes(10).toMillis());
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getWeightedSize());
+        assertEquals(1, cache.getExpirationCount());
+    }
+}
@@ -0,0 +1,72 @@
+package EchoNote.Mihail;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranscriptWindowerTest {
+
+    private String sentences(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append("Sentence number ").append(i).append(" talks about the budget. ");
+        }
+        return sb.toString().trim();
+    }
+
+    @Test
+    void split_shortText_returnsSingleWindow() {
+        List<String> windows = TranscriptWindower.split("Just one short sentence.", 100, 10);
+
+        assertEquals(List.of("Just one short sentence."), windows);
+    }
+
+    @Test
+    void split_longText_respectsBudgetAndOverlaps() {
+        String text = sentences(200);
+
+        List<String> windows = TranscriptWindower.split(text, 200, 20);
+
+        assertTrue(windows.size() > 1);
+        for (String window : windows) {
+            assertTrue(TranscriptWindower.estimateTokens(window) <= 200, "Window exceeds budget: " + window.length());
+            assertTrue(window.endsWith(".") || window == windows.get(windows.size() - 1),
+                    "Windows should end on a sentence boundary");
+        }
+        for (int i = 1; i < windows.size(); i++) {
+            String previous = windows.get(i - 1);
+            String firstWords = windows.get(i).substring(0, 20);
+            assertTrue(previous.contains(firstWords), "Window " + i + " should overlap the previous one");
+        }
+        assertTrue(windows.get(windows.size() - 1).endsWith("Sentence number 199 talks about the budget."));
+    }
+
+    @Test
+    void split_invalidBudget_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> TranscriptWindower.split("text", 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> TranscriptWindower.split("text", 0, 0));
+    }
+
+    @Test
+    void mergeBullets_dropsNearDuplicatesAcrossWindows() {
+        List<String> merged = TranscriptWindower.mergeBullets(List.of(
+                List.of("Reviewed the Q3 marketing budget", "Hiring plan for the new team"),
+                List.of("Reviewed the Q3 marketing budget.", "Launch date moved to March"),
+                List.of("hiring plan for the new team", "")
+        ));
+
+        assertEquals(List.of(
+                "Reviewed the Q3 marketing budget",
+                "Hiring plan for the new team",
+                "Launch date moved to March"
+        ), merged);
+    }
+
+    @Test
+    void isNearDuplicate_distinctBulletsAreKept() {
+        assertFalse(TranscriptWindower.isNearDuplicate("Approve the budget", "Reject the hiring plan"));
+        assertTrue(TranscriptWindower.isNearDuplicate("Send the slides to Anna", "send the slides to anna!"));
+    }
+}
@@ -0,0 +1,98 @@
+package EchoNote.Mihail;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VoiceActivityDetectorTest {
+
+    private static final int RATE = 16_000;
+    private static final AudioFormat FORMAT = CaptureProfile.TRANSCRIPTION.toAudioFormat();
+
+    @TempDir
+    Path tempDir;
+
+    /** Writes alternating silence/tone sections; positive seconds are tone, negative are silence. */
+    private Path writeWav(String name, double... sections) {
+        Path wav = tempDir.resolve(name);
+        try (WavFileWriter writer = new WavFileWriter(wav, FORMAT)) {
+            for (double section : sections) {
+                int samples = (int) (Math.abs(section) * RATE);
+                byte[] pcm = new byte[samples * 2];
+                if (section > 0) {
+                    for (int i = 0; i < samples; i++) {
+                        int value = (int) (0.3 * 32767 * Math.sin(2 * Math.PI * 220 * i / RATE));
+                        pcm[2 * i] = (byte) value;
+                        pcm[2 * i + 1] = (byte) (value >> 8);
+                    }
+                }
+                writer.write(pcm, 0, pcm.length);
+            }
+        }
+        return wav;
+    }
+
+    private double durationSeconds(Path wav) throws Exception {
+        try (AudioInputStream ais = AudioSystem.getAudioInputStream(wav.toFile())) {
+            return ais.getFrameLength() / ais.getFormat().getFrameRate();
+        }
+    }
+
+    @Test
+    void trim_removesLongSilencesAndKeepsSpeech() throws Exception {
+        Path input = writeWav("in.wav", -3, 2, -4, 2, -3);
+        Path output = tempDir.resolve("out.wav");
+
+        OffsetMap offsets = new VoiceActivityDetector().trim(input, output);
+
+        assertEquals(2, offsets.getSpans().size(), "Each tone burst should become one kept span");
+        double kept = durationSeconds(output);
+        assertTrue(kept > 4.0 && kept < 5.5, "Expected about 4s of speech plus padding, got " + kept);
+        assertEquals(kept, offsets.getKeptSeconds(), 0.05);
+    }
+
+    @Test
+    void offsetMap_mapsCompactedTimeBackToOriginal() {
+        Path input = writeWav("in.wav", -3, 2, -4, 2, -3);
+
+        OffsetMap offsets = new VoiceActivityDetector().trim(input, tempDir.resolve("out.wav"));
+
+        OffsetMap.Span second = offsets.getSpans().get(1);
+        double midSecondBurst = second.compactedStart() + second.length() / 2;
+        assertEquals(10.0, offsets.toOriginalSeconds(midSecondBurst), 0.1,
+                "Middle of the second burst is at 10s in the original recording");
+        assertEquals(3.0, offsets.toOriginalSeconds(0.3), 0.1,
+                "Speech padding starts 300ms before the first burst at 3s");
+    }
+
+    @Test
+    void trim_shortPausesAreNotCut() {
+        Path input = writeWav("in.wav", 1, -0.5, 1);
+
+        OffsetMap offsets = new VoiceActivityDetector().trim(input, tempDir.resolve("out.wav"));
+
+        assertEquals(1, offsets.getSpans().size(), "A half-second pause should stay inside one span");
+    }
+
+    @Test
+    void trim_allSilence_producesEmptyMap() {
+        Path input = writeWav("silent.wav", -2);
+
+        OffsetMap offsets = new VoiceActivityDetector().trim(input, tempDir.resolve("out.wav"));
+
+        assertTrue(offsets.isEmpty());
+    }
+
+    @Test
+    void zeroCrossingRate_alternatingSamples_isOne() {
+        byte[] pcm = {100, 0, -100, -1, 100, 0, -100, -1};
+
+        assertEquals(1.0, VoiceActivityDetector.zeroCrossingRate(pcm, pcm.length), 1e-9);
+    }
+}
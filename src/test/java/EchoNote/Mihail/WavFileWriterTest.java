@@ -0,0 +1,73 @@
+package EchoNote.Mihail;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WavFileWriterTest {
+
+    private static final AudioFormat FORMAT = new AudioFormat(16_000f, 16, 1, true, false);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void close_patchesHeaderSoWavIsReadable() throws Exception {
+        Path wav = tempDir.resolve("out.wav");
+        byte[] chunk = new byte[1000];
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = (byte) i;
+        }
+
+        try (WavFileWriter writer = new WavFileWriter(wav, FORMAT)) {
+            writer.write(chunk, 0, chunk.length);
+            writer.write(chunk, 0, 500);
+        }
+
+        assertEquals(WavFileWriter.HEADER_SIZE + 1500, Files.size(wav));
+
+        try (AudioInputStream ais = AudioSystem.getAudioInputStream(wav.toFile())) {
+            assertEquals(750, ais.getFrameLength(), "Header should report 1500 bytes of 16-bit mono frames");
+            assertEquals(16_000f, ais.getFormat().getSampleRate());
+
+            byte[] read = ais.readAllBytes();
+            assertEquals(1500, read.length);
+            assertEquals(chunk[999], read[999]);
+            assertEquals(chunk[10], read[1010]);
+        }
+    }
+
+    @Test
+    void emptyRecording_producesValidEmptyWav() throws Exception {
+        Path wav = tempDir.resolve("empty.wav");
+
+        new WavFileWriter(wav, FORMAT).close();
+
+        try (AudioInputStream ais = AudioSystem.getAudioInputStream(wav.toFile())) {
+            assertEquals(0, ais.getFrameLength());
+        }
+    }
+
+    @Test
+    void write_afterClose_throwsIllegalStateException() {
+        WavFileWriter writer = new WavFileWriter(tempDir.resolve("closed.wav"), FORMAT);
+        writer.close();
+
+        assertThrows(IllegalStateException.class, () -> writer.write(new byte[4], 0, 4));
+    }
+
+    @Test
+    void constructor_bigEndianFormat_throwsIllegalArgumentException() {
+        AudioFormat bigEndian = new AudioFormat(16_000f, 16, 1, true, true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new WavFileWriter(tempDir.resolve("bad.wav"), bigEndian));
+    }
+}